@@ -0,0 +1,99 @@
+/*
+ * Benchmarks JMH de BaseDAO : liaison des paramètres et mapping des lignes
+ */
+package dao;
+
+import config.ConnectionPool;
+import models.Etudiant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BaseDAOBenchmark {
+    private static final String SELECT_PAGE = "SELECT * FROM ETUDIANT ORDER BY id_etudiant LIMIT ?";
+
+    @Param({"100", "1000"})
+    int nbLignes;
+
+    private EtudiantDAO etudiantDAO;
+    private Connection connexion;
+    private PreparedStatement insertion;
+    private Object[] parametres;
+
+    @Setup
+    public void setup() throws SQLException {
+        H2Benchmark.initialiser(5000, 1, 1);
+        etudiantDAO = new EtudiantDAO();
+
+        connexion = ConnectionPool.getInstance().getConnection();
+        insertion = connexion.prepareStatement("INSERT INTO ETUDIANT (nom, prenom, origine_scolaire, " +
+            "date_naissance, email, telephone, adresse, date_inscription) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        parametres = new Object[] {
+            "Benali", "Amine", "CPGE", LocalDate.of(2002, 3, 14),
+            "amine.benali@univ-tiaret.dz", null, "Tiaret", LocalDate.of(2023, 9, 1)
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        insertion.close();
+        connexion.close();
+    }
+
+    /**
+     * Coût de setParameters seul (8 paramètres de types mixtes), sans aller-retour base
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public PreparedStatement setParameters() throws SQLException {
+        etudiantDAO.setParameters(insertion, parametres);
+        return insertion;
+    }
+
+    /**
+     * Requête + mapping complet vers une liste (executeQuery)
+     */
+    @Benchmark
+    public List<Etudiant> executeQueryMapEtudiant() throws SQLException {
+        return etudiantDAO.executeQuery(SELECT_PAGE, etudiantDAO.mapperEtudiant(), nbLignes);
+    }
+
+    /**
+     * Même requête lue en flux, sans liste intermédiaire (forEachRow)
+     */
+    @Benchmark
+    public long forEachRowMapEtudiant(Blackhole bh) throws SQLException {
+        return etudiantDAO.forEachRow(SELECT_PAGE, etudiantDAO.mapperEtudiant(), bh::consume, nbLignes);
+    }
+
+    /**
+     * Pagination par clé utilisée par les tables paginées de l'interface
+     */
+    @Benchmark
+    public List<Etudiant> findPageAfter() throws SQLException {
+        return etudiantDAO.findPageAfter(null, nbLignes);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Base H2 en mémoire partagée par les benchmarks JMH
+ * Le pool de connexions de l'application est redirigé vers H2 (mode MySQL)
+ */
+package dao;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Crée le sous-ensemble du schéma utilisé par les benchmarks (ETUDIANT, EPREUVE, NOTE_EPREUVE)
+ * et le remplit avec des données déterministes. Doit être appelé avant le premier accès
+ * au pool de connexions : les propriétés db.* sont lues à son initialisation.
+ */
+public final class H2Benchmark {
+    public static final int ID_ANNEE = 1;
+
+    private static final String URL =
+        "jdbc:h2:mem:benchmarks;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String[] ORIGINES = {"DUT", "CPI", "CPGE"};
+    private static final String[] TYPES_EPREUVE = {"Contrôle", "Examen", "TP", "Projet"};
+
+    private static final String[] SCHEMA = {
+        "DROP TABLE IF EXISTS note_epreuve",
+        "DROP TABLE IF EXISTS epreuve",
+        "DROP TABLE IF EXISTS etudiant",
+        "CREATE TABLE etudiant (" +
+            "id_etudiant INT PRIMARY KEY AUTO_INCREMENT, nom VARCHAR(100) NOT NULL, " +
+            "prenom VARCHAR(100) NOT NULL, origine_scolaire VARCHAR(50) NOT NULL, " +
+            "date_naissance DATE NULL, email VARCHAR(150) UNIQUE, telephone VARCHAR(20), " +
+            "adresse TEXT, date_inscription DATE NULL)",
+        "CREATE INDEX idx_etudiant_nom_prenom ON etudiant (nom, prenom)",
+        "CREATE TABLE epreuve (" +
+            "id_epreuve INT PRIMARY KEY AUTO_INCREMENT, type_epreuve VARCHAR(50) NOT NULL, " +
+            "intitule VARCHAR(200), date_epreuve DATE, coefficient DECIMAL(4,2) NOT NULL DEFAULT 1.0, " +
+            "description TEXT, active BOOLEAN DEFAULT TRUE, id_matiere INT NOT NULL, " +
+            "id_enseignant INT NOT NULL, id_annee INT NOT NULL)",
+        "CREATE INDEX idx_epreuve_matiere_annee ON epreuve (id_matiere, id_annee)",
+        "CREATE TABLE note_epreuve (" +
+            "id_note_epreuve INT PRIMARY KEY AUTO_INCREMENT, id_etudiant INT NOT NULL, " +
+            "id_epreuve INT NOT NULL, note DECIMAL(5,2), " +
+            "date_saisie DATETIME DEFAULT CURRENT_TIMESTAMP, modifie_par INT, commentaire TEXT, " +
+            "UNIQUE (id_etudiant, id_epreuve))",
+        "CREATE INDEX idx_note_epreuve_epreuve ON note_epreuve (id_epreuve)"
+    };
+
+    private H2Benchmark() {
+    }
+
+    /**
+     * Recrée les tables et insère les étudiants, épreuves (année ID_ANNEE) et notes
+     * @param nbEtudiants étudiants, identifiants 1..nbEtudiants
+     * @param nbMatieres matières, identifiants 1..nbMatieres
+     * @param nbEpreuvesParMatiere épreuves par matière ; chaque étudiant a une note à chacune
+     */
+    public static synchronized void initialiser(int nbEtudiants, int nbMatieres, int nbEpreuvesParMatiere)
+            throws SQLException {
+        System.setProperty("db.url", URL);
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.username", "sa");
+        System.setProperty("db.password", "");
+
+        EtudiantDAO dao = new EtudiantDAO();
+        for (String ddl : SCHEMA) {
+            dao.executeUpdate(ddl);
+        }
+
+        Random random = new Random(42);
+        List<Object[]> etudiants = new ArrayList<>(nbEtudiants);
+        for (int i = 1; i <= nbEtudiants; i++) {
+            etudiants.add(new Object[] {
+                "Nom" + i, "Prenom" + i, ORIGINES[i % ORIGINES.length],
+                LocalDate.of(2000, 1, 1).plusDays(random.nextInt(2000)),
+                "etudiant" + i + "@univ-tiaret.dz", "0550" + String.format("%06d", i),
+                "Tiaret", LocalDate.of(2023, 9, 1)
+            });
+        }
+        dao.executeBatch("INSERT INTO ETUDIANT (nom, prenom, origine_scolaire, date_naissance, " +
+            "email, telephone, adresse, date_inscription) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", etudiants);
+
+        List<Object[]> epreuves = new ArrayList<>();
+        for (int m = 1; m <= nbMatieres; m++) {
+            for (int e = 0; e < nbEpreuvesParMatiere; e++) {
+                epreuves.add(new Object[] {
+                    TYPES_EPREUVE[e % TYPES_EPREUVE.length], "Épreuve " + (e + 1) + " matière " + m,
+                    LocalDate.of(2024, 1, 15).plusDays(e * 7L), 1.0 + (e % 3), m, 1, ID_ANNEE
+                });
+            }
+        }
+        dao.executeBatch("INSERT INTO EPREUVE (type_epreuve, intitule, date_epreuve, coefficient, " +
+            "id_matiere, id_enseignant, id_annee) VALUES (?, ?, ?, ?, ?, ?, ?)", epreuves);
+
+        List<Object[]> notes = new ArrayList<>();
+        int nbEpreuves = epreuves.size();
+        for (int i = 1; i <= nbEtudiants; i++) {
+            for (int ep = 1; ep <= nbEpreuves; ep++) {
+                notes.add(new Object[] {i, ep, Math.round(random.nextDouble() * 2000) / 100.0});
+            }
+            if (notes.size() >= 10_000) {
+                insererNotes(dao, notes);
+            }
+        }
+        insererNotes(dao, notes);
+    }
+
+    private static void insererNotes(BaseDAO<?> dao, List<Object[]> notes) throws SQLException {
+        if (!notes.isEmpty()) {
+            dao.executeBatch("INSERT INTO NOTE_EPREUVE (id_etudiant, id_epreuve, note) VALUES (?, ?, ?)", notes);
+            notes.clear();
+        }
+    }
+}
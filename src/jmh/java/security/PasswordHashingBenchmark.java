@@ -0,0 +1,72 @@
+/*
+ * Benchmarks JMH du hachage des mots de passe (SHA-256 historique et BCrypt)
+ */
+package security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.PasswordUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt (coût 12) se compte en centaines de millisecondes : ses benchmarks sont mesurés
+ * en millisecondes avec moins d'itérations, SHA-256 en microsecondes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+public class PasswordHashingBenchmark {
+    private static final String MOT_DE_PASSE = "Tiaret#2024a";
+
+    private SecurityManager securityManager;
+    private String hashSha256;
+    private String hashBcrypt;
+
+    @Setup
+    public void setup() {
+        securityManager = SecurityManager.getInstance();
+        hashSha256 = PasswordUtils.hashPasswordSHA256(MOT_DE_PASSE);
+        hashBcrypt = securityManager.hashPassword(MOT_DE_PASSE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public String sha256Hash() {
+        return PasswordUtils.hashPasswordSHA256(MOT_DE_PASSE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean sha256Verify() {
+        return PasswordUtils.verifyPassword(MOT_DE_PASSE, hashSha256);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public String bcryptHash() {
+        return securityManager.hashPassword(MOT_DE_PASSE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public boolean bcryptVerify() {
+        return securityManager.verifyPassword(MOT_DE_PASSE, hashBcrypt);
+    }
+}
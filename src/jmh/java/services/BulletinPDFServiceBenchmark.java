@@ -0,0 +1,124 @@
+/*
+ * Benchmarks JMH du rendu PDF des bulletins
+ */
+package services;
+
+import models.AnneeScolaire;
+import models.Etudiant;
+import models.NoteMatiere;
+import models.Programme;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Données construites en mémoire : seul le rendu iText est mesuré
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulletinPDFServiceBenchmark {
+
+    @Param({"8", "20"})
+    int nbMatieres;
+
+    private BulletinPDFService pdfService;
+    private BulletinService.BulletinData bulletin;
+    // generateBulletinPDF écrit dans un dossier, sous un nom dérivé de l'étudiant
+    private File dossier;
+
+    @Setup
+    public void setup() throws IOException {
+        pdfService = new BulletinPDFService();
+        bulletin = creerBulletin(nbMatieres);
+        dossier = Files.createTempDirectory("bulletin-benchmark").toFile();
+    }
+
+    @TearDown
+    public void tearDown() {
+        File[] fichiers = dossier.listFiles();
+        if (fichiers != null) {
+            for (File fichier : fichiers) {
+                fichier.delete();
+            }
+        }
+        dossier.delete();
+    }
+
+    /**
+     * Rendu en mémoire (utilisé par la génération en lot)
+     */
+    @Benchmark
+    public byte[] renderBulletin() throws Exception {
+        return pdfService.renderBulletin(bulletin);
+    }
+
+    /**
+     * Rendu et écriture sur disque (export unitaire depuis l'interface)
+     */
+    @Benchmark
+    public String generateBulletinPDF() throws Exception {
+        return pdfService.generateBulletinPDF(bulletin, dossier.getPath());
+    }
+
+    private static BulletinService.BulletinData creerBulletin(int nbMatieres) {
+        Etudiant etudiant = new Etudiant();
+        etudiant.setIdEtudiant(1);
+        etudiant.setNom("Benali");
+        etudiant.setPrenom("Amine");
+        etudiant.setOrigineScolaire("CPGE");
+        etudiant.setDateNaissance(LocalDate.of(2002, 3, 14));
+        etudiant.setEmail("amine.benali@univ-tiaret.dz");
+
+        Programme programme = new Programme();
+        programme.setIdProgramme(1);
+        programme.setCode("ING-INFO-1");
+        programme.setNom("Ingénieur Informatique - 1ère année");
+
+        AnneeScolaire annee = new AnneeScolaire();
+        annee.setIdAnnee(1);
+        annee.setLibelle("2024-2025");
+
+        List<NoteMatiere> notes = new ArrayList<>(nbMatieres);
+        double somme = 0.0;
+        for (int i = 1; i <= nbMatieres; i++) {
+            NoteMatiere nm = new NoteMatiere();
+            nm.setIdMatiere(i);
+            nm.setMatiereName("Matière " + i);
+            nm.setNoteFinale(8.0 + (i * 7 % 12));
+            nm.setValidee(nm.getNoteFinale() >= 10.0);
+            nm.setCoefficient(1.0 + (i % 3));
+            notes.add(nm);
+            somme += nm.getNoteFinale();
+        }
+
+        BulletinService.BulletinData data = new BulletinService.BulletinData();
+        data.setEtudiant(etudiant);
+        data.setProgramme(programme);
+        data.setAnneeScolaire(annee);
+        data.setNotesMatiere(notes);
+        data.setMoyenneGenerale(Math.round(somme / nbMatieres * 100.0) / 100.0);
+        data.setStatut("Admis");
+        return data;
+    }
+}
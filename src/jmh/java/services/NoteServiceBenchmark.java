@@ -0,0 +1,75 @@
+/*
+ * Benchmarks JMH du calcul des moyennes pondérées
+ */
+package services;
+
+import dao.H2Benchmark;
+import models.NoteEpreuve;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteServiceBenchmark {
+    private static final int NB_ETUDIANTS = 1000;
+    private static final int NB_MATIERES = 10;
+
+    @Param({"3", "12"})
+    int nbEpreuves;
+
+    private NoteService noteService;
+    private List<NoteEpreuve> notes;
+    private int etudiant;
+
+    @Setup
+    public void setup() throws SQLException {
+        H2Benchmark.initialiser(NB_ETUDIANTS, NB_MATIERES, nbEpreuves);
+        noteService = new NoteService();
+
+        Random random = new Random(42);
+        notes = new ArrayList<>(nbEpreuves);
+        for (int i = 0; i < nbEpreuves; i++) {
+            NoteEpreuve note = new NoteEpreuve();
+            note.setNote(Math.round(random.nextDouble() * 2000) / 100.0);
+            note.setCoefficient(1.0 + (i % 3));
+            notes.add(note);
+        }
+    }
+
+    /**
+     * Moyenne pondérée seule, sur des notes déjà en mémoire
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double moyennePonderee() {
+        return NoteService.moyennePonderee(notes);
+    }
+
+    /**
+     * calculerNoteMatiere de bout en bout : requête de jointure, mapping, moyenne
+     */
+    @Benchmark
+    public double calculerNoteMatiere() throws SQLException {
+        etudiant = etudiant % NB_ETUDIANTS + 1;
+        return noteService.calculerNoteMatiere(etudiant, etudiant % NB_MATIERES + 1, H2Benchmark.ID_ANNEE);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * JMH benchmark of the CSV export of CustomTable
+ */
+package views.components;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.table.DefaultTableModel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The table is built once and never displayed (headless JVM)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CustomTableBenchmark {
+    private static final String[] COLUMNS = {"ID", "Nom", "Prénom", "Origine", "Email", "Moyenne"};
+    private static final String[] ORIGINS = {"DUT", "CPI", "CPGE"};
+
+    @Param({"1000", "10000"})
+    int rows;
+
+    private CustomTable table;
+
+    @Setup
+    public void setup() {
+        DefaultTableModel model = new DefaultTableModel(COLUMNS, 0);
+        for (int i = 1; i <= rows; i++) {
+            model.addRow(new Object[] {
+                i, "Nom" + i, "Prenom" + i, ORIGINS[i % ORIGINS.length],
+                "etudiant" + i + "@univ-tiaret.dz", 8.0 + (i % 120) / 10.0
+            });
+        }
+        table = new CustomTable(model);
+        table.makeSortable();
+    }
+
+    @Benchmark
+    public String exportToCSV() {
+        return table.exportToCSV();
+    }
+}
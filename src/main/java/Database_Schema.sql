@@ -99,6 +99,35 @@ CREATE TABLE matiere (
     CONSTRAINT chk_semestre CHECK (semestre IN (1, 2))
 ) ENGINE=InnoDB COMMENT='Matières enseignées';
 
+-- Table PROGRAMME_MATIERE
+CREATE TABLE programme_matiere (
+    id_programme INT NOT NULL,
+    id_matiere INT NOT NULL,
+    
+    PRIMARY KEY (id_programme, id_matiere),
+    KEY idx_matiere (id_matiere),
+    
+    FOREIGN KEY (id_programme) REFERENCES programme(id_programme) ON DELETE CASCADE,
+    FOREIGN KEY (id_matiere) REFERENCES matiere(id_matiere) ON DELETE CASCADE
+) ENGINE=InnoDB COMMENT='Matières de chaque programme';
+
+-- Table PONDERATION_MATIERE
+CREATE TABLE ponderation_matiere (
+    id_programme INT NOT NULL,
+    id_matiere INT NOT NULL,
+    id_annee INT NOT NULL,
+    coefficient DECIMAL(4,2) NOT NULL DEFAULT 1.0,
+    
+    PRIMARY KEY (id_programme, id_matiere, id_annee),
+    KEY idx_matiere (id_matiere),
+    KEY idx_annee (id_annee),
+    
+    FOREIGN KEY (id_programme, id_matiere) REFERENCES programme_matiere(id_programme, id_matiere) ON DELETE CASCADE,
+    FOREIGN KEY (id_annee) REFERENCES annee_scolaire(id_annee) ON DELETE CASCADE,
+    
+    CONSTRAINT chk_ponderation_coefficient CHECK (coefficient > 0)
+) ENGINE=InnoDB COMMENT='Coefficient d\'une matière dans un programme pour une année (1.0 par défaut)';
+
 -- Table INSCRIPTION
 CREATE TABLE inscription (
     id_inscription INT PRIMARY KEY AUTO_INCREMENT,
@@ -111,6 +140,7 @@ CREATE TABLE inscription (
     
     UNIQUE KEY unique_inscription (id_etudiant, id_programme, id_annee),
     KEY idx_etudiant_annee (id_etudiant, id_annee),
+    KEY idx_programme_annee (id_programme, id_annee),
     KEY idx_statut (statut_fin_annee),
     KEY idx_moyenne (moyenne_generale),
     
@@ -43,6 +43,13 @@ public class AppProperties {
         } catch (IOException e) {
             Logger.error("❌ Erreur chargement configuration: " + e.getMessage());
         }
+        
+        // Les propriétés système (-Ddb.url=...) ont priorité sur le fichier
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (properties.containsKey(key) || key.startsWith("db.")) {
+                properties.setProperty(key, System.getProperty(key));
+            }
+        }
     }
     
     private void setDefaultProperties() {
@@ -55,6 +62,9 @@ public class AppProperties {
         properties.setProperty("db.pool.min", "5");
         properties.setProperty("db.pool.max", "20");
         properties.setProperty("db.pool.timeout", "30000");
+        properties.setProperty("db.prepstmt.cache.size", "250");
+        properties.setProperty("db.prepstmt.cache.sql.limit", "2048");
+        properties.setProperty("db.queries.validate", "true");
         
         // Application
         properties.setProperty("app.name", "Gestion Scolarité");
@@ -98,6 +108,11 @@ public class AppProperties {
         properties.setProperty("cache.enabled", "true");
         properties.setProperty("cache.size", "1000");
         properties.setProperty("cache.ttl", "3600");
+        properties.setProperty("search.budget.ms", "10");
+        properties.setProperty("db.stats.enabled", "true");
+        properties.setProperty("db.slow.query.ms", "500");
+        properties.setProperty("dashboard.cache.ttl", "30");
+        properties.setProperty("matrice.cache.ttl", "300");
         
         // Backup automatique
         properties.setProperty("backup.auto.enabled", "true");
@@ -143,12 +158,25 @@ public class AppProperties {
     
     // Configuration spécifique
     public String getDatabaseUrl() {
+        // URL JDBC complète (H2 pour les benchmarks, autre serveur MySQL...) si renseignée
+        String url = getProperty("db.url");
+        if (url != null && !url.trim().isEmpty()) {
+            return url;
+        }
         return String.format("jdbc:mysql://%s:%s/%s?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true",
             getProperty("db.host"),
             getProperty("db.port"),
             getProperty("db.name"));
     }
     
+    public String getDatabaseDriver() {
+        return getProperty("db.driver", "com.mysql.cj.jdbc.Driver");
+    }
+    
+    public boolean isMySQL() {
+        return getDatabaseUrl().startsWith("jdbc:mysql:");
+    }
+    
     public boolean isProduction() {
         return "production".equals(getProperty("app.environment"));
     }
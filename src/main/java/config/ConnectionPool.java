@@ -40,7 +40,7 @@ public class ConnectionPool {
             poolConfig.setJdbcUrl(config.getDatabaseUrl());
             poolConfig.setUsername(config.getProperty("db.username"));
             poolConfig.setPassword(config.getProperty("db.password"));
-            poolConfig.setDriverClassName("com.mysql.cj.jdbc.Driver");
+            poolConfig.setDriverClassName(config.getDatabaseDriver());
             
             // Configuration du pool
             poolConfig.setMinimumIdle(config.getIntProperty("db.pool.min", 5));
@@ -56,16 +56,21 @@ public class ConnectionPool {
             poolConfig.setValidationTimeout(5000);
             
             // Propriétés MySQL optimisées
-            poolConfig.addDataSourceProperty("cachePrepStmts", "true");
-            poolConfig.addDataSourceProperty("prepStmtCacheSize", "250");
-            poolConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-            poolConfig.addDataSourceProperty("useServerPrepStmts", "true");
-            poolConfig.addDataSourceProperty("useLocalSessionState", "true");
-            poolConfig.addDataSourceProperty("rewriteBatchedStatements", "true");
-            poolConfig.addDataSourceProperty("cacheResultSetMetadata", "true");
-            poolConfig.addDataSourceProperty("cacheServerConfiguration", "true");
-            poolConfig.addDataSourceProperty("elideSetAutoCommits", "true");
-            poolConfig.addDataSourceProperty("maintainTimeStats", "false");
+            if (config.isMySQL()) {
+                poolConfig.addDataSourceProperty("cachePrepStmts", "true");
+                // Instructions préparées réutilisées par connexion (requêtes de dao.QueryRegistry)
+                poolConfig.addDataSourceProperty("prepStmtCacheSize",
+                    String.valueOf(config.getIntProperty("db.prepstmt.cache.size", 250)));
+                poolConfig.addDataSourceProperty("prepStmtCacheSqlLimit",
+                    String.valueOf(config.getIntProperty("db.prepstmt.cache.sql.limit", 2048)));
+                poolConfig.addDataSourceProperty("useServerPrepStmts", "true");
+                poolConfig.addDataSourceProperty("useLocalSessionState", "true");
+                poolConfig.addDataSourceProperty("rewriteBatchedStatements", "true");
+                poolConfig.addDataSourceProperty("cacheResultSetMetadata", "true");
+                poolConfig.addDataSourceProperty("cacheServerConfiguration", "true");
+                poolConfig.addDataSourceProperty("elideSetAutoCommits", "true");
+                poolConfig.addDataSourceProperty("maintainTimeStats", "false");
+            }
             
             // Initialiser le pool
             dataSource = new HikariDataSource(poolConfig);
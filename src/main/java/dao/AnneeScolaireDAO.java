@@ -6,59 +6,91 @@ package dao;
         
 import models.AnneeScolaire;
 import java.sql.*;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class AnneeScolaireDAO extends BaseDAO<AnneeScolaire> {
     
+    static final String CACHE_REGION = "ANNEE_SCOLAIRE";
+    
+    private final QueryCache cache = QueryCache.getInstance();
+    
     @Override
     public List<AnneeScolaire> findAll() throws SQLException {
         String sql = "SELECT * FROM ANNEE_SCOLAIRE ORDER BY date_debut DESC";
-        return executeQuery(sql, this::mapAnneeScolaire);
+        return cache.getList(CACHE_REGION, "all", () -> executeQuery(sql, mapperAnneeScolaire()));
     }
     
     @Override
     public AnneeScolaire findById(int id) throws SQLException {
         String sql = "SELECT * FROM ANNEE_SCOLAIRE WHERE id_annee = ?";
-        List<AnneeScolaire> results = executeQuery(sql, this::mapAnneeScolaire, id);
-        return results.isEmpty() ? null : results.get(0);
+        return cache.get(CACHE_REGION, "id:" + id, () -> {
+            List<AnneeScolaire> results = executeQuery(sql, mapperAnneeScolaire(), id);
+            return results.isEmpty() ? null : results.get(0);
+        });
+    }
+    
+    @Override
+    public Map<Integer, AnneeScolaire> findByIds(Collection<Integer> ids) throws SQLException {
+        String sql = "SELECT * FROM ANNEE_SCOLAIRE WHERE id_annee IN (%s)";
+        return selectByIds(ids, sql, mapperAnneeScolaire(), AnneeScolaire::getIdAnnee);
     }
     
     public AnneeScolaire findActive() throws SQLException {
         String sql = "SELECT * FROM ANNEE_SCOLAIRE WHERE active = TRUE LIMIT 1";
-        List<AnneeScolaire> results = executeQuery(sql, this::mapAnneeScolaire);
-        return results.isEmpty() ? null : results.get(0);
+        return cache.get(CACHE_REGION, "active", () -> {
+            List<AnneeScolaire> results = executeQuery(sql, mapperAnneeScolaire());
+            return results.isEmpty() ? null : results.get(0);
+        });
     }
     
     @Override
     public int insert(AnneeScolaire annee) throws SQLException {
         String sql = "INSERT INTO ANNEE_SCOLAIRE (libelle, date_debut, date_fin, active) " +
                      "VALUES (?, ?, ?, ?)";
-        return executeUpdate(sql, annee.getLibelle(), annee.getDateDebut(),
+        int id = executeUpdate(sql, annee.getLibelle(), annee.getDateDebut(),
                            annee.getDateFin(), annee.isActive());
+        cache.invalidateOnWrite(CACHE_REGION);
+        return id;
     }
     
     @Override
     public boolean update(AnneeScolaire annee) throws SQLException {
         String sql = "UPDATE ANNEE_SCOLAIRE SET libelle = ?, date_debut = ?, " +
                      "date_fin = ?, active = ? WHERE id_annee = ?";
-        return executeUpdate(sql, annee.getLibelle(), annee.getDateDebut(),
+        boolean updated = executeUpdate(sql, annee.getLibelle(), annee.getDateDebut(),
                            annee.getDateFin(), annee.isActive(), 
                            annee.getIdAnnee()) > 0;
+        cache.invalidateOnWrite(CACHE_REGION);
+        return updated;
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM ANNEE_SCOLAIRE WHERE id_annee = ?";
-        return executeUpdate(sql, id) > 0;
+        boolean deleted = executeUpdate(sql, id) > 0;
+        cache.invalidateOnWrite(CACHE_REGION);
+        return deleted;
     }
     
-    private AnneeScolaire mapAnneeScolaire(ResultSet rs) throws SQLException {
-        AnneeScolaire a = new AnneeScolaire();
-        a.setIdAnnee(rs.getInt("id_annee"));
-        a.setLibelle(rs.getString("libelle"));
-        a.setDateDebut(rs.getDate("date_debut").toLocalDate());
-        a.setDateFin(rs.getDate("date_fin").toLocalDate());
-        a.setActive(rs.getBoolean("active"));
-        return a;
+    private RowMapper<AnneeScolaire> mapperAnneeScolaire() {
+        return ColumnIndex.mapper(c -> {
+            int idAnnee = c.required("id_annee");
+            int libelle = c.required("libelle");
+            int dateDebut = c.required("date_debut");
+            int dateFin = c.required("date_fin");
+            int active = c.required("active");
+            
+            return rs -> {
+                AnneeScolaire a = new AnneeScolaire();
+                a.setIdAnnee(rs.getInt(idAnnee));
+                a.setLibelle(rs.getString(libelle));
+                a.setDateDebut(rs.getDate(dateDebut).toLocalDate());
+                a.setDateFin(rs.getDate(dateFin).toLocalDate());
+                a.setActive(rs.getBoolean(active));
+                return a;
+            };
+        });
     }
 }
\ No newline at end of file
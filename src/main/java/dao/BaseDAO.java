@@ -4,10 +4,22 @@
  */
 package dao;
 
-import config.DatabaseConnection;
+import config.ConnectionPool;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Classe de base pour tous les DAO
@@ -15,10 +27,32 @@ import java.util.List;
  * @param <T> Type de l'entité
  */
 public abstract class BaseDAO<T> {
-    protected Connection connection;
+    /**
+     * Connexion liée au thread courant (transaction en cours), null sinon
+     */
+    private static final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
+    
+    /**
+     * Nombre de lignes envoyées au serveur par appel à executeBatch()
+     */
+    protected static final int BATCH_SIZE = 500;
+    
+    /**
+     * Taille de lot de lecture pour les requêtes en flux (drivers autres que MySQL)
+     */
+    protected static final int STREAM_FETCH_SIZE = 1000;
+    
+    /**
+     * Nombre maximal d'identifiants par clause IN (findByIds et requêtes par lots d'identifiants)
+     */
+    public static final int IN_CHUNK_SIZE = 500;
+    
+    /**
+     * Latences par requête et journal des requêtes lentes
+     */
+    private static final QueryStats stats = QueryStats.getInstance();
     
     public BaseDAO() {
-        this.connection = DatabaseConnection.getInstance().getConnection();
     }
     
     /**
@@ -31,6 +65,21 @@ public abstract class BaseDAO<T> {
      */
     public abstract T findById(int id) throws SQLException;
     
+    /**
+     * Récupère les entités de plusieurs identifiants (identifiants inconnus ignorés)
+     * @return les entités trouvées, par identifiant
+     * @see #loader()
+     */
+    public abstract Map<Integer, T> findByIds(Collection<Integer> ids) throws SQLException;
+    
+    /**
+     * Chargeur regroupant les identifiants demandés pendant une opération
+     * pour les lire par {@link #findByIds(Collection)}
+     */
+    public BatchLoader<T> loader() {
+        return new BatchLoader<>(this::findByIds);
+    }
+    
     /**
      * Insère une nouvelle entité
      */
@@ -47,11 +96,97 @@ public abstract class BaseDAO<T> {
     public abstract boolean delete(int id) throws SQLException;
     
     /**
-     * Obtient la connexion de base de données
-     * @return Connection active
+     * Implémentation commune de findByIds : une requête par tranche de IN_CHUNK_SIZE
+     * identifiants distincts
+     * @param sql requête dont la clause IN contient %s à la place de ses paramètres
+     * @param identifiant identifiant d'une entité lue
+     */
+    protected Map<Integer, T> selectByIds(Collection<Integer> ids, String sql, RowMapper<T> mapper,
+                                          Function<T, Integer> identifiant) throws SQLException {
+        List<Integer> distincts = new ArrayList<>(new LinkedHashSet<>(ids));
+        distincts.removeIf(Objects::isNull);
+        
+        Map<Integer, T> resultats = new HashMap<>(distincts.size() * 2);
+        for (int debut = 0; debut < distincts.size(); debut += IN_CHUNK_SIZE) {
+            List<Integer> tranche = distincts.subList(debut, 
+                Math.min(debut + IN_CHUNK_SIZE, distincts.size()));
+            Object[] params = inParams(tranche);
+            forEachRow(String.format(sql, inPlaceholders(params.length)), mapper,
+                entite -> resultats.put(identifiant.apply(entite), entite), params);
+        }
+        return resultats;
+    }
+    
+    /**
+     * Paramètres d'une clause IN, complétés en répétant le dernier identifiant jusqu'à
+     * la puissance de deux suivante (plafonnée à IN_CHUNK_SIZE) : le nombre de textes SQL
+     * distincts, donc d'instructions préparées et d'entrées de QueryStats, reste borné.
+     */
+    public static Object[] inParams(List<Integer> ids) {
+        int n = ids.size();
+        int taille = n <= 1 ? n : Math.min(IN_CHUNK_SIZE, Integer.highestOneBit(n - 1) << 1);
+        Object[] params = new Object[taille];
+        for (int i = 0; i < taille; i++) {
+            params[i] = ids.get(Math.min(i, n - 1));
+        }
+        return params;
+    }
+    
+    /**
+     * Liste de n paramètres "?, ?, ..." pour une clause IN
      */
-    public Connection getConnection() {
-        return this.connection;
+    public static String inPlaceholders(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+    
+    /**
+     * Emprunte une connexion au pool pour une unité de travail.
+     * Si une connexion est liée au thread courant (transaction), elle est réutilisée.
+     * Toute connexion obtenue ici doit être rendue via {@link #releaseConnection(Connection)}.
+     */
+    protected Connection acquireConnection() throws SQLException {
+        Connection bound = boundConnection.get();
+        if (bound != null) {
+            return bound;
+        }
+        return ConnectionPool.getInstance().getConnection();
+    }
+    
+    /**
+     * Rend une connexion au pool, sauf si elle est liée au thread courant
+     */
+    protected void releaseConnection(Connection conn) {
+        if (conn == null || conn == boundConnection.get()) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la libération de la connexion : " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lie une connexion au thread courant : tous les DAO l'utiliseront
+     * jusqu'à l'appel de {@link #unbindConnection()}
+     * @see TransactionTemplate
+     */
+    static void bindConnection(Connection conn) {
+        boundConnection.set(conn);
+    }
+    
+    /**
+     * Détache la connexion liée au thread courant (sans la fermer)
+     */
+    static void unbindConnection() {
+        boundConnection.remove();
+    }
+    
+    /**
+     * Indique si une transaction est en cours sur le thread courant
+     */
+    static boolean isConnectionBound() {
+        return boundConnection.get() != null;
     }
     
     /**
@@ -72,38 +207,173 @@ public abstract class BaseDAO<T> {
     public <R> List<R> executeQuery(String sql, RowMapper<R> mapper, Object... params) 
             throws SQLException {
         List<R> results = new ArrayList<>();
+        long debut = System.nanoTime();
+        boolean succes = false;
+        Connection conn = acquireConnection();
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
-            stmt = connection.prepareStatement(sql);
+            stmt = conn.prepareStatement(sql);
             setParameters(stmt, params);
             rs = stmt.executeQuery();
             
             while (rs.next()) {
                 results.add(mapper.mapRow(rs));
             }
+            succes = true;
         } finally {
             closeResources(rs, stmt);
+            releaseConnection(conn);
+            stats.enregistrer(sql, params, debut, results.size(), succes);
         }
         
         return results;
     }
     
+    /**
+     * Exécute une requête SELECT du registre
+     * @see QueryRegistry
+     */
+    public <R> List<R> executeQuery(NamedQuery query, RowMapper<R> mapper, Object... params) 
+            throws SQLException {
+        return executeQuery(query.getSql(), mapper, params);
+    }
+    
+    /**
+     * Parcourt le résultat d'une requête SELECT ligne par ligne sans le charger en mémoire.
+     * Avec MySQL, les lignes sont lues en flux depuis le serveur : le consommateur
+     * ne doit pas exécuter d'autre requête sur la connexion de la transaction en cours.
+     * @return le nombre de lignes traitées
+     */
+    public <R> long forEachRow(String sql, RowMapper<R> mapper, RowConsumer<R> consumer, 
+                               Object... params) throws SQLException {
+        long debut = System.nanoTime();
+        boolean succes = false;
+        Connection conn = acquireConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        long count = 0;
+        
+        try {
+            stmt = prepareStreamingStatement(conn, sql);
+            setParameters(stmt, params);
+            rs = stmt.executeQuery();
+            
+            while (rs.next()) {
+                consumer.accept(mapper.mapRow(rs));
+                count++;
+            }
+            succes = true;
+        } finally {
+            closeResources(rs, stmt);
+            releaseConnection(conn);
+            // Inclut le temps passé dans le consommateur
+            stats.enregistrer(sql, params, debut, count, succes);
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Parcourt en flux le résultat d'une requête SELECT du registre
+     * @see QueryRegistry
+     */
+    public <R> long forEachRow(NamedQuery query, RowMapper<R> mapper, RowConsumer<R> consumer, 
+                               Object... params) throws SQLException {
+        return forEachRow(query.getSql(), mapper, consumer, params);
+    }
+    
+    /**
+     * Retourne le résultat d'une requête SELECT sous forme de Stream lu à la demande.
+     * Le Stream doit être fermé (try-with-resources) pour libérer la connexion.
+     * Les SQLException de lecture sont relancées en RuntimeException.
+     */
+    public <R> Stream<R> stream(String sql, RowMapper<R> mapper, Object... params) 
+            throws SQLException {
+        long debut = System.nanoTime();
+        Connection conn = acquireConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        try {
+            stmt = prepareStreamingStatement(conn, sql);
+            setParameters(stmt, params);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            closeResources(rs, stmt);
+            releaseConnection(conn);
+            stats.enregistrer(sql, params, debut, 0, false);
+            throw e;
+        }
+        
+        final PreparedStatement statement = stmt;
+        final ResultSet resultSet = rs;
+        final long[] lues = new long[1];
+        
+        Spliterator<R> spliterator = new Spliterators.AbstractSpliterator<R>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super R> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.mapRow(resultSet));
+                    lues[0]++;
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Erreur lors de la lecture du flux : " + e.getMessage(), e);
+                }
+            }
+        };
+        
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            closeResources(resultSet, statement);
+            releaseConnection(conn);
+            // Mesuré de l'ouverture à la fermeture du Stream
+            stats.enregistrer(sql, params, debut, lues[0], true);
+        });
+    }
+    
+    /**
+     * Prépare une requête en lecture seule, avant uniquement, lue en flux.
+     * MySQL ne diffuse les lignes que si fetchSize vaut Integer.MIN_VALUE.
+     */
+    private PreparedStatement prepareStreamingStatement(Connection conn, String sql) 
+            throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, 
+            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        
+        String produit = conn.getMetaData().getDatabaseProductName();
+        if ("MySQL".equalsIgnoreCase(produit)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+        }
+        return stmt;
+    }
+    
     /**
      * Exécute une requête UPDATE/INSERT/DELETE
      */
     public int executeUpdate(String sql, Object... params) throws SQLException {
+        long debut = System.nanoTime();
+        int affectedRows = 0;
+        boolean succes = false;
+        Connection conn = acquireConnection();
         PreparedStatement stmt = null;
+        ResultSet generatedKeys = null;
         
         try {
-            stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
             setParameters(stmt, params);
-            int affectedRows = stmt.executeUpdate();
+            affectedRows = stmt.executeUpdate();
+            succes = true;
             
             // Retourne l'ID généré pour les INSERT
             if (affectedRows > 0) {
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
+                generatedKeys = stmt.getGeneratedKeys();
                 if (generatedKeys.next()) {
                     return generatedKeys.getInt(1);
                 }
@@ -111,10 +381,54 @@ public abstract class BaseDAO<T> {
             
             return affectedRows;
         } finally {
-            if (stmt != null) stmt.close();
+            closeResources(generatedKeys, stmt);
+            releaseConnection(conn);
+            stats.enregistrer(sql, params, debut, affectedRows, succes);
         }
     }
     
+    /**
+     * Exécute une même requête INSERT/UPDATE pour chaque jeu de paramètres, par lots JDBC.
+     * L'ensemble est exécuté dans une seule transaction (celle du thread si elle existe).
+     * @return le nombre de lignes affectées par chaque jeu de paramètres
+     */
+    public int[] executeBatch(String sql, List<Object[]> batchParams) throws SQLException {
+        if (batchParams == null || batchParams.isEmpty()) {
+            return new int[0];
+        }
+        
+        return TransactionTemplate.execute(() -> {
+            int[] results = new int[batchParams.size()];
+            long debut = System.nanoTime();
+            int offset = 0;
+            Connection conn = acquireConnection();
+            PreparedStatement stmt = null;
+            
+            try {
+                stmt = conn.prepareStatement(sql);
+                
+                for (int i = 0; i < batchParams.size(); i++) {
+                    setParameters(stmt, batchParams.get(i));
+                    stmt.addBatch();
+                    
+                    // Envoi par paquets pour borner la mémoire du driver
+                    if ((i + 1) % BATCH_SIZE == 0 || i == batchParams.size() - 1) {
+                        int[] counts = stmt.executeBatch();
+                        System.arraycopy(counts, 0, results, offset, counts.length);
+                        offset += counts.length;
+                    }
+                }
+            } finally {
+                closeResources(null, stmt);
+                releaseConnection(conn);
+                // Une mesure par appel ; seul le premier jeu de paramètres est journalisé
+                stats.enregistrer(sql, batchParams.get(0), debut, offset, offset == batchParams.size());
+            }
+            
+            return results;
+        });
+    }
+    
     /**
      * Définit les paramètres d'une PreparedStatement
      */
@@ -149,4 +463,12 @@ public abstract class BaseDAO<T> {
     public interface RowMapper<R> {
         R mapRow(ResultSet rs) throws SQLException;
     }
+    
+    /**
+     * Interface fonctionnelle pour traiter chaque ligne d'une lecture en flux
+     */
+    @FunctionalInterface
+    public interface RowConsumer<R> {
+        void accept(R row) throws SQLException;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+/*
+ * Chargement groupé d'entités par identifiant
+ * Les identifiants demandés pendant une opération sont lus ensemble, en une requête IN
+ */
+package dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remplace une boucle de findById par un seul aller-retour : l'opération annonce d'abord
+ * les identifiants dont elle aura besoin ({@link #demander}), puis les lit par {@link #get}.
+ * Le premier get() charge d'un coup tous les identifiants en attente ; les entités lues
+ * (et les identifiants inconnus) restent mémorisés jusqu'à la fin de l'opération.
+ * Un chargeur sert une seule opération sur un seul thread : en créer un nouveau à chaque
+ * fois (BaseDAO.loader()), pour ne pas conserver des entités périmées.
+ * @param <T> type de l'entité
+ */
+public final class BatchLoader<T> {
+
+    /**
+     * Lecture d'un lot d'identifiants, typiquement BaseDAO.findByIds
+     */
+    @FunctionalInterface
+    public interface Lot<T> {
+        Map<Integer, T> charger(Collection<Integer> ids) throws SQLException;
+    }
+
+    private final Lot<T> lot;
+    private final Set<Integer> enAttente = new LinkedHashSet<>();
+    // Entités lues ; null pour un identifiant inconnu
+    private final Map<Integer, T> lues = new HashMap<>();
+    private int nbLots;
+
+    public BatchLoader(Lot<T> lot) {
+        this.lot = lot;
+    }
+
+    /**
+     * Annonce un identifiant : il sera lu avec les autres au prochain chargement
+     */
+    public BatchLoader<T> demander(Integer id) {
+        if (id != null && !lues.containsKey(id)) {
+            enAttente.add(id);
+        }
+        return this;
+    }
+
+    public BatchLoader<T> demanderTous(Collection<Integer> ids) {
+        for (Integer id : ids) {
+            demander(id);
+        }
+        return this;
+    }
+
+    /**
+     * Entité de cet identifiant, null si elle n'existe pas.
+     * Si elle n'est pas encore lue, tous les identifiants en attente sont chargés avec elle.
+     */
+    public T get(Integer id) throws SQLException {
+        if (id == null) {
+            return null;
+        }
+        if (!lues.containsKey(id)) {
+            enAttente.add(id);
+            charger();
+        }
+        return lues.get(id);
+    }
+
+    /**
+     * Entités existantes de ces identifiants, dans l'ordre des identifiants
+     */
+    public Map<Integer, T> getAll(Collection<Integer> ids) throws SQLException {
+        demanderTous(ids);
+        charger();
+        Map<Integer, T> resultat = new LinkedHashMap<>();
+        for (Integer id : ids) {
+            T entite = id != null ? lues.get(id) : null;
+            if (entite != null) {
+                resultat.put(id, entite);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Lit les identifiants en attente (aucune requête s'il n'y en a pas)
+     */
+    public void charger() throws SQLException {
+        if (enAttente.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(enAttente);
+        Map<Integer, T> trouvees = lot.charger(ids);
+        enAttente.clear();
+        for (Integer id : ids) {
+            lues.put(id, trouvees.get(id));
+        }
+        nbLots++;
+    }
+
+    /**
+     * Nombre de lots lus depuis la création du chargeur
+     */
+    public int getNbLots() {
+        return nbLots;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Positions des colonnes d'un ResultSet
+ * Résolues une fois depuis les métadonnées, pour des mappers qui lisent par index
+ */
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lire une colonne par son nom oblige le driver à rechercher le libellé à chaque ligne,
+ * et tester une colonne facultative (champ de jointure) en interceptant l'exception
+ * du driver coûte une exception par ligne. Un mapper construit par {@link #mapper(Binder)}
+ * résout les positions au premier enregistrement de chaque ResultSet, sait quelles
+ * colonnes facultatives sont présentes, puis ne lit plus que par index.
+ * Un tel mapper garde une référence au ResultSet courant : en créer un par requête.
+ */
+public final class ColumnIndex {
+    private final Map<String, Integer> positions;
+
+    private ColumnIndex(Map<String, Integer> positions) {
+        this.positions = positions;
+    }
+
+    /**
+     * Positions des colonnes du ResultSet, par libellé (insensible à la casse).
+     * Pour un libellé en double (SELECT ne.*, ep.*...), la première colonne l'emporte,
+     * comme pour ResultSet.findColumn.
+     */
+    public static ColumnIndex of(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int nb = meta.getColumnCount();
+        Map<String, Integer> positions = new HashMap<>(nb * 2);
+        for (int i = 1; i <= nb; i++) {
+            positions.putIfAbsent(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new ColumnIndex(positions);
+    }
+
+    /**
+     * Position d'une colonne obligatoire
+     * @throws SQLException si la requête ne la sélectionne pas
+     */
+    public int required(String label) throws SQLException {
+        Integer position = positions.get(label.toLowerCase(Locale.ROOT));
+        if (position == null) {
+            throw new SQLException("Colonne absente du résultat : " + label);
+        }
+        return position;
+    }
+
+    /**
+     * Position d'une colonne facultative, 0 si la requête ne la sélectionne pas
+     */
+    public int optional(String label) {
+        return positions.getOrDefault(label.toLowerCase(Locale.ROOT), 0);
+    }
+
+    public boolean has(String label) {
+        return positions.containsKey(label.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Mapper qui prépare ses positions une fois par ResultSet puis lit par index
+     */
+    public static <R> BaseDAO.RowMapper<R> mapper(Binder<R> binder) {
+        return new BaseDAO.RowMapper<R>() {
+            private ResultSet courant;
+            private BaseDAO.RowMapper<R> lecteur;
+
+            @Override
+            public R mapRow(ResultSet rs) throws SQLException {
+                if (rs != courant) {
+                    lecteur = binder.bind(ColumnIndex.of(rs));
+                    courant = rs;
+                }
+                return lecteur.mapRow(rs);
+            }
+        };
+    }
+
+    /**
+     * Construit le mapper d'un ResultSet à partir des positions de ses colonnes
+     */
+    @FunctionalInterface
+    public interface Binder<R> {
+        BaseDAO.RowMapper<R> bind(ColumnIndex colonnes) throws SQLException;
+    }
+}
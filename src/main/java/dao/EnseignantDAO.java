@@ -6,55 +6,114 @@ package dao;
 
 import models.Enseignant;
 import java.sql.*;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class EnseignantDAO extends BaseDAO<Enseignant> {
     
+    static final String CACHE_REGION = "ENSEIGNANT";
+    
+    private final QueryCache cache = QueryCache.getInstance();
+    
     @Override
     public List<Enseignant> findAll() throws SQLException {
         String sql = "SELECT * FROM ENSEIGNANT ORDER BY nom, prenom";
-        return executeQuery(sql, this::mapEnseignant);
+        return cache.getList(CACHE_REGION, "all", () -> executeQuery(sql, mapperEnseignant()));
     }
     
     @Override
     public Enseignant findById(int id) throws SQLException {
         String sql = "SELECT * FROM ENSEIGNANT WHERE id_enseignant = ?";
-        List<Enseignant> results = executeQuery(sql, this::mapEnseignant, id);
-        return results.isEmpty() ? null : results.get(0);
+        return cache.get(CACHE_REGION, "id:" + id, () -> {
+            List<Enseignant> results = executeQuery(sql, mapperEnseignant(), id);
+            return results.isEmpty() ? null : results.get(0);
+        });
+    }
+    
+    @Override
+    public Map<Integer, Enseignant> findByIds(Collection<Integer> ids) throws SQLException {
+        String sql = "SELECT * FROM ENSEIGNANT WHERE id_enseignant IN (%s)";
+        return selectByIds(ids, sql, mapperEnseignant(), Enseignant::getIdEnseignant);
+    }
+    
+    /**
+     * Compte le nombre total d'enseignants
+     */
+    public int count() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM ENSEIGNANT";
+        List<Integer> results = executeQuery(sql, rs -> rs.getInt(1));
+        return results.isEmpty() ? 0 : results.get(0);
     }
     
     @Override
     public int insert(Enseignant ens) throws SQLException {
         String sql = "INSERT INTO ENSEIGNANT (nom, prenom, grade, email, " +
                      "telephone, specialite) VALUES (?, ?, ?, ?, ?, ?)";
-        return executeUpdate(sql, ens.getNom(), ens.getPrenom(), ens.getGrade(),
+        int id = executeUpdate(sql, ens.getNom(), ens.getPrenom(), ens.getGrade(),
                            ens.getEmail(), ens.getTelephone(), ens.getSpecialite());
+        cache.invalidateOnWrite(CACHE_REGION);
+        if (id > 0) {
+            ens.setIdEnseignant(id);
+            TransactionTemplate.afterCommit(() -> SearchIndex.getInstance().indexerEnseignant(ens));
+        }
+        return id;
     }
     
     @Override
     public boolean update(Enseignant ens) throws SQLException {
         String sql = "UPDATE ENSEIGNANT SET nom = ?, prenom = ?, grade = ?, " +
                      "email = ?, telephone = ?, specialite = ? WHERE id_enseignant = ?";
-        return executeUpdate(sql, ens.getNom(), ens.getPrenom(), ens.getGrade(),
+        boolean updated = executeUpdate(sql, ens.getNom(), ens.getPrenom(), ens.getGrade(),
                            ens.getEmail(), ens.getTelephone(), ens.getSpecialite(),
                            ens.getIdEnseignant()) > 0;
+        cache.invalidateOnWrite(CACHE_REGION);
+        if (updated) {
+            TransactionTemplate.afterCommit(() -> SearchIndex.getInstance().indexerEnseignant(ens));
+        }
+        return updated;
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM ENSEIGNANT WHERE id_enseignant = ?";
-        return executeUpdate(sql, id) > 0;
-    }
-    
-    private Enseignant mapEnseignant(ResultSet rs) throws SQLException {
-        Enseignant e = new Enseignant();
-        e.setIdEnseignant(rs.getInt("id_enseignant"));
-        e.setNom(rs.getString("nom"));
-        e.setPrenom(rs.getString("prenom"));
-        e.setGrade(rs.getString("grade"));
-        e.setEmail(rs.getString("email"));
-        e.setTelephone(rs.getString("telephone"));
-        e.setSpecialite(rs.getString("specialite"));
-        return e;
+        boolean deleted = executeUpdate(sql, id) > 0;
+        cache.invalidateOnWrite(CACHE_REGION);
+        if (deleted) {
+            TransactionTemplate.afterCommit(() -> 
+                SearchIndex.getInstance().retirer(SearchIndex.TYPE_ENSEIGNANT, id));
+        }
+        return deleted;
+    }
+    
+    /**
+     * Recherche des enseignants par nom, prénom, email ou login (index en mémoire, classé par pertinence)
+     */
+    public List<Enseignant> search(String keyword, int limite) throws SQLException {
+        return SearchIndex.getInstance().rechercherEnseignants(keyword, limite);
+    }
+    
+    private RowMapper<Enseignant> mapperEnseignant() {
+        return ColumnIndex.mapper(c -> {
+            int idEnseignant = c.required("id_enseignant");
+            int nom = c.required("nom");
+            int prenom = c.required("prenom");
+            int grade = c.required("grade");
+            int email = c.required("email");
+            int telephone = c.required("telephone");
+            int specialite = c.required("specialite");
+            
+            return rs -> {
+                Enseignant e = new Enseignant();
+                e.setIdEnseignant(rs.getInt(idEnseignant));
+                e.setNom(rs.getString(nom));
+                e.setPrenom(rs.getString(prenom));
+                e.setGrade(rs.getString(grade));
+                e.setEmail(rs.getString(email));
+                e.setTelephone(rs.getString(telephone));
+                e.setSpecialite(rs.getString(specialite));
+                return e;
+            };
+        });
     }
 }
\ No newline at end of file
@@ -6,7 +6,9 @@ package dao;
 
 import models.*;
 import java.sql.*;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class EpreuveDAO extends BaseDAO<Epreuve> {
     
@@ -20,7 +22,7 @@ public class EpreuveDAO extends BaseDAO<Epreuve> {
                      "JOIN ENSEIGNANT ens ON ep.id_enseignant = ens.id_enseignant " +
                      "JOIN ANNEE_SCOLAIRE a ON ep.id_annee = a.id_annee " +
                      "ORDER BY ep.date_epreuve DESC";
-        return executeQuery(sql, this::mapEpreuve);
+        return executeQuery(sql, mapperEpreuve());
     }
     
     @Override
@@ -31,34 +33,51 @@ public class EpreuveDAO extends BaseDAO<Epreuve> {
                      "JOIN MATIERE m ON ep.id_matiere = m.id_matiere " +
                      "JOIN ENSEIGNANT ens ON ep.id_enseignant = ens.id_enseignant " +
                      "WHERE ep.id_epreuve = ?";
-        List<Epreuve> results = executeQuery(sql, this::mapEpreuve, id);
+        List<Epreuve> results = executeQuery(sql, mapperEpreuve(), id);
         return results.isEmpty() ? null : results.get(0);
     }
     
+    @Override
+    public Map<Integer, Epreuve> findByIds(Collection<Integer> ids) throws SQLException {
+        String sql = "SELECT ep.*, m.nom AS matiere_name, " +
+                     "CONCAT(ens.nom, ' ', ens.prenom) AS enseignant_name " +
+                     "FROM EPREUVE ep " +
+                     "JOIN MATIERE m ON ep.id_matiere = m.id_matiere " +
+                     "JOIN ENSEIGNANT ens ON ep.id_enseignant = ens.id_enseignant " +
+                     "WHERE ep.id_epreuve IN (%s)";
+        return selectByIds(ids, sql, mapperEpreuve(), Epreuve::getIdEpreuve);
+    }
+    
     @Override
     public int insert(Epreuve epreuve) throws SQLException {
         String sql = "INSERT INTO EPREUVE (type_epreuve, intitule, date_epreuve, " +
                      "coefficient, id_matiere, id_enseignant, id_annee) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?)";
-        return executeUpdate(sql, epreuve.getTypeEpreuve(), epreuve.getIntitule(),
+        int id = executeUpdate(sql, epreuve.getTypeEpreuve(), epreuve.getIntitule(),
                            epreuve.getDateEpreuve(), epreuve.getCoefficient(),
                            epreuve.getIdMatiere(), epreuve.getIdEnseignant(),
                            epreuve.getIdAnnee());
+        VersionNotes.incrementerOnWrite();
+        return id;
     }
     
     @Override
     public boolean update(Epreuve epreuve) throws SQLException {
         String sql = "UPDATE EPREUVE SET type_epreuve = ?, intitule = ?, " +
                      "date_epreuve = ?, coefficient = ? WHERE id_epreuve = ?";
-        return executeUpdate(sql, epreuve.getTypeEpreuve(), epreuve.getIntitule(),
+        boolean updated = executeUpdate(sql, epreuve.getTypeEpreuve(), epreuve.getIntitule(),
                            epreuve.getDateEpreuve(), epreuve.getCoefficient(),
                            epreuve.getIdEpreuve()) > 0;
+        VersionNotes.incrementerOnWrite();
+        return updated;
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM EPREUVE WHERE id_epreuve = ?";
-        return executeUpdate(sql, id) > 0;
+        boolean deleted = executeUpdate(sql, id) > 0;
+        VersionNotes.incrementerOnWrite();
+        return deleted;
     }
     
     public List<Epreuve> findByEnseignant(int idEnseignant) throws SQLException {
@@ -67,7 +86,7 @@ public class EpreuveDAO extends BaseDAO<Epreuve> {
                      "JOIN MATIERE m ON ep.id_matiere = m.id_matiere " +
                      "WHERE ep.id_enseignant = ? " +
                      "ORDER BY ep.date_epreuve DESC";
-        return executeQuery(sql, this::mapEpreuve, idEnseignant);
+        return executeQuery(sql, mapperEpreuve(), idEnseignant);
     }
     
     public List<Epreuve> findByMatiereAndAnnee(int idMatiere, int idAnnee) throws SQLException {
@@ -76,55 +95,57 @@ public class EpreuveDAO extends BaseDAO<Epreuve> {
                      "JOIN ENSEIGNANT ens ON ep.id_enseignant = ens.id_enseignant " +
                      "WHERE ep.id_matiere = ? AND ep.id_annee = ? " +
                      "ORDER BY ep.date_epreuve";
-        return executeQuery(sql, this::mapEpreuve, idMatiere, idAnnee);
+        return executeQuery(sql, mapperEpreuve(), idMatiere, idAnnee);
     }
     
     public int countByEnseignant(int idEnseignant) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM EPREUVE WHERE id_enseignant = ?";
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setInt(1, idEnseignant);
-        ResultSet rs = stmt.executeQuery();
-        return rs.next() ? rs.getInt(1) : 0;
+        List<Integer> results = executeQuery(QueryRegistry.EPREUVES_COUNT_ENSEIGNANT, rs -> rs.getInt(1), idEnseignant);
+        return results.isEmpty() ? 0 : results.get(0);
     }
     
     public int countMatieresEnseignees(int idEnseignant) throws SQLException {
-        String sql = "SELECT COUNT(DISTINCT id_matiere) FROM EPREUVE " +
-                     "WHERE id_enseignant = ?";
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setInt(1, idEnseignant);
-        ResultSet rs = stmt.executeQuery();
-        return rs.next() ? rs.getInt(1) : 0;
+        List<Integer> results = executeQuery(QueryRegistry.EPREUVES_COUNT_MATIERES, rs -> rs.getInt(1), idEnseignant);
+        return results.isEmpty() ? 0 : results.get(0);
     }
     
-    private Epreuve mapEpreuve(ResultSet rs) throws SQLException {
-        Epreuve ep = new Epreuve();
-        ep.setIdEpreuve(rs.getInt("id_epreuve"));
-        ep.setTypeEpreuve(rs.getString("type_epreuve"));
-        ep.setIntitule(rs.getString("intitule"));
-        
-        Date dateEpreuve = rs.getDate("date_epreuve");
-        if (dateEpreuve != null) {
-            ep.setDateEpreuve(dateEpreuve.toLocalDate());
-        }
-        
-        ep.setCoefficient(rs.getDouble("coefficient"));
-        ep.setIdMatiere(rs.getInt("id_matiere"));
-        ep.setIdEnseignant(rs.getInt("id_enseignant"));
-        ep.setIdAnnee(rs.getInt("id_annee"));
-        
-        // Champs de jointure
-        try {
-            ep.setMatiereName(rs.getString("matiere_name"));
-        } catch (SQLException ignored) {}
-        
-        try {
-            ep.setEnseignantName(rs.getString("enseignant_name"));
-        } catch (SQLException ignored) {}
-        
-        try {
-            ep.setAnneeScolaire(rs.getString("annee_scolaire"));
-        } catch (SQLException ignored) {}
-        
-        return ep;
+    private RowMapper<Epreuve> mapperEpreuve() {
+        return ColumnIndex.mapper(c -> {
+            int idEpreuve = c.required("id_epreuve");
+            int typeEpreuve = c.required("type_epreuve");
+            int intitule = c.required("intitule");
+            int dateEpreuve = c.required("date_epreuve");
+            int coefficient = c.required("coefficient");
+            int idMatiere = c.required("id_matiere");
+            int idEnseignant = c.required("id_enseignant");
+            int idAnnee = c.required("id_annee");
+            
+            // Champs de jointure, lus seulement si la requête les sélectionne
+            int matiereName = c.optional("matiere_name");
+            int enseignantName = c.optional("enseignant_name");
+            int anneeScolaire = c.optional("annee_scolaire");
+            
+            return rs -> {
+                Epreuve ep = new Epreuve();
+                ep.setIdEpreuve(rs.getInt(idEpreuve));
+                ep.setTypeEpreuve(rs.getString(typeEpreuve));
+                ep.setIntitule(rs.getString(intitule));
+                
+                Date date = rs.getDate(dateEpreuve);
+                if (date != null) {
+                    ep.setDateEpreuve(date.toLocalDate());
+                }
+                
+                ep.setCoefficient(rs.getDouble(coefficient));
+                ep.setIdMatiere(rs.getInt(idMatiere));
+                ep.setIdEnseignant(rs.getInt(idEnseignant));
+                ep.setIdAnnee(rs.getInt(idAnnee));
+                
+                if (matiereName > 0) ep.setMatiereName(rs.getString(matiereName));
+                if (enseignantName > 0) ep.setEnseignantName(rs.getString(enseignantName));
+                if (anneeScolaire > 0) ep.setAnneeScolaire(rs.getString(anneeScolaire));
+                
+                return ep;
+            };
+        });
     }
 }
\ No newline at end of file
@@ -8,32 +8,43 @@ import models.Etudiant;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO pour la gestion des étudiants
  */
 public class EtudiantDAO extends BaseDAO<Etudiant> {
     
+    // Nombre maximal de résultats d'une recherche
+    private static final int SEARCH_LIMIT = 50;
+    
     @Override
     public List<Etudiant> findAll() throws SQLException {
         String sql = "SELECT * FROM ETUDIANT ORDER BY nom, prenom";
-        return executeQuery(sql, this::mapEtudiant);
+        return executeQuery(sql, mapperEtudiant());
     }
     
     @Override
     public Etudiant findById(int id) throws SQLException {
         String sql = "SELECT * FROM ETUDIANT WHERE id_etudiant = ?";
-        List<Etudiant> results = executeQuery(sql, this::mapEtudiant, id);
+        List<Etudiant> results = executeQuery(sql, mapperEtudiant(), id);
         return results.isEmpty() ? null : results.get(0);
     }
     
+    @Override
+    public Map<Integer, Etudiant> findByIds(Collection<Integer> ids) throws SQLException {
+        String sql = "SELECT * FROM ETUDIANT WHERE id_etudiant IN (%s)";
+        return selectByIds(ids, sql, mapperEtudiant(), Etudiant::getIdEtudiant);
+    }
+    
     @Override
     public int insert(Etudiant etudiant) throws SQLException {
         String sql = "INSERT INTO ETUDIANT (nom, prenom, origine_scolaire, date_naissance, " +
                      "email, telephone, adresse, date_inscription) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
-        return executeUpdate(sql,
+        int id = executeUpdate(sql,
             etudiant.getNom(),
             etudiant.getPrenom(),
             etudiant.getOrigineScolaire(),
@@ -43,6 +54,12 @@ public class EtudiantDAO extends BaseDAO<Etudiant> {
             etudiant.getAdresse(),
             etudiant.getDateInscription()
         );
+        
+        if (id > 0) {
+            etudiant.setIdEtudiant(id);
+            TransactionTemplate.afterCommit(() -> SearchIndex.getInstance().indexerEtudiant(etudiant));
+        }
+        return id;
     }
     
     @Override
@@ -62,23 +79,67 @@ public class EtudiantDAO extends BaseDAO<Etudiant> {
             etudiant.getIdEtudiant()
         );
         
+        if (rowsAffected > 0) {
+            TransactionTemplate.afterCommit(() -> SearchIndex.getInstance().indexerEtudiant(etudiant));
+        }
         return rowsAffected > 0;
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM ETUDIANT WHERE id_etudiant = ?";
-        return executeUpdate(sql, id) > 0;
+        boolean deleted = executeUpdate(sql, id) > 0;
+        if (deleted) {
+            TransactionTemplate.afterCommit(() -> 
+                SearchIndex.getInstance().retirer(SearchIndex.TYPE_ETUDIANT, id));
+        }
+        return deleted;
     }
     
     /**
-     * Recherche des étudiants par nom ou prénom
+     * Recherche des étudiants par nom, prénom, email ou login (index en mémoire, classé par pertinence)
      */
     public List<Etudiant> search(String keyword) throws SQLException {
-        String sql = "SELECT * FROM ETUDIANT WHERE nom LIKE ? OR prenom LIKE ? " +
-                     "ORDER BY nom, prenom";
-        String pattern = "%" + keyword + "%";
-        return executeQuery(sql, this::mapEtudiant, pattern, pattern);
+        return SearchIndex.getInstance().rechercherEtudiants(keyword, SEARCH_LIMIT);
+    }
+    
+    /**
+     * Page de résultats d'une recherche, dans l'ordre de pertinence de l'index
+     * @param apres dernier étudiant de la page précédente, null pour la première page
+     * @param taille nombre maximal d'étudiants retournés
+     */
+    public List<Etudiant> searchPageAfter(String keyword, Etudiant apres, int taille) throws SQLException {
+        List<Etudiant> resultats = SearchIndex.getInstance().rechercherEtudiants(keyword, Integer.MAX_VALUE);
+        int debut = 0;
+        if (apres != null) {
+            // Étudiant disparu de l'index depuis la page précédente : fin des résultats
+            debut = resultats.size();
+            for (int i = 0; i < resultats.size(); i++) {
+                if (resultats.get(i).getIdEtudiant() == apres.getIdEtudiant()) {
+                    debut = i + 1;
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(resultats.subList(debut, Math.min(debut + taille, resultats.size())));
+    }
+    
+    /**
+     * Récupère une page d'étudiants triés par nom, prénom (pagination par clé sur idx_nom_prenom)
+     * @param apres dernier étudiant de la page précédente, null pour la première page
+     * @param taille nombre maximal d'étudiants retournés
+     */
+    public List<Etudiant> findPageAfter(Etudiant apres, int taille) throws SQLException {
+        if (apres == null) {
+            String sql = "SELECT * FROM ETUDIANT ORDER BY nom, prenom, id_etudiant LIMIT ?";
+            return executeQuery(sql, mapperEtudiant(), taille);
+        }
+        
+        String sql = "SELECT * FROM ETUDIANT " +
+                     "WHERE (nom, prenom, id_etudiant) > (?, ?, ?) " +
+                     "ORDER BY nom, prenom, id_etudiant LIMIT ?";
+        return executeQuery(sql, mapperEtudiant(),
+            apres.getNom(), apres.getPrenom(), apres.getIdEtudiant(), taille);
     }
     
     /**
@@ -86,7 +147,7 @@ public class EtudiantDAO extends BaseDAO<Etudiant> {
      */
     public List<Etudiant> findByOrigine(String origine) throws SQLException {
         String sql = "SELECT * FROM ETUDIANT WHERE origine_scolaire = ? ORDER BY nom, prenom";
-        return executeQuery(sql, this::mapEtudiant, origine);
+        return executeQuery(sql, mapperEtudiant(), origine);
     }
     
     /**
@@ -97,7 +158,7 @@ public class EtudiantDAO extends BaseDAO<Etudiant> {
                      "JOIN INSCRIPTION i ON e.id_etudiant = i.id_etudiant " +
                      "WHERE i.id_programme = ? AND i.id_annee = ? " +
                      "ORDER BY e.nom, e.prenom";
-        return executeQuery(sql, this::mapEtudiant, idProgramme, idAnnee);
+        return executeQuery(sql, mapperEtudiant(), idProgramme, idAnnee);
     }
     
     /**
@@ -105,11 +166,12 @@ public class EtudiantDAO extends BaseDAO<Etudiant> {
      */
     public boolean emailExists(String email, int excludeId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM ETUDIANT WHERE email = ? AND id_etudiant != ?";
+        Connection conn = acquireConnection();
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
-            stmt = connection.prepareStatement(sql);
+            stmt = conn.prepareStatement(sql);
             stmt.setString(1, email);
             stmt.setInt(2, excludeId);
             rs = stmt.executeQuery();
@@ -119,6 +181,7 @@ public class EtudiantDAO extends BaseDAO<Etudiant> {
             }
         } finally {
             closeResources(rs, stmt);
+            releaseConnection(conn);
         }
         
         return false;
@@ -129,11 +192,12 @@ public class EtudiantDAO extends BaseDAO<Etudiant> {
      */
     public int count() throws SQLException {
         String sql = "SELECT COUNT(*) FROM ETUDIANT";
+        Connection conn = acquireConnection();
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
         try {
-            stmt = connection.prepareStatement(sql);
+            stmt = conn.prepareStatement(sql);
             rs = stmt.executeQuery();
             
             if (rs.next()) {
@@ -141,35 +205,50 @@ public class EtudiantDAO extends BaseDAO<Etudiant> {
             }
         } finally {
             closeResources(rs, stmt);
+            releaseConnection(conn);
         }
         
         return 0;
     }
     
     /**
-     * Map un ResultSet vers un objet Etudiant
+     * Mapper vers Etudiant, colonnes résolues par index (aussi utilisé par les requêtes jointes des services)
      */
-    private Etudiant mapEtudiant(ResultSet rs) throws SQLException {
-        Etudiant etudiant = new Etudiant();
-        etudiant.setIdEtudiant(rs.getInt("id_etudiant"));
-        etudiant.setNom(rs.getString("nom"));
-        etudiant.setPrenom(rs.getString("prenom"));
-        etudiant.setOrigineScolaire(rs.getString("origine_scolaire"));
-        
-        Date dateNaissance = rs.getDate("date_naissance");
-        if (dateNaissance != null) {
-            etudiant.setDateNaissance(dateNaissance.toLocalDate());
-        }
-        
-        etudiant.setEmail(rs.getString("email"));
-        etudiant.setTelephone(rs.getString("telephone"));
-        etudiant.setAdresse(rs.getString("adresse"));
-        
-        Date dateInscription = rs.getDate("date_inscription");
-        if (dateInscription != null) {
-            etudiant.setDateInscription(dateInscription.toLocalDate());
-        }
-        
-        return etudiant;
+    public RowMapper<Etudiant> mapperEtudiant() {
+        return ColumnIndex.mapper(c -> {
+            int idEtudiant = c.required("id_etudiant");
+            int nom = c.required("nom");
+            int prenom = c.required("prenom");
+            int origineScolaire = c.required("origine_scolaire");
+            int dateNaissance = c.required("date_naissance");
+            int email = c.required("email");
+            int telephone = c.required("telephone");
+            int adresse = c.required("adresse");
+            int dateInscription = c.required("date_inscription");
+            
+            return rs -> {
+                Etudiant etudiant = new Etudiant();
+                etudiant.setIdEtudiant(rs.getInt(idEtudiant));
+                etudiant.setNom(rs.getString(nom));
+                etudiant.setPrenom(rs.getString(prenom));
+                etudiant.setOrigineScolaire(rs.getString(origineScolaire));
+                
+                Date naissance = rs.getDate(dateNaissance);
+                if (naissance != null) {
+                    etudiant.setDateNaissance(naissance.toLocalDate());
+                }
+                
+                etudiant.setEmail(rs.getString(email));
+                etudiant.setTelephone(rs.getString(telephone));
+                etudiant.setAdresse(rs.getString(adresse));
+                
+                Date inscription = rs.getDate(dateInscription);
+                if (inscription != null) {
+                    etudiant.setDateInscription(inscription.toLocalDate());
+                }
+                
+                return etudiant;
+            };
+        });
     }
 }
\ No newline at end of file
@@ -6,29 +6,55 @@ package dao;
 
 import models.*;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public class InscriptionDAO extends BaseDAO<Inscription> {
     
+    private static final String FIND_ALL_SQL =
+        "SELECT i.*, CONCAT(e.nom, ' ', e.prenom) AS etudiant_name, " +
+        "p.nom AS programme_name, a.libelle AS annee_scolaire " +
+        "FROM INSCRIPTION i " +
+        "JOIN ETUDIANT e ON i.id_etudiant = e.id_etudiant " +
+        "JOIN PROGRAMME p ON i.id_programme = p.id_programme " +
+        "JOIN ANNEE_SCOLAIRE a ON i.id_annee = a.id_annee " +
+        "ORDER BY a.libelle DESC, e.nom";
+    
     @Override
     public List<Inscription> findAll() throws SQLException {
-        String sql = "SELECT i.*, CONCAT(e.nom, ' ', e.prenom) AS etudiant_name, " +
-                     "p.nom AS programme_name, a.libelle AS annee_scolaire " +
-                     "FROM INSCRIPTION i " +
-                     "JOIN ETUDIANT e ON i.id_etudiant = e.id_etudiant " +
-                     "JOIN PROGRAMME p ON i.id_programme = p.id_programme " +
-                     "JOIN ANNEE_SCOLAIRE a ON i.id_annee = a.id_annee " +
-                     "ORDER BY a.libelle DESC, e.nom";
-        return executeQuery(sql, this::mapInscription);
+        return executeQuery(FIND_ALL_SQL, mapperInscription());
+    }
+    
+    /**
+     * Parcourt toutes les inscriptions en flux sans les charger en mémoire
+     */
+    public long forEachInscription(RowConsumer<Inscription> consumer) throws SQLException {
+        return forEachRow(FIND_ALL_SQL, mapperInscription(), consumer);
+    }
+    
+    /**
+     * Toutes les inscriptions sous forme de Stream à fermer après usage
+     */
+    public Stream<Inscription> streamAll() throws SQLException {
+        return stream(FIND_ALL_SQL, mapperInscription());
     }
     
     @Override
     public Inscription findById(int id) throws SQLException {
         String sql = "SELECT * FROM INSCRIPTION WHERE id_inscription = ?";
-        List<Inscription> results = executeQuery(sql, this::mapInscription, id);
+        List<Inscription> results = executeQuery(sql, mapperInscription(), id);
         return results.isEmpty() ? null : results.get(0);
     }
     
+    @Override
+    public Map<Integer, Inscription> findByIds(Collection<Integer> ids) throws SQLException {
+        String sql = "SELECT * FROM INSCRIPTION WHERE id_inscription IN (%s)";
+        return selectByIds(ids, sql, mapperInscription(), Inscription::getIdInscription);
+    }
+    
     @Override
     public int insert(Inscription inscription) throws SQLException {
         String sql = "INSERT INTO INSCRIPTION (id_etudiant, id_programme, id_annee) " +
@@ -64,24 +90,68 @@ public class InscriptionDAO extends BaseDAO<Inscription> {
         return executeUpdate(sql, statut, idEtudiant, idProgramme, idAnnee) > 0;
     }
     
-    private Inscription mapInscription(ResultSet rs) throws SQLException {
-        Inscription i = new Inscription();
-        i.setIdInscription(rs.getInt("id_inscription"));
-        i.setIdEtudiant(rs.getInt("id_etudiant"));
-        i.setIdProgramme(rs.getInt("id_programme"));
-        i.setIdAnnee(rs.getInt("id_annee"));
-        i.setMoyenneGenerale((Double) rs.getObject("moyenne_generale"));
-        i.setStatutFinAnnee(rs.getString("statut_fin_annee"));
-        
-        Date dateInscription = rs.getDate("date_inscription");
-        if (dateInscription != null) {
-            i.setDateInscription(dateInscription.toLocalDate());
+    /**
+     * Enregistre le statut de plusieurs inscrits d'une promotion
+     * en une seule requête batch (une transaction)
+     * @return le nombre d'inscriptions mises à jour
+     */
+    public int updateStatuts(int idProgramme, int idAnnee, int[] etudiants,
+                             String[] statuts) throws SQLException {
+        String sql = "UPDATE INSCRIPTION SET statut_fin_annee = ? " +
+                     "WHERE id_etudiant = ? AND id_programme = ? AND id_annee = ?";
+    
+        List<Object[]> params = new ArrayList<>(etudiants.length);
+        for (int i = 0; i < etudiants.length; i++) {
+            params.add(new Object[]{statuts[i], etudiants[i], idProgramme, idAnnee});
         }
-        
-        try { i.setEtudiantName(rs.getString("etudiant_name")); } catch (SQLException ignored) {}
-        try { i.setProgrammeName(rs.getString("programme_name")); } catch (SQLException ignored) {}
-        try { i.setAnneeScolaire(rs.getString("annee_scolaire")); } catch (SQLException ignored) {}
-        
-        return i;
+        int mises = 0;
+        for (int n : executeBatch(sql, params)) {
+            mises += n > 0 || n == Statement.SUCCESS_NO_INFO ? 1 : 0;
+        }
+        return mises;
+    }
+    
+    /**
+     * Les colonnes de jointure (etudiant_name, programme_name, annee_scolaire)
+     * ne sont lues que si la requête les sélectionne
+     */
+    private RowMapper<Inscription> mapperInscription() {
+        return ColumnIndex.mapper(c -> {
+            int idInscription = c.required("id_inscription");
+            int idEtudiant = c.required("id_etudiant");
+            int idProgramme = c.required("id_programme");
+            int idAnnee = c.required("id_annee");
+            int moyenneGenerale = c.required("moyenne_generale");
+            int statutFinAnnee = c.required("statut_fin_annee");
+            int dateInscription = c.required("date_inscription");
+            
+            int etudiantName = c.optional("etudiant_name");
+            int programmeName = c.optional("programme_name");
+            int anneeScolaire = c.optional("annee_scolaire");
+            
+            return rs -> {
+                Inscription i = new Inscription();
+                i.setIdInscription(rs.getInt(idInscription));
+                i.setIdEtudiant(rs.getInt(idEtudiant));
+                i.setIdProgramme(rs.getInt(idProgramme));
+                i.setIdAnnee(rs.getInt(idAnnee));
+                
+                // DECIMAL : lu en double, null conservé
+                double moyenne = rs.getDouble(moyenneGenerale);
+                i.setMoyenneGenerale(rs.wasNull() ? null : moyenne);
+                i.setStatutFinAnnee(rs.getString(statutFinAnnee));
+                
+                Date date = rs.getDate(dateInscription);
+                if (date != null) {
+                    i.setDateInscription(date.toLocalDate());
+                }
+                
+                if (etudiantName > 0) i.setEtudiantName(rs.getString(etudiantName));
+                if (programmeName > 0) i.setProgrammeName(rs.getString(programmeName));
+                if (anneeScolaire > 0) i.setAnneeScolaire(rs.getString(anneeScolaire));
+                
+                return i;
+            };
+        });
     }
 }
\ No newline at end of file
@@ -6,55 +6,93 @@ package dao;
 
 import models.*;
 import java.sql.*;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class MatiereDAO extends BaseDAO<Matiere> {
     
+    static final String CACHE_REGION = "MATIERE";
+    
+    private final QueryCache cache = QueryCache.getInstance();
+    
     @Override
     public List<Matiere> findAll() throws SQLException {
         String sql = "SELECT * FROM MATIERE ORDER BY nom";
-        return executeQuery(sql, this::mapMatiere);
+        return cache.getList(CACHE_REGION, "all", () -> executeQuery(sql, mapperMatiere()));
     }
     
     @Override
     public Matiere findById(int id) throws SQLException {
         String sql = "SELECT * FROM MATIERE WHERE id_matiere = ?";
-        List<Matiere> results = executeQuery(sql, this::mapMatiere, id);
-        return results.isEmpty() ? null : results.get(0);
+        return cache.get(CACHE_REGION, "id:" + id, () -> {
+            List<Matiere> results = executeQuery(sql, mapperMatiere(), id);
+            return results.isEmpty() ? null : results.get(0);
+        });
+    }
+    
+    @Override
+    public Map<Integer, Matiere> findByIds(Collection<Integer> ids) throws SQLException {
+        String sql = "SELECT * FROM MATIERE WHERE id_matiere IN (%s)";
+        return selectByIds(ids, sql, mapperMatiere(), Matiere::getIdMatiere);
     }
     
     @Override
     public int insert(Matiere matiere) throws SQLException {
         String sql = "INSERT INTO MATIERE (nom, objectif, semestre) VALUES (?, ?, ?)";
-        return executeUpdate(sql, matiere.getNom(), matiere.getObjectif(), 
+        int id = executeUpdate(sql, matiere.getNom(), matiere.getObjectif(), 
                            matiere.getSemestre());
+        invalidateCache();
+        return id;
     }
     
     @Override
     public boolean update(Matiere matiere) throws SQLException {
         String sql = "UPDATE MATIERE SET nom = ?, objectif = ?, semestre = ? " +
                      "WHERE id_matiere = ?";
-        return executeUpdate(sql, matiere.getNom(), matiere.getObjectif(),
+        boolean updated = executeUpdate(sql, matiere.getNom(), matiere.getObjectif(),
                            matiere.getSemestre(), matiere.getIdMatiere()) > 0;
+        invalidateCache();
+        return updated;
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM MATIERE WHERE id_matiere = ?";
-        return executeUpdate(sql, id) > 0;
+        boolean deleted = executeUpdate(sql, id) > 0;
+        invalidateCache();
+        return deleted;
     }
     
     public List<Matiere> findBySemestre(int semestre) throws SQLException {
         String sql = "SELECT * FROM MATIERE WHERE semestre = ? ORDER BY nom";
-        return executeQuery(sql, this::mapMatiere, semestre);
+        return cache.getList(CACHE_REGION, "semestre:" + semestre,
+            () -> executeQuery(sql, mapperMatiere(), semestre));
+    }
+    
+    /**
+     * Les matières par programme (ProgrammeDAO) dépendent aussi de cette table
+     */
+    private void invalidateCache() {
+        cache.invalidateOnWrite(CACHE_REGION);
+        cache.invalidateOnWrite(ProgrammeDAO.CACHE_REGION);
     }
     
-    private Matiere mapMatiere(ResultSet rs) throws SQLException {
-        Matiere m = new Matiere();
-        m.setIdMatiere(rs.getInt("id_matiere"));
-        m.setNom(rs.getString("nom"));
-        m.setObjectif(rs.getString("objectif"));
-        m.setSemestre((Integer) rs.getObject("semestre"));
-        return m;
+    private RowMapper<Matiere> mapperMatiere() {
+        return ColumnIndex.mapper(c -> {
+            int idMatiere = c.required("id_matiere");
+            int nom = c.required("nom");
+            int objectif = c.required("objectif");
+            int semestre = c.required("semestre");
+            
+            return rs -> {
+                Matiere m = new Matiere();
+                m.setIdMatiere(rs.getInt(idMatiere));
+                m.setNom(rs.getString(nom));
+                m.setObjectif(rs.getString(objectif));
+                m.setSemestre((Integer) rs.getObject(semestre));
+                return m;
+            };
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+/*
+ * Requête SQL nommée du registre
+ */
+package dao;
+
+/**
+ * Texte SQL constant, identifié par un nom stable (statistiques, journal des requêtes
+ * lentes) et décrit pour la validation au démarrage.
+ * @see QueryRegistry
+ */
+public final class NamedQuery {
+    private final String nom;
+    private final String description;
+    private final String sql;
+
+    NamedQuery(String nom, String description, String sql) {
+        this.nom = nom;
+        this.description = description;
+        this.sql = sql;
+    }
+
+    public String getNom() { return nom; }
+    public String getDescription() { return description; }
+    public String getSql() { return sql; }
+
+    @Override
+    public String toString() {
+        return nom;
+    }
+}
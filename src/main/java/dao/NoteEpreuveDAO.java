@@ -6,36 +6,59 @@ package dao;
 
 import models.*;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public class NoteEpreuveDAO extends BaseDAO<NoteEpreuve> {
     
+    private static final String UPSERT_SQL =
+        "INSERT INTO NOTE_EPREUVE (id_etudiant, id_epreuve, note, modifie_par, commentaire) " +
+        "VALUES (?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE note = VALUES(note), commentaire = VALUES(commentaire), " +
+        "modifie_par = VALUES(modifie_par), date_saisie = CURRENT_TIMESTAMP";
+    
     @Override
     public List<NoteEpreuve> findAll() throws SQLException {
-        String sql = "SELECT ne.*, CONCAT(e.nom, ' ', e.prenom) AS etudiant_name, " +
-                     "m.nom AS matiere_name, ep.type_epreuve, ep.coefficient " +
-                     "FROM NOTE_EPREUVE ne " +
-                     "JOIN ETUDIANT e ON ne.id_etudiant = e.id_etudiant " +
-                     "JOIN EPREUVE ep ON ne.id_epreuve = ep.id_epreuve " +
-                     "JOIN MATIERE m ON ep.id_matiere = m.id_matiere " +
-                     "ORDER BY ne.date_saisie DESC";
-        return executeQuery(sql, this::mapNoteEpreuve);
+        return executeQuery(QueryRegistry.NOTES_TOUTES, mapperNoteEpreuve());
+    }
+    
+    /**
+     * Parcourt toutes les notes en flux (exports, analyses) sans les charger en mémoire
+     */
+    public long forEachNote(RowConsumer<NoteEpreuve> consumer) throws SQLException {
+        return forEachRow(QueryRegistry.NOTES_TOUTES, mapperNoteEpreuve(), consumer);
+    }
+    
+    /**
+     * Toutes les notes sous forme de Stream à fermer après usage
+     */
+    public Stream<NoteEpreuve> streamAll() throws SQLException {
+        return stream(QueryRegistry.NOTES_TOUTES.getSql(), mapperNoteEpreuve());
     }
     
     @Override
     public NoteEpreuve findById(int id) throws SQLException {
         String sql = "SELECT * FROM NOTE_EPREUVE WHERE id_note_epreuve = ?";
-        List<NoteEpreuve> results = executeQuery(sql, this::mapNoteEpreuve, id);
+        List<NoteEpreuve> results = executeQuery(sql, mapperNoteEpreuve(), id);
         return results.isEmpty() ? null : results.get(0);
     }
     
+    @Override
+    public Map<Integer, NoteEpreuve> findByIds(Collection<Integer> ids) throws SQLException {
+        String sql = "SELECT * FROM NOTE_EPREUVE WHERE id_note_epreuve IN (%s)";
+        return selectByIds(ids, sql, mapperNoteEpreuve(), NoteEpreuve::getIdNoteEpreuve);
+    }
+    
     public List<NoteEpreuve> findByEtudiantMatiereAnnee(int idEtudiant, int idMatiere, 
                                                          int idAnnee) throws SQLException {
         String sql = "SELECT ne.*, ep.coefficient, ep.type_epreuve " +
                      "FROM NOTE_EPREUVE ne " +
                      "JOIN EPREUVE ep ON ne.id_epreuve = ep.id_epreuve " +
                      "WHERE ne.id_etudiant = ? AND ep.id_matiere = ? AND ep.id_annee = ?";
-        return executeQuery(sql, this::mapNoteEpreuve, idEtudiant, idMatiere, idAnnee);
+        return executeQuery(sql, mapperNoteEpreuve(), idEtudiant, idMatiere, idAnnee);
     }
 
     /**
@@ -44,53 +67,50 @@ public class NoteEpreuveDAO extends BaseDAO<NoteEpreuve> {
      * pour l'année scolaire de l'épreuve. Les étudiants sans note apparaissent avec note NULL.
      */
     public List<NoteEpreuve> findEtudiantsPourEpreuve(int idEpreuve) throws SQLException {
-        String sql = "SELECT e.id_etudiant, CONCAT(e.nom, ' ', e.prenom) AS etudiant_name, " +
-                     "ne.id_note_epreuve, ne.id_epreuve, ne.note, ne.commentaire, ne.date_saisie " +
-                     "FROM ETUDIANT e " +
-                     "JOIN INSCRIPTION i ON e.id_etudiant = i.id_etudiant " +
-                     "JOIN EPREUVE ep ON ep.id_epreuve = ? " +
-                     "JOIN PROGRAMME_MATIERE pgm ON pgm.id_matiere = ep.id_matiere " +
-                     "AND pgm.id_programme = i.id_programme " +
-                     "AND i.id_annee = ep.id_annee " +
-                     "LEFT JOIN NOTE_EPREUVE ne ON ne.id_epreuve = ep.id_epreuve " +
-                     "AND ne.id_etudiant = e.id_etudiant " +
-                     "ORDER BY e.nom, e.prenom";
-
-        return executeQuery(sql, rs -> {
-            NoteEpreuve ne = new NoteEpreuve();
-            int idEtudiant = rs.getInt("id_etudiant");
-            ne.setIdEtudiant(idEtudiant);
-            ne.setIdEpreuve(idEpreuve);
+        return executeQuery(QueryRegistry.NOTES_FEUILLE_EPREUVE, ColumnIndex.mapper(c -> {
+            int idEtudiant = c.required("id_etudiant");
+            int idNoteEpreuve = c.required("id_note_epreuve");
+            int note = c.required("note");
+            int commentaire = c.required("commentaire");
+            int dateSaisie = c.required("date_saisie");
+            int etudiantName = c.required("etudiant_name");
 
-            // Champs existants si la note est saisie
-            Object idNoteObj = rs.getObject("id_note_epreuve");
-            if (idNoteObj != null) {
-                ne.setIdNoteEpreuve(((Number) idNoteObj).intValue());
-            }
+            return rs -> {
+                NoteEpreuve ne = new NoteEpreuve();
+                ne.setIdEtudiant(rs.getInt(idEtudiant));
+                ne.setIdEpreuve(idEpreuve);
 
-            Object noteObj = rs.getObject("note");
-            if (noteObj != null) {
-                ne.setNote(((Number) noteObj).doubleValue());
-            }
+                // Champs NULL tant que la note n'est pas saisie (LEFT JOIN)
+                int id = rs.getInt(idNoteEpreuve);
+                if (!rs.wasNull()) {
+                    ne.setIdNoteEpreuve(id);
+                }
+                double valeur = rs.getDouble(note);
+                if (!rs.wasNull()) {
+                    ne.setNote(valeur);
+                }
 
-            ne.setCommentaire(rs.getString("commentaire"));
-            Timestamp ts = rs.getTimestamp("date_saisie");
-            if (ts != null) {
-                ne.setDateSaisie(ts.toLocalDateTime());
-            }
+                ne.setCommentaire(rs.getString(commentaire));
+                Timestamp ts = rs.getTimestamp(dateSaisie);
+                if (ts != null) {
+                    ne.setDateSaisie(ts.toLocalDateTime());
+                }
 
-            // Jointure affichage
-            ne.setEtudiantName(rs.getString("etudiant_name"));
-            return ne;
-        }, idEpreuve);
+                // Jointure affichage
+                ne.setEtudiantName(rs.getString(etudiantName));
+                return ne;
+            };
+        }), idEpreuve);
     }
     
     @Override
     public int insert(NoteEpreuve note) throws SQLException {
         String sql = "INSERT INTO NOTE_EPREUVE (id_etudiant, id_epreuve, note, " +
                      "modifie_par, commentaire) VALUES (?, ?, ?, ?, ?)";
-        return executeUpdate(sql, note.getIdEtudiant(), note.getIdEpreuve(),
+        int id = executeUpdate(sql, note.getIdEtudiant(), note.getIdEpreuve(),
                            note.getNote(), note.getModifiePar(), note.getCommentaire());
+        VersionNotes.incrementerOnWrite();
+        return id;
     }
     
     @Override
@@ -98,51 +118,162 @@ public class NoteEpreuveDAO extends BaseDAO<NoteEpreuve> {
         String sql = "UPDATE NOTE_EPREUVE SET note = ?, commentaire = ?, " +
                      "modifie_par = ?, date_saisie = CURRENT_TIMESTAMP " +
                      "WHERE id_note_epreuve = ?";
-        return executeUpdate(sql, note.getNote(), note.getCommentaire(),
+        boolean updated = executeUpdate(sql, note.getNote(), note.getCommentaire(),
                            note.getModifiePar(), note.getIdNoteEpreuve()) > 0;
+        VersionNotes.incrementerOnWrite();
+        return updated;
+    }
+    
+    /**
+     * Insère ou met à jour une note (clé unique id_etudiant, id_epreuve) en un seul aller-retour
+     */
+    public boolean upsert(NoteEpreuve note) throws SQLException {
+        boolean ok = executeUpdate(UPSERT_SQL, note.getIdEtudiant(), note.getIdEpreuve(),
+                           note.getNote(), note.getModifiePar(), note.getCommentaire()) > 0;
+        VersionNotes.incrementerOnWrite();
+        return ok;
+    }
+    
+    /**
+     * Insère ou met à jour un ensemble de notes en une seule requête batch
+     * @return le nombre de notes enregistrées
+     */
+    public int upsertAll(List<NoteEpreuve> notes) throws SQLException {
+        List<Object[]> params = new ArrayList<>(notes.size());
+        for (NoteEpreuve note : notes) {
+            params.add(new Object[]{note.getIdEtudiant(), note.getIdEpreuve(),
+                                    note.getNote(), note.getModifiePar(), note.getCommentaire()});
+        }
+        executeBatch(UPSERT_SQL, params);
+        VersionNotes.incrementerOnWrite();
+        return notes.size();
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM NOTE_EPREUVE WHERE id_note_epreuve = ?";
-        return executeUpdate(sql, id) > 0;
+        boolean deleted = executeUpdate(sql, id) > 0;
+        VersionNotes.incrementerOnWrite();
+        return deleted;
     }
     
+    /**
+     * Nombre de notes restant à saisir sur les épreuves d'un enseignant
+     * (somme de {@link #findAvancementSaisie(int)})
+     */
     public int countNotesManquantes(int idEnseignant) throws SQLException {
-        String sql = "SELECT COUNT(DISTINCT e.id_etudiant) " +
-                     "FROM ETUDIANT e " +
-                     "JOIN INSCRIPTION i ON e.id_etudiant = i.id_etudiant " +
-                     "CROSS JOIN EPREUVE ep " +
-                     "LEFT JOIN NOTE_EPREUVE ne ON e.id_etudiant = ne.id_etudiant " +
-                     "AND ep.id_epreuve = ne.id_epreuve " +
-                     "WHERE ep.id_enseignant = ? AND ne.id_note_epreuve IS NULL";
-        PreparedStatement stmt = connection.prepareStatement(sql);
-        stmt.setInt(1, idEnseignant);
-        ResultSet rs = stmt.executeQuery();
-        return rs.next() ? rs.getInt(1) : 0;
-    }
-    
-    private NoteEpreuve mapNoteEpreuve(ResultSet rs) throws SQLException {
-        NoteEpreuve ne = new NoteEpreuve();
-        ne.setIdNoteEpreuve(rs.getInt("id_note_epreuve"));
-        ne.setIdEtudiant(rs.getInt("id_etudiant"));
-        ne.setIdEpreuve(rs.getInt("id_epreuve"));
-        ne.setNote(rs.getDouble("note"));
-        
-        Timestamp dateSaisie = rs.getTimestamp("date_saisie");
-        if (dateSaisie != null) {
-            ne.setDateSaisie(dateSaisie.toLocalDateTime());
+        int total = 0;
+        for (AvancementSaisie avancement : findAvancementSaisie(idEnseignant)) {
+            total += avancement.getNbManquantes();
         }
+        return total;
+    }
+    
+    /**
+     * Avancement de la saisie pour chaque épreuve d'un enseignant : étudiants concernés
+     * (inscrits l'année de l'épreuve dans un programme qui comprend sa matière) et notes saisies.
+     * Le parcours part des épreuves de l'enseignant ; inscriptions et notes sont atteintes
+     * par index (programme/année, puis étudiant/épreuve), sans produit cartésien.
+     */
+    public List<AvancementSaisie> findAvancementSaisie(int idEnseignant) throws SQLException {
+        return executeQuery(QueryRegistry.NOTES_AVANCEMENT_SAISIE, rs -> {
+            AvancementSaisie a = new AvancementSaisie();
+            a.setIdEpreuve(rs.getInt("id_epreuve"));
+            a.setIntitule(rs.getString("intitule"));
+            a.setTypeEpreuve(rs.getString("type_epreuve"));
+            Date dateEpreuve = rs.getDate("date_epreuve");
+            if (dateEpreuve != null) {
+                a.setDateEpreuve(dateEpreuve.toLocalDate());
+            }
+            a.setMatiereName(rs.getString("matiere_name"));
+            a.setNbInscrits(rs.getInt("nb_inscrits"));
+            a.setNbNotes(rs.getInt("nb_notes"));
+            return a;
+        }, idEnseignant);
+    }
+    
+    /**
+     * Les colonnes de jointure (etudiant_name, matiere_name, type_epreuve, coefficient)
+     * ne sont lues que si la requête les sélectionne
+     */
+    private RowMapper<NoteEpreuve> mapperNoteEpreuve() {
+        return ColumnIndex.mapper(c -> {
+            int idNoteEpreuve = c.required("id_note_epreuve");
+            int idEtudiant = c.required("id_etudiant");
+            int idEpreuve = c.required("id_epreuve");
+            int note = c.required("note");
+            int dateSaisie = c.required("date_saisie");
+            int modifiePar = c.required("modifie_par");
+            int commentaire = c.required("commentaire");
+            
+            // Jointures
+            int etudiantName = c.optional("etudiant_name");
+            int matiereName = c.optional("matiere_name");
+            int typeEpreuve = c.optional("type_epreuve");
+            int coefficient = c.optional("coefficient");
+            
+            return rs -> {
+                NoteEpreuve ne = new NoteEpreuve();
+                ne.setIdNoteEpreuve(rs.getInt(idNoteEpreuve));
+                ne.setIdEtudiant(rs.getInt(idEtudiant));
+                ne.setIdEpreuve(rs.getInt(idEpreuve));
+                ne.setNote(rs.getDouble(note));
+                
+                Timestamp saisie = rs.getTimestamp(dateSaisie);
+                if (saisie != null) {
+                    ne.setDateSaisie(saisie.toLocalDateTime());
+                }
+                
+                ne.setModifiePar((Integer) rs.getObject(modifiePar));
+                ne.setCommentaire(rs.getString(commentaire));
+                
+                if (etudiantName > 0) ne.setEtudiantName(rs.getString(etudiantName));
+                if (matiereName > 0) ne.setMatiereName(rs.getString(matiereName));
+                if (typeEpreuve > 0) ne.setTypeEpreuve(rs.getString(typeEpreuve));
+                if (coefficient > 0) ne.setCoefficient(rs.getDouble(coefficient));
+                
+                return ne;
+            };
+        });
+    }
+    
+    /**
+     * Avancement de la saisie des notes d'une épreuve
+     */
+    public static class AvancementSaisie {
+        private int idEpreuve;
+        private String intitule;
+        private String typeEpreuve;
+        private java.time.LocalDate dateEpreuve;
+        private String matiereName;
+        private int nbInscrits;
+        private int nbNotes;
+        
+        public int getIdEpreuve() { return idEpreuve; }
+        public void setIdEpreuve(int idEpreuve) { this.idEpreuve = idEpreuve; }
         
-        ne.setModifiePar((Integer) rs.getObject("modifie_par"));
-        ne.setCommentaire(rs.getString("commentaire"));
+        public String getIntitule() { return intitule; }
+        public void setIntitule(String intitule) { this.intitule = intitule; }
         
-        // Jointures
-        try { ne.setEtudiantName(rs.getString("etudiant_name")); } catch (SQLException ignored) {}
-        try { ne.setMatiereName(rs.getString("matiere_name")); } catch (SQLException ignored) {}
-        try { ne.setTypeEpreuve(rs.getString("type_epreuve")); } catch (SQLException ignored) {}
-        try { ne.setCoefficient(rs.getDouble("coefficient")); } catch (SQLException ignored) {}
+        public String getTypeEpreuve() { return typeEpreuve; }
+        public void setTypeEpreuve(String typeEpreuve) { this.typeEpreuve = typeEpreuve; }
         
-        return ne;
+        public java.time.LocalDate getDateEpreuve() { return dateEpreuve; }
+        public void setDateEpreuve(java.time.LocalDate dateEpreuve) { this.dateEpreuve = dateEpreuve; }
+        
+        public String getMatiereName() { return matiereName; }
+        public void setMatiereName(String matiereName) { this.matiereName = matiereName; }
+        
+        public int getNbInscrits() { return nbInscrits; }
+        public void setNbInscrits(int nbInscrits) { this.nbInscrits = nbInscrits; }
+        
+        public int getNbNotes() { return nbNotes; }
+        public void setNbNotes(int nbNotes) { this.nbNotes = nbNotes; }
+        
+        public int getNbManquantes() { return Math.max(0, nbInscrits - nbNotes); }
+        
+        public double getTauxSaisie() {
+            return nbInscrits == 0 ? 100.0 : nbNotes * 100.0 / nbInscrits;
+        }
     }
 }
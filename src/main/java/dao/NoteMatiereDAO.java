@@ -6,28 +6,37 @@ package dao;
 
 import models.NoteMatiere;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class NoteMatiereDAO extends BaseDAO<NoteMatiere> {
     
     @Override
     public List<NoteMatiere> findAll() throws SQLException {
         String sql = "SELECT * FROM NOTE_MATIERE ORDER BY id_etudiant";
-        return executeQuery(sql, this::mapNoteMatiere);
+        return executeQuery(sql, mapperNoteMatiere());
     }
     
     @Override
     public NoteMatiere findById(int id) throws SQLException {
         String sql = "SELECT * FROM NOTE_MATIERE WHERE id_note_matiere = ?";
-        List<NoteMatiere> results = executeQuery(sql, this::mapNoteMatiere, id);
+        List<NoteMatiere> results = executeQuery(sql, mapperNoteMatiere(), id);
         return results.isEmpty() ? null : results.get(0);
     }
     
+    @Override
+    public Map<Integer, NoteMatiere> findByIds(Collection<Integer> ids) throws SQLException {
+        String sql = "SELECT * FROM NOTE_MATIERE WHERE id_note_matiere IN (%s)";
+        return selectByIds(ids, sql, mapperNoteMatiere(), NoteMatiere::getIdNoteMatiere);
+    }
+    
     public NoteMatiere findByEtudiantMatiereAnnee(int idEtudiant, int idMatiere, 
                                                    int idAnnee) throws SQLException {
         String sql = "SELECT * FROM NOTE_MATIERE " +
                      "WHERE id_etudiant = ? AND id_matiere = ? AND id_annee = ?";
-        List<NoteMatiere> results = executeQuery(sql, this::mapNoteMatiere, 
+        List<NoteMatiere> results = executeQuery(sql, mapperNoteMatiere(), 
                                                 idEtudiant, idMatiere, idAnnee);
         return results.isEmpty() ? null : results.get(0);
     }
@@ -36,38 +45,104 @@ public class NoteMatiereDAO extends BaseDAO<NoteMatiere> {
     public int insert(NoteMatiere note) throws SQLException {
         String sql = "INSERT INTO NOTE_MATIERE (id_etudiant, id_matiere, id_annee, " +
                      "note_finale, validee) VALUES (?, ?, ?, ?, ?)";
-        return executeUpdate(sql, note.getIdEtudiant(), note.getIdMatiere(),
+        int id = executeUpdate(sql, note.getIdEtudiant(), note.getIdMatiere(),
                            note.getIdAnnee(), note.getNoteFinale(), note.isValidee());
+        VersionNotes.incrementerOnWrite();
+        return id;
     }
     
     @Override
     public boolean update(NoteMatiere note) throws SQLException {
         String sql = "UPDATE NOTE_MATIERE SET note_finale = ?, validee = ?, " +
                      "date_validation = ? WHERE id_note_matiere = ?";
-        return executeUpdate(sql, note.getNoteFinale(), note.isValidee(),
+        boolean updated = executeUpdate(sql, note.getNoteFinale(), note.isValidee(),
                            note.getDateValidation(), note.getIdNoteMatiere()) > 0;
+        VersionNotes.incrementerOnWrite();
+        return updated;
+    }
+    
+    /**
+     * Calcule en une seule requête agrégée les notes finales (moyennes pondérées des épreuves)
+     * de tous les étudiants inscrits à un programme, pour chaque matière du programme.
+     * Une matière sans note saisie obtient 0.
+     */
+    public List<NoteMatiere> calculerNotesPromotion(int idProgramme, int idAnnee) throws SQLException {
+        String sql = "SELECT i.id_etudiant, pgm.id_matiere, " +
+                     "COALESCE(ROUND(SUM(ne.note * ep.coefficient) / " +
+                     "NULLIF(SUM(CASE WHEN ne.id_note_epreuve IS NULL THEN 0 ELSE ep.coefficient END), 0), 2), 0) " +
+                     "AS note_finale " +
+                     "FROM INSCRIPTION i " +
+                     "JOIN PROGRAMME_MATIERE pgm ON pgm.id_programme = i.id_programme " +
+                     "LEFT JOIN EPREUVE ep ON ep.id_matiere = pgm.id_matiere AND ep.id_annee = i.id_annee " +
+                     "LEFT JOIN NOTE_EPREUVE ne ON ne.id_epreuve = ep.id_epreuve " +
+                     "AND ne.id_etudiant = i.id_etudiant " +
+                     "WHERE i.id_programme = ? AND i.id_annee = ? " +
+                     "GROUP BY i.id_etudiant, pgm.id_matiere";
+        
+        return executeQuery(sql, rs -> {
+            NoteMatiere nm = new NoteMatiere();
+            nm.setIdEtudiant(rs.getInt("id_etudiant"));
+            nm.setIdMatiere(rs.getInt("id_matiere"));
+            nm.setIdAnnee(idAnnee);
+            nm.setNoteFinale(rs.getDouble("note_finale"));
+            return nm;
+        }, idProgramme, idAnnee);
+    }
+    
+    /**
+     * Insère ou met à jour les notes finales (clé unique étudiant, matière, année) en batch.
+     * La validation éventuelle des notes existantes est conservée.
+     * @return le nombre de notes enregistrées
+     */
+    public int upsertAll(List<NoteMatiere> notes) throws SQLException {
+        String sql = "INSERT INTO NOTE_MATIERE (id_etudiant, id_matiere, id_annee, " +
+                     "note_finale, validee) VALUES (?, ?, ?, ?, FALSE) " +
+                     "ON DUPLICATE KEY UPDATE note_finale = VALUES(note_finale)";
+        
+        List<Object[]> params = new ArrayList<>(notes.size());
+        for (NoteMatiere note : notes) {
+            params.add(new Object[]{note.getIdEtudiant(), note.getIdMatiere(),
+                                    note.getIdAnnee(), note.getNoteFinale()});
+        }
+        executeBatch(sql, params);
+        VersionNotes.incrementerOnWrite();
+        return notes.size();
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM NOTE_MATIERE WHERE id_note_matiere = ?";
-        return executeUpdate(sql, id) > 0;
+        boolean deleted = executeUpdate(sql, id) > 0;
+        VersionNotes.incrementerOnWrite();
+        return deleted;
     }
     
-    private NoteMatiere mapNoteMatiere(ResultSet rs) throws SQLException {
-        NoteMatiere nm = new NoteMatiere();
-        nm.setIdNoteMatiere(rs.getInt("id_note_matiere"));
-        nm.setIdEtudiant(rs.getInt("id_etudiant"));
-        nm.setIdMatiere(rs.getInt("id_matiere"));
-        nm.setIdAnnee(rs.getInt("id_annee"));
-        nm.setNoteFinale(rs.getDouble("note_finale"));
-        nm.setValidee(rs.getBoolean("validee"));
-        
-        Date dateValidation = rs.getDate("date_validation");
-        if (dateValidation != null) {
-            nm.setDateValidation(dateValidation.toLocalDate());
-        }
-        
-        return nm;
+    private RowMapper<NoteMatiere> mapperNoteMatiere() {
+        return ColumnIndex.mapper(c -> {
+            int idNoteMatiere = c.required("id_note_matiere");
+            int idEtudiant = c.required("id_etudiant");
+            int idMatiere = c.required("id_matiere");
+            int idAnnee = c.required("id_annee");
+            int noteFinale = c.required("note_finale");
+            int validee = c.required("validee");
+            int dateValidation = c.required("date_validation");
+            
+            return rs -> {
+                NoteMatiere nm = new NoteMatiere();
+                nm.setIdNoteMatiere(rs.getInt(idNoteMatiere));
+                nm.setIdEtudiant(rs.getInt(idEtudiant));
+                nm.setIdMatiere(rs.getInt(idMatiere));
+                nm.setIdAnnee(rs.getInt(idAnnee));
+                nm.setNoteFinale(rs.getDouble(noteFinale));
+                nm.setValidee(rs.getBoolean(validee));
+                
+                Date date = rs.getDate(dateValidation);
+                if (date != null) {
+                    nm.setDateValidation(date.toLocalDate());
+                }
+                
+                return nm;
+            };
+        });
     }
 }
\ No newline at end of file
@@ -6,54 +6,75 @@ package dao;
 
 import models.*;
 import java.sql.*;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class ProgrammeDAO extends BaseDAO<Programme> {
     
+    // Région du cache des données de référence (les matières par programme y sont rattachées)
+    static final String CACHE_REGION = "PROGRAMME";
+    
+    private final QueryCache cache = QueryCache.getInstance();
+    
     @Override
     public List<Programme> findAll() throws SQLException {
         String sql = "SELECT * FROM PROGRAMME ORDER BY annee_etude, nom";
-        return executeQuery(sql, this::mapProgramme);
+        return cache.getList(CACHE_REGION, "all", () -> executeQuery(sql, mapperProgramme()));
     }
     
     @Override
     public Programme findById(int id) throws SQLException {
         String sql = "SELECT * FROM PROGRAMME WHERE id_programme = ?";
-        List<Programme> results = executeQuery(sql, this::mapProgramme, id);
-        return results.isEmpty() ? null : results.get(0);
+        return cache.get(CACHE_REGION, "id:" + id, () -> {
+            List<Programme> results = executeQuery(sql, mapperProgramme(), id);
+            return results.isEmpty() ? null : results.get(0);
+        });
+    }
+    
+    @Override
+    public Map<Integer, Programme> findByIds(Collection<Integer> ids) throws SQLException {
+        String sql = "SELECT * FROM PROGRAMME WHERE id_programme IN (%s)";
+        return selectByIds(ids, sql, mapperProgramme(), Programme::getIdProgramme);
     }
     
     @Override
     public int insert(Programme programme) throws SQLException {
         String sql = "INSERT INTO PROGRAMME (code, nom, annee_etude, description) " +
                      "VALUES (?, ?, ?, ?)";
-        return executeUpdate(sql, programme.getCode(), programme.getNom(),
+        int id = executeUpdate(sql, programme.getCode(), programme.getNom(),
                            programme.getAnneeEtude(), programme.getDescription());
+        cache.invalidateOnWrite(CACHE_REGION);
+        return id;
     }
     
     @Override
     public boolean update(Programme programme) throws SQLException {
         String sql = "UPDATE PROGRAMME SET code = ?, nom = ?, annee_etude = ?, " +
                      "description = ? WHERE id_programme = ?";
-        return executeUpdate(sql, programme.getCode(), programme.getNom(),
+        boolean updated = executeUpdate(sql, programme.getCode(), programme.getNom(),
                            programme.getAnneeEtude(), programme.getDescription(),
                            programme.getIdProgramme()) > 0;
+        cache.invalidateOnWrite(CACHE_REGION);
+        return updated;
     }
     
     @Override
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM PROGRAMME WHERE id_programme = ?";
-        return executeUpdate(sql, id) > 0;
+        boolean deleted = executeUpdate(sql, id) > 0;
+        cache.invalidateOnWrite(CACHE_REGION);
+        return deleted;
     }
     
     public List<Programme> findByAnneeEtude(int anneeEtude) throws SQLException {
         String sql = "SELECT * FROM PROGRAMME WHERE annee_etude = ? ORDER BY nom";
-        return executeQuery(sql, this::mapProgramme, anneeEtude);
+        return executeQuery(sql, mapperProgramme(), anneeEtude);
     }
     
     public Programme findByCode(String code) throws SQLException {
         String sql = "SELECT * FROM PROGRAMME WHERE code = ?";
-        List<Programme> results = executeQuery(sql, this::mapProgramme, code);
+        List<Programme> results = executeQuery(sql, mapperProgramme(), code);
         return results.isEmpty() ? null : results.get(0);
     }
     
@@ -62,24 +83,56 @@ public class ProgrammeDAO extends BaseDAO<Programme> {
                      "JOIN PROGRAMME_MATIERE pm ON m.id_matiere = pm.id_matiere " +
                      "WHERE pm.id_programme = ? ORDER BY m.nom";
         
-        MatiereDAO matiereDAO = new MatiereDAO();
-        return executeQuery(sql, rs -> {
-            Matiere m = new Matiere();
-            m.setIdMatiere(rs.getInt("id_matiere"));
-            m.setNom(rs.getString("nom"));
-            m.setObjectif(rs.getString("objectif"));
-            m.setSemestre((Integer) rs.getObject("semestre"));
-            return m;
-        }, idProgramme);
+        return cache.getList(CACHE_REGION, "matieres:" + idProgramme, () -> executeQuery(sql,
+            ColumnIndex.mapper(c -> {
+                int idMatiere = c.required("id_matiere");
+                int nom = c.required("nom");
+                int objectif = c.required("objectif");
+                int semestre = c.required("semestre");
+                
+                return rs -> {
+                    Matiere m = new Matiere();
+                    m.setIdMatiere(rs.getInt(idMatiere));
+                    m.setNom(rs.getString(nom));
+                    m.setObjectif(rs.getString(objectif));
+                    int valeur = rs.getInt(semestre);
+                    m.setSemestre(rs.wasNull() ? null : valeur);
+                    return m;
+                };
+            }), idProgramme));
+    }
+    
+    public boolean addMatiere(int idProgramme, int idMatiere) throws SQLException {
+        String sql = "INSERT INTO PROGRAMME_MATIERE (id_programme, id_matiere) VALUES (?, ?)";
+        boolean added = executeUpdate(sql, idProgramme, idMatiere) > 0;
+        cache.invalidateOnWrite(CACHE_REGION);
+        return added;
+    }
+    
+    public boolean removeMatiere(int idProgramme, int idMatiere) throws SQLException {
+        String sql = "DELETE FROM PROGRAMME_MATIERE WHERE id_programme = ? AND id_matiere = ?";
+        boolean removed = executeUpdate(sql, idProgramme, idMatiere) > 0;
+        cache.invalidateOnWrite(CACHE_REGION);
+        return removed;
     }
     
-    private Programme mapProgramme(ResultSet rs) throws SQLException {
-        Programme p = new Programme();
-        p.setIdProgramme(rs.getInt("id_programme"));
-        p.setCode(rs.getString("code"));
-        p.setNom(rs.getString("nom"));
-        p.setAnneeEtude(rs.getInt("annee_etude"));
-        p.setDescription(rs.getString("description"));
-        return p;
+    private RowMapper<Programme> mapperProgramme() {
+        return ColumnIndex.mapper(c -> {
+            int idProgramme = c.required("id_programme");
+            int code = c.required("code");
+            int nom = c.required("nom");
+            int anneeEtude = c.required("annee_etude");
+            int description = c.required("description");
+            
+            return rs -> {
+                Programme p = new Programme();
+                p.setIdProgramme(rs.getInt(idProgramme));
+                p.setCode(rs.getString(code));
+                p.setNom(rs.getString(nom));
+                p.setAnneeEtude(rs.getInt(anneeEtude));
+                p.setDescription(rs.getString(description));
+                return p;
+            };
+        });
     }
 }
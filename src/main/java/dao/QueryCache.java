@@ -0,0 +1,163 @@
+/*
+ * Cache applicatif des données de référence
+ * Programmes, matières, années scolaires et enseignants ne changent que quelques fois par an
+ */
+package dao;
+
+import config.AppProperties;
+import utils.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache en lecture (read-through) borné en taille (LRU) et à durée de vie limitée,
+ * configuré par cache.enabled, cache.size et cache.ttl (secondes).
+ * Les entrées sont regroupées par région (une région par table) ; les DAO invalident
+ * la région concernée à chaque insert/update/delete.
+ * Les entités mises en cache sont partagées : les appelants ne doivent pas les modifier
+ * sans les enregistrer ensuite via le DAO.
+ */
+public final class QueryCache {
+    private static QueryCache instance;
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<String, Entree> entrees;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // Incrémenté à chaque invalidation : un chargement commencé avant n'est pas mis en cache
+    private long generation;
+
+    private QueryCache() {
+        AppProperties config = AppProperties.getInstance();
+        this.enabled = config.getBooleanProperty("cache.enabled", true);
+        this.maxSize = config.getIntProperty("cache.size", 1000);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(config.getIntProperty("cache.ttl", 3600));
+
+        // Ordre d'accès : l'entrée la moins récemment lue est évincée en premier
+        this.entrees = new LinkedHashMap<String, Entree>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entree> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static synchronized QueryCache getInstance() {
+        if (instance == null) {
+            instance = new QueryCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Retourne la valeur en cache ou la charge depuis la base (null est aussi mis en cache)
+     */
+    public <V> V get(String region, Object key, Loader<V> loader) throws SQLException {
+        if (!isActive() || BaseDAO.isConnectionBound()) {
+            // Dans une transaction, lire la base : on pourrait sinon mettre en cache un état annulé
+            return loader.load();
+        }
+
+        String cle = region + ":" + key;
+        long generationChargement;
+        synchronized (this) {
+            generationChargement = generation;
+            Entree entree = entrees.get(cle);
+            if (entree != null && entree.expireA - System.nanoTime() > 0) {
+                hits.incrementAndGet();
+                @SuppressWarnings("unchecked")
+                V valeur = (V) entree.valeur;
+                return valeur;
+            }
+        }
+
+        misses.incrementAndGet();
+        V valeur = loader.load();
+        synchronized (this) {
+            if (generation == generationChargement) {
+                entrees.put(cle, new Entree(valeur, System.nanoTime() + ttlNanos));
+            }
+        }
+        return valeur;
+    }
+
+    /**
+     * Variante pour les listes : chaque appelant reçoit sa propre copie modifiable
+     */
+    public <E> List<E> getList(String region, Object key, Loader<List<E>> loader) throws SQLException {
+        return new ArrayList<>(get(region, key, loader));
+    }
+
+    /**
+     * Supprime toutes les entrées d'une région
+     */
+    public synchronized void invalidate(String region) {
+        generation++;
+        String prefixe = region + ":";
+        Iterator<String> it = entrees.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().startsWith(prefixe)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Invalide une région tout de suite et à nouveau après le commit de la transaction en cours,
+     * pour qu'aucune lecture concurrente ne remette en cache l'état d'avant l'écriture
+     */
+    void invalidateOnWrite(String region) {
+        invalidate(region);
+        TransactionTemplate.afterCommit(() -> invalidate(region));
+    }
+
+    /**
+     * Vide complètement le cache
+     */
+    public synchronized void clear() {
+        generation++;
+        entrees.clear();
+        Logger.info("🧹 Cache des données de référence vidé");
+    }
+
+    public boolean isActive() {
+        return enabled && maxSize > 0 && ttlNanos > 0;
+    }
+
+    /**
+     * Statistiques du cache
+     */
+    public synchronized String getStats() {
+        long total = hits.get() + misses.get();
+        return String.format("Cache: %d entrées / %d, %d succès, %d échecs (%.1f%% de succès)",
+            entrees.size(), maxSize, hits.get(), misses.get(),
+            total == 0 ? 0.0 : hits.get() * 100.0 / total);
+    }
+
+    /**
+     * Chargement depuis la base en cas d'absence dans le cache
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws SQLException;
+    }
+
+    private static final class Entree {
+        final Object valeur;
+        final long expireA;
+
+        Entree(Object valeur, long expireA) {
+            this.valeur = valeur;
+            this.expireA = expireA;
+        }
+    }
+}
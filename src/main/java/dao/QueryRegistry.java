@@ -0,0 +1,341 @@
+/*
+ * Registre des requêtes SQL nommées
+ * Textes constants des requêtes fréquentes, validés contre le schéma au démarrage
+ */
+package dao;
+
+import config.AppProperties;
+import config.ConnectionPool;
+import utils.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Les requêtes les plus exécutées sont déclarées ici une fois, avec un nom et une description.
+ * Leur texte ne varie jamais : avec cachePrepStmts et useServerPrepStmts (MySQL), chaque
+ * connexion du pool ne les prépare qu'à la première exécution, puis réutilise l'instruction
+ * serveur, à condition qu'elles tiennent dans le cache du driver (db.prepstmt.cache.size
+ * requêtes de moins de db.prepstmt.cache.sql.limit caractères).
+ * {@link #valider()} prépare chacune d'elles au démarrage : une table ou une colonne
+ * inexistante est signalée avant qu'un utilisateur n'exécute la requête.
+ * QueryStats affiche le nom de la requête plutôt que la méthode appelante.
+ */
+public final class QueryRegistry {
+    private static final Map<String, NamedQuery> parNom = new LinkedHashMap<>();
+    private static final Map<String, NamedQuery> parSql = new HashMap<>();
+
+    // === Notes ===
+
+    public static final NamedQuery NOTES_ETUDIANT = define("notes.etudiant",
+        "Notes d'épreuves d'un étudiant pour une année, avec matière et enseignant",
+        "SELECT ne.*, m.nom AS matiere_name, ep.type_epreuve, " +
+        "ep.coefficient, ep.date_epreuve, " +
+        "CONCAT(ens.nom, ' ', ens.prenom) AS enseignant_name " +
+        "FROM NOTE_EPREUVE ne " +
+        "JOIN EPREUVE ep ON ne.id_epreuve = ep.id_epreuve " +
+        "JOIN MATIERE m ON ep.id_matiere = m.id_matiere " +
+        "JOIN ENSEIGNANT ens ON ep.id_enseignant = ens.id_enseignant " +
+        "WHERE ne.id_etudiant = ? AND ep.id_annee = ? " +
+        "ORDER BY m.nom, ep.date_epreuve");
+
+    public static final NamedQuery NOTES_TOUTES = define("notes.toutes",
+        "Toutes les notes d'épreuves, les plus récentes d'abord",
+        "SELECT ne.*, CONCAT(e.nom, ' ', e.prenom) AS etudiant_name, " +
+        "m.nom AS matiere_name, ep.type_epreuve, ep.coefficient " +
+        "FROM NOTE_EPREUVE ne " +
+        "JOIN ETUDIANT e ON ne.id_etudiant = e.id_etudiant " +
+        "JOIN EPREUVE ep ON ne.id_epreuve = ep.id_epreuve " +
+        "JOIN MATIERE m ON ep.id_matiere = m.id_matiere " +
+        "ORDER BY ne.date_saisie DESC");
+
+    public static final NamedQuery NOTES_FEUILLE_EPREUVE = define("notes.feuille.epreuve",
+        "Étudiants concernés par une épreuve, avec leur note si elle est saisie",
+        "SELECT e.id_etudiant, CONCAT(e.nom, ' ', e.prenom) AS etudiant_name, " +
+        "ne.id_note_epreuve, ne.id_epreuve, ne.note, ne.commentaire, ne.date_saisie " +
+        "FROM ETUDIANT e " +
+        "JOIN INSCRIPTION i ON e.id_etudiant = i.id_etudiant " +
+        "JOIN EPREUVE ep ON ep.id_epreuve = ? " +
+        "JOIN PROGRAMME_MATIERE pgm ON pgm.id_matiere = ep.id_matiere " +
+        "AND pgm.id_programme = i.id_programme " +
+        "AND i.id_annee = ep.id_annee " +
+        "LEFT JOIN NOTE_EPREUVE ne ON ne.id_epreuve = ep.id_epreuve " +
+        "AND ne.id_etudiant = e.id_etudiant " +
+        "ORDER BY e.nom, e.prenom");
+
+    public static final NamedQuery NOTES_AVANCEMENT_SAISIE = define("notes.avancement.saisie",
+        "Étudiants concernés et notes saisies pour chaque épreuve d'un enseignant",
+        "SELECT ep.id_epreuve, ep.intitule, ep.type_epreuve, ep.date_epreuve, " +
+        "m.nom AS matiere_name, " +
+        "COUNT(DISTINCT i.id_etudiant) AS nb_inscrits, " +
+        "COUNT(DISTINCT ne.id_etudiant) AS nb_notes " +
+        "FROM EPREUVE ep " +
+        "JOIN MATIERE m ON m.id_matiere = ep.id_matiere " +
+        "LEFT JOIN PROGRAMME_MATIERE pgm ON pgm.id_matiere = ep.id_matiere " +
+        "LEFT JOIN INSCRIPTION i ON i.id_programme = pgm.id_programme " +
+        "AND i.id_annee = ep.id_annee " +
+        "LEFT JOIN NOTE_EPREUVE ne ON ne.id_epreuve = ep.id_epreuve " +
+        "AND ne.id_etudiant = i.id_etudiant AND ne.note IS NOT NULL " +
+        "WHERE ep.id_enseignant = ? " +
+        "GROUP BY ep.id_epreuve, ep.intitule, ep.type_epreuve, ep.date_epreuve, m.nom " +
+        "ORDER BY ep.date_epreuve DESC, ep.id_epreuve DESC");
+
+    public static final NamedQuery NOTES_MATIERES_ETUDIANT = define("notes.matieres.etudiant",
+        "Notes de matières d'un étudiant pour une année",
+        "SELECT nm.*, m.nom AS matiere_name " +
+        "FROM NOTE_MATIERE nm " +
+        "JOIN MATIERE m ON nm.id_matiere = m.id_matiere " +
+        "WHERE nm.id_etudiant = ? AND nm.id_annee = ? " +
+        "ORDER BY m.nom");
+
+    public static final NamedQuery NOTES_MATIERES_VALIDEES = define("notes.matieres.validees",
+        "Nombre de matières validées par un étudiant sur une année",
+        "SELECT COUNT(*) AS count FROM NOTE_MATIERE " +
+        "WHERE id_etudiant = ? AND id_annee = ? AND validee = TRUE " +
+        "AND note_finale >= 10.0");
+
+    public static final NamedQuery NOTES_MATIERES_COEFFICIENTS = define("notes.matieres.coefficients",
+        "Notes de matières validées d'un étudiant et coefficients du programme",
+        "SELECT nm.note_finale, COALESCE(pm.coefficient, 1.0) AS coefficient " +
+        "FROM NOTE_MATIERE nm " +
+        "JOIN PROGRAMME_MATIERE pgm ON nm.id_matiere = pgm.id_matiere " +
+        "LEFT JOIN PONDERATION_MATIERE pm ON pgm.id_matiere = pm.id_matiere " +
+        "AND pm.id_programme = ? AND pm.id_annee = ? " +
+        "WHERE nm.id_etudiant = ? AND nm.id_annee = ? " +
+        "AND pgm.id_programme = ? AND nm.validee = TRUE");
+
+    // === Inscriptions ===
+
+    public static final NamedQuery INSCRIPTION_MOYENNE = define("inscription.moyenne",
+        "Moyenne générale d'un étudiant pour une année",
+        "SELECT moyenne_generale FROM INSCRIPTION " +
+        "WHERE id_etudiant = ? AND id_annee = ?");
+
+    public static final NamedQuery INSCRIPTION_STATUT = define("inscription.statut",
+        "Statut de fin d'année d'un étudiant",
+        "SELECT statut_fin_annee FROM INSCRIPTION " +
+        "WHERE id_etudiant = ? AND id_annee = ?");
+
+    public static final NamedQuery INSCRIPTION_PROGRAMME = define("inscription.programme",
+        "Programme auquel un étudiant est inscrit pour une année",
+        "SELECT id_programme FROM INSCRIPTION " +
+        "WHERE id_etudiant = ? AND id_annee = ?");
+
+    public static final NamedQuery INSCRIPTION_STATUTS_PROMOTION = define("inscription.statuts_promotion",
+        "Statut de fin d'année des inscrits d'un programme pour une année",
+        "SELECT id_etudiant, statut_fin_annee FROM INSCRIPTION " +
+        "WHERE id_programme = ? AND id_annee = ?");
+
+    // === Épreuves ===
+
+    public static final NamedQuery EPREUVES_COUNT_ENSEIGNANT = define("epreuves.count.enseignant",
+        "Nombre d'épreuves d'un enseignant",
+        "SELECT COUNT(*) FROM EPREUVE WHERE id_enseignant = ?");
+
+    public static final NamedQuery EPREUVES_COUNT_MATIERES = define("epreuves.count.matieres",
+        "Nombre de matières distinctes évaluées par un enseignant",
+        "SELECT COUNT(DISTINCT id_matiere) FROM EPREUVE " +
+        "WHERE id_enseignant = ?");
+
+    // === Statistiques ===
+
+    public static final NamedQuery STATS_PAR_PROGRAMME = define("stats.programmes",
+        "Effectifs, décisions et moyenne de chaque programme pour une année",
+        "SELECT p.nom AS programme, " +
+        "COUNT(DISTINCT i.id_etudiant) AS nb_etudiants, " +
+        "COUNT(CASE WHEN i.statut_fin_annee = 'admis' THEN 1 END) AS nb_admis, " +
+        "COUNT(CASE WHEN i.statut_fin_annee = 'redoublant' THEN 1 END) AS nb_redoublants, " +
+        "COUNT(CASE WHEN i.statut_fin_annee = 'exclu' THEN 1 END) AS nb_exclus, " +
+        "ROUND(AVG(i.moyenne_generale), 2) AS moyenne_programme " +
+        "FROM INSCRIPTION i " +
+        "JOIN PROGRAMME p ON i.id_programme = p.id_programme " +
+        "WHERE i.id_annee = ? " +
+        "GROUP BY p.id_programme, p.nom");
+
+    public static final NamedQuery STATS_TOP_ETUDIANTS = define("stats.top.etudiants",
+        "Meilleures moyennes de l'année",
+        "SELECT CONCAT(e.nom, ' ', e.prenom) AS etudiant, " +
+        "p.nom AS programme, i.moyenne_generale, i.statut_fin_annee " +
+        "FROM INSCRIPTION i " +
+        "JOIN ETUDIANT e ON i.id_etudiant = e.id_etudiant " +
+        "JOIN PROGRAMME p ON i.id_programme = p.id_programme " +
+        "WHERE i.id_annee = ? " +
+        "ORDER BY i.moyenne_generale DESC LIMIT ?");
+
+    public static final NamedQuery STATS_TAUX_REUSSITE = define("stats.taux.reussite",
+        "Décisions de fin d'année de toutes les inscriptions de l'année",
+        "SELECT " +
+        "COUNT(*) AS total, " +
+        "COUNT(CASE WHEN statut_fin_annee = 'admis' THEN 1 END) AS admis, " +
+        "COUNT(CASE WHEN statut_fin_annee = 'redoublant' THEN 1 END) AS redoublants, " +
+        "COUNT(CASE WHEN statut_fin_annee = 'exclu' THEN 1 END) AS exclus " +
+        "FROM INSCRIPTION WHERE id_annee = ?");
+
+    public static final NamedQuery STATS_NOTES_ANNEE = define("stats.notes.annee",
+        "Notes de matières de l'année avec le programme de l'étudiant (moteur de statistiques)",
+        "SELECT i.id_programme, nm.id_matiere, nm.note_finale " +
+        "FROM NOTE_MATIERE nm " +
+        "JOIN INSCRIPTION i ON i.id_etudiant = nm.id_etudiant AND i.id_annee = nm.id_annee " +
+        "WHERE nm.id_annee = ? AND nm.note_finale IS NOT NULL");
+
+    public static final NamedQuery STATS_NOTES_PROMOTION = define("stats.notes.promotion",
+        "Notes de matières d'une promotion (rechargement après recalcul)",
+        STATS_NOTES_ANNEE.getSql() + " AND i.id_programme = ?");
+
+    // === Matrice des notes d'une promotion ===
+
+    public static final NamedQuery MATRICE_ETUDIANTS = define("matrice.etudiants",
+        "Étudiants inscrits à un programme pour une année, par ordre alphabétique",
+        "SELECT e.id_etudiant, CONCAT(e.nom, ' ', e.prenom) AS etudiant_name " +
+        "FROM INSCRIPTION i " +
+        "JOIN ETUDIANT e ON e.id_etudiant = i.id_etudiant " +
+        "WHERE i.id_programme = ? AND i.id_annee = ? " +
+        "ORDER BY e.nom, e.prenom, e.id_etudiant");
+
+    public static final NamedQuery MATRICE_MATIERES = define("matrice.matieres",
+        "Matières d'un programme, leur coefficient pour l'année et leur semestre",
+        "SELECT pgm.id_matiere, COALESCE(pm.coefficient, 1.0) AS coefficient, m.semestre " +
+        "FROM PROGRAMME_MATIERE pgm " +
+        "JOIN MATIERE m ON m.id_matiere = pgm.id_matiere " +
+        "LEFT JOIN PONDERATION_MATIERE pm ON pm.id_matiere = pgm.id_matiere " +
+        "AND pm.id_programme = pgm.id_programme AND pm.id_annee = ? " +
+        "WHERE pgm.id_programme = ? " +
+        "ORDER BY pgm.id_matiere");
+
+    public static final NamedQuery MATRICE_EPREUVES = define("matrice.epreuves",
+        "Épreuves de l'année des matières d'un programme, groupées par matière",
+        "SELECT ep.id_epreuve, ep.id_matiere, ep.coefficient " +
+        "FROM EPREUVE ep " +
+        "JOIN PROGRAMME_MATIERE pgm ON pgm.id_matiere = ep.id_matiere AND pgm.id_programme = ? " +
+        "WHERE ep.id_annee = ? " +
+        "ORDER BY ep.id_matiere, ep.id_epreuve");
+
+    public static final NamedQuery MATRICE_NOTES = define("matrice.notes",
+        "Notes d'épreuves saisies des inscrits d'un programme pour une année",
+        "SELECT ne.id_etudiant, ne.id_epreuve, ne.note " +
+        "FROM NOTE_EPREUVE ne " +
+        "JOIN EPREUVE ep ON ep.id_epreuve = ne.id_epreuve " +
+        "JOIN INSCRIPTION i ON i.id_etudiant = ne.id_etudiant AND i.id_annee = ep.id_annee " +
+        "WHERE i.id_programme = ? AND ep.id_annee = ? AND ne.note IS NOT NULL");
+
+    public static final NamedQuery MATRICE_MATIERES_VALIDEES = define("matrice.matieres.validees",
+        "Matières validées par les inscrits d'un programme pour une année",
+        "SELECT nm.id_etudiant, nm.id_matiere " +
+        "FROM NOTE_MATIERE nm " +
+        "JOIN INSCRIPTION i ON i.id_etudiant = nm.id_etudiant AND i.id_annee = nm.id_annee " +
+        "WHERE i.id_programme = ? AND nm.id_annee = ? AND nm.validee = TRUE");
+
+    // === Administration ===
+
+    public static final NamedQuery ADMIN_COMPTES = define("admin.comptes",
+        "Comptes utilisateurs, inactifs et orphelins",
+        "SELECT COUNT(*) AS nb_utilisateurs, " +
+        "COUNT(CASE WHEN actif = FALSE THEN 1 END) AS nb_inactifs, " +
+        "COUNT(CASE WHEN (role = 'ETUDIANT' AND id_etudiant IS NULL) " +
+        "OR (role = 'ENSEIGNANT' AND id_enseignant IS NULL) THEN 1 END) AS nb_orphelins " +
+        "FROM UTILISATEUR");
+
+    private QueryRegistry() {
+    }
+
+    private static NamedQuery define(String nom, String description, String sql) {
+        NamedQuery requete = new NamedQuery(nom, description, sql);
+        if (parNom.putIfAbsent(nom, requete) != null) {
+            throw new IllegalStateException("Requête déjà enregistrée : " + nom);
+        }
+        parSql.put(sql, requete);
+        return requete;
+    }
+
+    /**
+     * Requête enregistrée sous ce nom, null si aucune
+     */
+    public static NamedQuery get(String nom) {
+        return parNom.get(nom);
+    }
+
+    /**
+     * Requêtes enregistrées, dans l'ordre de déclaration
+     */
+    public static Collection<NamedQuery> getRequetes() {
+        return Collections.unmodifiableCollection(parNom.values());
+    }
+
+    /**
+     * Requête enregistrée ayant exactement ce texte, null si aucune (utilisé par QueryStats)
+     */
+    static NamedQuery trouver(String sql) {
+        return parSql.get(sql);
+    }
+
+    // === Validation ===
+
+    /**
+     * Prépare chaque requête enregistrée sur une même connexion et lit les métadonnées
+     * de son résultat : le serveur (MySQL en préparation côté serveur, H2) analyse alors
+     * la requête et rejette les tables et colonnes inconnues.
+     * @return un message par requête invalide, liste vide si toutes sont valides
+     * @throws SQLException si aucune connexion n'a pu être obtenue
+     */
+    public static List<String> valider() throws SQLException {
+        AppProperties config = AppProperties.getInstance();
+        int tailleCache = config.getIntProperty("db.prepstmt.cache.size", 250);
+        int limiteSql = config.getIntProperty("db.prepstmt.cache.sql.limit", 2048);
+
+        List<String> erreurs = new ArrayList<>();
+        try (Connection conn = ConnectionPool.getInstance().getConnection()) {
+            for (NamedQuery requete : parNom.values()) {
+                try (PreparedStatement stmt = conn.prepareStatement(requete.getSql())) {
+                    stmt.setMaxRows(1);
+                    stmt.getMetaData();
+                } catch (SQLException e) {
+                    erreurs.add(requete.getNom() + " : " + e.getMessage());
+                }
+                if (requete.getSql().length() > limiteSql) {
+                    Logger.warn("Requête " + requete.getNom() + " (" + requete.getSql().length()
+                        + " caractères) trop longue pour le cache d'instructions préparées");
+                }
+            }
+        }
+        if (parNom.size() > tailleCache) {
+            Logger.warn(parNom.size() + " requêtes enregistrées pour un cache de " + tailleCache
+                + " instructions préparées par connexion");
+        }
+        return erreurs;
+    }
+
+    /**
+     * Validation au lancement de l'application (désactivable par db.queries.validate=false).
+     * Les erreurs sont journalisées, sans empêcher le démarrage.
+     * @return false si au moins une requête est invalide ou si la base est inaccessible
+     */
+    public static boolean validerAuDemarrage() {
+        if (!AppProperties.getInstance().getBooleanProperty("db.queries.validate", true)) {
+            return true;
+        }
+        long debut = System.currentTimeMillis();
+        try {
+            List<String> erreurs = valider();
+            if (erreurs.isEmpty()) {
+                Logger.info("✅ " + parNom.size() + " requêtes nommées validées en "
+                    + (System.currentTimeMillis() - debut) + " ms");
+                return true;
+            }
+            Logger.error("❌ " + erreurs.size() + " requête(s) invalide(s) sur " + parNom.size() + " :");
+            for (String erreur : erreurs) {
+                Logger.error("   " + erreur);
+            }
+        } catch (SQLException e) {
+            Logger.warn("Validation des requêtes impossible : " + e.getMessage());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Instrumentation des requêtes SQL exécutées par les DAO
+ * Latences par requête, journal des requêtes lentes, exposition JMX
+ */
+package dao;
+
+import config.AppProperties;
+import utils.Logger;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistiques par requête (clé : le texte SQL avec ses ?, donc indépendant des valeurs) :
+ * nombre d'exécutions, erreurs, lignes, temps cumulé/maximal et histogramme des latences.
+ * Au-delà du seuil db.slow.query.ms, la requête est journalisée avec ses paramètres et
+ * la méthode DAO appelante. Les requêtes du {@link QueryRegistry} sont désignées par leur nom.
+ * Configuré par db.stats.enabled et db.slow.query.ms ;
+ * consultable par {@link #dump()} ou via JMX.
+ */
+public final class QueryStats implements QueryStatsMBean {
+    // Bornes supérieures des classes de l'histogramme, en microsecondes (dernière classe : au-delà)
+    private static final long[] BORNES_US = {
+        100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+        100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000
+    };
+    private static final int MAX_PARAM_LENGTH = 100;
+    private static final StackWalker WALKER =
+        StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private static QueryStats instance;
+
+    private final Map<String, Statistique> parRequete = new ConcurrentHashMap<>();
+    private final LongAdder nbRequetes = new LongAdder();
+    private final LongAdder nbLentes = new LongAdder();
+    private volatile boolean enabled;
+    private volatile long seuilNanos;
+
+    private QueryStats() {
+        AppProperties config = AppProperties.getInstance();
+        this.enabled = config.getBooleanProperty("db.stats.enabled", true);
+        this.seuilNanos = TimeUnit.MILLISECONDS.toNanos(config.getIntProperty("db.slow.query.ms", 500));
+    }
+
+    public static synchronized QueryStats getInstance() {
+        if (instance == null) {
+            instance = new QueryStats();
+            instance.enregistrerMBean();
+        }
+        return instance;
+    }
+
+    private void enregistrerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(this, new ObjectName("gestionscolarite:type=QueryStats"));
+        } catch (Exception e) {
+            Logger.warn("MBean QueryStats non enregistré : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Enregistre une exécution (appelé par BaseDAO)
+     * @param debutNanos valeur de System.nanoTime() avant l'exécution
+     * @param lignes lignes lues ou modifiées
+     * @param succes false si l'exécution a levé une exception
+     */
+    void enregistrer(String sql, Object[] params, long debutNanos, long lignes, boolean succes) {
+        if (!enabled) {
+            return;
+        }
+        long duree = System.nanoTime() - debutNanos;
+        nbRequetes.increment();
+
+        Statistique stat = parRequete.get(sql);
+        if (stat == null) {
+            // Première exécution : l'appelant n'est recherché qu'une fois par requête,
+            // hors de computeIfAbsent pour que la pile soit celle de l'appel DAO
+            String appelant = appelant();
+            stat = parRequete.computeIfAbsent(sql, s -> new Statistique(s, QueryRegistry.trouver(s), appelant));
+        }
+        stat.ajouter(duree, lignes, succes);
+
+        if (duree >= seuilNanos) {
+            nbLentes.increment();
+            stat.lentes.increment();
+            Logger.warn(String.format("🐢 Requête lente (%d ms, %d lignes) [%s] %s | paramètres : %s",
+                TimeUnit.NANOSECONDS.toMillis(duree), lignes, stat.getLibelle(appelant()), compacter(sql), formater(params)));
+        }
+    }
+
+    /**
+     * Méthode DAO (ou autre) à l'origine de la requête, hors BaseDAO, TransactionTemplate
+     * et classes du JDK (collections, flux, exécuteurs)
+     */
+    private static String appelant() {
+        return WALKER.walk(frames -> frames
+            .filter(f -> {
+                String classe = f.getClassName();
+                return f.getDeclaringClass() != QueryStats.class
+                    && !classe.startsWith("java.")
+                    && !classe.startsWith(BaseDAO.class.getName())
+                    && !classe.startsWith(TransactionTemplate.class.getName());
+            })
+            .findFirst()
+            .map(f -> f.getDeclaringClass().getSimpleName() + "." + f.getMethodName())
+            .orElse("?"));
+    }
+
+    private static String formater(Object[] params) {
+        if (params == null || params.length == 0) {
+            return "aucun";
+        }
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < params.length; i++) {
+            if (i > 0) sb.append(", ");
+            Object p = params[i];
+            if (p instanceof String) {
+                String s = (String) p;
+                sb.append('\'').append(s.length() > MAX_PARAM_LENGTH ? s.substring(0, MAX_PARAM_LENGTH) + "…" : s).append('\'');
+            } else {
+                sb.append(p);
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String compacter(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    // === Consultation ===
+
+    /**
+     * Statistiques triées par temps cumulé décroissant
+     */
+    public List<Statistique> getStatistiques() {
+        List<Statistique> liste = new ArrayList<>(parRequete.values());
+        liste.sort(Comparator.comparingLong(Statistique::getTempsTotalNanos).reversed());
+        return liste;
+    }
+
+    @Override
+    public String[] topQueries(int nombre) {
+        List<Statistique> liste = getStatistiques();
+        int n = Math.min(Math.max(nombre, 0), liste.size());
+        String[] lignes = new String[n];
+        for (int i = 0; i < n; i++) {
+            lignes[i] = liste.get(i).toString();
+        }
+        return lignes;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("=== Statistiques SQL : %d exécutions, %d requêtes distinctes, %d lentes (seuil %d ms) ===%n",
+            getQueryCount(), getStatementCount(), getSlowQueryCount(), getSlowQueryThresholdMs()));
+        for (Statistique stat : getStatistiques()) {
+            sb.append(stat).append(System.lineSeparator());
+            sb.append("    ").append(compacter(stat.sql)).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Écrit le rapport dans le journal
+     */
+    public void logDump() {
+        Logger.info(dump());
+    }
+
+    @Override
+    public void reset() {
+        parRequete.clear();
+        nbRequetes.reset();
+        nbLentes.reset();
+    }
+
+    @Override
+    public boolean isEnabled() { return enabled; }
+
+    @Override
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    @Override
+    public long getSlowQueryThresholdMs() { return TimeUnit.NANOSECONDS.toMillis(seuilNanos); }
+
+    @Override
+    public void setSlowQueryThresholdMs(long seuilMs) { this.seuilNanos = TimeUnit.MILLISECONDS.toNanos(seuilMs); }
+
+    @Override
+    public long getQueryCount() { return nbRequetes.sum(); }
+
+    @Override
+    public long getSlowQueryCount() { return nbLentes.sum(); }
+
+    @Override
+    public int getStatementCount() { return parRequete.size(); }
+
+    /**
+     * Statistiques d'une requête
+     */
+    public static class Statistique {
+        private final String sql;
+        private final NamedQuery requete;
+        private final String appelant;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder erreurs = new LongAdder();
+        private final LongAdder lentes = new LongAdder();
+        private final LongAdder lignes = new LongAdder();
+        private final LongAdder tempsTotal = new LongAdder();
+        private final AtomicLong tempsMax = new AtomicLong();
+        private final AtomicLongArray histogramme = new AtomicLongArray(BORNES_US.length + 1);
+
+        Statistique(String sql, NamedQuery requete, String appelant) {
+            this.sql = sql;
+            this.requete = requete;
+            this.appelant = appelant;
+        }
+
+        void ajouter(long dureeNanos, long nbLignes, boolean succes) {
+            executions.increment();
+            if (!succes) {
+                erreurs.increment();
+            }
+            lignes.add(nbLignes);
+            tempsTotal.add(dureeNanos);
+            tempsMax.accumulateAndGet(dureeNanos, Math::max);
+            histogramme.incrementAndGet(classe(TimeUnit.NANOSECONDS.toMicros(dureeNanos)));
+        }
+
+        private static int classe(long micros) {
+            for (int i = 0; i < BORNES_US.length; i++) {
+                if (micros <= BORNES_US[i]) {
+                    return i;
+                }
+            }
+            return BORNES_US.length;
+        }
+
+        /**
+         * Percentile estimé (borne supérieure de la classe de l'histogramme, ramenée au
+         * maximum mesuré), en millisecondes
+         */
+        public double getPercentileMs(double percentile) {
+            long total = 0;
+            long[] comptes = new long[histogramme.length()];
+            for (int i = 0; i < comptes.length; i++) {
+                comptes[i] = histogramme.get(i);
+                total += comptes[i];
+            }
+            if (total == 0) {
+                return 0.0;
+            }
+            long rang = (long) Math.ceil(total * percentile / 100.0);
+            long cumul = 0;
+            for (int i = 0; i < comptes.length; i++) {
+                cumul += comptes[i];
+                if (cumul >= rang) {
+                    return i < BORNES_US.length ? Math.min(BORNES_US[i] / 1000.0, getTempsMaxMs()) : getTempsMaxMs();
+                }
+            }
+            return getTempsMaxMs();
+        }
+
+        /**
+         * Nombre d'exécutions par classe de latence (bornes en µs : 100, 250, ... 5 s, au-delà)
+         */
+        public long[] getHistogramme() {
+            long[] comptes = new long[histogramme.length()];
+            for (int i = 0; i < comptes.length; i++) {
+                comptes[i] = histogramme.get(i);
+            }
+            return comptes;
+        }
+
+        public String getSql() { return sql; }
+        public String getAppelant() { return appelant; }
+
+        /**
+         * Nom de la requête dans le registre, null si elle n'y est pas enregistrée
+         */
+        public String getNom() { return requete != null ? requete.getNom() : null; }
+
+        /**
+         * Nom de la requête enregistrée, avec la méthode appelante donnée ; l'appelant seul sinon
+         */
+        String getLibelle(String appelant) {
+            return requete != null ? requete.getNom() + " ← " + appelant : appelant;
+        }
+        public long getExecutions() { return executions.sum(); }
+        public long getErreurs() { return erreurs.sum(); }
+        public long getLentes() { return lentes.sum(); }
+        public long getLignes() { return lignes.sum(); }
+        public long getTempsTotalNanos() { return tempsTotal.sum(); }
+
+        public double getTempsTotalMs() { return tempsTotal.sum() / 1_000_000.0; }
+        public double getTempsMaxMs() { return tempsMax.get() / 1_000_000.0; }
+
+        public double getTempsMoyenMs() {
+            long n = executions.sum();
+            return n == 0 ? 0.0 : getTempsTotalMs() / n;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-45s %8d exéc. %10.1f ms total  moy %7.2f  p50 ≤%7.2f  p95 ≤%7.2f  p99 ≤%7.2f  max %8.2f ms  %9d lignes  %d lentes  %d erreurs",
+                requete != null ? requete.getNom() : appelant, getExecutions(), getTempsTotalMs(), getTempsMoyenMs(),
+                getPercentileMs(50), getPercentileMs(95), getPercentileMs(99), getTempsMaxMs(),
+                getLignes(), getLentes(), getErreurs());
+        }
+    }
+}
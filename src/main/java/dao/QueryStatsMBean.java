@@ -0,0 +1,36 @@
+/*
+ * Interface JMX des statistiques de requêtes
+ */
+package dao;
+
+/**
+ * Exposée sous gestionscolarite:type=QueryStats (jconsole, VisualVM...)
+ */
+public interface QueryStatsMBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getSlowQueryThresholdMs();
+
+    void setSlowQueryThresholdMs(long seuilMs);
+
+    long getQueryCount();
+
+    long getSlowQueryCount();
+
+    int getStatementCount();
+
+    /**
+     * Requêtes les plus coûteuses (temps cumulé), une ligne par requête
+     */
+    String[] topQueries(int nombre);
+
+    /**
+     * Rapport complet en texte
+     */
+    String dump();
+
+    void reset();
+}
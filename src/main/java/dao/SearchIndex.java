@@ -0,0 +1,365 @@
+/*
+ * Index de recherche en mémoire des étudiants et enseignants
+ * Évite les LIKE '%mot%' qui parcourent toute la table à chaque frappe
+ */
+package dao;
+
+import config.AppProperties;
+import models.Enseignant;
+import models.Etudiant;
+import models.Utilisateur;
+import utils.Logger;
+import utils.StringUtils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index par préfixe, insensible aux accents et à la casse, sur les noms, prénoms,
+ * emails et logins des étudiants et enseignants.
+ * Construit au premier appel puis tenu à jour par les DAO après chaque écriture validée.
+ * Chaque terme de la requête doit être le préfixe d'un mot indexé ; les résultats sont classés
+ * (mot exact avant préfixe, nom/prénom avant email/login). Une recherche respecte un budget
+ * de latence (search.budget.ms) : au-delà, les candidats déjà trouvés sont retournés.
+ */
+public final class SearchIndex {
+    public static final String TYPE_ETUDIANT = "ETUDIANT";
+    public static final String TYPE_ENSEIGNANT = "ENSEIGNANT";
+
+    private static final Pattern SEPARATEURS = Pattern.compile("[^a-z0-9]+");
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIXE = 2;
+    private static final int BONUS_NOM = 1;
+
+    private static SearchIndex instance;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Set<Entree>> parMot = new TreeMap<>();
+    private final Map<String, Entree> parCle = new HashMap<>();
+    private final long budgetNanos;
+    private volatile boolean construit;
+
+    private SearchIndex() {
+        int budgetMs = AppProperties.getInstance().getIntProperty("search.budget.ms", 10);
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMs);
+    }
+
+    public static synchronized SearchIndex getInstance() {
+        if (instance == null) {
+            instance = new SearchIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Recherche classée dans l'index
+     * @param requete texte saisi (un ou plusieurs termes)
+     * @param type TYPE_ETUDIANT, TYPE_ENSEIGNANT ou null pour les deux
+     * @param limite nombre maximal de résultats
+     */
+    public List<Resultat> rechercher(String requete, String type, int limite) throws SQLException {
+        List<String> termes = new ArrayList<>(tokeniser(requete));
+        if (termes.isEmpty() || limite <= 0) {
+            return new ArrayList<>();
+        }
+        ensureBuilt();
+
+        long debut = System.nanoTime();
+        long limiteTemps = debut + budgetNanos;
+        boolean tronque = false;
+        Map<Entree, Integer> scores = null;
+
+        lock.readLock().lock();
+        try {
+            for (String terme : termes) {
+                Map<Entree, Integer> precedents = scores;
+                Map<Entree, Integer> courants = new HashMap<>();
+
+                for (Map.Entry<String, Set<Entree>> mot : prefixes(terme).entrySet()) {
+                    int score = mot.getKey().equals(terme) ? SCORE_EXACT : SCORE_PREFIXE;
+                    for (Entree entree : mot.getValue()) {
+                        if (type != null && !type.equals(entree.type)) continue;
+                        if (precedents != null && !precedents.containsKey(entree)) continue;
+                        int total = score + (entree.motsNom.contains(mot.getKey()) ? BONUS_NOM : 0);
+                        courants.merge(entree, total, Math::max);
+                    }
+                    if (System.nanoTime() > limiteTemps) {
+                        tronque = true;
+                        break;
+                    }
+                }
+
+                if (precedents != null) {
+                    courants.replaceAll((entree, score) -> score + precedents.get(entree));
+                }
+                scores = courants;
+                if (tronque || scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Resultat> resultats = new ArrayList<>(scores.size());
+        for (Map.Entry<Entree, Integer> e : scores.entrySet()) {
+            resultats.add(new Resultat(e.getKey(), e.getValue()));
+        }
+        resultats.sort((a, b) -> a.score != b.score
+            ? Integer.compare(b.score, a.score)
+            : a.getLibelle().compareToIgnoreCase(b.getLibelle()));
+
+        if (tronque) {
+            Logger.warn(String.format("Recherche \"%s\" tronquée après %d ms (budget dépassé)",
+                requete, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut)));
+        }
+        return resultats.size() > limite ? new ArrayList<>(resultats.subList(0, limite)) : resultats;
+    }
+
+    /**
+     * Recherche d'étudiants classés par pertinence
+     */
+    public List<Etudiant> rechercherEtudiants(String requete, int limite) throws SQLException {
+        List<Etudiant> etudiants = new ArrayList<>();
+        for (Resultat r : rechercher(requete, TYPE_ETUDIANT, limite)) {
+            etudiants.add((Etudiant) r.entree.source);
+        }
+        return etudiants;
+    }
+
+    /**
+     * Recherche d'enseignants classés par pertinence
+     */
+    public List<Enseignant> rechercherEnseignants(String requete, int limite) throws SQLException {
+        List<Enseignant> enseignants = new ArrayList<>();
+        for (Resultat r : rechercher(requete, TYPE_ENSEIGNANT, limite)) {
+            enseignants.add((Enseignant) r.entree.source);
+        }
+        return enseignants;
+    }
+
+    /**
+     * Vide l'index ; il sera reconstruit à la prochaine recherche
+     */
+    public void invalider() {
+        lock.writeLock().lock();
+        try {
+            parMot.clear();
+            parCle.clear();
+            construit = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // === Mises à jour appelées par les DAO (après commit) ===
+
+    void indexerEtudiant(Etudiant e) {
+        indexer(new Entree(TYPE_ETUDIANT, e.getIdEtudiant(), e,
+            e.getNom(), e.getPrenom(), e.getEmail(), null));
+    }
+
+    void indexerEnseignant(Enseignant e) {
+        indexer(new Entree(TYPE_ENSEIGNANT, e.getIdEnseignant(), e,
+            e.getNom(), e.getPrenom(), e.getEmail(), null));
+    }
+
+    void indexerLogin(Utilisateur u) {
+        String cle = u.getIdEtudiant() != null ? cle(TYPE_ETUDIANT, u.getIdEtudiant())
+                   : u.getIdEnseignant() != null ? cle(TYPE_ENSEIGNANT, u.getIdEnseignant())
+                   : null;
+        if (cle == null) return;
+
+        lock.writeLock().lock();
+        try {
+            if (!construit) return;
+            Entree ancienne = parCle.get(cle);
+            if (ancienne != null) {
+                remplacer(ancienne, new Entree(ancienne.type, ancienne.id, ancienne.source,
+                    ancienne.nom, ancienne.prenom, ancienne.email, u.getLogin()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void retirer(String type, int id) {
+        lock.writeLock().lock();
+        try {
+            if (!construit) return;
+            Entree ancienne = parCle.remove(cle(type, id));
+            if (ancienne != null) {
+                retirerMots(ancienne);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexer(Entree entree) {
+        lock.writeLock().lock();
+        try {
+            if (!construit) return; // Sera pris en compte par la construction initiale
+            Entree ancienne = parCle.get(entree.cle());
+            if (ancienne != null && entree.login == null && ancienne.login != null) {
+                // Conserver le login lors d'une mise à jour de la fiche
+                entree = new Entree(entree.type, entree.id, entree.source,
+                    entree.nom, entree.prenom, entree.email, ancienne.login);
+            }
+            remplacer(ancienne, entree);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remplacer(Entree ancienne, Entree nouvelle) {
+        if (ancienne != null) {
+            retirerMots(ancienne);
+        }
+        parCle.put(nouvelle.cle(), nouvelle);
+        for (String mot : nouvelle.mots) {
+            parMot.computeIfAbsent(mot, m -> new HashSet<>()).add(nouvelle);
+        }
+    }
+
+    private void retirerMots(Entree entree) {
+        for (String mot : entree.mots) {
+            Set<Entree> entrees = parMot.get(mot);
+            if (entrees != null) {
+                entrees.remove(entree);
+                if (entrees.isEmpty()) {
+                    parMot.remove(mot);
+                }
+            }
+        }
+    }
+
+    private NavigableMap<String, Set<Entree>> prefixes(String terme) {
+        return parMot.subMap(terme, true, terme + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Charge étudiants, enseignants et logins (trois requêtes) au premier usage
+     */
+    private void ensureBuilt() throws SQLException {
+        if (construit) return;
+
+        lock.writeLock().lock();
+        try {
+            if (construit) return;
+            long debut = System.currentTimeMillis();
+
+            Map<String, String> logins = new HashMap<>();
+            for (Utilisateur u : new UtilisateurDAO().findAll()) {
+                if (u.getIdEtudiant() != null) {
+                    logins.put(cle(TYPE_ETUDIANT, u.getIdEtudiant()), u.getLogin());
+                } else if (u.getIdEnseignant() != null) {
+                    logins.put(cle(TYPE_ENSEIGNANT, u.getIdEnseignant()), u.getLogin());
+                }
+            }
+            for (Etudiant e : new EtudiantDAO().findAll()) {
+                remplacer(null, new Entree(TYPE_ETUDIANT, e.getIdEtudiant(), e, e.getNom(),
+                    e.getPrenom(), e.getEmail(), logins.get(cle(TYPE_ETUDIANT, e.getIdEtudiant()))));
+            }
+            for (Enseignant e : new EnseignantDAO().findAll()) {
+                remplacer(null, new Entree(TYPE_ENSEIGNANT, e.getIdEnseignant(), e, e.getNom(),
+                    e.getPrenom(), e.getEmail(), logins.get(cle(TYPE_ENSEIGNANT, e.getIdEnseignant()))));
+            }
+            construit = true;
+
+            Logger.info(String.format("🔍 Index de recherche construit : %d fiches, %d mots en %d ms",
+                parCle.size(), parMot.size(), System.currentTimeMillis() - debut));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Set<String> tokeniser(String texte) {
+        Set<String> mots = new LinkedHashSet<>();
+        if (texte == null) return mots;
+
+        for (String mot : SEPARATEURS.split(StringUtils.normalizeForSearch(texte))) {
+            if (!mot.isEmpty()) {
+                mots.add(mot);
+            }
+        }
+        return mots;
+    }
+
+    private static String cle(String type, int id) {
+        return type + ":" + id;
+    }
+
+    /**
+     * Fiche indexée (étudiant ou enseignant)
+     */
+    private static final class Entree {
+        final String type;
+        final int id;
+        final Object source;
+        final String nom;
+        final String prenom;
+        final String email;
+        final String login;
+        final Set<String> mots;
+        final Set<String> motsNom;
+
+        Entree(String type, int id, Object source, String nom, String prenom,
+               String email, String login) {
+            this.type = type;
+            this.id = id;
+            this.source = source;
+            this.nom = nom;
+            this.prenom = prenom;
+            this.email = email;
+            this.login = login;
+
+            this.motsNom = tokeniser(nom + " " + prenom);
+            Set<String> tous = new HashSet<>(motsNom);
+            tous.addAll(tokeniser(email));
+            tous.addAll(tokeniser(login));
+            this.mots = Collections.unmodifiableSet(tous);
+        }
+
+        String cle() {
+            return SearchIndex.cle(type, id);
+        }
+    }
+
+    /**
+     * Résultat de recherche avec son score de pertinence
+     */
+    public static class Resultat {
+        private final Entree entree;
+        private final int score;
+
+        private Resultat(Entree entree, int score) {
+            this.entree = entree;
+            this.score = score;
+        }
+
+        public String getType() { return entree.type; }
+        public int getId() { return entree.id; }
+        public String getLibelle() { return entree.nom + " " + entree.prenom; }
+        public String getEmail() { return entree.email; }
+        public String getLogin() { return entree.login; }
+        public int getScore() { return score; }
+
+        @Override
+        public String toString() {
+            return getLibelle() + " (" + entree.type + ", score " + score + ")";
+        }
+    }
+}
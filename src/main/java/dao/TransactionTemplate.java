@@ -0,0 +1,130 @@
+/*
+ * Unité de travail transactionnelle pour les DAO
+ * Lie une connexion du pool au thread le temps d'un traitement
+ */
+package dao;
+
+import config.ConnectionPool;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exécute un traitement dans une transaction unique.
+ * Tous les DAO appelés pendant le traitement partagent la même connexion,
+ * validée une seule fois à la fin (ou annulée en cas d'erreur).
+ * Les appels imbriqués participent à la transaction englobante.
+ */
+public final class TransactionTemplate {
+    
+    // Actions à exécuter après la validation de la transaction en cours sur ce thread
+    private static final ThreadLocal<List<Runnable>> afterCommitActions = new ThreadLocal<>();
+    
+    private TransactionTemplate() {
+    }
+    
+    /**
+     * Exécute le traitement dans une transaction et retourne son résultat
+     */
+    public static <R> R execute(TransactionCallback<R> callback) throws SQLException {
+        if (BaseDAO.isConnectionBound()) {
+            // Transaction déjà ouverte sur ce thread : on y participe
+            return callback.doInTransaction();
+        }
+        
+        Connection conn = ConnectionPool.getInstance().getConnection();
+        boolean originalAutoCommit = conn.getAutoCommit();
+        List<Runnable> actions = new ArrayList<>();
+        R result;
+        
+        try {
+            conn.setAutoCommit(false);
+            BaseDAO.bindConnection(conn);
+            afterCommitActions.set(actions);
+            
+            result = callback.doInTransaction();
+            conn.commit();
+            
+        } catch (Throwable e) {
+            // Toute sortie anormale (Error, exception contrôlée relancée sans déclaration)
+            // doit annuler : la restauration d'autoCommit validerait sinon le travail en cours
+            rollback(conn);
+            throw e;
+        } finally {
+            afterCommitActions.remove();
+            BaseDAO.unbindConnection();
+            try {
+                conn.setAutoCommit(originalAutoCommit);
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de la restauration d'autoCommit : " + e.getMessage());
+            }
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Erreur lors de la libération de la connexion : " + e.getMessage());
+            }
+        }
+        
+        runAfterCommit(actions);
+        return result;
+    }
+    
+    /**
+     * Enregistre une action à exécuter une fois la transaction en cours validée
+     * (mise à jour d'index ou de cache). Hors transaction, l'action est exécutée immédiatement ;
+     * en cas de rollback, elle est abandonnée.
+     */
+    public static void afterCommit(Runnable action) {
+        List<Runnable> actions = afterCommitActions.get();
+        if (actions == null) {
+            action.run();
+        } else {
+            actions.add(action);
+        }
+    }
+    
+    private static void runAfterCommit(List<Runnable> actions) {
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                System.err.println("Erreur lors d'une action post-commit : " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Exécute un traitement sans résultat dans une transaction
+     */
+    public static void run(TransactionAction action) throws SQLException {
+        execute(() -> {
+            action.doInTransaction();
+            return null;
+        });
+    }
+    
+    private static void rollback(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            System.err.println("Erreur lors du rollback : " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Traitement transactionnel retournant un résultat
+     */
+    @FunctionalInterface
+    public interface TransactionCallback<R> {
+        R doInTransaction() throws SQLException;
+    }
+    
+    /**
+     * Traitement transactionnel sans résultat
+     */
+    @FunctionalInterface
+    public interface TransactionAction {
+        void doInTransaction() throws SQLException;
+    }
+}
@@ -6,7 +6,10 @@ package dao;
 
 import models.*;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import models.Utilisateur;
 
 public class UtilisateurDAO extends BaseDAO<Utilisateur> {
@@ -14,19 +17,25 @@ public class UtilisateurDAO extends BaseDAO<Utilisateur> {
     @Override
     public List<Utilisateur> findAll() throws SQLException {
         String sql = "SELECT * FROM UTILISATEUR ORDER BY login";
-        return executeQuery(sql, this::mapUtilisateur);
+        return executeQuery(sql, mapperUtilisateur());
     }
     
     @Override
     public Utilisateur findById(int id) throws SQLException {
         String sql = "SELECT * FROM UTILISATEUR WHERE id_utilisateur = ?";
-        List<Utilisateur> results = executeQuery(sql, this::mapUtilisateur, id);
+        List<Utilisateur> results = executeQuery(sql, mapperUtilisateur(), id);
         return results.isEmpty() ? null : results.get(0);
     }
     
+    @Override
+    public Map<Integer, Utilisateur> findByIds(Collection<Integer> ids) throws SQLException {
+        String sql = "SELECT * FROM UTILISATEUR WHERE id_utilisateur IN (%s)";
+        return selectByIds(ids, sql, mapperUtilisateur(), Utilisateur::getIdUtilisateur);
+    }
+    
     public Utilisateur findByLogin(String login) throws SQLException {
         String sql = "SELECT * FROM UTILISATEUR WHERE login = ?";
-        List<Utilisateur> results = executeQuery(sql, this::mapUtilisateur, login);
+        List<Utilisateur> results = executeQuery(sql, mapperUtilisateur(), login);
         return results.isEmpty() ? null : results.get(0);
     }
     
@@ -34,16 +43,24 @@ public class UtilisateurDAO extends BaseDAO<Utilisateur> {
     public int insert(Utilisateur user) throws SQLException {
         String sql = "INSERT INTO UTILISATEUR (login, password_hash, role, id_etudiant, " +
                      "id_enseignant, actif) VALUES (?, ?, ?, ?, ?, ?)";
-        return executeUpdate(sql, user.getLogin(), user.getPasswordHash(), user.getRole(),
+        int id = executeUpdate(sql, user.getLogin(), user.getPasswordHash(), user.getRole(),
                            user.getIdEtudiant(), user.getIdEnseignant(), user.isActif());
+        if (id > 0) {
+            TransactionTemplate.afterCommit(() -> SearchIndex.getInstance().indexerLogin(user));
+        }
+        return id;
     }
     
     @Override
     public boolean update(Utilisateur user) throws SQLException {
         String sql = "UPDATE UTILISATEUR SET login = ?, role = ?, actif = ? " +
                      "WHERE id_utilisateur = ?";
-        return executeUpdate(sql, user.getLogin(), user.getRole(), 
+        boolean updated = executeUpdate(sql, user.getLogin(), user.getRole(), 
                            user.isActif(), user.getIdUtilisateur()) > 0;
+        if (updated) {
+            TransactionTemplate.afterCommit(() -> SearchIndex.getInstance().indexerLogin(user));
+        }
+        return updated;
     }
     
     @Override
@@ -63,32 +80,183 @@ public class UtilisateurDAO extends BaseDAO<Utilisateur> {
         return executeUpdate(sql, idUtilisateur) > 0;
     }
     
-    public List<Utilisateur> findByRole(String role) throws SQLException {
-        String sql = "SELECT * FROM UTILISATEUR WHERE role = ? ORDER BY login";
-        return executeQuery(sql, this::mapUtilisateur, role);
-    }
-    
-    private Utilisateur mapUtilisateur(ResultSet rs) throws SQLException {
-        Utilisateur user = new Utilisateur();
-        user.setIdUtilisateur(rs.getInt("id_utilisateur"));
-        user.setLogin(rs.getString("login"));
-        user.setPasswordHash(rs.getString("password_hash"));
-        user.setRole(rs.getString("role"));
-        user.setIdEtudiant((Integer) rs.getObject("id_etudiant"));
-        user.setIdEnseignant((Integer) rs.getObject("id_enseignant"));
-        user.setActif(rs.getBoolean("actif"));
+    /**
+     * Récupère une page d'utilisateurs triés par login (pagination par clé sur idx_login)
+     * @param role rôle à filtrer, null pour tous les rôles
+     * @param apresLogin login du dernier utilisateur de la page précédente, null pour la première page
+     * @param taille nombre maximal d'utilisateurs retournés
+     */
+    public List<Utilisateur> findPageAfter(String role, String apresLogin, int taille) 
+            throws SQLException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM UTILISATEUR WHERE 1 = 1");
         
-        Timestamp dateCreation = rs.getTimestamp("date_creation");
-        if (dateCreation != null) {
-            user.setDateCreation(dateCreation.toLocalDateTime());
+        if (role != null) {
+            sql.append(" AND role = ?");
+            params.add(role);
         }
+        if (apresLogin != null) {
+            sql.append(" AND login > ?");
+            params.add(apresLogin);
+        }
+        sql.append(" ORDER BY login LIMIT ?");
+        params.add(taille);
+        
+        return executeQuery(sql.toString(), mapperUtilisateur(), params.toArray());
+    }
+    
+    /**
+     * Page de la liste des comptes (écran administrateur) : nom et email sont lus dans la fiche
+     * étudiant ou enseignant associée par jointure, en une seule requête par page
+     * @see #findPageAfter(String, String, int)
+     */
+    public List<UtilisateurResume> findResumesPageAfter(String role, String apresLogin, int taille) 
+            throws SQLException {
+        return findResumesPageAfter(role, null, apresLogin, taille);
+    }
+    
+    /**
+     * Page de la liste des comptes filtrée par une recherche : login, nom, prénom ou email
+     * commençant par le texte saisi (préfixe, pour rester sur les index)
+     * @param recherche texte saisi, null ou vide pour ne pas filtrer
+     */
+    public List<UtilisateurResume> findResumesPageAfter(String role, String recherche, 
+                                                        String apresLogin, int taille) 
+            throws SQLException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(requeteResumes(role, recherche, params));
         
-        Timestamp derniereConnexion = rs.getTimestamp("derniere_connexion");
-        if (derniereConnexion != null) {
-            user.setDerniereConnexion(derniereConnexion.toLocalDateTime());
+        if (apresLogin != null) {
+            sql.append(" AND u.login > ?");
+            params.add(apresLogin);
         }
+        sql.append(" ORDER BY u.login LIMIT ?");
+        params.add(taille);
         
-        return user;
+        return executeQuery(sql.toString(), rs -> {
+            UtilisateurResume resume = new UtilisateurResume();
+            resume.setIdUtilisateur(rs.getInt("id_utilisateur"));
+            resume.setLogin(rs.getString("login"));
+            resume.setRole(rs.getString("role"));
+            resume.setActif(rs.getBoolean("actif"));
+            resume.setNomComplet(rs.getString("nom_complet"));
+            resume.setEmail(rs.getString("email"));
+            
+            Timestamp derniereConnexion = rs.getTimestamp("derniere_connexion");
+            if (derniereConnexion != null) {
+                resume.setDerniereConnexion(derniereConnexion.toLocalDateTime());
+            }
+            return resume;
+        }, params.toArray());
+    }
+    
+    /**
+     * Requête de la liste des comptes (colonnes dans l'ordre de l'écran administrateur),
+     * filtrée par rôle et recherche, sans tri ni pagination : base des pages et de l'export
+     * @param params reçoit les paramètres de la requête
+     */
+    public String requeteResumes(String role, String recherche, List<Object> params) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT u.id_utilisateur, u.login, u.role, " +
+            "COALESCE(CONCAT(e.nom, ' ', e.prenom), CONCAT(ens.nom, ' ', ens.prenom)) AS nom_complet, " +
+            "COALESCE(e.email, ens.email) AS email, u.actif, u.derniere_connexion " +
+            "FROM UTILISATEUR u " +
+            "LEFT JOIN ETUDIANT e ON u.role = 'ETUDIANT' AND e.id_etudiant = u.id_etudiant " +
+            "LEFT JOIN ENSEIGNANT ens ON u.role = 'ENSEIGNANT' AND ens.id_enseignant = u.id_enseignant " +
+            "WHERE 1 = 1");
+        
+        if (role != null) {
+            sql.append(" AND u.role = ?");
+            params.add(role);
+        }
+        if (recherche != null && !recherche.trim().isEmpty()) {
+            sql.append(" AND (u.login LIKE ? OR e.nom LIKE ? OR e.prenom LIKE ? OR e.email LIKE ? " +
+                       "OR ens.nom LIKE ? OR ens.prenom LIKE ? OR ens.email LIKE ?)");
+            String prefixe = recherche.trim().replace("\\", "\\\\")
+                .replace("%", "\\%").replace("_", "\\_") + "%";
+            for (int i = 0; i < 7; i++) {
+                params.add(prefixe);
+            }
+        }
+        return sql.toString();
+    }
+    
+    public List<Utilisateur> findByRole(String role) throws SQLException {
+        String sql = "SELECT * FROM UTILISATEUR WHERE role = ? ORDER BY login";
+        return executeQuery(sql, mapperUtilisateur(), role);
+    }
+    
+    private RowMapper<Utilisateur> mapperUtilisateur() {
+        return ColumnIndex.mapper(c -> {
+            int idUtilisateur = c.required("id_utilisateur");
+            int login = c.required("login");
+            int passwordHash = c.required("password_hash");
+            int role = c.required("role");
+            int idEtudiant = c.required("id_etudiant");
+            int idEnseignant = c.required("id_enseignant");
+            int actif = c.required("actif");
+            int dateCreation = c.required("date_creation");
+            int derniereConnexion = c.required("derniere_connexion");
+            
+            return rs -> {
+                Utilisateur user = new Utilisateur();
+                user.setIdUtilisateur(rs.getInt(idUtilisateur));
+                user.setLogin(rs.getString(login));
+                user.setPasswordHash(rs.getString(passwordHash));
+                user.setRole(rs.getString(role));
+                user.setIdEtudiant((Integer) rs.getObject(idEtudiant));
+                user.setIdEnseignant((Integer) rs.getObject(idEnseignant));
+                user.setActif(rs.getBoolean(actif));
+                
+                Timestamp creation = rs.getTimestamp(dateCreation);
+                if (creation != null) {
+                    user.setDateCreation(creation.toLocalDateTime());
+                }
+                
+                Timestamp connexion = rs.getTimestamp(derniereConnexion);
+                if (connexion != null) {
+                    user.setDerniereConnexion(connexion.toLocalDateTime());
+                }
+                
+                return user;
+            };
+        });
+    }
+    
+    /**
+     * Ligne de la liste des comptes : nomComplet et email sont null pour les comptes
+     * sans fiche étudiant/enseignant (administration, scolarité, direction)
+     */
+    public static class UtilisateurResume {
+        private int idUtilisateur;
+        private String login;
+        private String role;
+        private boolean actif;
+        private String nomComplet;
+        private String email;
+        private java.time.LocalDateTime derniereConnexion;
+        
+        public int getIdUtilisateur() { return idUtilisateur; }
+        public void setIdUtilisateur(int idUtilisateur) { this.idUtilisateur = idUtilisateur; }
+        
+        public String getLogin() { return login; }
+        public void setLogin(String login) { this.login = login; }
+        
+        public String getRole() { return role; }
+        public void setRole(String role) { this.role = role; }
+        
+        public boolean isActif() { return actif; }
+        public void setActif(boolean actif) { this.actif = actif; }
+        
+        public String getNomComplet() { return nomComplet; }
+        public void setNomComplet(String nomComplet) { this.nomComplet = nomComplet; }
+        
+        public String getEmail() { return email; }
+        public void setEmail(String email) { this.email = email; }
+        
+        public java.time.LocalDateTime getDerniereConnexion() { return derniereConnexion; }
+        public void setDerniereConnexion(java.time.LocalDateTime derniereConnexion) { 
+            this.derniereConnexion = derniereConnexion; 
+        }
     }
 }
-
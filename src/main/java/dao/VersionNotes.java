@@ -0,0 +1,39 @@
+/*
+ * Version des données de notes
+ * Compteur incrémenté à chaque écriture validée dans EPREUVE, NOTE_EPREUVE ou NOTE_MATIERE
+ */
+package dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Les calculs tenus en mémoire sur les notes (matrices de promotion, simulations de
+ * délibération) relèvent la version avant de lire la base : si elle a changé depuis,
+ * leur résultat est périmé.
+ * Les DAO des épreuves et des notes l'incrémentent à chaque insert/update/delete, après
+ * le commit de la transaction en cours (une écriture annulée ne périme rien).
+ */
+public final class VersionNotes {
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private VersionNotes() {
+    }
+
+    public static long courante() {
+        return VERSION.get();
+    }
+
+    /**
+     * Incrémente la version tout de suite (écriture hors DAO, import en masse)
+     */
+    public static void incrementer() {
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * Incrémente la version une fois la transaction en cours validée
+     */
+    static void incrementerOnWrite() {
+        TransactionTemplate.afterCommit(VersionNotes::incrementer);
+    }
+}
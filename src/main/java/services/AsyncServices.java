@@ -0,0 +1,203 @@
+/*
+ * Façade asynchrone des services
+ * Exécute les appels bloquants (JDBC) hors de l'EDT, sur des threads virtuels
+ */
+package services;
+
+import models.*;
+
+import javax.swing.SwingUtilities;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Chaque appel est exécuté sur son propre thread virtuel et renvoie un CompletableFuture :
+ * les vues lancent leurs requêtes indépendantes en parallèle puis affichent les résultats
+ * sur l'EDT via {@link #onEdt}. Le nombre de requêtes réellement simultanées reste borné
+ * par la taille du pool de connexions.
+ * Annuler un future renvoyé par cette classe interrompt l'appel en cours ; les futures
+ * dérivés (thenApply, allOf...) ne propagent pas l'annulation vers l'appel d'origine.
+ */
+public class AsyncServices {
+
+    /**
+     * Appel de service pouvant lever une exception vérifiée (SQLException...)
+     */
+    @FunctionalInterface
+    public interface Appel<T> {
+        T call() throws Exception;
+    }
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("service-async-", 0).factory());
+
+    private final NoteService noteService;
+    private final StatistiquesService statistiquesService;
+    private final BulletinService bulletinService;
+    private final EtudiantService etudiantService;
+
+    public AsyncServices() {
+        this(new NoteService(), new StatistiquesService(), new BulletinService(), new EtudiantService());
+    }
+
+    public AsyncServices(NoteService noteService, StatistiquesService statistiquesService,
+                         BulletinService bulletinService, EtudiantService etudiantService) {
+        this.noteService = noteService;
+        this.statistiquesService = statistiquesService;
+        this.bulletinService = bulletinService;
+        this.etudiantService = etudiantService;
+    }
+
+    // === Exécution ===
+
+    /**
+     * Exécute un appel sur un thread virtuel
+     * @return un future annulable (l'annulation interrompt le thread de l'appel)
+     */
+    public static <T> CompletableFuture<T> submit(Appel<T> appel) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> tache = EXECUTOR.submit(() -> {
+            if (future.isDone()) {
+                return; // Annulé avant de démarrer
+            }
+            try {
+                future.complete(appel.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        future.whenComplete((resultat, erreur) -> {
+            if (future.isCancelled()) {
+                tache.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Transmet le résultat (ou l'erreur, sans enveloppe CompletionException) à l'EDT.
+     * Rien n'est appelé si le future a été annulé.
+     */
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> succes,
+                                 Consumer<? super Throwable> echec) {
+        future.whenComplete((resultat, erreur) -> SwingUtilities.invokeLater(() -> {
+            if (future.isCancelled() || erreur instanceof CancellationException) {
+                return;
+            }
+            if (erreur == null) {
+                succes.accept(resultat);
+            } else {
+                echec.accept(cause(erreur));
+            }
+        }));
+    }
+
+    /**
+     * Annule les futures encore en cours (fermeture d'une vue, nouveau chargement...)
+     */
+    public static void annuler(CompletableFuture<?>... futures) {
+        for (CompletableFuture<?> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Exception d'origine, débarrassée des enveloppes CompletionException / ExecutionException
+     */
+    public static Throwable cause(Throwable erreur) {
+        Throwable cause = erreur;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    // === NoteService ===
+
+    public CompletableFuture<Double> getMoyenneGenerale(int idEtudiant, int idAnnee) {
+        return submit(() -> noteService.getMoyenneGenerale(idEtudiant, idAnnee));
+    }
+
+    public CompletableFuture<String> getStatut(int idEtudiant, int idAnnee) {
+        return submit(() -> noteService.getStatut(idEtudiant, idAnnee));
+    }
+
+    public CompletableFuture<Integer> countMatieresValidees(int idEtudiant, int idAnnee) {
+        return submit(() -> noteService.countMatieresValidees(idEtudiant, idAnnee));
+    }
+
+    public CompletableFuture<List<NoteEpreuve>> getNotesEtudiant(int idEtudiant, int idAnnee) {
+        return submit(() -> noteService.getNotesEtudiant(idEtudiant, idAnnee));
+    }
+
+    public CompletableFuture<List<NoteMatiere>> getNotesMatieresEtudiant(int idEtudiant, int idAnnee) {
+        return submit(() -> noteService.getNotesMatieresEtudiant(idEtudiant, idAnnee));
+    }
+
+    public CompletableFuture<List<NoteEpreuve>> getFeuilleNotes(int idEpreuve) {
+        return submit(() -> noteService.getFeuilleNotes(idEpreuve));
+    }
+
+    public CompletableFuture<NoteService.RapportRecalcul> recalculerPromotion(int idProgramme, int idAnnee) {
+        return submit(() -> noteService.recalculerPromotion(idProgramme, idAnnee));
+    }
+
+    // === StatistiquesService ===
+
+    public CompletableFuture<List<StatistiquesService.StatProgramme>> getStatistiquesParProgramme(int idAnnee) {
+        return submit(() -> statistiquesService.getStatistiquesParProgramme(idAnnee));
+    }
+
+    public CompletableFuture<List<StatistiquesService.TopEtudiant>> getTopEtudiants(int idAnnee, int limit) {
+        return submit(() -> statistiquesService.getTopEtudiants(idAnnee, limit));
+    }
+
+    public CompletableFuture<StatistiquesService.TauxReussite> getTauxReussite(int idAnnee) {
+        return submit(() -> statistiquesService.getTauxReussite(idAnnee));
+    }
+
+    public CompletableFuture<StatistiquesService.AnalysePromotion> getAnalysePromotion(int idProgramme,
+                                                                                     int idAnnee) {
+        return submit(() -> statistiquesService.getAnalysePromotion(idProgramme, idAnnee));
+    }
+
+    public CompletableFuture<SimulateurDeliberation> chargerDeliberation(int idProgramme, int idAnnee) {
+        return submit(() -> SimulateurDeliberation.charger(idProgramme, idAnnee));
+    }
+
+    // === BulletinService ===
+
+    public CompletableFuture<BulletinService.BulletinData> genererBulletin(int idEtudiant, int idProgramme,
+                                                                          int idAnnee) {
+        return submit(() -> bulletinService.genererBulletin(idEtudiant, idProgramme, idAnnee));
+    }
+
+    public CompletableFuture<List<BulletinService.BulletinData>> genererBulletinsPromotion(int idProgramme,
+                                                                                          int idAnnee) {
+        return submit(() -> bulletinService.genererBulletinsPromotion(idProgramme, idAnnee));
+    }
+
+    // === EtudiantService ===
+
+    public CompletableFuture<List<Etudiant>> rechercherEtudiants(String critere) {
+        return submit(() -> etudiantService.rechercherEtudiants(critere));
+    }
+
+    public CompletableFuture<Integer> compterEtudiants() {
+        return submit(etudiantService::compterEtudiants);
+    }
+
+    public CompletableFuture<List<Inscription>> getInscriptionsEtudiant(int idEtudiant) {
+        return submit(() -> etudiantService.getInscriptionsEtudiant(idEtudiant));
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Génération en lot des bulletins PDF d'une promotion
+ * Chargement en deux requêtes, rendu parallèle, écriture en fichiers ou en archive ZIP
+ */
+package services;
+
+import config.AppProperties;
+import utils.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class BulletinBatchService {
+
+    /**
+     * Format de sortie du lot
+     */
+    public enum FormatSortie {
+        FICHIERS,   // Un fichier PDF par étudiant dans le dossier de sortie
+        ZIP         // Une archive ZIP unique contenant tous les bulletins
+    }
+
+    /**
+     * Suivi de la progression (appelé depuis le thread qui lance la génération)
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int termines, int total, double bulletinsParSeconde);
+    }
+
+    private final BulletinService bulletinService;
+    private final BulletinPDFService pdfService;
+    private final int nbWorkers;
+
+    public BulletinBatchService() {
+        this.bulletinService = new BulletinService();
+        this.pdfService = new BulletinPDFService();
+        int defaut = Runtime.getRuntime().availableProcessors();
+        this.nbWorkers = Math.max(1, AppProperties.getInstance().getIntProperty("bulletin.workers", defaut));
+    }
+
+    /**
+     * Génère les bulletins de tous les inscrits d'un programme pour une année.
+     * Les PDF sont rendus en parallèle par un pool borné ; au plus deux bulletins par worker
+     * attendent d'être écrits, la mémoire reste donc constante quelle que soit la promotion.
+     * Un bulletin en échec n'interrompt pas le lot : il est signalé dans le rapport.
+     * @param dossierSortie dossier des PDF (FICHIERS) ou de l'archive (ZIP)
+     */
+    public RapportGeneration genererBulletinsPromotion(int idProgramme, int idAnnee, File dossierSortie,
+            FormatSortie format, ProgressListener listener) throws SQLException, IOException {
+
+        long debut = System.currentTimeMillis();
+        Files.createDirectories(dossierSortie.toPath());
+
+        // 1. Chargement des données (deux requêtes)
+        List<BulletinService.BulletinData> bulletins =
+            bulletinService.genererBulletinsPromotion(idProgramme, idAnnee);
+        long finChargement = System.currentTimeMillis();
+
+        RapportGeneration rapport = new RapportGeneration();
+        rapport.setNbBulletins(bulletins.size());
+        rapport.setDureeChargementMs(finChargement - debut);
+
+        if (bulletins.isEmpty()) {
+            Logger.warn("Aucun inscrit pour le programme " + idProgramme + ", année " + idAnnee);
+            return rapport;
+        }
+
+        // 2. Rendu parallèle et 3. écriture au fil de l'eau
+        File archive = new File(dossierSortie, String.format("bulletins_%d_%d.zip", idProgramme, idAnnee));
+        ZipOutputStream zip = format == FormatSortie.ZIP
+            ? new ZipOutputStream(new FileOutputStream(archive)) : null;
+        rapport.setCheminSortie(zip != null ? archive.getPath() : dossierSortie.getPath());
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(nbWorkers, bulletins.size()));
+        CompletionService<PdfRendu> rendus = new ExecutorCompletionService<>(pool);
+        Semaphore enAttente = new Semaphore(nbWorkers * 2);
+
+        Set<String> nomsUtilises = new HashSet<>();
+        int soumis = 0;
+        int termines = 0;
+
+        try {
+            while (termines < bulletins.size()) {
+                // Soumettre tant que la file des PDF à écrire n'est pas pleine
+                while (soumis < bulletins.size() && enAttente.tryAcquire()) {
+                    BulletinService.BulletinData data = bulletins.get(soumis++);
+                    rendus.submit(() -> new PdfRendu(data, pdfService.renderBulletin(data)));
+                }
+
+                Future<PdfRendu> future = rendus.take();
+                enAttente.release();
+                termines++;
+
+                try {
+                    PdfRendu rendu = future.get();
+                    ecrire(rendu, nomUnique(rendu.data, nomsUtilises), dossierSortie, zip);
+                    rapport.incrementerGeneres();
+                } catch (ExecutionException e) {
+                    rapport.ajouterErreur("Rendu PDF : " + e.getCause().getMessage());
+                } catch (IOException e) {
+                    rapport.ajouterErreur("Écriture : " + e.getMessage());
+                }
+
+                if (listener != null) {
+                    listener.onProgress(termines, bulletins.size(),
+                        debit(termines, System.currentTimeMillis() - finChargement));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Génération des bulletins interrompue", e);
+        } finally {
+            pool.shutdownNow();
+            if (zip != null) {
+                zip.close();
+            }
+        }
+
+        rapport.setDureeTotaleMs(System.currentTimeMillis() - debut);
+        Logger.info("📄 " + rapport);
+        return rapport;
+    }
+
+    private void ecrire(PdfRendu rendu, String nomFichier, File dossierSortie, ZipOutputStream zip)
+            throws IOException {
+        if (zip != null) {
+            zip.putNextEntry(new ZipEntry(nomFichier));
+            zip.write(rendu.contenu);
+            zip.closeEntry();
+        } else {
+            try (OutputStream output = new FileOutputStream(new File(dossierSortie, nomFichier))) {
+                output.write(rendu.contenu);
+            }
+        }
+    }
+
+    /**
+     * Nom de fichier du bulletin, suffixé par l'identifiant en cas d'homonymes
+     */
+    private String nomUnique(BulletinService.BulletinData data, Set<String> nomsUtilises) {
+        String nom = pdfService.getFileName(data);
+        if (!nomsUtilises.add(nom)) {
+            nom = nom.replace(".pdf", "_" + data.getEtudiant().getIdEtudiant() + ".pdf");
+            nomsUtilises.add(nom);
+        }
+        return nom;
+    }
+
+    private static double debit(int nombre, long dureeMs) {
+        return dureeMs <= 0 ? 0.0 : nombre * 1000.0 / dureeMs;
+    }
+
+    /**
+     * PDF rendu en mémoire, en attente d'écriture
+     */
+    private static class PdfRendu {
+        final BulletinService.BulletinData data;
+        final byte[] contenu;
+
+        PdfRendu(BulletinService.BulletinData data, byte[] contenu) {
+            this.data = data;
+            this.contenu = contenu;
+        }
+    }
+
+    /**
+     * Rapport de génération d'un lot de bulletins
+     */
+    public static class RapportGeneration {
+        private int nbBulletins;
+        private int nbGeneres;
+        private long dureeChargementMs;
+        private long dureeTotaleMs;
+        private String cheminSortie;
+        private final List<String> erreurs = new ArrayList<>();
+
+        public int getNbBulletins() { return nbBulletins; }
+        public void setNbBulletins(int nbBulletins) { this.nbBulletins = nbBulletins; }
+
+        public int getNbGeneres() { return nbGeneres; }
+        void incrementerGeneres() { nbGeneres++; }
+
+        public long getDureeChargementMs() { return dureeChargementMs; }
+        public void setDureeChargementMs(long dureeChargementMs) {
+            this.dureeChargementMs = dureeChargementMs;
+        }
+
+        public long getDureeTotaleMs() { return dureeTotaleMs; }
+        public void setDureeTotaleMs(long dureeTotaleMs) { this.dureeTotaleMs = dureeTotaleMs; }
+
+        public String getCheminSortie() { return cheminSortie; }
+        public void setCheminSortie(String cheminSortie) { this.cheminSortie = cheminSortie; }
+
+        public List<String> getErreurs() { return erreurs; }
+        void ajouterErreur(String erreur) { erreurs.add(erreur); }
+
+        public double getBulletinsParSeconde() {
+            return debit(nbGeneres, dureeTotaleMs);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d/%d bulletins générés en %d ms (chargement %d ms, %.1f bulletins/s, %d erreurs) -> %s",
+                nbGeneres, nbBulletins, dureeTotaleMs, dureeChargementMs,
+                getBulletinsParSeconde(), erreurs.size(), cheminSortie);
+        }
+    }
+}
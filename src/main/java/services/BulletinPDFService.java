@@ -7,10 +7,12 @@ package services;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import models.*;
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class BulletinPDFService {
@@ -20,19 +22,60 @@ public class BulletinPDFService {
     private static final Font NORMAL_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL);
     private static final Font SMALL_FONT = new Font(Font.FontFamily.HELVETICA, 8, Font.NORMAL);
     
+    // Couleurs partagées (immuables) : évite de les recréer pour chaque cellule
+    private static final BaseColor COLOR_PRIMARY = new BaseColor(52, 152, 219);
+    private static final BaseColor COLOR_LIGHT = new BaseColor(236, 240, 241);
+    private static final BaseColor COLOR_SUCCESS = new BaseColor(46, 204, 113);
+    private static final BaseColor COLOR_WARNING = new BaseColor(230, 126, 34);
+    private static final BaseColor COLOR_DANGER = new BaseColor(231, 76, 60);
+    
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    
     /**
      * Génère un bulletin PDF pour un étudiant
      */
     public String generateBulletinPDF(BulletinService.BulletinData bulletinData, String outputPath) 
             throws DocumentException, IOException {
         
-        Document document = new Document(PageSize.A4);
-        String fileName = outputPath + "/bulletin_" + 
-                         bulletinData.getEtudiant().getNom().toLowerCase() + "_" +
-                         bulletinData.getEtudiant().getPrenom().toLowerCase() + "_" +
-                         bulletinData.getAnneeScolaire().getLibelle().replace("/", "-") + ".pdf";
+        String fileName = outputPath + "/" + getFileName(bulletinData);
         
-        PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(fileName));
+        try (FileOutputStream output = new FileOutputStream(fileName)) {
+            writeBulletin(bulletinData, output);
+        }
+        
+        return fileName;
+    }
+    
+    /**
+     * Génère un bulletin PDF en mémoire (génération en lot)
+     */
+    public byte[] renderBulletin(BulletinService.BulletinData bulletinData) 
+            throws DocumentException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(32 * 1024);
+        writeBulletin(bulletinData, output);
+        return output.toByteArray();
+    }
+    
+    /**
+     * Nom de fichier du bulletin d'un étudiant
+     */
+    public String getFileName(BulletinService.BulletinData bulletinData) {
+        return "bulletin_" + 
+               bulletinData.getEtudiant().getNom().toLowerCase() + "_" +
+               bulletinData.getEtudiant().getPrenom().toLowerCase() + "_" +
+               bulletinData.getAnneeScolaire().getLibelle().replace("/", "-") + ".pdf";
+    }
+    
+    /**
+     * Écrit le bulletin PDF dans le flux fourni (le flux n'est pas fermé).
+     * Sans état partagé modifiable : peut être appelé depuis plusieurs threads.
+     */
+    public void writeBulletin(BulletinService.BulletinData bulletinData, OutputStream output) 
+            throws DocumentException {
+        
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, output);
+        writer.setCloseStream(false);
         
         // En-tête et pied de page
         writer.setPageEvent(new BulletinPageEvent(bulletinData));
@@ -47,8 +90,6 @@ public class BulletinPDFService {
         addFooter(document);
         
         document.close();
-        
-        return fileName;
     }
     
     private void addUniversityHeader(Document document) throws DocumentException {
@@ -78,8 +119,7 @@ public class BulletinPDFService {
         rightCell.setBorder(Rectangle.NO_BORDER);
         rightCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
         
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
-        Paragraph date = new Paragraph("Édité le : " + dateFormat.format(new Date()), NORMAL_FONT);
+        Paragraph date = new Paragraph("Édité le : " + LocalDate.now().format(DATE_FORMAT), NORMAL_FONT);
         date.setAlignment(Element.ALIGN_RIGHT);
         rightCell.addElement(date);
         
@@ -108,11 +148,6 @@ public class BulletinPDFService {
         infoTable.setSpacingAfter(20);
         infoTable.setWidths(new float[]{2, 3, 2, 3});
         
-        // Style des cellules d'en-tête
-        PdfPCell headerCell = new PdfPCell();
-        headerCell.setBackgroundColor(new BaseColor(52, 152, 219));
-        headerCell.setPadding(8);
-        
         // Informations étudiant
         addInfoRow(infoTable, "Nom et Prénom:", etudiant.getNomComplet());
         addInfoRow(infoTable, "Origine scolaire:", etudiant.getOrigineScolaire());
@@ -129,7 +164,7 @@ public class BulletinPDFService {
     private void addInfoRow(PdfPTable table, String label, String value) {
         // Cellule label
         PdfPCell labelCell = new PdfPCell(new Phrase(label, HEADER_FONT));
-        labelCell.setBackgroundColor(new BaseColor(236, 240, 241));
+        labelCell.setBackgroundColor(COLOR_LIGHT);
         labelCell.setPadding(5);
         
         // Cellule valeur
@@ -192,7 +227,7 @@ public class BulletinPDFService {
     
     private void addTableHeader(PdfPTable table, String text) {
         PdfPCell cell = new PdfPCell(new Phrase(text, HEADER_FONT));
-        cell.setBackgroundColor(new BaseColor(52, 152, 219));
+        cell.setBackgroundColor(COLOR_PRIMARY);
         cell.setHorizontalAlignment(Element.ALIGN_CENTER);
         cell.setPadding(8);
         table.addCell(cell);
@@ -232,11 +267,11 @@ public class BulletinPDFService {
         // Couleur selon le statut
         PdfPCell statusCell = new PdfPCell(new Phrase(getStatutMessage(data.getStatut()), HEADER_FONT));
         if (data.getStatut().equalsIgnoreCase("admis")) {
-            statusCell.setBackgroundColor(new BaseColor(46, 204, 113));
+            statusCell.setBackgroundColor(COLOR_SUCCESS);
         } else if (data.getStatut().equalsIgnoreCase("redoublant")) {
-            statusCell.setBackgroundColor(new BaseColor(230, 126, 34));
+            statusCell.setBackgroundColor(COLOR_WARNING);
         } else {
-            statusCell.setBackgroundColor(new BaseColor(231, 76, 60));
+            statusCell.setBackgroundColor(COLOR_DANGER);
         }
         statusCell.setPadding(8);
         statusCell.setColspan(2);
@@ -7,52 +7,151 @@ package services;
 import dao.*;
 import models.*;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class BulletinService {
-    private NoteService noteService;
+    private static final String STATUT_EN_COURS = "En cours";
+    
     private EtudiantDAO etudiantDAO;
+    private NoteMatiereDAO noteMatiereDAO;
     private ProgrammeDAO programmeDAO;
     private AnneeScolaireDAO anneeScolaireDAO;
     
     public BulletinService() {
-        this.noteService = new NoteService();
         this.etudiantDAO = new EtudiantDAO();
+        this.noteMatiereDAO = new NoteMatiereDAO();
         this.programmeDAO = new ProgrammeDAO();
         this.anneeScolaireDAO = new AnneeScolaireDAO();
     }
     
+    /**
+     * Génère le bulletin d'un étudiant pour une année, dans le programme de son inscription
+     * @throws IllegalArgumentException si l'étudiant n'est pas inscrit cette année-là
+     */
+    public BulletinData genererBulletin(int idEtudiant, int idAnnee) throws SQLException {
+        List<Integer> programmes = etudiantDAO.executeQuery(QueryRegistry.INSCRIPTION_PROGRAMME,
+            rs -> rs.getInt("id_programme"), idEtudiant, idAnnee);
+        if (programmes.isEmpty()) {
+            throw new IllegalArgumentException("Aucune inscription de l'étudiant pour cette année");
+        }
+        return genererBulletin(idEtudiant, programmes.get(0), idAnnee);
+    }
+    
     /**
      * Génère les données du bulletin pour un étudiant
      */
     public BulletinData genererBulletin(int idEtudiant, int idProgramme, int idAnnee) 
             throws SQLException {
         
+        List<BulletinData> bulletins = genererBulletins(
+            Collections.singletonList(idEtudiant), idProgramme, idAnnee);
+        if (!bulletins.isEmpty()) {
+            return bulletins.get(0);
+        }
+        
+        // Étudiant introuvable : bulletin vide
         BulletinData bulletin = new BulletinData();
+        bulletin.setProgramme(programmeDAO.findById(idProgramme));
+        bulletin.setAnneeScolaire(anneeScolaireDAO.findById(idAnnee));
+        bulletin.setNotesMatiere(new ArrayList<>());
+        bulletin.setStatut(STATUT_EN_COURS);
+        return bulletin;
+    }
+    
+    /**
+     * Génère les bulletins d'une liste d'étudiants d'un programme.
+     * Deux requêtes par tranche de BaseDAO.IN_CHUNK_SIZE étudiants (étudiant + inscription, puis notes des matières),
+     * programme et année étant lus dans le cache des données de référence.
+     */
+    public List<BulletinData> genererBulletins(List<Integer> idsEtudiants, int idProgramme, 
+            int idAnnee) throws SQLException {
         
-        // Informations étudiant
-        Etudiant etudiant = etudiantDAO.findById(idEtudiant);
-        bulletin.setEtudiant(etudiant);
+        List<BulletinData> bulletins = new ArrayList<>();
+        for (int debut = 0; debut < idsEtudiants.size(); debut += BaseDAO.IN_CHUNK_SIZE) {
+            List<Integer> tranche = idsEtudiants.subList(debut, 
+                Math.min(debut + BaseDAO.IN_CHUNK_SIZE, idsEtudiants.size()));
+            Object[] params = BaseDAO.inParams(tranche);
+            String filtre = "%s IN (" + BaseDAO.inPlaceholders(params.length) + ")";
+            bulletins.addAll(chargerBulletins(filtre, params, idProgramme, idAnnee));
+        }
+        return bulletins;
+    }
+    
+    /**
+     * Génère les bulletins de tous les inscrits d'un programme pour une année, en deux requêtes
+     */
+    public List<BulletinData> genererBulletinsPromotion(int idProgramme, int idAnnee) 
+            throws SQLException {
+        String filtre = "%s IN (SELECT id_etudiant FROM INSCRIPTION " +
+                        "WHERE id_programme = ? AND id_annee = ?)";
+        return chargerBulletins(filtre, new Object[]{idProgramme, idAnnee}, idProgramme, idAnnee);
+    }
+    
+    /**
+     * Assemble les bulletins des étudiants sélectionnés par le filtre
+     * @param filtre condition SQL sur l'identifiant étudiant (%s = colonne id_etudiant)
+     */
+    private List<BulletinData> chargerBulletins(String filtre, Object[] filtreParams, 
+            int idProgramme, int idAnnee) throws SQLException {
         
-        // Informations programme et année
         Programme programme = programmeDAO.findById(idProgramme);
-        bulletin.setProgramme(programme);
-        
         AnneeScolaire annee = anneeScolaireDAO.findById(idAnnee);
-        bulletin.setAnneeScolaire(annee);
         
-        // Notes des matières
-        List<NoteMatiere> notes = noteService.getNotesMatieresEtudiant(idEtudiant, idAnnee);
-        bulletin.setNotesMatiere(notes);
+        // 1. Étudiants avec moyenne et statut de leur inscription
+        String sqlEtudiants = "SELECT e.*, i.id_inscription, i.moyenne_generale, i.statut_fin_annee " +
+                              "FROM ETUDIANT e " +
+                              "LEFT JOIN INSCRIPTION i ON i.id_etudiant = e.id_etudiant " +
+                              "AND i.id_programme = ? AND i.id_annee = ? " +
+                              "WHERE " + String.format(filtre, "e.id_etudiant") + " " +
+                              "ORDER BY e.nom, e.prenom";
+        
+        Map<Integer, BulletinData> parEtudiant = new LinkedHashMap<>();
+        BaseDAO.RowMapper<Etudiant> mapperEtudiant = etudiantDAO.mapperEtudiant();
+        etudiantDAO.forEachRow(sqlEtudiants, rs -> {
+            BulletinData bulletin = new BulletinData();
+            bulletin.setEtudiant(mapperEtudiant.mapRow(rs));
+            bulletin.setProgramme(programme);
+            bulletin.setAnneeScolaire(annee);
+            bulletin.setNotesMatiere(new ArrayList<>());
+            
+            boolean inscrit = rs.getObject("id_inscription") != null;
+            String statut = rs.getString("statut_fin_annee");
+            bulletin.setMoyenneGenerale(rs.getDouble("moyenne_generale"));
+            bulletin.setStatut(inscrit && statut != null ? statut : STATUT_EN_COURS);
+            return bulletin;
+        }, bulletin -> parEtudiant.put(bulletin.getEtudiant().getIdEtudiant(), bulletin),
+        concat(new Object[]{idProgramme, idAnnee}, filtreParams));
         
-        // Moyenne générale et statut
-        double moyenne = noteService.getMoyenneGenerale(idEtudiant, idAnnee);
-        bulletin.setMoyenneGenerale(moyenne);
+        if (parEtudiant.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        String statut = noteService.getStatut(idEtudiant, idAnnee);
-        bulletin.setStatut(statut);
+        // 2. Notes des matières de tous ces étudiants
+        String sqlNotes = "SELECT nm.*, m.nom AS matiere_name " +
+                          "FROM NOTE_MATIERE nm " +
+                          "JOIN MATIERE m ON nm.id_matiere = m.id_matiere " +
+                          "WHERE nm.id_annee = ? AND " + String.format(filtre, "nm.id_etudiant") + " " +
+                          "ORDER BY nm.id_etudiant, m.nom";
         
-        return bulletin;
+        noteMatiereDAO.forEachRow(sqlNotes, NoteService::mapNoteMatiereAvecNom, note -> {
+            BulletinData bulletin = parEtudiant.get(note.getIdEtudiant());
+            if (bulletin != null) {
+                bulletin.getNotesMatiere().add(note);
+            }
+        }, concat(new Object[]{idAnnee}, filtreParams));
+        
+        return new ArrayList<>(parEtudiant.values());
+    }
+    
+    private static Object[] concat(Object[] debut, Object[] fin) {
+        Object[] params = new Object[debut.length + fin.length];
+        System.arraycopy(debut, 0, params, 0, debut.length);
+        System.arraycopy(fin, 0, params, debut.length, fin.length);
+        return params;
     }
     
     /**
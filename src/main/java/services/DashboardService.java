@@ -0,0 +1,138 @@
+/*
+ * Indicateurs de l'écran d'accueil administrateur
+ * Comptages par requêtes agrégées exécutées en parallèle, résumé mis en cache quelques secondes
+ */
+package services;
+
+import config.AppProperties;
+import dao.*;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Le résumé est calculé par trois requêtes COUNT lancées simultanément (utilisateurs,
+ * étudiants, enseignants) puis fusionnées. Il est partagé par toutes les instances et
+ * conservé dashboard.cache.ttl secondes : les ouvertures successives du tableau de bord
+ * (ou plusieurs appels simultanés) ne déclenchent qu'un seul calcul.
+ */
+public class DashboardService {
+    private static final Object VERROU = new Object();
+
+    // Résumé en cache (ou en cours de calcul) et son échéance
+    private static CompletableFuture<ResumeAdmin> resume;
+    private static long expireA;
+
+    private final UtilisateurDAO utilisateurDAO;
+    private final EtudiantDAO etudiantDAO;
+    private final EnseignantDAO enseignantDAO;
+    private final long ttlNanos;
+
+    public DashboardService() {
+        this.utilisateurDAO = new UtilisateurDAO();
+        this.etudiantDAO = new EtudiantDAO();
+        this.enseignantDAO = new EnseignantDAO();
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(
+            AppProperties.getInstance().getIntProperty("dashboard.cache.ttl", 30));
+    }
+
+    /**
+     * Résumé administrateur, depuis le cache s'il a moins de dashboard.cache.ttl secondes
+     */
+    public CompletableFuture<ResumeAdmin> getResumeAdmin() {
+        synchronized (VERROU) {
+            // Un calcul en échec n'est pas conservé
+            boolean valide = resume != null && !resume.isCompletedExceptionally()
+                && expireA - System.nanoTime() > 0;
+            if (!valide) {
+                resume = calculerResumeAdmin();
+                expireA = System.nanoTime() + ttlNanos;
+            }
+            return resume;
+        }
+    }
+
+    /**
+     * Oublie le résumé en cache (bouton Actualiser, après une modification des comptes)
+     */
+    public static void invalider() {
+        synchronized (VERROU) {
+            resume = null;
+        }
+    }
+
+    private CompletableFuture<ResumeAdmin> calculerResumeAdmin() {
+        CompletableFuture<ResumeAdmin> comptes = AsyncServices.submit(this::compterUtilisateurs);
+        CompletableFuture<Integer> etudiants = AsyncServices.submit(etudiantDAO::count);
+        CompletableFuture<Integer> enseignants = AsyncServices.submit(enseignantDAO::count);
+
+        return CompletableFuture.allOf(comptes, etudiants, enseignants).thenApply(ignored -> {
+            ResumeAdmin r = comptes.join();
+            r.setNbEtudiants(etudiants.join());
+            r.setNbEnseignants(enseignants.join());
+            r.setDateCalcul(LocalDateTime.now());
+            return r;
+        });
+    }
+
+    /**
+     * Comptes utilisateurs, inactifs et orphelins (rôle ETUDIANT/ENSEIGNANT sans fiche associée)
+     * en un seul parcours de la table
+     */
+    private ResumeAdmin compterUtilisateurs() throws SQLException {
+        List<ResumeAdmin> results = utilisateurDAO.executeQuery(QueryRegistry.ADMIN_COMPTES, rs -> {
+            ResumeAdmin r = new ResumeAdmin();
+            r.setNbUtilisateurs(rs.getInt("nb_utilisateurs"));
+            r.setNbUtilisateursInactifs(rs.getInt("nb_inactifs"));
+            r.setNbComptesOrphelins(rs.getInt("nb_orphelins"));
+            return r;
+        });
+        return results.isEmpty() ? new ResumeAdmin() : results.get(0);
+    }
+
+    /**
+     * Indicateurs de l'écran d'accueil administrateur
+     */
+    public static class ResumeAdmin {
+        private int nbUtilisateurs;
+        private int nbUtilisateursInactifs;
+        private int nbComptesOrphelins;
+        private int nbEtudiants;
+        private int nbEnseignants;
+        private LocalDateTime dateCalcul;
+
+        public int getNbUtilisateurs() { return nbUtilisateurs; }
+        public void setNbUtilisateurs(int nbUtilisateurs) { this.nbUtilisateurs = nbUtilisateurs; }
+
+        public int getNbUtilisateursInactifs() { return nbUtilisateursInactifs; }
+        public void setNbUtilisateursInactifs(int nbUtilisateursInactifs) {
+            this.nbUtilisateursInactifs = nbUtilisateursInactifs;
+        }
+
+        public int getNbComptesOrphelins() { return nbComptesOrphelins; }
+        public void setNbComptesOrphelins(int nbComptesOrphelins) { this.nbComptesOrphelins = nbComptesOrphelins; }
+
+        public int getNbEtudiants() { return nbEtudiants; }
+        public void setNbEtudiants(int nbEtudiants) { this.nbEtudiants = nbEtudiants; }
+
+        public int getNbEnseignants() { return nbEnseignants; }
+        public void setNbEnseignants(int nbEnseignants) { this.nbEnseignants = nbEnseignants; }
+
+        public LocalDateTime getDateCalcul() { return dateCalcul; }
+        public void setDateCalcul(LocalDateTime dateCalcul) { this.dateCalcul = dateCalcul; }
+
+        /**
+         * Score d'intégrité sur 100 : -5 par compte orphelin, -10 si plus de 10 % de comptes inactifs
+         */
+        public double getScoreSante() {
+            double score = 100.0 - nbComptesOrphelins * 5;
+            if (nbUtilisateursInactifs > nbUtilisateurs * 0.1) {
+                score -= 10;
+            }
+            return Math.max(0, score);
+        }
+    }
+}
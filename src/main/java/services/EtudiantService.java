@@ -14,24 +14,11 @@ public class EtudiantService {
     private EtudiantDAO etudiantDAO;
     private InscriptionDAO inscriptionDAO;
     private UtilisateurDAO utilisateurDAO;
-    private BaseDAO<?> baseDAO; // Pour la gestion des transactions
     
     public EtudiantService() {
         this.etudiantDAO = new EtudiantDAO();
         this.inscriptionDAO = new InscriptionDAO();
         this.utilisateurDAO = new UtilisateurDAO();
-        this.baseDAO = new BaseDAO<Object>() {
-            @Override
-            public List<Object> findAll() throws SQLException { return null; }
-            @Override
-            public Object findById(int id) throws SQLException { return null; }
-            @Override
-            public int insert(Object entity) throws SQLException { return 0; }
-            @Override
-            public boolean update(Object entity) throws SQLException { return false; }
-            @Override
-            public boolean delete(int id) throws SQLException { return false; }
-        };
     }
     
     /**
@@ -40,102 +27,80 @@ public class EtudiantService {
      */
     public int inscrireEtudiant(Etudiant etudiant, String password, 
                                int idProgramme, int idAnnee) throws SQLException {
-        Connection conn = null;
-        boolean originalAutoCommit = true;
+        // 1. Valider les données de l'étudiant
+        if (etudiant == null) {
+            throw new IllegalArgumentException("L'objet étudiant ne peut pas être null");
+        }
+        
+        if (etudiant.getEmail() == null || !etudiant.getEmail().contains("@")) {
+            throw new IllegalArgumentException("Email invalide pour l'étudiant");
+        }
         
         try {
-            // Obtenir la connexion et configurer les transactions
-            conn = baseDAO.getConnection();
-            originalAutoCommit = conn.getAutoCommit();
-            conn.setAutoCommit(false);
-            
-            // 1. Valider les données de l'étudiant
-            if (etudiant == null) {
-                throw new IllegalArgumentException("L'objet étudiant ne peut pas être null");
-            }
-            
-            if (etudiant.getEmail() == null || !etudiant.getEmail().contains("@")) {
-                throw new IllegalArgumentException("Email invalide pour l'étudiant");
-            }
-            
-            // 2. Insérer l'étudiant
-            int idEtudiant = etudiantDAO.insert(etudiant);
-            if (idEtudiant <= 0) {
-                throw new SQLException("Échec de l'insertion de l'étudiant");
-            }
-            System.out.println("✅ Étudiant inséré avec ID: " + idEtudiant);
-            
-            // 3. Créer le compte utilisateur
-            String login = etudiant.getEmail().split("@")[0].toLowerCase();
-            
-            // Vérifier si le login existe déjà
-            Utilisateur existingUser = utilisateurDAO.findByLogin(login);
-            if (existingUser != null) {
-                // Ajouter un suffixe numérique si le login existe
-                int counter = 1;
-                String newLogin;
-                do {
-                    newLogin = login + counter;
-                    existingUser = utilisateurDAO.findByLogin(newLogin);
-                    counter++;
-                } while (existingUser != null);
-                login = newLogin;
-            }
-            
-            Utilisateur user = new Utilisateur();
-            user.setLogin(login);
-            user.setPasswordHash(PasswordUtils.hashPasswordSHA256(password)); // Utiliser PasswordUtils au lieu d'AuthenticationService
-            user.setRole("etudiant");
-            user.setIdEtudiant(idEtudiant);
-            user.setActif(true);
-            
-            int idUtilisateur = utilisateurDAO.insert(user);
-            if (idUtilisateur <= 0) {
-                throw new SQLException("Échec de la création du compte utilisateur");
-            }
-            System.out.println("✅ Compte utilisateur créé avec login: " + login);
-            
-            // 4. Créer l'inscription
-            Inscription inscription = new Inscription();
-            inscription.setIdEtudiant(idEtudiant);
-            inscription.setIdProgramme(idProgramme);
-            inscription.setIdAnnee(idAnnee);
-            inscription.setDateInscription(java.time.LocalDate.now());
-            
-            int idInscription = inscriptionDAO.insert(inscription);
-            if (idInscription <= 0) {
-                throw new SQLException("Échec de la création de l'inscription");
-            }
-            System.out.println("✅ Inscription créée avec ID: " + idInscription);
+            // Une seule transaction (un seul commit) pour l'étudiant, son compte et son inscription
+            int idEtudiant = TransactionTemplate.execute(() -> {
+                // 2. Insérer l'étudiant
+                int id = etudiantDAO.insert(etudiant);
+                if (id <= 0) {
+                    throw new SQLException("Échec de l'insertion de l'étudiant");
+                }
+                System.out.println("✅ Étudiant inséré avec ID: " + id);
+                
+                // 3. Créer le compte utilisateur
+                String login = etudiant.getEmail().split("@")[0].toLowerCase();
+                
+                // Vérifier si le login existe déjà
+                Utilisateur existingUser = utilisateurDAO.findByLogin(login);
+                if (existingUser != null) {
+                    // Ajouter un suffixe numérique si le login existe
+                    int counter = 1;
+                    String newLogin;
+                    do {
+                        newLogin = login + counter;
+                        existingUser = utilisateurDAO.findByLogin(newLogin);
+                        counter++;
+                    } while (existingUser != null);
+                    login = newLogin;
+                }
+                
+                Utilisateur user = new Utilisateur();
+                user.setLogin(login);
+                user.setPasswordHash(PasswordUtils.hashPasswordSHA256(password)); // Utiliser PasswordUtils au lieu d'AuthenticationService
+                user.setRole("etudiant");
+                user.setIdEtudiant(id);
+                user.setActif(true);
+                
+                int idUtilisateur = utilisateurDAO.insert(user);
+                if (idUtilisateur <= 0) {
+                    throw new SQLException("Échec de la création du compte utilisateur");
+                }
+                System.out.println("✅ Compte utilisateur créé avec login: " + login);
+                
+                // 4. Créer l'inscription
+                Inscription inscription = new Inscription();
+                inscription.setIdEtudiant(id);
+                inscription.setIdProgramme(idProgramme);
+                inscription.setIdAnnee(idAnnee);
+                inscription.setDateInscription(java.time.LocalDate.now());
+                
+                int idInscription = inscriptionDAO.insert(inscription);
+                if (idInscription <= 0) {
+                    throw new SQLException("Échec de la création de l'inscription");
+                }
+                System.out.println("✅ Inscription créée avec ID: " + idInscription);
+                
+                return id;
+            });
             
-            // 5. Commit de la transaction
-            conn.commit();
             System.out.println("✅ Transaction commitée avec succès");
-            
             return idEtudiant;
             
         } catch (SQLException | IllegalArgumentException e) {
-            // Rollback en cas d'erreur
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                    System.out.println("🔄 Rollback effectué");
-                } catch (SQLException rollbackEx) {
-                    System.err.println("Erreur lors du rollback: " + rollbackEx.getMessage());
-                }
-            }
+            // La transaction a été annulée par TransactionTemplate
+            System.out.println("🔄 Rollback effectué");
             System.err.println("❌ Erreur lors de l'inscription de l'étudiant: " + e.getMessage());
             e.printStackTrace();
             throw e;
-        } finally {
-            // Restaurer l'état original de la connexion
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(originalAutoCommit);
-                } catch (SQLException e) {
-                    System.err.println("Erreur lors de la restauration d'autoCommit: " + e.getMessage());
-                }
-            }
         }
     }
     
@@ -154,6 +119,28 @@ public class EtudiantService {
         return resultats;
     }
     
+    /**
+     * Récupère une page de résultats de recherche (classés par pertinence) à la suite
+     * du dernier étudiant affiché
+     */
+    public List<Etudiant> rechercherEtudiantsPage(String critere, Etudiant apres, int taille)
+            throws SQLException {
+        if (taille <= 0) {
+            throw new IllegalArgumentException("Taille de page invalide");
+        }
+        return etudiantDAO.searchPageAfter(critere, apres, taille);
+    }
+    
+    /**
+     * Récupère une page d'étudiants (tri nom, prénom) à la suite du dernier étudiant affiché
+     */
+    public List<Etudiant> listerEtudiantsPage(Etudiant apres, int taille) throws SQLException {
+        if (taille <= 0) {
+            throw new IllegalArgumentException("Taille de page invalide");
+        }
+        return etudiantDAO.findPageAfter(apres, taille);
+    }
+    
     /**
      * Récupère les inscriptions d'un étudiant
      */
@@ -0,0 +1,204 @@
+/*
+ * Export Excel en flux avec Apache POI SXSSF
+ * Mémoire bornée quel que soit le nombre de lignes exportées
+ */
+package services;
+
+import dao.BaseDAO;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import utils.Logger;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moteur d'export Excel en flux : seules les dernières lignes (ROW_WINDOW) restent en mémoire,
+ * les autres sont écrites dans un fichier temporaire compressé. Les largeurs de colonnes sont
+ * fixées à l'avance (pas d'autoSizeColumn, qui relit toutes les lignes de chaque colonne).
+ * Au-delà de la limite d'Excel, les lignes continuent sur une nouvelle feuille.
+ */
+public class ExcelExportService {
+    // Lignes conservées en mémoire ; les plus anciennes sont vidées sur disque
+    private static final int ROW_WINDOW = 200;
+    // Nombre maximal de lignes de données par feuille (limite Excel moins l'en-tête)
+    private static final int MAX_ROWS_PER_SHEET = 1_048_575;
+
+    /**
+     * Colonne exportée : titre et largeur en nombre de caractères
+     */
+    public static class Colonne {
+        private final String titre;
+        private final int largeur;
+
+        public Colonne(String titre, int largeur) {
+            this.titre = titre;
+            this.largeur = largeur;
+        }
+
+        public String getTitre() { return titre; }
+        public int getLargeur() { return largeur; }
+    }
+
+    /**
+     * Exporte des lignes déjà calculées (statistiques, tables à l'écran)
+     * @return le nombre de lignes exportées
+     */
+    public long exporterLignes(String filePath, String nomFeuille, List<Colonne> colonnes,
+            Iterable<Object[]> lignes) throws IOException {
+        try (ClasseurEnFlux classeur = new ClasseurEnFlux(nomFeuille, colonnes)) {
+            for (Object[] ligne : lignes) {
+                classeur.ecrireLigne(ligne);
+            }
+            classeur.enregistrer(filePath);
+            return classeur.getNbLignes();
+        }
+    }
+
+    /**
+     * Exporte le résultat d'une requête lu en flux depuis la base (curseur BaseDAO.forEachRow) :
+     * chaque ligne est écrite dès sa lecture, sans liste intermédiaire.
+     * Les colonnes de la requête sont reprises dans l'ordre des colonnes déclarées.
+     * @return le nombre de lignes exportées
+     */
+    public long exporterRequete(String filePath, String nomFeuille, List<Colonne> colonnes,
+            BaseDAO<?> dao, String sql, Object... params) throws SQLException, IOException {
+        long debut = System.currentTimeMillis();
+        int nbColonnes = colonnes.size();
+
+        try (ClasseurEnFlux classeur = new ClasseurEnFlux(nomFeuille, colonnes)) {
+            dao.forEachRow(sql, rs -> lireLigne(rs, nbColonnes), classeur::ecrireLigne, params);
+            classeur.enregistrer(filePath);
+
+            Logger.info(String.format("📊 Export Excel %s : %d lignes en %d ms",
+                filePath, classeur.getNbLignes(), System.currentTimeMillis() - debut));
+            return classeur.getNbLignes();
+        }
+    }
+
+    private static Object[] lireLigne(ResultSet rs, int nbColonnes) throws SQLException {
+        Object[] valeurs = new Object[nbColonnes];
+        for (int i = 0; i < nbColonnes; i++) {
+            Object valeur = rs.getObject(i + 1);
+            if (valeur instanceof java.sql.Date) {
+                valeur = ((java.sql.Date) valeur).toLocalDate();
+            } else if (valeur instanceof Timestamp) {
+                valeur = ((Timestamp) valeur).toLocalDateTime();
+            }
+            valeurs[i] = valeur;
+        }
+        return valeurs;
+    }
+
+    /**
+     * Classeur SXSSF en cours d'écriture
+     */
+    private static class ClasseurEnFlux implements AutoCloseable {
+        private final SXSSFWorkbook workbook;
+        private final String nomFeuille;
+        private final List<Colonne> colonnes;
+        private final CellStyle styleEntete;
+        private final CellStyle styleDate;
+        private final CellStyle styleDateHeure;
+        private Sheet feuille;
+        private int ligneFeuille;
+        private long nbLignes;
+
+        ClasseurEnFlux(String nomFeuille, List<Colonne> colonnes) {
+            this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+            this.workbook.setCompressTempFiles(true);
+            this.nomFeuille = nomFeuille;
+            this.colonnes = colonnes;
+
+            // Styles créés une seule fois et partagés par toutes les cellules
+            Font gras = workbook.createFont();
+            gras.setBold(true);
+            this.styleEntete = workbook.createCellStyle();
+            this.styleEntete.setFont(gras);
+
+            DataFormat formats = workbook.createDataFormat();
+            this.styleDate = workbook.createCellStyle();
+            this.styleDate.setDataFormat(formats.getFormat("dd/mm/yyyy"));
+            this.styleDateHeure = workbook.createCellStyle();
+            this.styleDateHeure.setDataFormat(formats.getFormat("dd/mm/yyyy hh:mm"));
+        }
+
+        void ecrireLigne(Object[] valeurs) {
+            if (feuille == null || ligneFeuille > MAX_ROWS_PER_SHEET) {
+                nouvelleFeuille();
+            }
+
+            Row row = feuille.createRow(ligneFeuille++);
+            for (int i = 0; i < valeurs.length && i < colonnes.size(); i++) {
+                ecrireCellule(row.createCell(i), valeurs[i]);
+            }
+            nbLignes++;
+        }
+
+        private void ecrireCellule(Cell cell, Object valeur) {
+            if (valeur == null) {
+                return;
+            }
+            if (valeur instanceof Number) {
+                cell.setCellValue(((Number) valeur).doubleValue());
+            } else if (valeur instanceof Boolean) {
+                cell.setCellValue((Boolean) valeur);
+            } else if (valeur instanceof LocalDateTime) {
+                cell.setCellValue((LocalDateTime) valeur);
+                cell.setCellStyle(styleDateHeure);
+            } else if (valeur instanceof LocalDate) {
+                cell.setCellValue((LocalDate) valeur);
+                cell.setCellStyle(styleDate);
+            } else {
+                cell.setCellValue(valeur.toString());
+            }
+        }
+
+        private void nouvelleFeuille() {
+            int numero = workbook.getNumberOfSheets();
+            SXSSFSheet sheet = workbook.createSheet(numero == 0 ? nomFeuille : nomFeuille + " (" + (numero + 1) + ")");
+
+            // Largeurs précalculées (unité POI : 1/256e de caractère)
+            for (int i = 0; i < colonnes.size(); i++) {
+                sheet.setColumnWidth(i, Math.min(255, colonnes.get(i).getLargeur() + 2) * 256);
+            }
+
+            Row entete = sheet.createRow(0);
+            for (int i = 0; i < colonnes.size(); i++) {
+                Cell cell = entete.createCell(i);
+                cell.setCellValue(colonnes.get(i).getTitre());
+                cell.setCellStyle(styleEntete);
+            }
+            sheet.createFreezePane(0, 1);
+
+            feuille = sheet;
+            ligneFeuille = 1;
+        }
+
+        void enregistrer(String filePath) throws IOException {
+            if (feuille == null) {
+                nouvelleFeuille(); // Export vide : en-têtes seuls
+            }
+            try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
+                workbook.write(fileOut);
+            }
+        }
+
+        long getNbLignes() {
+            return nbLignes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            workbook.dispose(); // Supprime les fichiers temporaires
+            workbook.close();
+        }
+    }
+}
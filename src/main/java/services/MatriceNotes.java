@@ -0,0 +1,389 @@
+/*
+ * Matrice des notes d'une promotion (programme, année)
+ * Étudiants × épreuves en tableaux primitifs, pour des calculs de promotion en mémoire
+ */
+package services;
+
+import config.AppProperties;
+import dao.NoteEpreuveDAO;
+import dao.QueryRegistry;
+import dao.VersionNotes;
+import utils.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Les notes d'épreuves de la promotion sont lues en cinq requêtes (inscrits, matières,
+ * épreuves, notes, matières validées) puis rangées ligne par ligne dans un float[]
+ * (ligne = étudiant, colonne = épreuve, épreuves d'une même matière contiguës). Une note
+ * absente vaut 0 avec un poids nul : les noyaux de calcul sont des boucles sans branchement
+ * sur des tableaux contigus, que le compilateur JIT peut vectoriser.
+ * Les calculs reproduisent ceux de NoteService après un recalcul des notes de matières :
+ * note de matière = moyenne des notes saisies pondérée par les coefficients des épreuves
+ * (0 sans note, calculerNoteMatiere) ; moyenne générale = moyenne des notes des seules
+ * matières validées (NOTE_MATIERE.validee) pondérée par les coefficients du programme,
+ * 0 sans matière validée (calculerMoyenneGenerale) ; au centième.
+ * Une matrice est partagée en lecture (cache par promotion, matrice.cache.ttl secondes,
+ * périmé dès qu'une épreuve ou une note est écrite, voir {@link VersionNotes}) :
+ * ne pas la modifier.
+ */
+public final class MatriceNotes {
+    public static final int NB_SEMESTRES = 2;
+
+    private static final Map<Long, MatriceNotes> CACHE = new ConcurrentHashMap<>();
+
+    private final int idProgramme;
+    private final int idAnnee;
+    private final long chargeeA;
+    // Version des notes relevée avant la lecture
+    private final long generation;
+
+    // Lignes : étudiants
+    private final int[] etudiants;
+    private final String[] nomsEtudiants;
+    // Matières du programme et leurs épreuves [debutMatiere[m], debutMatiere[m + 1])
+    private final int[] matieres;
+    private final float[] coefMatieres;
+    private final int[] semestreMatieres; // 1 ou 2, 0 si non renseigné
+    private final int[] debutMatiere;
+    // Colonnes : épreuves
+    private final int[] epreuves;
+    private final float[] coefEpreuves;
+    // [étudiant * nbEpreuves + épreuve] : note (0 si absente) et coefficient (0 si absente)
+    private final float[] notes;
+    private final float[] poids;
+    // [étudiant * nbMatieres + matière] : coefficient du programme si la matière est validée, 0 sinon
+    private final float[] coefsValides;
+
+    private MatriceNotes(int idProgramme, int idAnnee, long generation, int[] etudiants, String[] nomsEtudiants,
+                         int[] matieres, float[] coefMatieres, int[] semestreMatieres, int[] debutMatiere,
+                         int[] epreuves, float[] coefEpreuves) {
+        this.idProgramme = idProgramme;
+        this.idAnnee = idAnnee;
+        this.chargeeA = System.nanoTime();
+        this.generation = generation;
+        this.etudiants = etudiants;
+        this.nomsEtudiants = nomsEtudiants;
+        this.matieres = matieres;
+        this.coefMatieres = coefMatieres;
+        this.semestreMatieres = semestreMatieres;
+        this.debutMatiere = debutMatiere;
+        this.epreuves = epreuves;
+        this.coefEpreuves = coefEpreuves;
+        this.notes = new float[etudiants.length * epreuves.length];
+        this.poids = new float[notes.length];
+        this.coefsValides = new float[etudiants.length * matieres.length];
+    }
+
+    // === Chargement et cache ===
+
+    /**
+     * Matrice de la promotion, depuis le cache si elle a moins de matrice.cache.ttl secondes
+     * et qu'aucune épreuve ni note n'a été écrite depuis sa lecture
+     */
+    public static MatriceNotes get(int idProgramme, int idAnnee) throws SQLException {
+        long cle = ((long) idProgramme << 32) | (idAnnee & 0xFFFFFFFFL);
+        long ttl = TimeUnit.SECONDS.toNanos(AppProperties.getInstance().getIntProperty("matrice.cache.ttl", 300));
+        MatriceNotes matrice = CACHE.get(cle);
+        if (matrice == null || matrice.estPerimee() || System.nanoTime() - matrice.chargeeA > ttl) {
+            matrice = charger(idProgramme, idAnnee);
+            // Une écriture pendant la lecture : la matrice sert cet appel mais n'est pas gardée
+            if (!matrice.estPerimee()) {
+                CACHE.put(cle, matrice);
+            }
+        }
+        return matrice;
+    }
+
+    /**
+     * Oublie toutes les matrices. Les DAO des épreuves et des notes périment déjà les
+     * matrices à chaque écriture : n'appeler que si les tables ont été écrites sans eux.
+     */
+    public static void invalider() {
+        VersionNotes.incrementer();
+        CACHE.clear();
+    }
+
+    /**
+     * Lit la promotion depuis la base, sans passer par le cache
+     */
+    public static MatriceNotes charger(int idProgramme, int idAnnee) throws SQLException {
+        long debut = System.currentTimeMillis();
+        // Relevée avant la lecture : une écriture pendant le chargement périme la matrice
+        long generation = VersionNotes.courante();
+        NoteEpreuveDAO dao = new NoteEpreuveDAO();
+
+        List<Integer> idsEtudiants = new ArrayList<>();
+        List<String> noms = new ArrayList<>();
+        dao.forEachRow(QueryRegistry.MATRICE_ETUDIANTS, rs -> {
+            idsEtudiants.add(rs.getInt(1));
+            return rs.getString(2);
+        }, noms::add, idProgramme, idAnnee);
+
+        List<Integer> idsMatieres = new ArrayList<>();
+        List<Float> coefs = new ArrayList<>();
+        List<Integer> semestres = new ArrayList<>();
+        dao.forEachRow(QueryRegistry.MATRICE_MATIERES, rs -> {
+            idsMatieres.add(rs.getInt(1));
+            semestres.add(rs.getInt(3));
+            return rs.getFloat(2);
+        }, coefs::add, idAnnee, idProgramme);
+
+        // Épreuves triées par matière : bornes de chaque matière dans les colonnes
+        Map<Integer, Integer> indexMatiere = index(idsMatieres);
+        List<int[]> listeEpreuves = new ArrayList<>();
+        List<Float> coefsEpreuves = new ArrayList<>();
+        dao.forEachRow(QueryRegistry.MATRICE_EPREUVES, rs -> {
+            listeEpreuves.add(new int[]{rs.getInt(1), indexMatiere.get(rs.getInt(2))});
+            return rs.getFloat(3);
+        }, coefsEpreuves::add, idProgramme, idAnnee);
+
+        int[] debutMatiere = new int[idsMatieres.size() + 1];
+        for (int[] epreuve : listeEpreuves) {
+            debutMatiere[epreuve[1] + 1]++;
+        }
+        for (int m = 0; m < idsMatieres.size(); m++) {
+            debutMatiere[m + 1] += debutMatiere[m];
+        }
+
+        MatriceNotes matrice = new MatriceNotes(idProgramme, idAnnee, generation,
+            toIntArray(idsEtudiants), noms.toArray(new String[0]),
+            toIntArray(idsMatieres), toFloatArray(coefs), toIntArray(semestres), debutMatiere,
+            listeEpreuves.stream().mapToInt(e -> e[0]).toArray(), toFloatArray(coefsEpreuves));
+
+        Map<Integer, Integer> ligne = index(idsEtudiants);
+        Map<Integer, Integer> colonne = new HashMap<>();
+        for (int j = 0; j < matrice.epreuves.length; j++) {
+            colonne.put(matrice.epreuves[j], j);
+        }
+        long nbNotes = dao.forEachRow(QueryRegistry.MATRICE_NOTES,
+            rs -> new double[]{rs.getInt(1), rs.getInt(2), rs.getFloat(3)},
+            n -> {
+                Integer i = ligne.get((int) n[0]);
+                Integer j = colonne.get((int) n[1]);
+                if (i != null && j != null) {
+                    matrice.placer(i, j, (float) n[2]);
+                }
+            }, idProgramme, idAnnee);
+
+        dao.forEachRow(QueryRegistry.MATRICE_MATIERES_VALIDEES,
+            rs -> new int[]{rs.getInt(1), rs.getInt(2)},
+            v -> {
+                Integer i = ligne.get(v[0]);
+                Integer m = indexMatiere.get(v[1]);
+                if (i != null && m != null) {
+                    matrice.coefsValides[i * matrice.matieres.length + m] = matrice.coefMatieres[m];
+                }
+            }, idProgramme, idAnnee);
+
+        Logger.debug(String.format("🧮 Matrice programme %d, année %d : %d étudiants × %d épreuves, %d notes, %d ms",
+            idProgramme, idAnnee, matrice.getNbEtudiants(), matrice.getNbEpreuves(), nbNotes,
+            System.currentTimeMillis() - debut));
+        return matrice;
+    }
+
+    private void placer(int etudiant, int epreuve, float note) {
+        int k = etudiant * epreuves.length + epreuve;
+        notes[k] = note;
+        poids[k] = coefEpreuves[epreuve];
+    }
+
+    // === Noyaux de calcul ===
+
+    /**
+     * Notes de matières de tous les étudiants : [étudiant * nbMatieres + matière]
+     */
+    public float[] moyennesMatieres() {
+        int nbEpreuves = epreuves.length;
+        int nbMatieres = matieres.length;
+        float[] resultat = new float[etudiants.length * nbMatieres];
+        for (int i = 0; i < etudiants.length; i++) {
+            int ligne = i * nbEpreuves;
+            for (int m = 0; m < nbMatieres; m++) {
+                float somme = 0f;
+                float sommePoids = 0f;
+                for (int k = ligne + debutMatiere[m], fin = ligne + debutMatiere[m + 1]; k < fin; k++) {
+                    somme += notes[k] * poids[k];
+                    sommePoids += poids[k];
+                }
+                resultat[i * nbMatieres + m] = sommePoids > 0f ? arrondir(somme / sommePoids) : 0f;
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Moyennes générales à partir des notes de matières, sur les seules matières validées
+     * (0 pour un étudiant sans matière validée)
+     */
+    public float[] moyennesGenerales(float[] moyennesMatieres) {
+        int nbMatieres = matieres.length;
+        float[] resultat = new float[etudiants.length];
+        for (int i = 0; i < etudiants.length; i++) {
+            float somme = 0f;
+            float sommeCoefs = 0f;
+            int ligne = i * nbMatieres;
+            for (int m = 0; m < nbMatieres; m++) {
+                somme += moyennesMatieres[ligne + m] * coefsValides[ligne + m];
+                sommeCoefs += coefsValides[ligne + m];
+            }
+            resultat[i] = sommeCoefs > 0f ? arrondir(somme / sommeCoefs) : 0f;
+        }
+        return resultat;
+    }
+
+    /**
+     * Moyennes de semestre à partir des notes de matières : [étudiant * NB_SEMESTRES + semestre - 1],
+     * sur les matières validées comme la moyenne générale. NaN pour un semestre sans matière
+     * validée (les matières sans semestre renseigné ne comptent que dans la moyenne générale).
+     */
+    public float[] moyennesSemestres(float[] moyennesMatieres) {
+        int nbMatieres = matieres.length;
+        float[] resultat = new float[etudiants.length * NB_SEMESTRES];
+        float[] sommes = new float[NB_SEMESTRES];
+        float[] sommeCoefs = new float[NB_SEMESTRES];
+        for (int i = 0; i < etudiants.length; i++) {
+            Arrays.fill(sommes, 0f);
+            Arrays.fill(sommeCoefs, 0f);
+            int ligne = i * nbMatieres;
+            for (int m = 0; m < nbMatieres; m++) {
+                int s = semestreMatieres[m];
+                if (s >= 1 && s <= NB_SEMESTRES) {
+                    sommes[s - 1] += moyennesMatieres[ligne + m] * coefsValides[ligne + m];
+                    sommeCoefs[s - 1] += coefsValides[ligne + m];
+                }
+            }
+            for (int s = 0; s < NB_SEMESTRES; s++) {
+                resultat[i * NB_SEMESTRES + s] = sommeCoefs[s] > 0f ? arrondir(sommes[s] / sommeCoefs[s]) : Float.NaN;
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Nombre d'étudiants ayant au moins le seuil, pour chaque matière
+     */
+    public int[] reussitesParMatiere(float[] moyennesMatieres, float seuil) {
+        int nbMatieres = matieres.length;
+        int[] reussites = new int[nbMatieres];
+        for (int i = 0; i < etudiants.length; i++) {
+            int ligne = i * nbMatieres;
+            for (int m = 0; m < nbMatieres; m++) {
+                reussites[m] += moyennesMatieres[ligne + m] >= seuil ? 1 : 0;
+            }
+        }
+        return reussites;
+    }
+
+    /**
+     * Nombre de valeurs supérieures ou égales au seuil
+     */
+    public static int compterAuMoins(float[] valeurs, float seuil) {
+        int n = 0;
+        for (float v : valeurs) {
+            n += v >= seuil ? 1 : 0;
+        }
+        return n;
+    }
+
+    /**
+     * Répartition des valeurs sur [0, 20] en nbClasses classes de même largeur (20 incluse
+     * dans la dernière)
+     */
+    public static int[] distribution(float[] valeurs, int nbClasses) {
+        int[] classes = new int[nbClasses];
+        float largeur = 20f / nbClasses;
+        for (float v : valeurs) {
+            int c = (int) (v / largeur);
+            classes[Math.max(0, Math.min(nbClasses - 1, c))]++;
+        }
+        return classes;
+    }
+
+    /**
+     * Moyenne et écart-type (de population) des valeurs
+     * @return {moyenne, écart-type}, {0, 0} si aucune valeur
+     */
+    public static double[] moyenneEcartType(float[] valeurs) {
+        if (valeurs.length == 0) {
+            return new double[]{0.0, 0.0};
+        }
+        double somme = 0.0;
+        double sommeCarres = 0.0;
+        for (float v : valeurs) {
+            somme += v;
+            sommeCarres += (double) v * v;
+        }
+        double moyenne = somme / valeurs.length;
+        double variance = sommeCarres / valeurs.length - moyenne * moyenne;
+        return new double[]{moyenne, Math.sqrt(Math.max(0.0, variance))};
+    }
+
+    private static float arrondir(float valeur) {
+        return Math.round(valeur * 100f) / 100f;
+    }
+
+    // === Accès ===
+
+    /**
+     * Vrai si des épreuves ou des notes ont été écrites depuis la lecture de la matrice
+     */
+    public boolean estPerimee() {
+        return VersionNotes.courante() != generation;
+    }
+
+    public int getIdProgramme() { return idProgramme; }
+    public int getIdAnnee() { return idAnnee; }
+    public int getNbEtudiants() { return etudiants.length; }
+    public int getNbMatieres() { return matieres.length; }
+    public int getNbEpreuves() { return epreuves.length; }
+
+    public int getIdEtudiant(int ligne) { return etudiants[ligne]; }
+    public String getNomEtudiant(int ligne) { return nomsEtudiants[ligne]; }
+    public int getIdMatiere(int m) { return matieres[m]; }
+    public float getCoefMatiere(int m) { return coefMatieres[m]; }
+    public int getSemestreMatiere(int m) { return semestreMatieres[m]; }
+    public int getIdEpreuve(int j) { return epreuves[j]; }
+
+    /**
+     * Note d'un étudiant à une épreuve, NaN si elle n'est pas saisie (ou si l'épreuve
+     * a un coefficient nul, donc sans effet sur les moyennes)
+     */
+    public float getNote(int ligne, int epreuve) {
+        int k = ligne * epreuves.length + epreuve;
+        return poids[k] > 0f ? notes[k] : Float.NaN;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MatriceNotes[programme %d, année %d : %d étudiants × %d épreuves]",
+            idProgramme, idAnnee, etudiants.length, epreuves.length);
+    }
+
+    private static Map<Integer, Integer> index(List<Integer> ids) {
+        Map<Integer, Integer> index = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            index.put(ids.get(i), i);
+        }
+        return index;
+    }
+
+    private static int[] toIntArray(List<Integer> valeurs) {
+        return valeurs.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static float[] toFloatArray(List<Float> valeurs) {
+        float[] tableau = new float[valeurs.size()];
+        for (int i = 0; i < tableau.length; i++) {
+            tableau[i] = valeurs.get(i);
+        }
+        return tableau;
+    }
+}
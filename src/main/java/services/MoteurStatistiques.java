@@ -0,0 +1,243 @@
+/*
+ * Moteur de statistiques incrémental sur les notes de matières
+ * Agrégats par (programme, année, matière) tenus à jour à chaque enregistrement de note
+ */
+package services;
+
+import dao.NoteMatiereDAO;
+import dao.QueryRegistry;
+import utils.Logger;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Les notes de matières d'une année sont lues une seule fois (premier accès à l'année),
+ * puis les agrégats sont mis à jour par NoteService après chaque écriture validée :
+ * les statistiques d'une année se calculent ensuite en O(programmes × matières)
+ * sans relire NOTE_MATIERE.
+ * Les valeurs sont tenues en centièmes de point (entiers) : ajouts et retraits sont exacts,
+ * sans dérive des sommes ni des écarts-types.
+ */
+public final class MoteurStatistiques {
+    private static final int NOTE_REUSSITE = 1000; // 10/20 en centièmes
+
+    private static MoteurStatistiques instance;
+
+    private final NoteMatiereDAO noteMatiereDAO = new NoteMatiereDAO();
+    // Années chargées : clé (programme, matière) -> agrégat
+    private final Map<Integer, Map<Long, Agregat>> parAnnee = new HashMap<>();
+
+    private MoteurStatistiques() {
+    }
+
+    public static synchronized MoteurStatistiques getInstance() {
+        if (instance == null) {
+            instance = new MoteurStatistiques();
+        }
+        return instance;
+    }
+
+    // === Lecture ===
+
+    /**
+     * Agrégats de l'année fusionnés par programme (copies)
+     */
+    public synchronized Map<Integer, Agregat> parProgramme(int idAnnee) throws SQLException {
+        Map<Integer, Agregat> resultat = new HashMap<>();
+        for (Map.Entry<Long, Agregat> e : annee(idAnnee).entrySet()) {
+            resultat.computeIfAbsent(idProgramme(e.getKey()), k -> new Agregat()).fusionner(e.getValue());
+        }
+        return resultat;
+    }
+
+    /**
+     * Agrégats du programme pour l'année, par matière (copies)
+     */
+    public synchronized Map<Integer, Agregat> parMatiere(int idProgramme, int idAnnee) throws SQLException {
+        Map<Integer, Agregat> resultat = new HashMap<>();
+        for (Map.Entry<Long, Agregat> e : annee(idAnnee).entrySet()) {
+            if (idProgramme(e.getKey()) == idProgramme) {
+                resultat.put(idMatiere(e.getKey()), new Agregat().fusionner(e.getValue()));
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Agrégat de toutes les notes de matières de l'année
+     */
+    public synchronized Agregat global(int idAnnee) throws SQLException {
+        Agregat total = new Agregat();
+        for (Agregat agregat : annee(idAnnee).values()) {
+            total.fusionner(agregat);
+        }
+        return total;
+    }
+
+    // === Mises à jour (appelées après commit) ===
+
+    /**
+     * Une note de matière a été créée (ancienne = null) ou modifiée
+     */
+    synchronized void noteEnregistree(int idProgramme, int idAnnee, int idMatiere,
+                                      Double ancienne, double nouvelle) {
+        Map<Long, Agregat> agregats = parAnnee.get(idAnnee);
+        if (agregats == null) {
+            return; // Année pas encore chargée : elle sera lue à jour au premier accès
+        }
+        Agregat agregat = agregats.computeIfAbsent(cle(idProgramme, idMatiere), k -> new Agregat());
+        if (ancienne != null) {
+            agregat.retirer(centiemes(ancienne));
+        }
+        agregat.ajouter(centiemes(nouvelle));
+    }
+
+    /**
+     * Relit les notes d'une promotion (après un recalcul en masse)
+     */
+    synchronized void rechargerPromotion(int idProgramme, int idAnnee) throws SQLException {
+        Map<Long, Agregat> agregats = parAnnee.get(idAnnee);
+        if (agregats == null) {
+            return;
+        }
+        agregats.keySet().removeIf(cle -> idProgramme(cle) == idProgramme);
+        charger(agregats, idAnnee, idProgramme);
+    }
+
+    /**
+     * Oublie tous les agrégats (suppression de notes, import en masse...) : relus au prochain accès
+     */
+    public synchronized void invalider() {
+        parAnnee.clear();
+    }
+
+    // === Chargement ===
+
+    private Map<Long, Agregat> annee(int idAnnee) throws SQLException {
+        Map<Long, Agregat> agregats = parAnnee.get(idAnnee);
+        if (agregats == null) {
+            agregats = new HashMap<>();
+            charger(agregats, idAnnee, null);
+            parAnnee.put(idAnnee, agregats);
+        }
+        return agregats;
+    }
+
+    /**
+     * Une seule lecture en flux des notes de l'année (ou d'une promotion),
+     * le programme venant de l'inscription de l'étudiant
+     */
+    private void charger(Map<Long, Agregat> agregats, int idAnnee, Integer idProgramme) throws SQLException {
+        long debut = System.currentTimeMillis();
+        Object[] params = idProgramme != null ? new Object[]{idAnnee, idProgramme} : new Object[]{idAnnee};
+
+        long nbNotes = noteMatiereDAO.forEachRow(
+            idProgramme != null ? QueryRegistry.STATS_NOTES_PROMOTION : QueryRegistry.STATS_NOTES_ANNEE,
+            rs -> new long[]{cle(rs.getInt(1), rs.getInt(2)), centiemes(rs.getDouble(3))},
+            ligne -> agregats.computeIfAbsent(ligne[0], k -> new Agregat()).ajouter((int) ligne[1]),
+            params);
+
+        Logger.debug("📊 Statistiques année " + idAnnee + (idProgramme != null ? ", programme " + idProgramme : "")
+            + " : " + nbNotes + " notes chargées en " + (System.currentTimeMillis() - debut) + " ms");
+    }
+
+    private static long cle(int idProgramme, int idMatiere) {
+        return ((long) idProgramme << 32) | (idMatiere & 0xFFFFFFFFL);
+    }
+
+    private static int idProgramme(long cle) {
+        return (int) (cle >>> 32);
+    }
+
+    private static int idMatiere(long cle) {
+        return (int) cle;
+    }
+
+    private static int centiemes(double note) {
+        return (int) Math.round(note * 100);
+    }
+
+    /**
+     * Effectif, somme, somme des carrés, min/max et nombre de réussites (note ≥ 10) d'un
+     * ensemble de notes. Les occurrences par valeur permettent de retirer une note
+     * en conservant des bornes exactes.
+     */
+    public static class Agregat {
+        private final TreeMap<Integer, Integer> occurrences = new TreeMap<>();
+        private long nbNotes;
+        private long somme;
+        private long sommeCarres;
+        private long nbReussites;
+
+        void ajouter(int note) {
+            occurrences.merge(note, 1, Integer::sum);
+            nbNotes++;
+            somme += note;
+            sommeCarres += (long) note * note;
+            if (note >= NOTE_REUSSITE) {
+                nbReussites++;
+            }
+        }
+
+        void retirer(int note) {
+            Integer nb = occurrences.get(note);
+            if (nb == null) {
+                return; // Note inconnue de l'agrégat (écriture concurrente au chargement)
+            }
+            if (nb == 1) {
+                occurrences.remove(note);
+            } else {
+                occurrences.put(note, nb - 1);
+            }
+            nbNotes--;
+            somme -= note;
+            sommeCarres -= (long) note * note;
+            if (note >= NOTE_REUSSITE) {
+                nbReussites--;
+            }
+        }
+
+        Agregat fusionner(Agregat autre) {
+            autre.occurrences.forEach((note, nb) -> occurrences.merge(note, nb, Integer::sum));
+            nbNotes += autre.nbNotes;
+            somme += autre.somme;
+            sommeCarres += autre.sommeCarres;
+            nbReussites += autre.nbReussites;
+            return this;
+        }
+
+        public long getNbNotes() { return nbNotes; }
+        public long getNbReussites() { return nbReussites; }
+
+        public double getMoyenne() {
+            return nbNotes == 0 ? 0.0 : somme / 100.0 / nbNotes;
+        }
+
+        /**
+         * Écart-type de population
+         */
+        public double getEcartType() {
+            if (nbNotes == 0) {
+                return 0.0;
+            }
+            double moyenne = (double) somme / nbNotes;
+            double variance = (double) sommeCarres / nbNotes - moyenne * moyenne;
+            return Math.sqrt(Math.max(0.0, variance)) / 100.0;
+        }
+
+        public double getMin() {
+            return occurrences.isEmpty() ? 0.0 : occurrences.firstKey() / 100.0;
+        }
+
+        public double getMax() {
+            return occurrences.isEmpty() ? 0.0 : occurrences.lastKey() / 100.0;
+        }
+
+        public double getTauxReussite() {
+            return nbNotes == 0 ? 0.0 : (nbReussites * 100.0) / nbNotes;
+        }
+    }
+}
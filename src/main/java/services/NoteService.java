@@ -7,6 +7,7 @@ package services;
 
 import dao.*;
 import models.*;
+import utils.Logger;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -34,17 +35,7 @@ public class NoteService {
      * Récupère toutes les notes d'un étudiant pour une année
      */
     public List<NoteEpreuve> getNotesEtudiant(int idEtudiant, int idAnnee) throws SQLException {
-        String sql = "SELECT ne.*, m.nom AS matiere_name, ep.type_epreuve, " +
-                     "ep.coefficient, ep.date_epreuve, " +
-                     "CONCAT(ens.nom, ' ', ens.prenom) AS enseignant_name " +
-                     "FROM NOTE_EPREUVE ne " +
-                     "JOIN EPREUVE ep ON ne.id_epreuve = ep.id_epreuve " +
-                     "JOIN MATIERE m ON ep.id_matiere = m.id_matiere " +
-                     "JOIN ENSEIGNANT ens ON ep.id_enseignant = ens.id_enseignant " +
-                     "WHERE ne.id_etudiant = ? AND ep.id_annee = ? " +
-                     "ORDER BY m.nom, ep.date_epreuve";
-        
-        return noteEpreuveDAO.executeQuery(sql, rs -> {
+        return noteEpreuveDAO.executeQuery(QueryRegistry.NOTES_ETUDIANT, rs -> {
             NoteEpreuve note = new NoteEpreuve();
             note.setIdNoteEpreuve(rs.getInt("id_note_epreuve"));
             note.setIdEtudiant(rs.getInt("id_etudiant"));
@@ -75,10 +66,14 @@ public class NoteService {
         List<NoteEpreuve> notes = noteEpreuveDAO.findByEtudiantMatiereAnnee(
             idEtudiant, idMatiere, idAnnee);
         
-        if (notes.isEmpty()) {
-            return 0.0;
-        }
-        
+        return moyennePonderee(notes);
+    }
+    
+    /**
+     * Moyenne des notes pondérée par les coefficients des épreuves, arrondie au centième
+     * (0 si aucune note)
+     */
+    public static double moyennePonderee(List<NoteEpreuve> notes) {
         double sommeNotesPonderees = 0.0;
         double sommeCoefficients = 0.0;
         
@@ -93,9 +88,16 @@ public class NoteService {
     
     /**
      * Calcule et enregistre toutes les notes de matières pour un étudiant
+     * (une seule transaction pour l'ensemble des matières)
      */
     public void calculerToutesLesNotesMatieres(int idEtudiant, int idProgramme, int idAnnee) 
             throws SQLException {
+        TransactionTemplate.run(() -> 
+            enregistrerNotesMatieres(idEtudiant, idProgramme, idAnnee));
+    }
+    
+    private void enregistrerNotesMatieres(int idEtudiant, int idProgramme, int idAnnee) 
+            throws SQLException {
         
         // Récupérer toutes les matières du programme
         List<Matiere> matieres = programmeDAO.getMatieresByProgramme(idProgramme);
@@ -108,6 +110,7 @@ public class NoteService {
             NoteMatiere nm = noteMatiereDAO.findByEtudiantMatiereAnnee(
                 idEtudiant, matiere.getIdMatiere(), idAnnee);
             
+            Double ancienne = null;
             if (nm == null) {
                 // Créer nouvelle note
                 nm = new NoteMatiere();
@@ -119,9 +122,49 @@ public class NoteService {
                 noteMatiereDAO.insert(nm);
             } else {
                 // Mettre à jour note existante
+                ancienne = nm.getNoteFinale();
                 nm.setNoteFinale(noteFinale);
                 noteMatiereDAO.update(nm);
             }
+            
+            // Statistiques tenues à jour une fois la transaction validée
+            Double noteRemplacee = ancienne;
+            int idMatiere = matiere.getIdMatiere();
+            TransactionTemplate.afterCommit(() -> MoteurStatistiques.getInstance()
+                .noteEnregistree(idProgramme, idAnnee, idMatiere, noteRemplacee, noteFinale));
+        }
+    }
+    
+    /**
+     * Recalcule les notes de matières de toute une promotion (programme, année) :
+     * une requête agrégée pour les moyennes pondérées, puis un seul batch d'écriture
+     */
+    public RapportRecalcul recalculerPromotion(int idProgramme, int idAnnee) throws SQLException {
+        RapportRecalcul rapport = new RapportRecalcul();
+        long debut = System.nanoTime();
+        
+        List<NoteMatiere> notes = noteMatiereDAO.calculerNotesPromotion(idProgramme, idAnnee);
+        long finCalcul = System.nanoTime();
+        
+        int enregistrees = notes.isEmpty() ? 0 : noteMatiereDAO.upsertAll(notes);
+        long finEcriture = System.nanoTime();
+        TransactionTemplate.afterCommit(() -> rechargerStatistiques(idProgramme, idAnnee));
+        
+        rapport.setNbEtudiants((int) notes.stream().mapToInt(NoteMatiere::getIdEtudiant).distinct().count());
+        rapport.setNbNotes(enregistrees);
+        rapport.setDureeCalculMs((finCalcul - debut) / 1_000_000);
+        rapport.setDureeEcritureMs((finEcriture - finCalcul) / 1_000_000);
+        
+        Logger.info("📊 Recalcul promotion (programme " + idProgramme + ", année " + idAnnee + "): " + rapport);
+        return rapport;
+    }
+    
+    private static void rechargerStatistiques(int idProgramme, int idAnnee) {
+        try {
+            MoteurStatistiques.getInstance().rechargerPromotion(idProgramme, idAnnee);
+        } catch (SQLException e) {
+            Logger.warn("Statistiques de la promotion non rechargées : " + e.getMessage());
+            MoteurStatistiques.getInstance().invalider();
         }
     }
     
@@ -131,35 +174,21 @@ public class NoteService {
     public double calculerMoyenneGenerale(int idEtudiant, int idProgramme, int idAnnee) 
             throws SQLException {
         
-        String sql = "SELECT nm.note_finale, COALESCE(pm.coefficient, 1.0) AS coefficient " +
-                     "FROM NOTE_MATIERE nm " +
-                     "JOIN PROGRAMME_MATIERE pgm ON nm.id_matiere = pgm.id_matiere " +
-                     "LEFT JOIN PONDERATION_MATIERE pm ON pgm.id_matiere = pm.id_matiere " +
-                     "AND pm.id_programme = ? AND pm.id_annee = ? " +
-                     "WHERE nm.id_etudiant = ? AND nm.id_annee = ? " +
-                     "AND pgm.id_programme = ? AND nm.validee = TRUE";
-        
-        List<Double[]> notesCoefs = noteMatiereDAO.executeQuery(sql, rs -> 
-            new Double[]{rs.getDouble("note_finale"), rs.getDouble("coefficient")},
-            idProgramme, idAnnee, idEtudiant, idAnnee, idProgramme
-        );
-        
-        if (notesCoefs.isEmpty()) {
+        // Sommes accumulées ligne par ligne, sans liste intermédiaire
+        double[] sommes = new double[2]; // notes pondérées, coefficients
+        long nbNotes = noteMatiereDAO.forEachRow(QueryRegistry.NOTES_MATIERES_COEFFICIENTS,
+            rs -> new double[]{rs.getDouble("note_finale"), rs.getDouble("coefficient")},
+            noteCoef -> {
+                sommes[0] += noteCoef[0] * noteCoef[1];
+                sommes[1] += noteCoef[1];
+            }, idProgramme, idAnnee, idEtudiant, idAnnee, idProgramme);
+        
+        if (nbNotes == 0) {
             return 0.0;
         }
         
-        double sommeNotesPonderees = 0.0;
-        double sommeCoefficients = 0.0;
-        
-        for (Double[] noteCoef : notesCoefs) {
-            double note = noteCoef[0];
-            double coef = noteCoef[1];
-            sommeNotesPonderees += note * coef;
-            sommeCoefficients += coef;
-        }
-        
-        double moyenneGenerale = sommeCoefficients > 0 ? 
-            Math.round((sommeNotesPonderees / sommeCoefficients) * 100.0) / 100.0 : 0.0;
+        double moyenneGenerale = sommes[1] > 0 ? 
+            Math.round((sommes[0] / sommes[1]) * 100.0) / 100.0 : 0.0;
         
         // Mettre à jour la moyenne dans INSCRIPTION
         inscriptionDAO.updateMoyenneGenerale(idEtudiant, idProgramme, idAnnee, moyenneGenerale);
@@ -168,21 +197,14 @@ public class NoteService {
     }
     
     /**
-     * Détermine le statut de fin d'année basé sur la moyenne
+     * Détermine le statut de fin d'année basé sur la moyenne (règles standard)
+     * @see SimulateurDeliberation pour évaluer d'autres règles sur toute une promotion
      */
     public String determinerStatut(int idEtudiant, int idProgramme, int idAnnee) 
             throws SQLException {
         
         double moyenne = getMoyenneGenerale(idEtudiant, idAnnee);
-        
-        String statut;
-        if (moyenne >= 10.0) {
-            statut = "admis";
-        } else if (moyenne >= 8.0) {
-            statut = "redoublant";
-        } else {
-            statut = "exclu";
-        }
+        String statut = ReglesDeliberation.standard().statut(moyenne);
         
         // Mettre à jour le statut dans INSCRIPTION
         inscriptionDAO.updateStatut(idEtudiant, idProgramme, idAnnee, statut);
@@ -194,10 +216,7 @@ public class NoteService {
      * Récupère la moyenne générale d'un étudiant
      */
     public double getMoyenneGenerale(int idEtudiant, int idAnnee) throws SQLException {
-        String sql = "SELECT moyenne_generale FROM INSCRIPTION " +
-                     "WHERE id_etudiant = ? AND id_annee = ?";
-        
-        List<Double> results = inscriptionDAO.executeQuery(sql, 
+        List<Double> results = inscriptionDAO.executeQuery(QueryRegistry.INSCRIPTION_MOYENNE, 
             rs -> rs.getDouble("moyenne_generale"), idEtudiant, idAnnee);
         
         return results.isEmpty() ? 0.0 : results.get(0);
@@ -207,10 +226,7 @@ public class NoteService {
      * Récupère le statut de fin d'année d'un étudiant
      */
     public String getStatut(int idEtudiant, int idAnnee) throws SQLException {
-        String sql = "SELECT statut_fin_annee FROM INSCRIPTION " +
-                     "WHERE id_etudiant = ? AND id_annee = ?";
-        
-        List<String> results = inscriptionDAO.executeQuery(sql, 
+        List<String> results = inscriptionDAO.executeQuery(QueryRegistry.INSCRIPTION_STATUT, 
             rs -> rs.getString("statut_fin_annee"), idEtudiant, idAnnee);
         
         return results.isEmpty() ? "En cours" : results.get(0);
@@ -220,11 +236,7 @@ public class NoteService {
      * Compte le nombre de matières validées
      */
     public int countMatieresValidees(int idEtudiant, int idAnnee) throws SQLException {
-        String sql = "SELECT COUNT(*) AS count FROM NOTE_MATIERE " +
-                     "WHERE id_etudiant = ? AND id_annee = ? AND validee = TRUE " +
-                     "AND note_finale >= 10.0";
-        
-        List<Integer> results = noteMatiereDAO.executeQuery(sql, 
+        List<Integer> results = noteMatiereDAO.executeQuery(QueryRegistry.NOTES_MATIERES_VALIDEES, 
             rs -> rs.getInt("count"), idEtudiant, idAnnee);
         
         return results.isEmpty() ? 0 : results.get(0);
@@ -249,29 +261,37 @@ public class NoteService {
      */
     public List<NoteMatiere> getNotesMatieresEtudiant(int idEtudiant, int idAnnee) 
             throws SQLException {
-        String sql = "SELECT nm.*, m.nom AS matiere_name " +
-                     "FROM NOTE_MATIERE nm " +
-                     "JOIN MATIERE m ON nm.id_matiere = m.id_matiere " +
-                     "WHERE nm.id_etudiant = ? AND nm.id_annee = ? " +
-                     "ORDER BY m.nom";
-        
-        return noteMatiereDAO.executeQuery(sql, rs -> {
-            NoteMatiere nm = new NoteMatiere();
-            nm.setIdNoteMatiere(rs.getInt("id_note_matiere"));
-            nm.setIdEtudiant(rs.getInt("id_etudiant"));
-            nm.setIdMatiere(rs.getInt("id_matiere"));
-            nm.setIdAnnee(rs.getInt("id_annee"));
-            nm.setNoteFinale(rs.getDouble("note_finale"));
-            nm.setValidee(rs.getBoolean("validee"));
-            
-            java.sql.Date dateValidation = rs.getDate("date_validation");
-            if (dateValidation != null) {
-                nm.setDateValidation(dateValidation.toLocalDate());
-            }
-            
-            nm.setMatiereName(rs.getString("matiere_name"));
-            return nm;
-        }, idEtudiant, idAnnee);
+        return noteMatiereDAO.executeQuery(QueryRegistry.NOTES_MATIERES_ETUDIANT, NoteService::mapNoteMatiereAvecNom, 
+            idEtudiant, idAnnee);
+    }
+    
+    /**
+     * Map une ligne NOTE_MATIERE jointe à MATIERE (colonne matiere_name)
+     */
+    static NoteMatiere mapNoteMatiereAvecNom(java.sql.ResultSet rs) throws SQLException {
+        NoteMatiere nm = new NoteMatiere();
+        nm.setIdNoteMatiere(rs.getInt("id_note_matiere"));
+        nm.setIdEtudiant(rs.getInt("id_etudiant"));
+        nm.setIdMatiere(rs.getInt("id_matiere"));
+        nm.setIdAnnee(rs.getInt("id_annee"));
+        nm.setNoteFinale(rs.getDouble("note_finale"));
+        nm.setValidee(rs.getBoolean("validee"));
+        
+        java.sql.Date dateValidation = rs.getDate("date_validation");
+        if (dateValidation != null) {
+            nm.setDateValidation(dateValidation.toLocalDate());
+        }
+        
+        nm.setMatiereName(rs.getString("matiere_name"));
+        return nm;
+    }
+    
+    /**
+     * Feuille de saisie d'une épreuve : les étudiants inscrits avec leur note éventuelle,
+     * en une seule requête (id_note_epreuve = 0 si la note n'est pas encore saisie)
+     */
+    public List<NoteEpreuve> getFeuilleNotes(int idEpreuve) throws SQLException {
+        return noteEpreuveDAO.findEtudiantsPourEpreuve(idEpreuve);
     }
     
     /**
@@ -285,30 +305,31 @@ public class NoteService {
             throw new IllegalArgumentException("La note doit être entre 0 et 20");
         }
         
-        // Vérifier si la note existe déjà
-        String checkSql = "SELECT id_note_epreuve FROM NOTE_EPREUVE " +
-                         "WHERE id_etudiant = ? AND id_epreuve = ?";
-        
-        List<Integer> existing = noteEpreuveDAO.executeQuery(checkSql, 
-            rs -> rs.getInt("id_note_epreuve"), idEtudiant, idEpreuve);
-        
-        if (existing.isEmpty()) {
-            // Insertion
-            NoteEpreuve ne = new NoteEpreuve();
-            ne.setIdEtudiant(idEtudiant);
-            ne.setIdEpreuve(idEpreuve);
-            ne.setNote(note);
-            ne.setModifiePar(idEnseignant);
-            ne.setCommentaire(commentaire);
-            return noteEpreuveDAO.insert(ne) > 0;
-        } else {
-            // Mise à jour
-            NoteEpreuve ne = noteEpreuveDAO.findById(existing.get(0));
-            ne.setNote(note);
+        NoteEpreuve ne = new NoteEpreuve();
+        ne.setIdEtudiant(idEtudiant);
+        ne.setIdEpreuve(idEpreuve);
+        ne.setNote(note);
+        ne.setModifiePar(idEnseignant);
+        ne.setCommentaire(commentaire);
+        return noteEpreuveDAO.upsert(ne);
+    }
+    
+    /**
+     * Saisir ou modifier les notes d'une feuille d'épreuve en une seule requête batch
+     * @return le nombre de notes enregistrées
+     */
+    public int saisirNotes(List<NoteEpreuve> notes, int idEnseignant) throws SQLException {
+        for (NoteEpreuve ne : notes) {
+            if (ne.getNote() < 0 || ne.getNote() > 20) {
+                throw new IllegalArgumentException("La note doit être entre 0 et 20");
+            }
             ne.setModifiePar(idEnseignant);
-            ne.setCommentaire(commentaire);
-            return noteEpreuveDAO.update(ne);
         }
+        
+        if (notes.isEmpty()) {
+            return 0;
+        }
+        return noteEpreuveDAO.upsertAll(notes);
     }
     
     /**
@@ -370,6 +391,38 @@ public class NoteService {
         }
     }
     
+    /**
+     * Rapport d'exécution d'un recalcul de promotion
+     */
+    public static class RapportRecalcul {
+        private int nbEtudiants;
+        private int nbNotes;
+        private long dureeCalculMs;
+        private long dureeEcritureMs;
+        
+        public int getNbEtudiants() { return nbEtudiants; }
+        public void setNbEtudiants(int nbEtudiants) { this.nbEtudiants = nbEtudiants; }
+        
+        public int getNbNotes() { return nbNotes; }
+        public void setNbNotes(int nbNotes) { this.nbNotes = nbNotes; }
+        
+        public long getDureeCalculMs() { return dureeCalculMs; }
+        public void setDureeCalculMs(long dureeCalculMs) { this.dureeCalculMs = dureeCalculMs; }
+        
+        public long getDureeEcritureMs() { return dureeEcritureMs; }
+        public void setDureeEcritureMs(long dureeEcritureMs) { this.dureeEcritureMs = dureeEcritureMs; }
+        
+        public long getDureeTotaleMs() {
+            return dureeCalculMs + dureeEcritureMs;
+        }
+        
+        @Override
+        public String toString() {
+            return nbEtudiants + " étudiants, " + nbNotes + " notes en " + getDureeTotaleMs() +
+                   " ms (calcul " + dureeCalculMs + " ms, écriture " + dureeEcritureMs + " ms)";
+        }
+    }
+    
     /**
      * Get note for a specific epreuve and student
      */
@@ -67,16 +67,14 @@ public class ProgrammeService {
      * Associe une matière à un programme
      */
     public boolean associerMatiere(int idProgramme, int idMatiere) throws SQLException {
-        String sql = "INSERT INTO PROGRAMME_MATIERE (id_programme, id_matiere) VALUES (?, ?)";
-        return programmeDAO.executeUpdate(sql, idProgramme, idMatiere) > 0;
+        return programmeDAO.addMatiere(idProgramme, idMatiere);
     }
     
     /**
      * Dissocie une matière d'un programme
      */
     public boolean dissocierMatiere(int idProgramme, int idMatiere) throws SQLException {
-        String sql = "DELETE FROM PROGRAMME_MATIERE WHERE id_programme = ? AND id_matiere = ?";
-        return programmeDAO.executeUpdate(sql, idProgramme, idMatiere) > 0;
+        return programmeDAO.removeMatiere(idProgramme, idMatiere);
     }
     
     /**
@@ -0,0 +1,78 @@
+/*
+ * Règles de délibération de fin d'année
+ * Seuils d'admission et de redoublement, compensation entre semestres
+ */
+package services;
+
+/**
+ * Jeu de règles appliqué par le jury à la moyenne générale d'un étudiant.
+ * Avec compensation, la moyenne générale seule décide ; sans compensation, l'admission
+ * exige aussi que chaque semestre atteigne le seuil d'admission (un étudiant qui a la
+ * moyenne générale mais un semestre en dessous est alors redoublant).
+ * Les règles {@link #standard()} sont celles de NoteService.determinerStatut.
+ * Immuable : un même jeu peut être évalué en parallèle.
+ */
+public final class ReglesDeliberation {
+    public static final String ADMIS = "admis";
+    public static final String REDOUBLANT = "redoublant";
+    public static final String EXCLU = "exclu";
+
+    private static final ReglesDeliberation STANDARD =
+        new ReglesDeliberation("Règles actuelles", 10f, 8f, true);
+
+    private final String libelle;
+    private final float seuilAdmis;
+    private final float seuilRedoublement;
+    private final boolean compensationSemestres;
+
+    public ReglesDeliberation(String libelle, float seuilAdmis, float seuilRedoublement,
+                              boolean compensationSemestres) {
+        if (seuilAdmis < 0f || seuilAdmis > 20f || seuilRedoublement < 0f || seuilRedoublement > seuilAdmis) {
+            throw new IllegalArgumentException(
+                "Seuils invalides : il faut 0 <= redoublement <= admission <= 20");
+        }
+        this.libelle = libelle;
+        this.seuilAdmis = seuilAdmis;
+        this.seuilRedoublement = seuilRedoublement;
+        this.compensationSemestres = compensationSemestres;
+    }
+
+    /**
+     * Règles en vigueur : admis à 10, redoublant à 8, semestres compensables
+     */
+    public static ReglesDeliberation standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Statut pour une moyenne générale, semestres compensés
+     */
+    public String statut(double moyenne) {
+        if (moyenne >= seuilAdmis) {
+            return ADMIS;
+        }
+        return moyenne >= seuilRedoublement ? REDOUBLANT : EXCLU;
+    }
+
+    /**
+     * Statut pour une moyenne générale et la plus faible moyenne de semestre
+     * (NaN si aucun semestre n'est connu : la moyenne générale décide seule)
+     */
+    public String statut(float moyenne, float minSemestre) {
+        if (!compensationSemestres && moyenne >= seuilAdmis && minSemestre < seuilAdmis) {
+            return REDOUBLANT;
+        }
+        return statut(moyenne);
+    }
+
+    public String getLibelle() { return libelle; }
+    public float getSeuilAdmis() { return seuilAdmis; }
+    public float getSeuilRedoublement() { return seuilRedoublement; }
+    public boolean isCompensationSemestres() { return compensationSemestres; }
+
+    @Override
+    public String toString() {
+        return String.format("%s (admis ≥ %.2f, redoublant ≥ %.2f, %s)", libelle, seuilAdmis,
+            seuilRedoublement, compensationSemestres ? "compensation" : "sans compensation");
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Simulation de délibération d'une promotion
+ * Évalue en mémoire des jeux de règles (seuils, compensation) avant d'en appliquer un
+ */
+package services;
+
+import dao.InscriptionDAO;
+import dao.QueryRegistry;
+import utils.Logger;
+
+import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * La promotion est lue une seule fois (matrice des notes et statuts enregistrés) ;
+ * moyennes de matières, de semestres et générales sont calculées au chargement, comme
+ * NoteService les calcule (matières validées seulement).
+ * Chaque scénario ne fait ensuite que comparer ces moyennes aux seuils de ses règles :
+ * aucun accès à la base, et plusieurs scénarios s'évaluent en parallèle.
+ * Seuls les statuts du scénario retenu par le jury sont enregistrés, en un batch
+ * ({@link #appliquer}) : les moyennes générales restent celles de NoteService.
+ * Un simulateur est en lecture seule après chargement et peut être partagé entre threads.
+ */
+public final class SimulateurDeliberation {
+    private static final String EN_COURS = "en_cours";
+
+    private final MatriceNotes matrice;
+    private final float[] moyennes;
+    private final float[] minSemestres;
+    private final String[] statutsEnregistres;
+
+    private SimulateurDeliberation(MatriceNotes matrice, String[] statutsEnregistres) {
+        this.matrice = matrice;
+        this.statutsEnregistres = statutsEnregistres;
+
+        float[] moyennesMatieres = matrice.moyennesMatieres();
+        this.moyennes = matrice.moyennesGenerales(moyennesMatieres);
+        this.minSemestres = plusFaibles(matrice.moyennesSemestres(moyennesMatieres), MatriceNotes.NB_SEMESTRES);
+    }
+
+    /**
+     * Lit la promotion (programme, année) : notes d'épreuves et statuts actuels
+     */
+    public static SimulateurDeliberation charger(int idProgramme, int idAnnee) throws SQLException {
+        MatriceNotes matrice = MatriceNotes.get(idProgramme, idAnnee);
+
+        Map<Integer, String> statuts = new HashMap<>();
+        new InscriptionDAO().forEachRow(QueryRegistry.INSCRIPTION_STATUTS_PROMOTION,
+            rs -> new AbstractMap.SimpleEntry<>(rs.getInt(1), rs.getString(2)),
+            ligne -> statuts.put(ligne.getKey(), ligne.getValue()),
+            idProgramme, idAnnee);
+
+        String[] enregistres = new String[matrice.getNbEtudiants()];
+        for (int i = 0; i < enregistres.length; i++) {
+            String statut = statuts.get(matrice.getIdEtudiant(i));
+            enregistres[i] = statut != null ? statut : EN_COURS;
+        }
+        return new SimulateurDeliberation(matrice, enregistres);
+    }
+
+    /**
+     * Évalue un jeu de règles sur toute la promotion
+     */
+    public Scenario simuler(ReglesDeliberation regles) {
+        long debut = System.nanoTime();
+        int nb = moyennes.length;
+        String[] statuts = new String[nb];
+        int nbAdmis = 0;
+        int nbRedoublants = 0;
+        List<Changement> changements = new ArrayList<>();
+
+        for (int i = 0; i < nb; i++) {
+            String statut = regles.statut(moyennes[i], minSemestres[i]);
+            statuts[i] = statut;
+            if (ReglesDeliberation.ADMIS.equals(statut)) {
+                nbAdmis++;
+            } else if (ReglesDeliberation.REDOUBLANT.equals(statut)) {
+                nbRedoublants++;
+            }
+            if (!statut.equals(statutsEnregistres[i])) {
+                changements.add(new Changement(matrice.getIdEtudiant(i), matrice.getNomEtudiant(i),
+                    moyennes[i], minSemestres[i], statutsEnregistres[i], statut));
+            }
+        }
+
+        Scenario scenario = new Scenario(this, regles, statuts);
+        scenario.setNbAdmis(nbAdmis);
+        scenario.setNbRedoublants(nbRedoublants);
+        scenario.setNbExclus(nb - nbAdmis - nbRedoublants);
+        scenario.setChangements(changements);
+        scenario.setDureeCalculMicros((System.nanoTime() - debut) / 1_000);
+        return scenario;
+    }
+
+    /**
+     * Évalue plusieurs jeux de règles en parallèle, résultats dans l'ordre des règles
+     */
+    public List<Scenario> simuler(List<ReglesDeliberation> jeux) {
+        return jeux.parallelStream()
+            .map(this::simuler)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Enregistre le scénario retenu : statut de chaque inscrit, en une seule transaction
+     * @return le nombre d'inscriptions mises à jour
+     * @throws IllegalStateException si le scénario vient d'un autre simulateur ou si des
+     *         épreuves ou des notes ont été écrites depuis le chargement (recharger et
+     *         simuler à nouveau)
+     */
+    public int appliquer(Scenario scenario) throws SQLException {
+        if (scenario.simulateur != this) {
+            throw new IllegalStateException("Ce scénario n'a pas été calculé par ce simulateur");
+        }
+        if (estPerime()) {
+            throw new IllegalStateException(
+                "Des épreuves ou des notes ont été modifiées depuis la simulation : relancez-la avant d'appliquer");
+        }
+
+        int nb = new InscriptionDAO().updateStatuts(matrice.getIdProgramme(), matrice.getIdAnnee(),
+            idsEtudiants(), scenario.statuts);
+        Logger.info(String.format("⚖️ Délibération programme %d, année %d appliquée : %s, %d inscriptions, %d changements",
+            matrice.getIdProgramme(), matrice.getIdAnnee(), scenario.getRegles(), nb,
+            scenario.getNbChangements()));
+        return nb;
+    }
+
+    /**
+     * Vrai si des épreuves ou des notes ont été écrites depuis la lecture de la matrice
+     */
+    public boolean estPerime() {
+        return matrice.estPerimee();
+    }
+
+    public int getIdProgramme() { return matrice.getIdProgramme(); }
+    public int getIdAnnee() { return matrice.getIdAnnee(); }
+    public int getNbEtudiants() { return moyennes.length; }
+
+    private int[] idsEtudiants() {
+        int[] ids = new int[moyennes.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = matrice.getIdEtudiant(i);
+        }
+        return ids;
+    }
+
+    /**
+     * Plus faible valeur de chaque groupe de largeur valeurs consécutives, NaN ignorés
+     * (NaN si le groupe ne contient que des NaN)
+     */
+    private static float[] plusFaibles(float[] valeurs, int largeur) {
+        float[] resultat = new float[valeurs.length / largeur];
+        for (int i = 0; i < resultat.length; i++) {
+            float min = Float.NaN;
+            for (int k = i * largeur, fin = k + largeur; k < fin; k++) {
+                if (!Float.isNaN(valeurs[k]) && (Float.isNaN(min) || valeurs[k] < min)) {
+                    min = valeurs[k];
+                }
+            }
+            resultat[i] = min;
+        }
+        return resultat;
+    }
+
+    // Classes internes pour les résultats de simulation
+    public static class Scenario {
+        private final SimulateurDeliberation simulateur;
+        private final ReglesDeliberation regles;
+        private final String[] statuts;
+        private int nbAdmis;
+        private int nbRedoublants;
+        private int nbExclus;
+        private List<Changement> changements;
+        private long dureeCalculMicros;
+
+        private Scenario(SimulateurDeliberation simulateur, ReglesDeliberation regles, String[] statuts) {
+            this.simulateur = simulateur;
+            this.regles = regles;
+            this.statuts = statuts;
+        }
+
+        public ReglesDeliberation getRegles() { return regles; }
+
+        public int getNbAdmis() { return nbAdmis; }
+        public void setNbAdmis(int nbAdmis) { this.nbAdmis = nbAdmis; }
+
+        public int getNbRedoublants() { return nbRedoublants; }
+        public void setNbRedoublants(int nbRedoublants) { this.nbRedoublants = nbRedoublants; }
+
+        public int getNbExclus() { return nbExclus; }
+        public void setNbExclus(int nbExclus) { this.nbExclus = nbExclus; }
+
+        /**
+         * Étudiants dont le statut diffère du statut enregistré
+         */
+        public List<Changement> getChangements() { return changements; }
+        public void setChangements(List<Changement> changements) { this.changements = changements; }
+
+        public int getNbChangements() { return changements.size(); }
+
+        public long getDureeCalculMicros() { return dureeCalculMicros; }
+        public void setDureeCalculMicros(long dureeCalculMicros) { this.dureeCalculMicros = dureeCalculMicros; }
+
+        public double getTauxReussite() {
+            return statuts.length > 0 ? (nbAdmis * 100.0 / statuts.length) : 0.0;
+        }
+    }
+
+    public static class Changement {
+        private final int idEtudiant;
+        private final String etudiant;
+        private final float moyenne;
+        private final float minSemestre;
+        private final String ancienStatut;
+        private final String nouveauStatut;
+
+        private Changement(int idEtudiant, String etudiant, float moyenne, float minSemestre,
+                           String ancienStatut, String nouveauStatut) {
+            this.idEtudiant = idEtudiant;
+            this.etudiant = etudiant;
+            this.moyenne = moyenne;
+            this.minSemestre = minSemestre;
+            this.ancienStatut = ancienStatut;
+            this.nouveauStatut = nouveauStatut;
+        }
+
+        public int getIdEtudiant() { return idEtudiant; }
+        public String getEtudiant() { return etudiant; }
+        public float getMoyenne() { return moyenne; }
+        /** Plus faible moyenne de semestre, NaN si inconnue */
+        public float getMinSemestre() { return minSemestre; }
+        public String getAncienStatut() { return ancienStatut; }
+        public String getNouveauStatut() { return nouveauStatut; }
+    }
+}
@@ -7,39 +7,34 @@ package services;
 import dao.*;
 import models.*;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.io.IOException;
-import java.io.FileOutputStream;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 public class StatistiquesService {
     private InscriptionDAO inscriptionDAO;
     private NoteEpreuveDAO noteEpreuveDAO;
     private EtudiantDAO etudiantDAO;
+    private ExcelExportService excelExportService;
+    private ProgrammeDAO programmeDAO;
+    private UtilisateurDAO utilisateurDAO;
     
     public StatistiquesService() {
         this.inscriptionDAO = new InscriptionDAO();
         this.noteEpreuveDAO = new NoteEpreuveDAO();
         this.etudiantDAO = new EtudiantDAO();
+        this.excelExportService = new ExcelExportService();
+        this.programmeDAO = new ProgrammeDAO();
+        this.utilisateurDAO = new UtilisateurDAO();
     }
     
     /**
      * Statistiques globales par programme
      */
     public List<StatProgramme> getStatistiquesParProgramme(int idAnnee) throws SQLException {
-        String sql = "SELECT p.nom AS programme, " +
-                     "COUNT(DISTINCT i.id_etudiant) AS nb_etudiants, " +
-                     "COUNT(CASE WHEN i.statut_fin_annee = 'admis' THEN 1 END) AS nb_admis, " +
-                     "COUNT(CASE WHEN i.statut_fin_annee = 'redoublant' THEN 1 END) AS nb_redoublants, " +
-                     "COUNT(CASE WHEN i.statut_fin_annee = 'exclu' THEN 1 END) AS nb_exclus, " +
-                     "ROUND(AVG(i.moyenne_generale), 2) AS moyenne_programme " +
-                     "FROM INSCRIPTION i " +
-                     "JOIN PROGRAMME p ON i.id_programme = p.id_programme " +
-                     "WHERE i.id_annee = ? " +
-                     "GROUP BY p.id_programme, p.nom";
-        
-        return inscriptionDAO.executeQuery(sql, rs -> {
+        return inscriptionDAO.executeQuery(QueryRegistry.STATS_PAR_PROGRAMME, rs -> {
             StatProgramme stat = new StatProgramme();
             stat.setProgramme(rs.getString("programme"));
             stat.setNbEtudiants(rs.getInt("nb_etudiants"));
@@ -51,19 +46,39 @@ public class StatistiquesService {
         }, idAnnee);
     }
     
+    /**
+     * Statistiques des notes de matières par programme (moyenne, écart-type, bornes, réussite),
+     * lues dans les agrégats du moteur incrémental sans relire NOTE_MATIERE
+     */
+    public List<StatNotesProgramme> getStatistiquesNotesParProgramme(int idAnnee) throws SQLException {
+        Map<Integer, MoteurStatistiques.Agregat> agregats = MoteurStatistiques.getInstance().parProgramme(idAnnee);
+        
+        List<StatNotesProgramme> stats = new ArrayList<>();
+        for (Programme programme : programmeDAO.findAll()) {
+            MoteurStatistiques.Agregat agregat = agregats.get(programme.getIdProgramme());
+            if (agregat != null && agregat.getNbNotes() > 0) {
+                StatNotesProgramme stat = new StatNotesProgramme();
+                stat.setIdProgramme(programme.getIdProgramme());
+                stat.setProgramme(programme.getNom());
+                stat.setAgregat(agregat);
+                stats.add(stat);
+            }
+        }
+        return stats;
+    }
+    
+    /**
+     * Statistiques de toutes les notes de matières de l'année
+     */
+    public MoteurStatistiques.Agregat getStatistiquesNotesGlobales(int idAnnee) throws SQLException {
+        return MoteurStatistiques.getInstance().global(idAnnee);
+    }
+    
     /**
      * Top N étudiants par moyenne
      */
     public List<TopEtudiant> getTopEtudiants(int idAnnee, int limit) throws SQLException {
-        String sql = "SELECT CONCAT(e.nom, ' ', e.prenom) AS etudiant, " +
-                     "p.nom AS programme, i.moyenne_generale, i.statut_fin_annee " +
-                     "FROM INSCRIPTION i " +
-                     "JOIN ETUDIANT e ON i.id_etudiant = e.id_etudiant " +
-                     "JOIN PROGRAMME p ON i.id_programme = p.id_programme " +
-                     "WHERE i.id_annee = ? " +
-                     "ORDER BY i.moyenne_generale DESC LIMIT ?";
-        
-        return inscriptionDAO.executeQuery(sql, rs -> {
+        return inscriptionDAO.executeQuery(QueryRegistry.STATS_TOP_ETUDIANTS, rs -> {
             TopEtudiant top = new TopEtudiant();
             top.setEtudiant(rs.getString("etudiant"));
             top.setProgramme(rs.getString("programme"));
@@ -77,14 +92,7 @@ public class StatistiquesService {
      * Taux de réussite global
      */
     public TauxReussite getTauxReussite(int idAnnee) throws SQLException {
-        String sql = "SELECT " +
-                     "COUNT(*) AS total, " +
-                     "COUNT(CASE WHEN statut_fin_annee = 'admis' THEN 1 END) AS admis, " +
-                     "COUNT(CASE WHEN statut_fin_annee = 'redoublant' THEN 1 END) AS redoublants, " +
-                     "COUNT(CASE WHEN statut_fin_annee = 'exclu' THEN 1 END) AS exclus " +
-                     "FROM INSCRIPTION WHERE id_annee = ?";
-        
-        List<TauxReussite> results = inscriptionDAO.executeQuery(sql, rs -> {
+        List<TauxReussite> results = inscriptionDAO.executeQuery(QueryRegistry.STATS_TAUX_REUSSITE, rs -> {
             TauxReussite taux = new TauxReussite();
             int total = rs.getInt("total");
             int admis = rs.getInt("admis");
@@ -108,6 +116,37 @@ public class StatistiquesService {
         return results.isEmpty() ? new TauxReussite() : results.get(0);
     }
     
+    /**
+     * Résultats d'une promotion calculés en mémoire sur la matrice de ses notes d'épreuves :
+     * notes de matières et moyennes générales telles que les produirait un recalcul,
+     * décisions (règles standard, comme NoteService.determinerStatut) et répartition des moyennes
+     */
+    public AnalysePromotion getAnalysePromotion(int idProgramme, int idAnnee) throws SQLException {
+        MatriceNotes matrice = MatriceNotes.get(idProgramme, idAnnee);
+        long debut = System.nanoTime();
+        
+        float[] moyennesMatieres = matrice.moyennesMatieres();
+        float[] moyennesGenerales = matrice.moyennesGenerales(moyennesMatieres);
+        ReglesDeliberation regles = ReglesDeliberation.standard();
+        int nbAdmis = MatriceNotes.compterAuMoins(moyennesGenerales, regles.getSeuilAdmis());
+        int nbAuMoinsRedoublement = MatriceNotes.compterAuMoins(moyennesGenerales, regles.getSeuilRedoublement());
+        double[] moyenneEcartType = MatriceNotes.moyenneEcartType(moyennesGenerales);
+        
+        AnalysePromotion analyse = new AnalysePromotion();
+        analyse.setMatrice(matrice);
+        analyse.setMoyennesMatieres(moyennesMatieres);
+        analyse.setMoyennesGenerales(moyennesGenerales);
+        analyse.setNbAdmis(nbAdmis);
+        analyse.setNbRedoublants(nbAuMoinsRedoublement - nbAdmis);
+        analyse.setNbExclus(moyennesGenerales.length - nbAuMoinsRedoublement);
+        analyse.setReussitesParMatiere(matrice.reussitesParMatiere(moyennesMatieres, regles.getSeuilAdmis()));
+        analyse.setDistribution(MatriceNotes.distribution(moyennesGenerales, 20));
+        analyse.setMoyenne(moyenneEcartType[0]);
+        analyse.setEcartType(moyenneEcartType[1]);
+        analyse.setDureeCalculMicros((System.nanoTime() - debut) / 1_000);
+        return analyse;
+    }
+    
     // Classes internes pour les statistiques
     public static class StatProgramme {
         private String programme;
@@ -143,6 +182,21 @@ public class StatistiquesService {
         }
     }
     
+    public static class StatNotesProgramme {
+        private int idProgramme;
+        private String programme;
+        private MoteurStatistiques.Agregat agregat;
+        
+        public int getIdProgramme() { return idProgramme; }
+        public void setIdProgramme(int idProgramme) { this.idProgramme = idProgramme; }
+        
+        public String getProgramme() { return programme; }
+        public void setProgramme(String programme) { this.programme = programme; }
+        
+        public MoteurStatistiques.Agregat getAgregat() { return agregat; }
+        public void setAgregat(MoteurStatistiques.Agregat agregat) { this.agregat = agregat; }
+    }
+    
     public static class TopEtudiant {
         private String etudiant;
         private String programme;
@@ -205,42 +259,170 @@ public class StatistiquesService {
      * Export statistics to Excel
      */
     public void exporterStatistiquesExcel(int idAnnee, String filePath) throws SQLException, IOException {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Statistiques");
-            
-            // Create header row
-            Row headerRow = sheet.createRow(0);
-            headerRow.createCell(0).setCellValue("Programme");
-            headerRow.createCell(1).setCellValue("Nb Etudiants");
-            headerRow.createCell(2).setCellValue("Nb Admis");
-            headerRow.createCell(3).setCellValue("Nb Redoublants");
-            headerRow.createCell(4).setCellValue("Nb Exclus");
-            headerRow.createCell(5).setCellValue("Moyenne Programme");
-            headerRow.createCell(6).setCellValue("Taux Réussite");
-            
-            // Fill data
-            List<StatProgramme> stats = getStatistiquesParProgramme(idAnnee);
-            int rowNum = 1;
-            for (StatProgramme stat : stats) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(stat.getProgramme());
-                row.createCell(1).setCellValue(stat.getNbEtudiants());
-                row.createCell(2).setCellValue(stat.getNbAdmis());
-                row.createCell(3).setCellValue(stat.getNbRedoublants());
-                row.createCell(4).setCellValue(stat.getNbExclus());
-                row.createCell(5).setCellValue(stat.getMoyenneProgramme());
-                row.createCell(6).setCellValue(stat.getTauxReussite());
-            }
-            
-            // Auto-size columns
-            for (int i = 0; i < 7; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            
-            // Write to file
-            try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
-                workbook.write(fileOut);
-            }
+        List<ExcelExportService.Colonne> colonnes = Arrays.asList(
+            new ExcelExportService.Colonne("Programme", 40),
+            new ExcelExportService.Colonne("Nb Etudiants", 12),
+            new ExcelExportService.Colonne("Nb Admis", 10),
+            new ExcelExportService.Colonne("Nb Redoublants", 14),
+            new ExcelExportService.Colonne("Nb Exclus", 10),
+            new ExcelExportService.Colonne("Moyenne Programme", 18),
+            new ExcelExportService.Colonne("Taux Réussite", 13));
+        
+        List<Object[]> lignes = new ArrayList<>();
+        for (StatProgramme stat : getStatistiquesParProgramme(idAnnee)) {
+            lignes.add(new Object[]{
+                stat.getProgramme(), stat.getNbEtudiants(), stat.getNbAdmis(),
+                stat.getNbRedoublants(), stat.getNbExclus(),
+                stat.getMoyenneProgramme(), stat.getTauxReussite()
+            });
+        }
+        
+        excelExportService.exporterLignes(filePath, "Statistiques", colonnes, lignes);
+    }
+    
+    /**
+     * Exporte le registre complet des notes d'épreuves d'une année (lecture en flux)
+     * @return le nombre de notes exportées
+     */
+    public long exporterRegistreNotes(int idAnnee, String filePath) throws SQLException, IOException {
+        String sql = "SELECT e.nom, e.prenom, m.nom AS matiere, ep.type_epreuve, ep.intitule, " +
+                     "ep.date_epreuve, ep.coefficient, ne.note, ne.date_saisie " +
+                     "FROM NOTE_EPREUVE ne " +
+                     "JOIN EPREUVE ep ON ne.id_epreuve = ep.id_epreuve " +
+                     "JOIN ETUDIANT e ON ne.id_etudiant = e.id_etudiant " +
+                     "JOIN MATIERE m ON ep.id_matiere = m.id_matiere " +
+                     "WHERE ep.id_annee = ? " +
+                     "ORDER BY e.nom, e.prenom, m.nom, ep.date_epreuve";
+        
+        List<ExcelExportService.Colonne> colonnes = Arrays.asList(
+            new ExcelExportService.Colonne("Nom", 20),
+            new ExcelExportService.Colonne("Prénom", 20),
+            new ExcelExportService.Colonne("Matière", 35),
+            new ExcelExportService.Colonne("Type", 12),
+            new ExcelExportService.Colonne("Épreuve", 30),
+            new ExcelExportService.Colonne("Date", 12),
+            new ExcelExportService.Colonne("Coefficient", 11),
+            new ExcelExportService.Colonne("Note /20", 9),
+            new ExcelExportService.Colonne("Saisie le", 17));
+        
+        return excelExportService.exporterRequete(filePath, "Registre des notes", colonnes,
+            noteEpreuveDAO, sql, idAnnee);
+    }
+    
+    /**
+     * Exporte la liste des inscriptions d'une année (lecture en flux)
+     * @return le nombre d'inscriptions exportées
+     */
+    public long exporterListeInscriptions(int idAnnee, String filePath) throws SQLException, IOException {
+        String sql = "SELECT e.nom, e.prenom, e.email, e.origine_scolaire, p.code, p.nom AS programme, " +
+                     "i.date_inscription, i.moyenne_generale, i.statut_fin_annee " +
+                     "FROM INSCRIPTION i " +
+                     "JOIN ETUDIANT e ON i.id_etudiant = e.id_etudiant " +
+                     "JOIN PROGRAMME p ON i.id_programme = p.id_programme " +
+                     "WHERE i.id_annee = ? " +
+                     "ORDER BY p.code, e.nom, e.prenom";
+        
+        List<ExcelExportService.Colonne> colonnes = Arrays.asList(
+            new ExcelExportService.Colonne("Nom", 20),
+            new ExcelExportService.Colonne("Prénom", 20),
+            new ExcelExportService.Colonne("Email", 30),
+            new ExcelExportService.Colonne("Origine", 15),
+            new ExcelExportService.Colonne("Code programme", 15),
+            new ExcelExportService.Colonne("Programme", 35),
+            new ExcelExportService.Colonne("Inscrit le", 12),
+            new ExcelExportService.Colonne("Moyenne", 9),
+            new ExcelExportService.Colonne("Statut", 12));
+        
+        return excelExportService.exporterRequete(filePath, "Inscriptions", colonnes,
+            inscriptionDAO, sql, idAnnee);
+    }
+    
+    /**
+     * Exporte la liste des comptes telle que filtrée à l'écran (lecture en flux, tri par login)
+     * @param role rôle à filtrer, null pour tous
+     * @param recherche texte recherché, null pour ne pas filtrer
+     * @return le nombre de comptes exportés
+     */
+    public long exporterComptes(String role, String recherche, String filePath) 
+            throws SQLException, IOException {
+        List<Object> params = new ArrayList<>();
+        String sql = utilisateurDAO.requeteResumes(role, recherche, params) + " ORDER BY u.login";
+        
+        List<ExcelExportService.Colonne> colonnes = Arrays.asList(
+            new ExcelExportService.Colonne("ID", 8),
+            new ExcelExportService.Colonne("Login", 20),
+            new ExcelExportService.Colonne("Rôle", 12),
+            new ExcelExportService.Colonne("Nom complet", 30),
+            new ExcelExportService.Colonne("Email", 30),
+            new ExcelExportService.Colonne("Actif", 8),
+            new ExcelExportService.Colonne("Dernière connexion", 17));
+        
+        return excelExportService.exporterRequete(filePath, "Utilisateurs", colonnes,
+            utilisateurDAO, sql, params.toArray());
+    }
+   
+    /**
+     * Résultats d'une promotion calculés sur sa matrice de notes ; les tableaux sont indexés
+     * comme les lignes (étudiants) et matières de la matrice
+     */
+    public static class AnalysePromotion {
+        private MatriceNotes matrice;
+        private float[] moyennesMatieres;
+        private float[] moyennesGenerales;
+        private int nbAdmis;
+        private int nbRedoublants;
+        private int nbExclus;
+        private int[] reussitesParMatiere;
+        private int[] distribution;
+        private double moyenne;
+        private double ecartType;
+        private long dureeCalculMicros;
+        
+        public MatriceNotes getMatrice() { return matrice; }
+        public void setMatrice(MatriceNotes matrice) { this.matrice = matrice; }
+        
+        /**
+         * Notes de matières : [étudiant * nbMatieres + matière]
+         */
+        public float[] getMoyennesMatieres() { return moyennesMatieres; }
+        public void setMoyennesMatieres(float[] moyennesMatieres) { this.moyennesMatieres = moyennesMatieres; }
+        
+        public float[] getMoyennesGenerales() { return moyennesGenerales; }
+        public void setMoyennesGenerales(float[] moyennesGenerales) { this.moyennesGenerales = moyennesGenerales; }
+        
+        public int getNbAdmis() { return nbAdmis; }
+        public void setNbAdmis(int nbAdmis) { this.nbAdmis = nbAdmis; }
+        
+        public int getNbRedoublants() { return nbRedoublants; }
+        public void setNbRedoublants(int nbRedoublants) { this.nbRedoublants = nbRedoublants; }
+        
+        public int getNbExclus() { return nbExclus; }
+        public void setNbExclus(int nbExclus) { this.nbExclus = nbExclus; }
+        
+        public int[] getReussitesParMatiere() { return reussitesParMatiere; }
+        public void setReussitesParMatiere(int[] reussitesParMatiere) { this.reussitesParMatiere = reussitesParMatiere; }
+        
+        /**
+         * Effectifs par tranche d'un point de moyenne générale ([0, 1[ ... [19, 20])
+         */
+        public int[] getDistribution() { return distribution; }
+        public void setDistribution(int[] distribution) { this.distribution = distribution; }
+        
+        public double getMoyenne() { return moyenne; }
+        public void setMoyenne(double moyenne) { this.moyenne = moyenne; }
+        
+        public double getEcartType() { return ecartType; }
+        public void setEcartType(double ecartType) { this.ecartType = ecartType; }
+        
+        public long getDureeCalculMicros() { return dureeCalculMicros; }
+        public void setDureeCalculMicros(long dureeCalculMicros) { this.dureeCalculMicros = dureeCalculMicros; }
+        
+        public int getNbEtudiants() {
+            return moyennesGenerales != null ? moyennesGenerales.length : 0;
+        }
+        
+        public double getTauxReussite() {
+            return getNbEtudiants() > 0 ? (nbAdmis * 100.0) / getNbEtudiants() : 0.0;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,521 @@
+/*
+ * Générateur de données synthétiques à l'échelle d'un campus
+ * Reproduit localement (MySQL ou H2) des volumes de production pour les tests de charge
+ */
+package tools.loadgen;
+
+import config.AppProperties;
+import config.ConnectionPool;
+import dao.AnneeScolaireDAO;
+import dao.BaseDAO;
+import dao.EnseignantDAO;
+import dao.EpreuveDAO;
+import dao.EtudiantDAO;
+import dao.InscriptionDAO;
+import dao.MatiereDAO;
+import dao.NoteEpreuveDAO;
+import dao.NoteMatiereDAO;
+import dao.ProgrammeDAO;
+import dao.QueryCache;
+import dao.QueryRegistry;
+import dao.QueryStats;
+import dao.SearchIndex;
+import dao.UtilisateurDAO;
+import models.AnneeScolaire;
+import org.mindrot.jbcrypt.BCrypt;
+import services.MatriceNotes;
+import services.MoteurStatistiques;
+import utils.Logger;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Remplit le schéma avec des volumes configurables (voir {@link Volumes}) :
+ * années, programmes, matières, enseignants, épreuves, puis étudiants avec leur parcours
+ * (inscriptions successives, notes d'épreuves, notes de matières, admis/redoublant/exclu).
+ * Les données s'ajoutent à l'existant : les identifiants générés commencent après le
+ * maximum de chaque table, les années déjà présentes sont réutilisées.
+ * Chaque étudiant a son propre générateur aléatoire dérivé de la graine : le résultat
+ * ne dépend ni de la taille des lots ni de l'ordre d'insertion.
+ *
+ * Exemple (H2) :
+ * mvn exec:java -Dexec.mainClass=tools.loadgen.LoadGenerator -Dexec.classpathScope=test
+ *     -Ddb.url="jdbc:h2:file:./target/loadgen;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+ *     -Ddb.driver=org.h2.Driver -Ddb.username=sa -Dexec.args="etudiants=5000 seed=7"
+ */
+public class LoadGenerator {
+    // Mot de passe de tous les comptes générés
+    public static final String MOT_DE_PASSE = "loadgen123";
+
+    private static final String[] NOMS = {
+        "BENALI", "HAMDI", "CHERIF", "KADRI", "MEZIANE", "BOUZIDI", "MANSOURI", "BELKACEM",
+        "ZIDANE", "AMRANI", "SAIDI", "BRAHIMI", "HADJ", "TOUATI", "LARBI", "MEBARKI",
+        "GUERROUDJ", "BOUMEDIENE", "KHELIFI", "DJEBBAR", "FERHAT", "REZKI", "NAIT", "OUALI"
+    };
+    private static final String[] PRENOMS = {
+        "Ahmed", "Fatima", "Mohamed", "Amina", "Karim", "Sara", "Yacine", "Aicha", "Omar",
+        "Leila", "Nadia", "Riad", "Imane", "Sofiane", "Meriem", "Walid", "Yasmine", "Bilal",
+        "Khadidja", "Hocine", "Samira", "Nassim", "Lina", "Adel"
+    };
+    private static final String[] VILLES = {
+        "Tiaret", "Oran", "Alger", "Constantine", "Tlemcen", "Relizane", "Mostaganem", "Djelfa"
+    };
+    private static final String[] ORIGINES = {"DUT", "CPI", "CPGE"};
+    private static final String[] GRADES = {
+        "Professeur", "Maître de Conférences A", "Maître de Conférences B", "Maître Assistant"
+    };
+    private static final String[] DOMAINES = {
+        "Algorithmique", "Base de Données", "Programmation", "Réseaux", "Génie Logiciel",
+        "Intelligence Artificielle", "Systèmes", "Mathématiques", "Cybersécurité",
+        "Architecture", "Électronique", "Mécanique", "Thermodynamique", "Statistiques",
+        "Anglais Technique", "Gestion de Projet"
+    };
+    private static final String[] SPECIALITES = {
+        "Tronc Commun", "Informatique", "Mécanique", "Sécurité", "Électronique", "Génie Civil"
+    };
+    private static final String[] NIVEAUX = {"L3", "M1", "M2"};
+    private static final String[] TYPES_CONTROLE = {"Contrôle", "TP", "Projet"};
+    private static final double[] COEFFICIENTS_CONTROLE = {0.5, 1.0, 1.5};
+
+    private final Volumes volumes;
+    private final String hashMotDePasse;
+
+    private final AnneeScolaireDAO anneeDAO = new AnneeScolaireDAO();
+    private final ProgrammeDAO programmeDAO = new ProgrammeDAO();
+    private final MatiereDAO matiereDAO = new MatiereDAO();
+    private final EnseignantDAO enseignantDAO = new EnseignantDAO();
+    private final EpreuveDAO epreuveDAO = new EpreuveDAO();
+    private final EtudiantDAO etudiantDAO = new EtudiantDAO();
+    private final UtilisateurDAO utilisateurDAO = new UtilisateurDAO();
+    private final InscriptionDAO inscriptionDAO = new InscriptionDAO();
+    private final NoteEpreuveDAO noteEpreuveDAO = new NoteEpreuveDAO();
+    private final NoteMatiereDAO noteMatiereDAO = new NoteMatiereDAO();
+
+    // Référentiel généré, conservé en mémoire pour construire les parcours étudiants
+    private int[] idsAnnees;
+    private LocalDate[] debutsAnnees;
+    private int baseProgramme;
+    private int baseMatiere;
+    private int baseEnseignant;
+    private int baseEpreuve;
+    private int baseEtudiant;
+    private List<List<Integer>> programmesParNiveau;
+    private int[][] matieresProgramme;
+    private double[] difficulteMatiere;
+    private double[] coefficientsEpreuve;
+    private int[] enseignantsEpreuve;
+    private LocalDate[] datesEpreuve;
+
+    private long nbLignes;
+
+    public LoadGenerator(Volumes volumes) {
+        this.volumes = volumes;
+        this.hashMotDePasse = BCrypt.hashpw(MOT_DE_PASSE, BCrypt.gensalt());
+    }
+
+    public static void main(String[] args) {
+        Volumes volumes;
+        try {
+            volumes = Volumes.depuisArguments(args);
+        } catch (IllegalArgumentException e) {
+            Logger.error("❌ " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        boolean succes = false;
+        try {
+            new LoadGenerator(volumes).generer();
+            succes = true;
+        } catch (SQLException e) {
+            Logger.error("❌ Erreur SQL pendant la génération", e);
+        } finally {
+            ConnectionPool.getInstance().shutdown();
+        }
+        if (!succes) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Lance la génération complète
+     * @return le nombre total de lignes insérées
+     */
+    public long generer() throws SQLException {
+        long debut = System.currentTimeMillis();
+        Logger.info("🏭 Génération de données vers " + AppProperties.getInstance().getDatabaseUrl());
+        Logger.info("   Volumes : " + volumes);
+
+        Schema.preparer(etudiantDAO);
+        genererAnnees();
+        genererProgrammesEtMatieres();
+        genererEnseignants();
+        genererEpreuves();
+        genererEtudiants();
+
+        // Les données ont été écrites sans passer par les DAO métier
+        QueryCache.getInstance().clear();
+        SearchIndex.getInstance().invalider();
+        MoteurStatistiques.getInstance().invalider();
+        MatriceNotes.invalider();
+
+        Logger.info(String.format("✅ %,d lignes générées en %,d s", nbLignes,
+            (System.currentTimeMillis() - debut) / 1000));
+        QueryRegistry.validerAuDemarrage();
+        QueryStats.getInstance().logDump();
+        return nbLignes;
+    }
+
+    // === Référentiel ===
+
+    private void genererAnnees() throws SQLException {
+        int nbAnnees = volumes.getAnnees();
+        idsAnnees = new int[nbAnnees];
+        debutsAnnees = new LocalDate[nbAnnees];
+        List<AnneeScolaire> existantes = anneeDAO.findAll();
+
+        for (int a = 0; a < nbAnnees; a++) {
+            int annee = volumes.getPremiereAnnee() + a;
+            String libelle = annee + "/" + (annee + 1);
+            debutsAnnees[a] = LocalDate.of(annee, 9, 1);
+
+            AnneeScolaire trouvee = null;
+            for (AnneeScolaire e : existantes) {
+                if (libelle.equals(e.getLibelle())) {
+                    trouvee = e;
+                    break;
+                }
+            }
+            if (trouvee == null) {
+                trouvee = new AnneeScolaire();
+                trouvee.setLibelle(libelle);
+                trouvee.setDateDebut(debutsAnnees[a]);
+                trouvee.setDateFin(LocalDate.of(annee + 1, 6, 30));
+                trouvee.setActive(false);
+                trouvee.setIdAnnee(anneeDAO.insert(trouvee));
+                nbLignes++;
+            }
+            idsAnnees[a] = trouvee.getIdAnnee();
+        }
+        Logger.info("   annee_scolaire   " + nbAnnees + " années (" + idsAnnees[0] + ".." + idsAnnees[nbAnnees - 1] + ")");
+    }
+
+    private void genererProgrammesEtMatieres() throws SQLException {
+        Random random = new Random(volumes.getSeed());
+        int nbProgrammes = volumes.getProgrammes();
+        int nbMatieres = volumes.getMatieres();
+        baseProgramme = maxId(programmeDAO, "PROGRAMME", "id_programme");
+        baseMatiere = maxId(matiereDAO, "MATIERE", "id_matiere");
+
+        programmesParNiveau = new ArrayList<>();
+        for (int n = 0; n < NIVEAUX.length; n++) {
+            programmesParNiveau.add(new ArrayList<>());
+        }
+
+        LotInsertion programmes = lot(programmeDAO, "programme",
+            "INSERT INTO PROGRAMME (id_programme, code, nom, annee_etude, description, niveau, " +
+            "specialite, duree_en_semestres, actif) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        for (int p = 0; p < nbProgrammes; p++) {
+            int id = baseProgramme + p + 1;
+            int niveau = p % NIVEAUX.length;
+            String specialite = SPECIALITES[random.nextInt(SPECIALITES.length)];
+            programmesParNiveau.get(niveau).add(p);
+            programmes.ajouter(id, "LG" + id, "Programme " + (niveau + 1) + "A - " + specialite + " " + id,
+                niveau + 1, "Programme généré", NIVEAUX[niveau], specialite, 2, true);
+        }
+        nbLignes += programmes.terminer();
+
+        LotInsertion matieres = lot(matiereDAO, "matiere",
+            "INSERT INTO MATIERE (id_matiere, nom, objectif, semestre) VALUES (?, ?, ?, ?)");
+        difficulteMatiere = new double[nbMatieres];
+        for (int m = 0; m < nbMatieres; m++) {
+            difficulteMatiere[m] = random.nextGaussian() * 1.5;
+            matieres.ajouter(baseMatiere + m + 1, DOMAINES[m % DOMAINES.length] + " " + (m / DOMAINES.length + 1),
+                "Matière générée", m % 2 + 1);
+        }
+        nbLignes += matieres.terminer();
+
+        // Matières distinctes tirées pour chaque programme
+        LotInsertion liens = lot(programmeDAO, "programme_matiere",
+            "INSERT INTO PROGRAMME_MATIERE (id_programme, id_matiere) VALUES (?, ?)");
+        matieresProgramme = new int[nbProgrammes][];
+        for (int p = 0; p < nbProgrammes; p++) {
+            matieresProgramme[p] = tirageSansRemise(random, nbMatieres, volumes.getMatieresParProgramme());
+            for (int m : matieresProgramme[p]) {
+                liens.ajouter(baseProgramme + p + 1, baseMatiere + m + 1);
+            }
+        }
+        nbLignes += liens.terminer();
+    }
+
+    private void genererEnseignants() throws SQLException {
+        Random random = new Random(volumes.getSeed() + 1);
+        baseEnseignant = maxId(enseignantDAO, "ENSEIGNANT", "id_enseignant");
+
+        LotInsertion enseignants = lot(enseignantDAO, "enseignant",
+            "INSERT INTO ENSEIGNANT (id_enseignant, nom, prenom, grade, email, telephone, specialite) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)");
+        LotInsertion comptes = lotUtilisateurs();
+        for (int i = 0; i < volumes.getEnseignants(); i++) {
+            int id = baseEnseignant + i + 1;
+            String nom = NOMS[random.nextInt(NOMS.length)];
+            String prenom = PRENOMS[random.nextInt(PRENOMS.length)];
+            enseignants.ajouter(id, nom, prenom, GRADES[random.nextInt(GRADES.length)],
+                email(prenom, nom, id, "univ-tiaret.dz"), telephone(random),
+                DOMAINES[random.nextInt(DOMAINES.length)]);
+        }
+        enseignants.vider();
+        for (int i = 0; i < volumes.getEnseignants(); i++) {
+            int id = baseEnseignant + i + 1;
+            comptes.ajouter("ens" + id, hashMotDePasse, "ENSEIGNANT", null, id, true);
+        }
+        nbLignes += enseignants.terminer();
+        nbLignes += comptes.terminer();
+    }
+
+    private void genererEpreuves() throws SQLException {
+        Random random = new Random(volumes.getSeed() + 2);
+        int nbAnnees = volumes.getAnnees();
+        int nbMatieres = volumes.getMatieres();
+        int parMatiere = volumes.getEpreuvesParMatiere();
+        int total = nbAnnees * nbMatieres * parMatiere;
+        baseEpreuve = maxId(epreuveDAO, "EPREUVE", "id_epreuve");
+
+        coefficientsEpreuve = new double[total];
+        enseignantsEpreuve = new int[total];
+        datesEpreuve = new LocalDate[total];
+
+        LotInsertion epreuves = lot(epreuveDAO, "epreuve",
+            "INSERT INTO EPREUVE (id_epreuve, type_epreuve, intitule, date_epreuve, coefficient, " +
+            "description, active, id_matiere, id_enseignant, id_annee) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        for (int a = 0; a < nbAnnees; a++) {
+            for (int m = 0; m < nbMatieres; m++) {
+                int enseignant = baseEnseignant + random.nextInt(volumes.getEnseignants()) + 1;
+                LocalDate semestre = debutsAnnees[a].plusMonths(m % 2 == 0 ? 2 : 6);
+                for (int k = 0; k < parMatiere; k++) {
+                    int index = indexEpreuve(a, m, k);
+                    boolean examen = k == parMatiere - 1;
+                    String type = examen ? "Examen" : TYPES_CONTROLE[k % TYPES_CONTROLE.length];
+
+                    coefficientsEpreuve[index] = examen ? 2.0
+                        : COEFFICIENTS_CONTROLE[random.nextInt(COEFFICIENTS_CONTROLE.length)];
+                    enseignantsEpreuve[index] = enseignant;
+                    datesEpreuve[index] = semestre.plusWeeks(examen ? 14 : 3L + k * 3);
+
+                    epreuves.ajouter(baseEpreuve + index + 1, type, type + " " + (k + 1),
+                        datesEpreuve[index], coefficientsEpreuve[index], null, true,
+                        baseMatiere + m + 1, enseignant, idsAnnees[a]);
+                }
+            }
+        }
+        nbLignes += epreuves.terminer();
+    }
+
+    // === Étudiants et parcours ===
+
+    /**
+     * Étudiants traités par blocs : les fiches d'un bloc sont écrites avant les inscriptions
+     * et les notes qui les référencent (contraintes de clés étrangères)
+     */
+    private void genererEtudiants() throws SQLException {
+        baseEtudiant = maxId(etudiantDAO, "ETUDIANT", "id_etudiant");
+        int tailleBloc = Math.max(1, Math.min(volumes.getTailleLot(), 2000));
+
+        LotInsertion etudiants = lot(etudiantDAO, "etudiant",
+            "INSERT INTO ETUDIANT (id_etudiant, nom, prenom, origine_scolaire, date_naissance, email, " +
+            "telephone, adresse, date_inscription) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        LotInsertion comptes = lotUtilisateurs();
+        LotInsertion inscriptions = lot(inscriptionDAO, "inscription",
+            "INSERT INTO INSCRIPTION (id_etudiant, id_programme, id_annee, moyenne_generale, " +
+            "statut_fin_annee, date_inscription) VALUES (?, ?, ?, ?, ?, ?)");
+        LotInsertion notesEpreuve = lot(noteEpreuveDAO, "note_epreuve",
+            "INSERT INTO NOTE_EPREUVE (id_etudiant, id_epreuve, note, date_saisie, modifie_par) " +
+            "VALUES (?, ?, ?, ?, ?)");
+        LotInsertion notesMatiere = lot(noteMatiereDAO, "note_matiere",
+            "INSERT INTO NOTE_MATIERE (id_etudiant, id_matiere, id_annee, note_finale, validee, " +
+            "date_validation) VALUES (?, ?, ?, ?, ?, ?)");
+
+        for (int debutBloc = 0; debutBloc < volumes.getEtudiants(); debutBloc += tailleBloc) {
+            int finBloc = Math.min(volumes.getEtudiants(), debutBloc + tailleBloc);
+
+            for (int i = debutBloc; i < finBloc; i++) {
+                ajouterEtudiant(i, etudiants, comptes);
+            }
+            // Comptes écrits juste après leurs fiches : le lot de comptes, commun à tous
+            // les blocs, ne doit pas se vider de lui-même avant les fiches qu'il référence
+            etudiants.vider();
+            comptes.vider();
+
+            for (int i = debutBloc; i < finBloc; i++) {
+                ajouterParcours(i, inscriptions, notesEpreuve, notesMatiere);
+            }
+            Logger.info(String.format("   ... %,d / %,d étudiants", finBloc, volumes.getEtudiants()));
+        }
+
+        nbLignes += etudiants.terminer();
+        nbLignes += comptes.terminer();
+        nbLignes += inscriptions.terminer();
+        nbLignes += notesEpreuve.terminer();
+        nbLignes += notesMatiere.terminer();
+    }
+
+    private void ajouterEtudiant(int index, LotInsertion etudiants, LotInsertion comptes) throws SQLException {
+        Random random = randomEtudiant(index, 0);
+        int id = baseEtudiant + index + 1;
+        String nom = NOMS[random.nextInt(NOMS.length)];
+        String prenom = PRENOMS[random.nextInt(PRENOMS.length)];
+        int entree = random.nextInt(volumes.getAnnees());
+
+        etudiants.ajouter(id, nom, prenom, ORIGINES[random.nextInt(ORIGINES.length)],
+            LocalDate.of(volumes.getPremiereAnnee() + entree - 20, 1, 1).plusDays(random.nextInt(730)),
+            email(prenom, nom, id, "etu.univ-tiaret.dz"), telephone(random),
+            VILLES[random.nextInt(VILLES.length)], debutsAnnees[entree]);
+        comptes.ajouter("etu" + id, hashMotDePasse, "ETUDIANT", id, null, true);
+    }
+
+    /**
+     * Parcours d'un étudiant depuis son année d'entrée : une inscription par année,
+     * admis (niveau suivant), redoublant (même programme) ou exclu (fin du parcours).
+     * L'année en cours n'a ni examen final, ni note de matière, ni décision.
+     */
+    private void ajouterParcours(int index, LotInsertion inscriptions, LotInsertion notesEpreuve,
+            LotInsertion notesMatiere) throws SQLException {
+        Random profil = randomEtudiant(index, 0);
+        // Même tirage que ajouterEtudiant pour retrouver l'année d'entrée
+        profil.nextInt(NOMS.length);
+        profil.nextInt(PRENOMS.length);
+        int entree = profil.nextInt(volumes.getAnnees());
+
+        Random random = randomEtudiant(index, 1);
+        int id = baseEtudiant + index + 1;
+        double niveauEtudiant = Math.max(2.0, Math.min(19.0, 11.0 + random.nextGaussian() * 3.0));
+        int derniere = volumes.getAnnees() - 1;
+        int niveau = 0;
+        int programme = choisirProgramme(random, niveau);
+
+        for (int a = entree; a <= derniere; a++) {
+            boolean enCours = a == derniere;
+            int[] matieres = matieresProgramme[programme];
+            double sommeMoyennes = 0.0;
+            int nbMoyennes = 0;
+
+            for (int m : matieres) {
+                double sommePonderee = 0.0;
+                double sommeCoefficients = 0.0;
+                int parMatiere = volumes.getEpreuvesParMatiere();
+                int epreuvesPassees = enCours && parMatiere > 1 ? parMatiere - 1 : parMatiere;
+
+                for (int k = 0; k < epreuvesPassees; k++) {
+                    if (random.nextDouble() < volumes.getTauxAbsence()) {
+                        continue;
+                    }
+                    int e = indexEpreuve(a, m, k);
+                    double note = arrondiQuart(niveauEtudiant - difficulteMatiere[m] + random.nextGaussian() * 2.5);
+                    notesEpreuve.ajouter(id, baseEpreuve + e + 1, note,
+                        datesEpreuve[e].plusDays(7).atTime(10, 0), enseignantsEpreuve[e]);
+                    sommePonderee += note * coefficientsEpreuve[e];
+                    sommeCoefficients += coefficientsEpreuve[e];
+                }
+
+                if (!enCours && sommeCoefficients > 0) {
+                    double noteFinale = Math.round(sommePonderee / sommeCoefficients * 100.0) / 100.0;
+                    notesMatiere.ajouter(id, baseMatiere + m + 1, idsAnnees[a], noteFinale,
+                        noteFinale >= 10.0, noteFinale >= 10.0 ? debutsAnnees[a].plusMonths(10) : null);
+                    sommeMoyennes += noteFinale;
+                    nbMoyennes++;
+                }
+            }
+
+            Double moyenne = null;
+            String statut = "en_cours";
+            if (!enCours) {
+                moyenne = nbMoyennes == 0 ? 0.0 : Math.round(sommeMoyennes / nbMoyennes * 100.0) / 100.0;
+                statut = moyenne >= 10.0 ? "admis" : moyenne >= 7.0 ? "redoublant" : "exclu";
+            }
+            inscriptions.ajouter(id, baseProgramme + programme + 1, idsAnnees[a], moyenne, statut, debutsAnnees[a]);
+
+            if ("exclu".equals(statut)) {
+                break;
+            }
+            if ("admis".equals(statut)) {
+                if (++niveau >= NIVEAUX.length) {
+                    break; // Diplômé
+                }
+                programme = choisirProgramme(random, niveau);
+                niveauEtudiant += 0.3;
+            } else if ("redoublant".equals(statut)) {
+                niveauEtudiant += 0.8;
+            }
+        }
+    }
+
+    // === Utilitaires ===
+
+    private LotInsertion lot(BaseDAO<?> dao, String table, String sql) {
+        return new LotInsertion(dao, table, sql, volumes.getTailleLot());
+    }
+
+    private LotInsertion lotUtilisateurs() {
+        return lot(utilisateurDAO, "utilisateur",
+            "INSERT INTO UTILISATEUR (login, password_hash, role, id_etudiant, id_enseignant, actif) " +
+            "VALUES (?, ?, ?, ?, ?, ?)");
+    }
+
+    private int choisirProgramme(Random random, int niveau) {
+        List<Integer> candidats = programmesParNiveau.get(niveau);
+        if (candidats.isEmpty()) {
+            return random.nextInt(volumes.getProgrammes());
+        }
+        return candidats.get(random.nextInt(candidats.size()));
+    }
+
+    private int indexEpreuve(int annee, int matiere, int k) {
+        return (annee * volumes.getMatieres() + matiere) * volumes.getEpreuvesParMatiere() + k;
+    }
+
+    /**
+     * Générateur propre à un étudiant (et à un usage), indépendant de l'ordre de traitement
+     */
+    private Random randomEtudiant(int index, int usage) {
+        return new Random(volumes.getSeed() * 1_000_003L + index * 2L + usage);
+    }
+
+    private static int maxId(BaseDAO<?> dao, String table, String colonne) throws SQLException {
+        List<Integer> max = dao.executeQuery("SELECT COALESCE(MAX(" + colonne + "), 0) FROM " + table,
+            rs -> rs.getInt(1));
+        return max.get(0);
+    }
+
+    private static int[] tirageSansRemise(Random random, int n, int k) {
+        int[] valeurs = new int[n];
+        for (int i = 0; i < n; i++) {
+            valeurs[i] = i;
+        }
+        // Mélange de Fisher-Yates partiel : seuls les k premiers éléments sont tirés
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int tmp = valeurs[i];
+            valeurs[i] = valeurs[j];
+            valeurs[j] = tmp;
+        }
+        int[] tirage = new int[k];
+        System.arraycopy(valeurs, 0, tirage, 0, k);
+        return tirage;
+    }
+
+    private static double arrondiQuart(double note) {
+        return Math.max(0.0, Math.min(20.0, Math.round(note * 4.0) / 4.0));
+    }
+
+    private static String email(String prenom, String nom, int id, String domaine) {
+        return (prenom + "." + nom).toLowerCase() + "." + id + "@" + domaine;
+    }
+
+    private static String telephone(Random random) {
+        return String.format("0%d%08d", 5 + random.nextInt(3), random.nextInt(100_000_000));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Insertion par lots d'une table générée
+ */
+package tools.loadgen;
+
+import dao.BaseDAO;
+import utils.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accumule les lignes d'une table et les envoie via BaseDAO.executeBatch par paquets
+ * de tailleLot lignes (une transaction par paquet) : la mémoire reste bornée
+ * même pour des millions de lignes.
+ */
+class LotInsertion {
+    private final BaseDAO<?> dao;
+    private final String table;
+    private final String sql;
+    private final int tailleLot;
+    private final List<Object[]> lot;
+    private final long debut = System.currentTimeMillis();
+    private long total;
+
+    LotInsertion(BaseDAO<?> dao, String table, String sql, int tailleLot) {
+        this.dao = dao;
+        this.table = table;
+        this.sql = sql;
+        this.tailleLot = tailleLot;
+        this.lot = new ArrayList<>(tailleLot);
+    }
+
+    void ajouter(Object... valeurs) throws SQLException {
+        lot.add(valeurs);
+        if (lot.size() >= tailleLot) {
+            vider();
+        }
+    }
+
+    /**
+     * Envoie les lignes en attente (à appeler avant d'insérer les lignes qui les référencent)
+     */
+    void vider() throws SQLException {
+        if (lot.isEmpty()) {
+            return;
+        }
+        dao.executeBatch(sql, lot);
+        total += lot.size();
+        lot.clear();
+    }
+
+    /**
+     * Envoie le dernier paquet et journalise le débit de la table
+     * @return le nombre total de lignes insérées
+     */
+    long terminer() throws SQLException {
+        vider();
+        long duree = Math.max(1, System.currentTimeMillis() - debut);
+        Logger.info(String.format("   %-16s %,12d lignes en %,8d ms (%,.0f lignes/s)",
+            table, total, duree, total * 1000.0 / duree));
+        return total;
+    }
+}
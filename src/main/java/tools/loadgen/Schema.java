@@ -0,0 +1,120 @@
+/*
+ * Préparation du schéma avant génération
+ */
+package tools.loadgen;
+
+import config.AppProperties;
+import dao.BaseDAO;
+import utils.Logger;
+
+import java.sql.SQLException;
+
+/**
+ * Sur MySQL, le schéma est celui de Database_Schema.sql : seules les tables absentes des
+ * anciennes versions du script (PROGRAMME_MATIERE, PONDERATION_MATIERE) sont créées si besoin.
+ * Sur H2 (mode MySQL), l'ensemble du schéma est créé s'il n'existe pas encore, avec les
+ * mêmes clés étrangères que le script : l'ordre d'insertion y est donc vérifié aussi.
+ */
+final class Schema {
+
+    private static final String[] TABLES_AUXILIAIRES = {
+        "CREATE TABLE IF NOT EXISTS programme_matiere (" +
+            "id_programme INT NOT NULL, id_matiere INT NOT NULL, " +
+            "PRIMARY KEY (id_programme, id_matiere), " +
+            "FOREIGN KEY (id_programme) REFERENCES programme(id_programme) ON DELETE CASCADE, " +
+            "FOREIGN KEY (id_matiere) REFERENCES matiere(id_matiere) ON DELETE CASCADE)",
+        "CREATE TABLE IF NOT EXISTS ponderation_matiere (" +
+            "id_programme INT NOT NULL, id_matiere INT NOT NULL, id_annee INT NOT NULL, " +
+            "coefficient DECIMAL(4,2) NOT NULL DEFAULT 1.0, " +
+            "PRIMARY KEY (id_programme, id_matiere, id_annee), " +
+            "FOREIGN KEY (id_programme, id_matiere) REFERENCES programme_matiere(id_programme, id_matiere) " +
+            "ON DELETE CASCADE, " +
+            "FOREIGN KEY (id_annee) REFERENCES annee_scolaire(id_annee) ON DELETE CASCADE)"
+    };
+
+    private static final String[] SCHEMA_H2 = {
+        "CREATE TABLE IF NOT EXISTS etudiant (" +
+            "id_etudiant INT PRIMARY KEY AUTO_INCREMENT, nom VARCHAR(100) NOT NULL, " +
+            "prenom VARCHAR(100) NOT NULL, origine_scolaire VARCHAR(50) NOT NULL, " +
+            "date_naissance DATE NULL, email VARCHAR(150) UNIQUE, telephone VARCHAR(20), " +
+            "adresse TEXT, date_inscription DATE NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_etudiant_nom_prenom ON etudiant (nom, prenom)",
+        "CREATE TABLE IF NOT EXISTS enseignant (" +
+            "id_enseignant INT PRIMARY KEY AUTO_INCREMENT, nom VARCHAR(100) NOT NULL, " +
+            "prenom VARCHAR(100) NOT NULL, grade VARCHAR(100), email VARCHAR(150) UNIQUE, " +
+            "telephone VARCHAR(20), specialite VARCHAR(200))",
+        "CREATE TABLE IF NOT EXISTS annee_scolaire (" +
+            "id_annee INT PRIMARY KEY AUTO_INCREMENT, libelle VARCHAR(30) NOT NULL UNIQUE, " +
+            "date_debut DATE NOT NULL, date_fin DATE NOT NULL, active BOOLEAN DEFAULT FALSE)",
+        "CREATE TABLE IF NOT EXISTS programme (" +
+            "id_programme INT PRIMARY KEY AUTO_INCREMENT, code VARCHAR(20) NOT NULL UNIQUE, " +
+            "nom VARCHAR(150) NOT NULL, annee_etude INT NOT NULL, description TEXT, " +
+            "niveau VARCHAR(50), specialite VARCHAR(100), duree_en_semestres INT DEFAULT 2, " +
+            "actif BOOLEAN DEFAULT TRUE)",
+        "CREATE TABLE IF NOT EXISTS matiere (" +
+            "id_matiere INT PRIMARY KEY AUTO_INCREMENT, nom VARCHAR(150) NOT NULL, " +
+            "objectif TEXT, semestre INT)",
+        "CREATE TABLE IF NOT EXISTS inscription (" +
+            "id_inscription INT PRIMARY KEY AUTO_INCREMENT, id_etudiant INT NOT NULL, " +
+            "id_programme INT NOT NULL, id_annee INT NOT NULL, moyenne_generale DECIMAL(5,2), " +
+            "statut_fin_annee ENUM('admis', 'redoublant', 'exclu', 'en_cours') DEFAULT 'en_cours', " +
+            "date_inscription DATE NULL, UNIQUE (id_etudiant, id_programme, id_annee), " +
+            "FOREIGN KEY (id_etudiant) REFERENCES etudiant(id_etudiant) ON DELETE CASCADE, " +
+            "FOREIGN KEY (id_programme) REFERENCES programme(id_programme) ON DELETE CASCADE, " +
+            "FOREIGN KEY (id_annee) REFERENCES annee_scolaire(id_annee) ON DELETE CASCADE)",
+        "CREATE INDEX IF NOT EXISTS idx_inscription_etudiant_annee ON inscription (id_etudiant, id_annee)",
+        "CREATE INDEX IF NOT EXISTS idx_inscription_programme_annee ON inscription (id_programme, id_annee)",
+        "CREATE TABLE IF NOT EXISTS epreuve (" +
+            "id_epreuve INT PRIMARY KEY AUTO_INCREMENT, type_epreuve VARCHAR(50) NOT NULL, " +
+            "intitule VARCHAR(200), date_epreuve DATE, coefficient DECIMAL(4,2) NOT NULL DEFAULT 1.0, " +
+            "description TEXT, active BOOLEAN DEFAULT TRUE, id_matiere INT NOT NULL, " +
+            "id_enseignant INT NOT NULL, id_annee INT NOT NULL, " +
+            "FOREIGN KEY (id_matiere) REFERENCES matiere(id_matiere) ON DELETE CASCADE, " +
+            "FOREIGN KEY (id_enseignant) REFERENCES enseignant(id_enseignant) ON DELETE CASCADE, " +
+            "FOREIGN KEY (id_annee) REFERENCES annee_scolaire(id_annee) ON DELETE CASCADE)",
+        "CREATE INDEX IF NOT EXISTS idx_epreuve_matiere_annee ON epreuve (id_matiere, id_annee)",
+        "CREATE INDEX IF NOT EXISTS idx_epreuve_enseignant ON epreuve (id_enseignant)",
+        "CREATE TABLE IF NOT EXISTS note_epreuve (" +
+            "id_note_epreuve INT PRIMARY KEY AUTO_INCREMENT, id_etudiant INT NOT NULL, " +
+            "id_epreuve INT NOT NULL, note DECIMAL(5,2), " +
+            "date_saisie DATETIME DEFAULT CURRENT_TIMESTAMP, modifie_par INT, commentaire TEXT, " +
+            "UNIQUE (id_etudiant, id_epreuve), " +
+            "FOREIGN KEY (id_etudiant) REFERENCES etudiant(id_etudiant) ON DELETE CASCADE, " +
+            "FOREIGN KEY (id_epreuve) REFERENCES epreuve(id_epreuve) ON DELETE CASCADE, " +
+            "FOREIGN KEY (modifie_par) REFERENCES enseignant(id_enseignant) ON DELETE SET NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_note_epreuve_epreuve ON note_epreuve (id_epreuve)",
+        "CREATE TABLE IF NOT EXISTS note_matiere (" +
+            "id_note_matiere INT PRIMARY KEY AUTO_INCREMENT, id_etudiant INT NOT NULL, " +
+            "id_matiere INT NOT NULL, id_annee INT NOT NULL, note_finale DECIMAL(5,2), " +
+            "validee BOOLEAN DEFAULT FALSE, date_validation DATE, " +
+            "UNIQUE (id_etudiant, id_matiere, id_annee), " +
+            "FOREIGN KEY (id_etudiant) REFERENCES etudiant(id_etudiant) ON DELETE CASCADE, " +
+            "FOREIGN KEY (id_matiere) REFERENCES matiere(id_matiere) ON DELETE CASCADE, " +
+            "FOREIGN KEY (id_annee) REFERENCES annee_scolaire(id_annee) ON DELETE CASCADE)",
+        "CREATE INDEX IF NOT EXISTS idx_note_matiere_matiere ON note_matiere (id_matiere)",
+        "CREATE TABLE IF NOT EXISTS utilisateur (" +
+            "id_utilisateur INT PRIMARY KEY AUTO_INCREMENT, login VARCHAR(50) NOT NULL UNIQUE, " +
+            "password_hash VARCHAR(255) NOT NULL, " +
+            "role ENUM('ETUDIANT', 'ENSEIGNANT', 'SCOLARITE', 'DIRECTION', 'ADMIN') NOT NULL, " +
+            "id_etudiant INT NULL, id_enseignant INT NULL, actif BOOLEAN DEFAULT TRUE, " +
+            "date_creation DATETIME DEFAULT CURRENT_TIMESTAMP, derniere_connexion DATETIME NULL, " +
+            "FOREIGN KEY (id_etudiant) REFERENCES etudiant(id_etudiant) ON DELETE CASCADE, " +
+            "FOREIGN KEY (id_enseignant) REFERENCES enseignant(id_enseignant) ON DELETE CASCADE)"
+    };
+
+    private Schema() {
+    }
+
+    static void preparer(BaseDAO<?> dao) throws SQLException {
+        String url = AppProperties.getInstance().getDatabaseUrl();
+        if (url.startsWith("jdbc:h2:")) {
+            for (String ddl : SCHEMA_H2) {
+                dao.executeUpdate(ddl);
+            }
+            Logger.info("🗄️ Schéma H2 prêt");
+        }
+        for (String ddl : TABLES_AUXILIAIRES) {
+            dao.executeUpdate(ddl);
+        }
+    }
+}
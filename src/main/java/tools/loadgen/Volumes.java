@@ -0,0 +1,110 @@
+/*
+ * Volumes de données à générer
+ * Valeurs par défaut : un campus de taille réelle (30 000 étudiants, 5 années)
+ */
+package tools.loadgen;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Paramètres de la génération, lus depuis la ligne de commande sous la forme cle=valeur
+ * (ex. etudiants=5000 annees=3 seed=7). Une même graine et les mêmes volumes produisent
+ * exactement les mêmes données.
+ */
+public class Volumes {
+    private int etudiants = 30_000;
+    private int enseignants = 600;
+    private int programmes = 50;
+    private int matieres = 500;
+    private int matieresParProgramme = 12;
+    private int annees = 5;
+    private int premiereAnnee = 2021;
+    private int epreuvesParMatiere = 3;
+    private double tauxAbsence = 0.02;
+    private long seed = 42;
+    private int tailleLot = 10_000;
+
+    /**
+     * Lit les arguments cle=valeur ; les clés inconnues sont refusées
+     */
+    public static Volumes depuisArguments(String[] args) {
+        Volumes v = new Volumes();
+        for (String arg : args) {
+            int egal = arg.indexOf('=');
+            if (egal <= 0) {
+                throw new IllegalArgumentException("Argument attendu sous la forme cle=valeur : " + arg);
+            }
+            String cle = arg.substring(0, egal).trim();
+            String valeur = arg.substring(egal + 1).trim();
+
+            switch (cle) {
+                case "etudiants": v.etudiants = Integer.parseInt(valeur); break;
+                case "enseignants": v.enseignants = Integer.parseInt(valeur); break;
+                case "programmes": v.programmes = Integer.parseInt(valeur); break;
+                case "matieres": v.matieres = Integer.parseInt(valeur); break;
+                case "matieresParProgramme": v.matieresParProgramme = Integer.parseInt(valeur); break;
+                case "annees": v.annees = Integer.parseInt(valeur); break;
+                case "premiereAnnee": v.premiereAnnee = Integer.parseInt(valeur); break;
+                case "epreuvesParMatiere": v.epreuvesParMatiere = Integer.parseInt(valeur); break;
+                case "tauxAbsence": v.tauxAbsence = Double.parseDouble(valeur); break;
+                case "seed": v.seed = Long.parseLong(valeur); break;
+                case "tailleLot": v.tailleLot = Integer.parseInt(valeur); break;
+                default:
+                    throw new IllegalArgumentException("Paramètre inconnu : " + cle + " (connus : " + toMap().keySet() + ")");
+            }
+        }
+        v.valider();
+        return v;
+    }
+
+    private void valider() {
+        if (etudiants < 0 || enseignants < 1 || programmes < 1 || matieres < 1 || annees < 1
+                || epreuvesParMatiere < 1 || tailleLot < 1) {
+            throw new IllegalArgumentException("Volumes invalides : " + this);
+        }
+        if (matieresParProgramme < 1 || matieresParProgramme > matieres) {
+            throw new IllegalArgumentException("matieresParProgramme doit être compris entre 1 et " + matieres);
+        }
+        if (tauxAbsence < 0 || tauxAbsence >= 1) {
+            throw new IllegalArgumentException("tauxAbsence doit être compris entre 0 et 1");
+        }
+    }
+
+    private static Map<String, Object> toMap() {
+        return new Volumes().asMap();
+    }
+
+    private Map<String, Object> asMap() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("etudiants", etudiants);
+        m.put("enseignants", enseignants);
+        m.put("programmes", programmes);
+        m.put("matieres", matieres);
+        m.put("matieresParProgramme", matieresParProgramme);
+        m.put("annees", annees);
+        m.put("premiereAnnee", premiereAnnee);
+        m.put("epreuvesParMatiere", epreuvesParMatiere);
+        m.put("tauxAbsence", tauxAbsence);
+        m.put("seed", seed);
+        m.put("tailleLot", tailleLot);
+        return m;
+    }
+
+    public int getEtudiants() { return etudiants; }
+    public int getEnseignants() { return enseignants; }
+    public int getProgrammes() { return programmes; }
+    public int getMatieres() { return matieres; }
+    public int getMatieresParProgramme() { return matieresParProgramme; }
+    public int getAnnees() { return annees; }
+    public int getPremiereAnnee() { return premiereAnnee; }
+    public int getEpreuvesParMatiere() { return epreuvesParMatiere; }
+    public double getTauxAbsence() { return tauxAbsence; }
+    public long getSeed() { return seed; }
+    public int getTailleLot() { return tailleLot; }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+}
@@ -4,8 +4,22 @@
  */
 package utils;
 
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
 public class StringUtils {
     
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    
+    /**
+     * Normalise un texte pour la recherche : minuscules, sans accents
+     */
+    public static String normalizeForSearch(String str) {
+        if (str == null) return "";
+        String decompose = Normalizer.normalize(str, Normalizer.Form.NFD);
+        return DIACRITIQUES.matcher(decompose).replaceAll("").toLowerCase();
+    }
+    
     /**
      * Capitalise la première lettre
      */
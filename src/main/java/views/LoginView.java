@@ -1,5 +1,7 @@
 package views;
 
+import dao.QueryRegistry;
+import services.AsyncServices;
 import services.AuthenticationService;
 import models.Utilisateur;
 import javax.swing.*;
@@ -382,6 +384,9 @@ public class LoginView extends JFrame {
             e.printStackTrace();
         }
         
+        // Vérifier les requêtes nommées sur le schéma sans retarder la fenêtre de connexion
+        AsyncServices.submit(QueryRegistry::validerAuDemarrage);
+        
         SwingUtilities.invokeLater(() -> {
             new LoginView().setVisible(true);
         });
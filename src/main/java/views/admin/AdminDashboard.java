@@ -32,9 +32,13 @@ public class AdminDashboard extends JPanel {
     private ProgrammeDAO programmeDAO;
     private InscriptionDAO inscriptionDAO;
     private StatistiquesService statistiquesService;
+    private DashboardService dashboardService;
     
     // UI Components
     private ModernDataTable usersTable;
+    private PagedTableModel<UtilisateurDAO.UtilisateurResume> usersModel;
+    private String usersRoleFilter;
+    private String usersSearchTerm;
     private ModernSearchBar searchBar;
     private JPanel statsPanel;
     private JPanel headerPanel;
@@ -47,6 +51,9 @@ public class AdminDashboard extends JPanel {
     private ModernStatCard totalTeachersCard;
     private ModernStatCard systemHealthCard;
     
+    private static final java.time.format.DateTimeFormatter USERS_DATE_FORMAT =
+        java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    
     public AdminDashboard(Utilisateur user) {
         this.currentUser = user;
         initializeDAOs();
@@ -63,6 +70,7 @@ public class AdminDashboard extends JPanel {
         this.programmeDAO = new ProgrammeDAO();
         this.inscriptionDAO = new InscriptionDAO();
         this.statistiquesService = new StatistiquesService();
+        this.dashboardService = new DashboardService();
     }
     
     private void initializeComponents() {
@@ -274,31 +282,19 @@ public class AdminDashboard extends JPanel {
         
         panel.add(topPanel, BorderLayout.NORTH);
         
-        // Tableau
-        String[] columns = {"Login", "Rôle", "Actif", "Dernière Connexion", "Actions"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0);
-        
-        // Charger les utilisateurs
-        try {
-            java.util.List<Utilisateur> users = utilisateurDAO.findAll();
-            for (Utilisateur user : users) {
-                model.addRow(new Object[]{
-                    user.getLogin(),
-                    user.getRoleLabel(),
-                    user.isActif() ? "✅ Oui" : "❌ Non",
-                    user.getDerniereConnexion() != null ? 
-                        user.getDerniereConnexion().toString() : "Jamais",
-                    "Modifier | Supprimer"
-                });
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        // Tableau paginé : les utilisateurs sont chargés par pages (tri par login)
+        String[] columns = {"ID", "Login", "Rôle", "Nom complet", "Email", "Statut", "Dernière connexion"};
+        Class<?>[] types = {Integer.class, String.class, String.class, String.class,
+                            String.class, String.class, String.class};
+        usersModel = new PagedTableModel<>(columns, types,
+            (apres, taille) -> utilisateurDAO.findResumesPageAfter(usersRoleFilter, usersSearchTerm,
+                apres != null ? apres.getLogin() : null, taille),
+            this::toUserRow);
         
-        CustomTable table = new CustomTable(model);
-        table.makeSortable();
+        usersTable = new ModernDataTable(columns, types);
+        usersTable.setPagedModel(usersModel);
         
-        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+        panel.add(usersTable, BorderLayout.CENTER);
         
         return panel;
     }
@@ -554,16 +550,15 @@ public class AdminDashboard extends JPanel {
     
     /**
      * Load real statistics from database
+     * Counts come from the dashboard summary (aggregate queries run concurrently, cached briefly)
      */
     private void loadStatisticsData() {
-        try {
+        AsyncServices.onEdt(dashboardService.getResumeAdmin(), resume -> {
             // Total users count
-            List<Utilisateur> allUsers = utilisateurDAO.findAll();
-            totalUsersCard.updateValue(String.valueOf(allUsers.size()));
+            totalUsersCard.updateValue(String.valueOf(resume.getNbUtilisateurs()));
             
             // Active students count
-            List<Etudiant> activeStudents = etudiantDAO.findAll();
-            int activeCount = activeStudents.size();
+            int activeCount = resume.getNbEtudiants();
             activeStudentsCard.updateValue(String.valueOf(activeCount));
             
             // Calculate trend (mock calculation)
@@ -571,11 +566,10 @@ public class AdminDashboard extends JPanel {
             activeStudentsCard.updateTrend(studentTrend);
             
             // Total teachers
-            List<Enseignant> teachers = enseignantDAO.findAll();
-            totalTeachersCard.updateValue(String.valueOf(teachers.size()));
+            totalTeachersCard.updateValue(String.valueOf(resume.getNbEnseignants()));
             
             // System health (based on data integrity)
-            double healthScore = calculateSystemHealth();
+            double healthScore = resume.getScoreSante();
             systemHealthCard.updateValue(String.format("%.1f%%", healthScore));
             if (healthScore > 90) {
                 systemHealthCard.updateTrend("Excellent");
@@ -584,203 +578,58 @@ public class AdminDashboard extends JPanel {
             } else {
                 systemHealthCard.updateTrend("Attention");
             }
-            
-        } catch (SQLException e) {
-            handleDatabaseError("Erreur lors du chargement des statistiques", e);
-        }
+        }, e -> {
+            if (e instanceof SQLException) {
+                handleDatabaseError("Erreur lors du chargement des statistiques", (SQLException) e);
+            } else {
+                showNotification("Erreur lors du chargement des statistiques: " + e.getMessage(), "error");
+            }
+            // Database connectivity issues
+            systemHealthCard.updateValue("50.0%");
+            systemHealthCard.updateTrend("Attention");
+        });
     }
     
     /**
      * Load users data into table with real database content
+     * Pages are fetched lazily by the paged model as the table scrolls
      */
     private void loadUsersData() {
-        try {
-            List<Utilisateur> users = utilisateurDAO.findAll();
-            List<Object[]> tableData = new ArrayList<>();
-            
-            java.text.SimpleDateFormat dateFormat = new java.text.SimpleDateFormat("dd/MM/yyyy HH:mm");
-            
-            for (Utilisateur user : users) {
-                Object[] row = new Object[7];
-                row[0] = user.getIdUtilisateur();
-                row[1] = user.getLogin();
-                row[2] = user.getRole();
-                
-                // Get full name based on role
-                String fullName = getFullNameForUser(user);
-                row[3] = fullName;
-                
-                // Get email
-                String email = getEmailForUser(user);
-                row[4] = email;
-                
-                // Status
-                row[5] = user.isActif() ? "Actif" : "Inactif";
-                
-                // Last connection
-                if (user.getDerniereConnexion() != null) {
-                    row[6] = dateFormat.format(user.getDerniereConnexion());
-                } else {
-                    row[6] = "Jamais";
-                }
-                
-                tableData.add(row);
-            }
-            
-            usersTable.updateData(tableData);
-            
-        } catch (SQLException e) {
-            handleDatabaseError("Erreur lors du chargement des utilisateurs", e);
-        }
-    }
-    
-    /**
-     * Get full name for user based on their role
-     */
-    private String getFullNameForUser(Utilisateur user) {
-        try {
-            switch (user.getRole()) {
-                case "ETUDIANT":
-                    if (user.getIdEtudiant() != null) {
-                        Etudiant etudiant = etudiantDAO.findById(user.getIdEtudiant());
-                        if (etudiant != null) {
-                            return etudiant.getNom() + " " + etudiant.getPrenom();
-                        }
-                    }
-                    break;
-                case "ENSEIGNANT":
-                    if (user.getIdEnseignant() != null) {
-                        Enseignant enseignant = enseignantDAO.findById(user.getIdEnseignant());
-                        if (enseignant != null) {
-                            return enseignant.getNom() + " " + enseignant.getPrenom();
-                        }
-                    }
-                    break;
-                default:
-                    return user.getLogin(); // For admin, scolarite, direction
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting full name for user " + user.getLogin() + ": " + e.getMessage());
-        }
-        return user.getLogin();
-    }
-    
-    /**
-     * Get email for user based on their role
-     */
-    private String getEmailForUser(Utilisateur user) {
-        try {
-            switch (user.getRole()) {
-                case "ETUDIANT":
-                    if (user.getIdEtudiant() != null) {
-                        Etudiant etudiant = etudiantDAO.findById(user.getIdEtudiant());
-                        if (etudiant != null && etudiant.getEmail() != null) {
-                            return etudiant.getEmail();
-                        }
-                    }
-                    break;
-                case "ENSEIGNANT":
-                    if (user.getIdEnseignant() != null) {
-                        Enseignant enseignant = enseignantDAO.findById(user.getIdEnseignant());
-                        if (enseignant != null && enseignant.getEmail() != null) {
-                            return enseignant.getEmail();
-                        }
-                    }
-                    break;
-                default:
-                    return user.getLogin() + "@univ-tiaret.dz"; // Default email pattern
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting email for user " + user.getLogin() + ": " + e.getMessage());
+        if (usersModel != null) {
+            usersModel.reload();
         }
-        return user.getLogin() + "@univ-tiaret.dz";
     }
     
     /**
-     * Calculate system health score based on data integrity
+     * Build a users table row (called off the EDT by the paged model)
+     * Name and email come from the page query's joins: no per-row lookup
      */
-    private double calculateSystemHealth() {
-        double score = 100.0;
-        
-        try {
-            // Check for data integrity issues
-            List<Utilisateur> users = utilisateurDAO.findAll();
-            List<Etudiant> students = etudiantDAO.findAll();
-            List<Enseignant> teachers = enseignantDAO.findAll();
-            
-            // Check for orphaned users (users without associated student/teacher)
-            int orphanedUsers = 0;
-            for (Utilisateur user : users) {
-                if ("ETUDIANT".equals(user.getRole()) && user.getIdEtudiant() == null) {
-                    orphanedUsers++;
-                } else if ("ENSEIGNANT".equals(user.getRole()) && user.getIdEnseignant() == null) {
-                    orphanedUsers++;
-                }
-            }
-            
-            // Deduct points for issues
-            if (orphanedUsers > 0) {
-                score -= orphanedUsers * 5; // 5 points per orphaned user
-            }
-            
-            // Check for inactive users
-            long inactiveUsers = users.stream()
-                .filter(u -> !u.isActif())
-                .count();
-            
-            if (inactiveUsers > users.size() * 0.1) { // More than 10% inactive
-                score -= 10;
-            }
-            
-            // Ensure score doesn't go below 0
-            score = Math.max(0, score);
-            
-        } catch (SQLException e) {
-            score = 50; // Database connectivity issues
-        }
-        
-        return score;
+    private Object[] toUserRow(UtilisateurDAO.UtilisateurResume user) {
+        Object[] row = new Object[7];
+        row[0] = user.getIdUtilisateur();
+        row[1] = user.getLogin();
+        row[2] = user.getRole();
+        // Admin, scolarite and direction accounts have no profile: fall back to the login
+        row[3] = user.getNomComplet() != null ? user.getNomComplet() : user.getLogin();
+        row[4] = user.getEmail() != null ? user.getEmail() : user.getLogin() + "@univ-tiaret.dz"; // Default email pattern
+        row[5] = user.isActif() ? "Actif" : "Inactif";
+        row[6] = user.getDerniereConnexion() != null
+            ? user.getDerniereConnexion().format(USERS_DATE_FORMAT) : "Jamais";
+        return row;
     }
     
     // === FILTER METHODS ===
     
     private void filterUsers(String searchTerm) {
-        if (usersTable != null) {
-            usersTable.filterData(searchTerm);
-        }
+        // The search is applied by the paginated query, like the role filter
+        usersSearchTerm = searchTerm == null || searchTerm.trim().isEmpty() ? null : searchTerm.trim();
+        loadUsersData();
     }
     
     private void filterUsersByRole(String role) {
-        if ("Tous les rôles".equals(role)) {
-            loadUsersData(); // Reload all data
-        } else {
-            try {
-                List<Utilisateur> users = utilisateurDAO.findAll();
-                List<Object[]> filteredData = new ArrayList<>();
-                
-                java.text.SimpleDateFormat dateFormat = new java.text.SimpleDateFormat("dd/MM/yyyy HH:mm");
-                
-                for (Utilisateur user : users) {
-                    if (role.equals(user.getRole())) {
-                        Object[] row = new Object[7];
-                        row[0] = user.getIdUtilisateur();
-                        row[1] = user.getLogin();
-                        row[2] = user.getRole();
-                        row[3] = getFullNameForUser(user);
-                        row[4] = getEmailForUser(user);
-                        row[5] = user.isActif() ? "Actif" : "Inactif";
-                        row[6] = user.getDerniereConnexion() != null ? 
-                               dateFormat.format(user.getDerniereConnexion()) : "Jamais";
-                        filteredData.add(row);
-                    }
-                }
-                
-                usersTable.updateData(filteredData);
-                
-            } catch (SQLException e) {
-                handleDatabaseError("Erreur lors du filtrage des utilisateurs", e);
-            }
-        }
+        // The role filter is applied by the paginated query
+        usersRoleFilter = role == null || "Tous les rôles".equals(role) ? null : role;
+        loadUsersData();
     }
     
     // === UI HELPER METHODS ===
@@ -819,14 +668,33 @@ public class AdminDashboard extends JPanel {
     // === ACTION METHODS ===
     
     private void refreshData() {
+        DashboardService.invalider();
         loadStatisticsData();
         loadUsersData();
         showNotification("Données actualisées", "success");
     }
     
     private void exportData() {
-        String csvData = usersTable.exportToCsv();
-        showNotification("Export réalisé avec succès", "success");
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Exporter les utilisateurs");
+        fileChooser.setSelectedFile(new java.io.File("utilisateurs.xlsx"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        
+        String filePath = fileChooser.getSelectedFile().getAbsolutePath();
+        if (!filePath.endsWith(".xlsx")) {
+            filePath += ".xlsx";
+        }
+        
+        // Streamed from the database on a worker thread: the paged table only holds a few pages
+        String path = filePath;
+        String role = usersRoleFilter;
+        String searchTerm = usersSearchTerm;
+        AsyncServices.onEdt(
+            AsyncServices.submit(() -> statistiquesService.exporterComptes(role, searchTerm, path)),
+            rows -> showNotification("Export réalisé avec succès (" + rows + " lignes)", "success"),
+            e -> showNotification("Erreur lors de l'export : " + e.getMessage(), "error"));
     }
     
     private void openSettings() {
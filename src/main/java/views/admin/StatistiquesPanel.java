@@ -4,15 +4,12 @@
  */
 package views.admin;
 
+import dao.AnneeScolaireDAO;
+import models.AnneeScolaire;
+import services.AsyncServices;
+import services.MoteurStatistiques;
 import services.StatistiquesService;
 import views.components.*;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
@@ -21,12 +18,14 @@ import java.awt.event.ActionListener;
 import java.io.File;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class StatistiquesPanel extends JPanel {
     private StatistiquesService statistiquesService;
-    private JComboBox<String> cmbAnnee;
+    private JComboBox<AnneeScolaire> cmbAnnee;
     private JPanel chartPanel;
     private JTable tableStats;
     private DefaultTableModel tableModel;
@@ -36,10 +35,15 @@ public class StatistiquesPanel extends JPanel {
     private StatCard cardTauxReussite;
     private StatCard cardMoyenneGlobale;
     private StatCard cardNbProgrammes;
+    
+    // Données affichées par les graphiques (remplacées sur l'EDT à chaque chargement)
+    private List<StatistiquesService.StatNotesProgramme> statsProgrammes = new ArrayList<>();
+    private StatistiquesService.TauxReussite tauxReussite = new StatistiquesService.TauxReussite();
 
     public StatistiquesPanel() {
         this.statistiquesService = new StatistiquesService();
         initComponents();
+        chargerAnnees();
         loadStatistiques();
     }
     
@@ -83,10 +87,8 @@ public class StatistiquesPanel extends JPanel {
         JLabel lblAnnee = new JLabel("Année universitaire :");
         lblAnnee.setFont(new Font("Segoe UI", Font.BOLD, 13));
         
-        cmbAnnee = new JComboBox<>(new String[]{"2024/2025", "2025/2026", "2026/2027"});
-        cmbAnnee.setSelectedItem("2025/2026");
+        cmbAnnee = new JComboBox<>();
         cmbAnnee.setPreferredSize(new Dimension(150, 30));
-        cmbAnnee.addActionListener(e -> loadStatistiques());
         
         JButton btnRefresh = new JButton("🔄");
         btnRefresh.setToolTipText("Actualiser");
@@ -114,8 +116,8 @@ public class StatistiquesPanel extends JPanel {
         panel.add(cardsPanel, BorderLayout.NORTH);
         
         // Graphiques
-        JPanel chartsPanel = createChartsPanel();
-        panel.add(chartsPanel, BorderLayout.CENTER);
+        chartPanel = createChartsPanel();
+        panel.add(chartPanel, BorderLayout.CENTER);
         
         return panel;
     }
@@ -171,8 +173,13 @@ public class StatistiquesPanel extends JPanel {
                 int centerY = height / 2;
                 int radius = Math.min(width, height) / 3;
                 
-                // Données simulées (à remplacer par de vraies données)
-                int[] values = {65, 25, 10}; // Admis, Redoublant, Exclu
+                // Répartition des inscriptions de l'année (en %)
+                StatistiquesService.TauxReussite taux = tauxReussite;
+                int[] values = {
+                    (int) Math.round(taux.getPourcentageAdmis()),
+                    (int) Math.round(taux.getPourcentageRedoublants()),
+                    (int) Math.round(taux.getPourcentageExclus())
+                }; // Admis, Redoublant, Exclu
                 Color[] colors = {
                     new Color(46, 204, 113),   // Vert pour admis
                     new Color(230, 126, 34),   // Orange pour redoublant
@@ -211,7 +218,7 @@ public class StatistiquesPanel extends JPanel {
         panel.setBackground(Color.WHITE);
         panel.setBorder(BorderFactory.createTitledBorder("Performances par Programme"));
         
-        // Graphique en barres simulé
+        // Graphique en barres : moyenne des notes de matières par programme
         JPanel chartArea = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
@@ -219,8 +226,16 @@ public class StatistiquesPanel extends JPanel {
                 Graphics2D g2 = (Graphics2D) g;
                 g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
                 
-                String[] programmes = {"L1 Info", "L2 Info", "L3 Info", "M1 GL", "M2 GL"};
-                double[] moyennes = {12.5, 13.2, 14.1, 15.8, 16.2};
+                List<StatistiquesService.StatNotesProgramme> stats = statsProgrammes;
+                if (stats.isEmpty()) {
+                    return;
+                }
+                String[] programmes = new String[stats.size()];
+                double[] moyennes = new double[stats.size()];
+                for (int i = 0; i < stats.size(); i++) {
+                    programmes[i] = stats.get(i).getProgramme();
+                    moyennes[i] = stats.get(i).getAgregat().getMoyenne();
+                }
                 
                 int width = getWidth();
                 int height = getHeight();
@@ -260,7 +275,7 @@ public class StatistiquesPanel extends JPanel {
         panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
         
         // Table des statistiques par programme
-        String[] columns = {"Programme", "Nb Étudiants", "Moyenne", "Taux Réussite", "Meilleure Note", "Note Min"};
+        String[] columns = {"Programme", "Nb Notes", "Moyenne", "Écart-type", "Taux Réussite", "Meilleure Note", "Note Min"};
         tableModel = new DefaultTableModel(columns, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -429,55 +444,75 @@ public class StatistiquesPanel extends JPanel {
         return card;
     }
     
-    private void loadStatistiques() {
-        // Charger les données statistiques depuis la base
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                try {
-                    // Simuler le chargement des statistiques
-                    Thread.sleep(500); // Simulation
-                    
-                    SwingUtilities.invokeLater(() -> {
-                        // Mettre à jour les cards
-                        cardTotalEtudiants.setValue("1,247");
-                        cardTauxReussite.setValue("74.2%");
-                        cardMoyenneGlobale.setValue("13.45");
-                        cardNbProgrammes.setValue("12");
-                        
-                        // Mettre à jour le tableau
-                        updateProgrammeTable();
-                    });
-                    
-                } catch (Exception e) {
-                    SwingUtilities.invokeLater(() -> {
-                        JOptionPane.showMessageDialog(StatistiquesPanel.this,
-                            "Erreur lors du chargement des statistiques: " + e.getMessage(),
-                            "Erreur", JOptionPane.ERROR_MESSAGE);
-                    });
+    private void chargerAnnees() {
+        try {
+            AnneeScolaire active = null;
+            for (AnneeScolaire annee : new AnneeScolaireDAO().findAll()) {
+                cmbAnnee.addItem(annee);
+                if (annee.isActive()) {
+                    active = annee;
                 }
-                return null;
             }
-        };
-        worker.execute();
+            if (active != null) {
+                cmbAnnee.setSelectedItem(active);
+            }
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des années: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE);
+        }
+        cmbAnnee.addActionListener(e -> loadStatistiques());
+    }
+    
+    private void loadStatistiques() {
+        AnneeScolaire annee = (AnneeScolaire) cmbAnnee.getSelectedItem();
+        if (annee == null) {
+            return;
+        }
+        int idAnnee = annee.getIdAnnee();
+        
+        // Agrégats du moteur incrémental (NOTE_MATIERE n'est lue qu'au premier accès à l'année)
+        // et répartition des statuts, chargés en parallèle hors de l'EDT
+        CompletableFuture<List<StatistiquesService.StatNotesProgramme>> programmes =
+            AsyncServices.submit(() -> statistiquesService.getStatistiquesNotesParProgramme(idAnnee));
+        CompletableFuture<MoteurStatistiques.Agregat> global =
+            AsyncServices.submit(() -> statistiquesService.getStatistiquesNotesGlobales(idAnnee));
+        CompletableFuture<StatistiquesService.TauxReussite> taux =
+            AsyncServices.submit(() -> statistiquesService.getTauxReussite(idAnnee));
+        
+        AsyncServices.onEdt(CompletableFuture.allOf(programmes, global, taux), ignored -> {
+            statsProgrammes = programmes.join();
+            tauxReussite = taux.join();
+            MoteurStatistiques.Agregat total = global.join();
+            
+            // Mettre à jour les cards
+            cardTotalEtudiants.setValue(String.format("%,d", tauxReussite.getTotal()));
+            cardTauxReussite.setValue(String.format("%.1f%%", total.getTauxReussite()));
+            cardMoyenneGlobale.setValue(String.format("%.2f", total.getMoyenne()));
+            cardNbProgrammes.setValue(String.valueOf(statsProgrammes.size()));
+            
+            // Mettre à jour le tableau et les graphiques
+            updateProgrammeTable();
+            chartPanel.repaint();
+        }, e -> JOptionPane.showMessageDialog(StatistiquesPanel.this,
+            "Erreur lors du chargement des statistiques: " + e.getMessage(),
+            "Erreur", JOptionPane.ERROR_MESSAGE));
     }
     
     private void updateProgrammeTable() {
         tableModel.setRowCount(0);
         
-        // Données simulées pour les programmes
-        Object[][] data = {
-            {"L1 Informatique", "245", "12.8", "68%", "19.5", "4.2"},
-            {"L2 Informatique", "198", "13.2", "72%", "18.8", "5.1"},
-            {"L3 Informatique", "165", "14.1", "78%", "19.2", "6.3"},
-            {"M1 Génie Logiciel", "87", "15.2", "85%", "19.8", "8.7"},
-            {"M2 Génie Logiciel", "62", "16.1", "89%", "19.9", "10.2"},
-            {"M1 Réseaux", "45", "14.8", "82%", "18.9", "7.8"},
-            {"M2 Sécurité", "38", "15.9", "92%", "19.7", "11.4"}
-        };
-        
-        for (Object[] row : data) {
-            tableModel.addRow(row);
+        for (StatistiquesService.StatNotesProgramme stat : statsProgrammes) {
+            MoteurStatistiques.Agregat agregat = stat.getAgregat();
+            tableModel.addRow(new Object[]{
+                stat.getProgramme(),
+                agregat.getNbNotes(),
+                String.format("%.2f", agregat.getMoyenne()),
+                String.format("%.2f", agregat.getEcartType()),
+                String.format("%.1f%%", agregat.getTauxReussite()),
+                String.format("%.2f", agregat.getMax()),
+                String.format("%.2f", agregat.getMin())
+            });
         }
     }
     
@@ -497,13 +532,15 @@ public class StatistiquesPanel extends JPanel {
             }
             
             final String finalFilePath = filePath; // Make it effectively final
+            AnneeScolaire annee = (AnneeScolaire) cmbAnnee.getSelectedItem();
+            final int idAnnee = annee != null ? annee.getIdAnnee() : 2;
             
             // Export en arrière-plan
             SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
                 @Override
                 protected Void doInBackground() throws Exception {
                     try {
-                        statistiquesService.exporterStatistiquesExcel(2, finalFilePath); // Année 2
+                        statistiquesService.exporterStatistiquesExcel(idAnnee, finalFilePath);
                         
                         SwingUtilities.invokeLater(() -> {
                             NotificationToast.show(
@@ -9,6 +9,8 @@ import java.awt.*;
 import javax.swing.JPanel;
 
 public class LoadingDialog extends JDialog {
+    private final JProgressBar progressBar;
+    private final JLabel lblMessage;
     
     public LoadingDialog(Frame parent, String message) {
         super(parent, "Chargement", false);
@@ -22,11 +24,11 @@ public class LoadingDialog extends JDialog {
         ));
         panel.setBackground(Color.WHITE);
         
-        JProgressBar progressBar = new JProgressBar();
+        progressBar = new JProgressBar();
         progressBar.setIndeterminate(true);
         progressBar.setPreferredSize(new Dimension(200, 20));
         
-        JLabel lblMessage = new JLabel(message, SwingConstants.CENTER);
+        lblMessage = new JLabel(message, SwingConstants.CENTER);
         lblMessage.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         
         panel.add(lblMessage, BorderLayout.NORTH);
@@ -37,6 +39,17 @@ public class LoadingDialog extends JDialog {
         setLocationRelativeTo(parent);
     }
     
+    /**
+     * Passe en progression déterminée (à appeler sur l'EDT)
+     */
+    public void setProgression(int termines, int total, String message) {
+        progressBar.setIndeterminate(false);
+        progressBar.setMaximum(Math.max(total, 1));
+        progressBar.setValue(termines);
+        progressBar.setStringPainted(true);
+        lblMessage.setText(message);
+    }
+    
     public void close() {
         setVisible(false);
         dispose();
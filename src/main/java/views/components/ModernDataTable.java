@@ -1,10 +1,13 @@
 package views.components;
 
 import config.ThemeManager;
+import services.ExcelExportService;
 import javax.swing.*;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.geom.RoundRectangle2D;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -15,6 +18,7 @@ import java.util.ArrayList;
 public class ModernDataTable extends JPanel {
     private JTable table;
     private DefaultTableModel model;
+    private PagedTableModel<?> pagedModel;
     private JScrollPane scrollPane;
     private JPanel headerPanel;
     private JPanel footerPanel;
@@ -202,6 +206,19 @@ public class ModernDataTable extends JPanel {
         addRows(newData);
     }
     
+    /**
+     * Switch the table to a lazily loaded, keyset-paginated model
+     * Sorting and client-side filtering are disabled: the DAO query defines the order.
+     */
+    public void setPagedModel(PagedTableModel<?> pagedModel) {
+        this.pagedModel = pagedModel;
+        table.setAutoCreateRowSorter(false);
+        table.setModel(pagedModel);
+        table.setRowSorter(null);
+        pagedModel.addTableModelListener(e -> updateRowCount());
+        updateRowCount();
+    }
+    
     /**
      * Get selected row index
      */
@@ -218,6 +235,9 @@ public class ModernDataTable extends JPanel {
      */
     public Object[] getSelectedRowData() {
         int selectedRow = getSelectedRow();
+        if (pagedModel != null) {
+            return pagedModel.getRowData(selectedRow);
+        }
         if (selectedRow != -1) {
             Object[] rowData = new Object[model.getColumnCount()];
             for (int i = 0; i < model.getColumnCount(); i++) {
@@ -230,8 +250,12 @@ public class ModernDataTable extends JPanel {
     
     /**
      * Filter table data based on search term
+     * Paged mode ignores it: pass the term to the page loader and reload the paged model.
      */
     public void filterData(String searchTerm) {
+        if (table.getRowSorter() == null) {
+            return; // Paged mode: filtering belongs to the DAO query
+        }
         TableRowSorter<DefaultTableModel> sorter = 
             (TableRowSorter<DefaultTableModel>) table.getRowSorter();
         
@@ -250,9 +274,9 @@ public class ModernDataTable extends JPanel {
         StringBuilder csv = new StringBuilder();
         
         // Headers
-        for (int i = 0; i < model.getColumnCount(); i++) {
-            csv.append("\"").append(model.getColumnName(i)).append("\"");
-            if (i < model.getColumnCount() - 1) csv.append(",");
+        for (int i = 0; i < table.getColumnCount(); i++) {
+            csv.append("\"").append(table.getColumnName(i)).append("\"");
+            if (i < table.getColumnCount() - 1) csv.append(",");
         }
         csv.append("\n");
         
@@ -269,7 +293,53 @@ public class ModernDataTable extends JPanel {
         return csv.toString();
     }
     
+    /**
+     * Export visible table rows to an Excel file (streamed, column widths taken from the table)
+     * Not available in paged mode, where only the loaded pages are in memory:
+     * export from the DAO query instead (ExcelExportService.exporterRequete).
+     * @return number of exported rows
+     */
+    public long exportToExcel(String filePath, String sheetName) throws IOException {
+        if (pagedModel != null) {
+            throw new IllegalStateException("Paged table: export from the DAO query instead");
+        }
+        List<ExcelExportService.Colonne> columns = new ArrayList<>();
+        for (int col = 0; col < table.getColumnCount(); col++) {
+            int widthChars = table.getColumnModel().getColumn(col).getWidth() / 7;
+            columns.add(new ExcelExportService.Colonne(table.getColumnName(col), Math.max(8, widthChars)));
+        }
+        
+        // Rows are read from the table one at a time while the workbook is written
+        Iterable<Object[]> rows = () -> new Iterator<Object[]>() {
+            private int row = 0;
+            
+            @Override
+            public boolean hasNext() {
+                return row < table.getRowCount();
+            }
+            
+            @Override
+            public Object[] next() {
+                Object[] values = new Object[table.getColumnCount()];
+                for (int col = 0; col < values.length; col++) {
+                    values[col] = table.getValueAt(row, col);
+                }
+                row++;
+                return values;
+            }
+        };
+        
+        return new ExcelExportService().exporterLignes(filePath, sheetName, columns, rows);
+    }
+    
     private void updateRowCount() {
+        if (pagedModel != null) {
+            int loadedRows = pagedModel.getRowCount();
+            rowCountLabel.setText(pagedModel.isComplete()
+                ? String.format("%d enregistrements", loadedRows)
+                : String.format("%d enregistrements chargés", loadedRows));
+            return;
+        }
         int totalRows = model.getRowCount();
         int visibleRows = table.getRowCount();
         
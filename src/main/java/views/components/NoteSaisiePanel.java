@@ -15,12 +15,15 @@ import java.awt.event.*;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Vector;
 
 public class NoteSaisiePanel extends JPanel {
     private Enseignant enseignant;
     private NoteService noteService;
     private EpreuveDAO epreuveDAO;
-    private EtudiantDAO etudiantDAO;
     
     private JComboBox<Epreuve> cmbEpreuve;
     private JTable tableNotes;
@@ -37,7 +40,6 @@ public class NoteSaisiePanel extends JPanel {
         this.enseignant = enseignant;
         this.noteService = new NoteService();
         this.epreuveDAO = new EpreuveDAO();
-        this.etudiantDAO = new EtudiantDAO();
         this.etudiantsNotes = new ArrayList<>();
         
         initComponents();
@@ -248,84 +250,139 @@ public class NoteSaisiePanel extends JPanel {
     }
     
     private void chargerEtudiants() {
-        epreuveSelectionnee = (Epreuve) cmbEpreuve.getSelectedItem();
-        if (epreuveSelectionnee == null) {
+        Epreuve epreuve = (Epreuve) cmbEpreuve.getSelectedItem();
+        if (epreuve == null) {
             return;
         }
         
-        SwingUtilities.invokeLater(() -> {
-            progressBar.setVisible(true);
-            progressBar.setIndeterminate(true);
-            lblStatut.setText("Chargement des étudiants...");
-        });
+        // Même épreuve déjà affichée : rafraîchissement incrémental (saisies en cours conservées)
+        boolean incremental = epreuveSelectionnee != null 
+            && epreuveSelectionnee.getIdEpreuve() == epreuve.getIdEpreuve();
+        epreuveSelectionnee = epreuve;
+        rafraichir(incremental);
+    }
+    
+    /**
+     * Charge la feuille de l'épreuve sélectionnée en arrière-plan (une seule requête),
+     * puis met à jour la table en une seule fois sur l'EDT
+     * @param incremental true pour ne mettre à jour que les lignes qui ont changé
+     */
+    private void rafraichir(boolean incremental) {
+        Epreuve epreuve = epreuveSelectionnee;
+        
+        progressBar.setVisible(true);
+        progressBar.setIndeterminate(true);
+        lblStatut.setText(incremental ? "Actualisation des notes..." : "Chargement des étudiants...");
         
         // Exécuter en arrière-plan
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+        SwingWorker<List<NoteEpreuve>, Void> worker = new SwingWorker<List<NoteEpreuve>, Void>() {
             @Override
-            protected Void doInBackground() throws Exception {
-                loadEtudiantsForEpreuve();
-                return null;
+            protected List<NoteEpreuve> doInBackground() throws Exception {
+                return noteService.getFeuilleNotes(epreuve.getIdEpreuve());
             }
             
             @Override
             protected void done() {
                 progressBar.setVisible(false);
-                lblStatut.setText("Étudiants chargés. Vous pouvez maintenant saisir les notes.");
+                if (epreuve != epreuveSelectionnee) {
+                    return; // Une autre épreuve a été demandée entre-temps
+                }
+                try {
+                    List<NoteEpreuve> feuille = get();
+                    if (incremental) {
+                        int nbMisesAJour = fusionnerFeuille(feuille);
+                        lblStatut.setText(nbMisesAJour + " ligne(s) actualisée(s) - " + 
+                            feuille.size() + " étudiants");
+                    } else {
+                        remplacerFeuille(feuille);
+                        lblStatut.setText(feuille.size() + 
+                            " étudiants chargés. Vous pouvez maintenant saisir les notes.");
+                    }
+                } catch (Exception e) {
+                    lblStatut.setText("Erreur de chargement");
+                    JOptionPane.showMessageDialog(NoteSaisiePanel.this, 
+                        "Erreur lors du chargement des étudiants: " + e.getMessage(),
+                        "Erreur", JOptionPane.ERROR_MESSAGE);
+                }
                 updateSaveButton();
             }
         };
         worker.execute();
     }
     
-    private void loadEtudiantsForEpreuve() {
-        try {
-            etudiantsNotes.clear();
-            tableModel.setRowCount(0);
-            
-            // Récupérer tous les étudiants inscrits pour cette épreuve
-            List<Etudiant> etudiants = etudiantDAO.findByProgrammeAndAnnee(
-                1, epreuveSelectionnee.getIdAnnee()); // Supposons programme par défaut
-            
-            for (Etudiant etudiant : etudiants) {
-                EtudiantNote etudiantNote = new EtudiantNote();
-                etudiantNote.setEtudiant(etudiant);
-                etudiantNote.setNote(0.0);
-                etudiantNote.setCommentaire("");
-                etudiantNote.setModifiee(false);
-                
-                // Vérifier si une note existe déjà
-                try {
-                    NoteEpreuve noteExistante = noteService.getNoteEpreuve(
-                        etudiant.getIdEtudiant(), epreuveSelectionnee.getIdEpreuve());
-                    if (noteExistante != null) {
-                        etudiantNote.setNote(noteExistante.getNote());
-                        etudiantNote.setCommentaire(noteExistante.getCommentaire());
-                        etudiantNote.setExistante(true);
-                    }
-                } catch (Exception e) {
-                    // Note n'existe pas, garder les valeurs par défaut
-                }
-                
-                etudiantsNotes.add(etudiantNote);
-                
-                // Ajouter à la table
-                SwingUtilities.invokeLater(() -> {
-                    tableModel.addRow(new Object[]{
-                        etudiant.getNomComplet(),
-                        etudiantNote.getNote(),
-                        etudiantNote.getCommentaire(),
-                        getStatutNote(etudiantNote.getNote())
-                    });
-                });
+    /**
+     * Remplace tout le contenu de la table (un seul événement de modèle)
+     */
+    private void remplacerFeuille(List<NoteEpreuve> feuille) {
+        etudiantsNotes.clear();
+        Vector<Vector<Object>> lignes = lignes();
+        lignes.clear();
+        
+        for (NoteEpreuve ne : feuille) {
+            EtudiantNote etudiantNote = new EtudiantNote();
+            etudiantNote.appliquer(ne);
+            etudiantsNotes.add(etudiantNote);
+            lignes.add(toLigne(etudiantNote));
+        }
+        
+        tableModel.fireTableDataChanged();
+    }
+    
+    /**
+     * Fusionne une feuille rechargée avec la table affichée : seules les lignes dont la note
+     * en base a changé sont mises à jour, les lignes modifiées localement sont conservées.
+     * Si la liste des inscrits a changé, la table est rechargée entièrement.
+     * @return le nombre de lignes mises à jour
+     */
+    private int fusionnerFeuille(List<NoteEpreuve> feuille) {
+        Map<Integer, NoteEpreuve> parEtudiant = new HashMap<>();
+        for (NoteEpreuve ne : feuille) {
+            parEtudiant.put(ne.getIdEtudiant(), ne);
+        }
+        boolean memesEtudiants = feuille.size() == etudiantsNotes.size()
+            && etudiantsNotes.stream().allMatch(en -> parEtudiant.containsKey(en.getIdEtudiant()));
+        if (!memesEtudiants) {
+            remplacerFeuille(feuille);
+            return feuille.size();
+        }
+        
+        Vector<Vector<Object>> lignes = lignes();
+        int premiere = -1;
+        int derniere = -1;
+        int nbMisesAJour = 0;
+        for (int row = 0; row < etudiantsNotes.size(); row++) {
+            EtudiantNote etudiantNote = etudiantsNotes.get(row);
+            if (etudiantNote.isModifiee() || !etudiantNote.differe(parEtudiant.get(etudiantNote.getIdEtudiant()))) {
+                continue;
             }
-            
-        } catch (SQLException e) {
-            SwingUtilities.invokeLater(() -> {
-                JOptionPane.showMessageDialog(this, 
-                    "Erreur lors du chargement des étudiants: " + e.getMessage(),
-                    "Erreur", JOptionPane.ERROR_MESSAGE);
-            });
+            etudiantNote.appliquer(parEtudiant.get(etudiantNote.getIdEtudiant()));
+            lignes.set(row, toLigne(etudiantNote));
+            if (premiere < 0) premiere = row;
+            derniere = row;
+            nbMisesAJour++;
+        }
+        
+        if (premiere >= 0) {
+            tableModel.fireTableRowsUpdated(premiere, derniere);
         }
+        return nbMisesAJour;
+    }
+    
+    /**
+     * Lignes du modèle, modifiées en place (getDataVector n'est pas paramétré)
+     */
+    @SuppressWarnings("unchecked")
+    private Vector<Vector<Object>> lignes() {
+        return (Vector<Vector<Object>>) (Vector<?>) tableModel.getDataVector();
+    }
+    
+    private Vector<Object> toLigne(EtudiantNote etudiantNote) {
+        Vector<Object> ligne = new Vector<>(4);
+        ligne.add(etudiantNote.getNomEtudiant());
+        ligne.add(etudiantNote.getNote());
+        ligne.add(etudiantNote.getCommentaire());
+        ligne.add(getStatutNote(etudiantNote.getNote()));
+        return ligne;
     }
     
     private void sauvegarderNotes() {
@@ -334,50 +391,38 @@ public class NoteSaisiePanel extends JPanel {
         }
         
         progressBar.setVisible(true);
-        progressBar.setIndeterminate(false);
-        progressBar.setMaximum(etudiantsNotes.size());
-        progressBar.setValue(0);
+        progressBar.setIndeterminate(true);
+        lblStatut.setText("Sauvegarde des notes...");
         
-        SwingWorker<Integer, Integer> worker = new SwingWorker<Integer, Integer>() {
+        SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
             @Override
             protected Integer doInBackground() throws Exception {
-                int saved = 0;
-                int total = etudiantsNotes.size();
+                // Collecter les notes à enregistrer puis les envoyer en un seul batch
+                List<EtudiantNote> aSauvegarder = new ArrayList<>();
+                List<NoteEpreuve> notes = new ArrayList<>();
                 
-                for (int i = 0; i < total; i++) {
-                    EtudiantNote etudiantNote = etudiantsNotes.get(i);
-                    
+                for (EtudiantNote etudiantNote : etudiantsNotes) {
                     if (etudiantNote.isModifiee() || !etudiantNote.isExistante()) {
-                        try {
-                            noteService.saisirNote(
-                                etudiantNote.getEtudiant().getIdEtudiant(),
-                                epreuveSelectionnee.getIdEpreuve(),
-                                etudiantNote.getNote(),
-                                enseignant.getIdEnseignant(),
-                                etudiantNote.getCommentaire()
-                            );
-                            etudiantNote.setModifiee(false);
-                            etudiantNote.setExistante(true);
-                            saved++;
-                        } catch (SQLException e) {
-                            // Log l'erreur mais continuer
-                            System.err.println("Erreur sauvegarde note: " + e.getMessage());
-                        }
+                        NoteEpreuve ne = new NoteEpreuve();
+                        ne.setIdEtudiant(etudiantNote.getIdEtudiant());
+                        ne.setIdEpreuve(epreuveSelectionnee.getIdEpreuve());
+                        ne.setNote(etudiantNote.getNote());
+                        ne.setCommentaire(etudiantNote.getCommentaire());
+                        notes.add(ne);
+                        aSauvegarder.add(etudiantNote);
                     }
-                    
-                    publish(i + 1);
+                }
+                
+                int saved = noteService.saisirNotes(notes, enseignant.getIdEnseignant());
+                
+                for (EtudiantNote etudiantNote : aSauvegarder) {
+                    etudiantNote.setModifiee(false);
+                    etudiantNote.setExistante(true);
                 }
                 
                 return saved;
             }
             
-            @Override
-            protected void process(List<Integer> chunks) {
-                int latest = chunks.get(chunks.size() - 1);
-                progressBar.setValue(latest);
-                lblStatut.setText("Sauvegarde: " + latest + "/" + etudiantsNotes.size());
-            }
-            
             @Override
             protected void done() {
                 try {
@@ -392,6 +437,9 @@ public class NoteSaisiePanel extends JPanel {
                         NotificationToast.Type.SUCCESS
                     );
                     
+                    // Reprendre les saisies faites entre-temps par d'autres enseignants
+                    rafraichir(true);
+                    
                 } catch (Exception e) {
                     progressBar.setVisible(false);
                     JOptionPane.showMessageDialog(NoteSaisiePanel.this,
@@ -436,15 +484,36 @@ public class NoteSaisiePanel extends JPanel {
     
     // Classes internes
     private static class EtudiantNote {
-        private Etudiant etudiant;
+        private int idEtudiant;
+        private String nomEtudiant;
         private double note;
         private String commentaire;
         private boolean modifiee;
         private boolean existante;
         
+        /**
+         * Reprend l'état enregistré en base (ligne de findEtudiantsPourEpreuve)
+         */
+        void appliquer(NoteEpreuve ne) {
+            idEtudiant = ne.getIdEtudiant();
+            nomEtudiant = ne.getEtudiantName();
+            note = ne.getNote();
+            commentaire = ne.getCommentaire() != null ? ne.getCommentaire() : "";
+            existante = ne.getIdNoteEpreuve() > 0;
+            modifiee = false;
+        }
+        
+        boolean differe(NoteEpreuve ne) {
+            String autreCommentaire = ne.getCommentaire() != null ? ne.getCommentaire() : "";
+            return existante != (ne.getIdNoteEpreuve() > 0)
+                || Double.compare(note, ne.getNote()) != 0
+                || !Objects.equals(commentaire, autreCommentaire)
+                || !Objects.equals(nomEtudiant, ne.getEtudiantName());
+        }
+        
         // Getters & Setters
-        public Etudiant getEtudiant() { return etudiant; }
-        public void setEtudiant(Etudiant etudiant) { this.etudiant = etudiant; }
+        public int getIdEtudiant() { return idEtudiant; }
+        public String getNomEtudiant() { return nomEtudiant; }
         
         public double getNote() { return note; }
         public void setNote(double note) { this.note = note; }
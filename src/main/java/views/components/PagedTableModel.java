@@ -0,0 +1,234 @@
+package views.components;
+
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lazy table model backed by keyset-paginated DAO queries
+ * Pages are fetched in the background as the user scrolls; only the most recently
+ * viewed pages are kept in memory, evicted pages are reloaded from their keyset cursor.
+ * @param <T> Type of the entities loaded by the DAO
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_MAX_CACHED_PAGES = 10;
+    /** Delay before a page whose load failed is requested again */
+    public static final long RETRY_DELAY_MS = 5000;
+
+    /**
+     * Loads the page following the given entity (null for the first page)
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        List<T> loadPage(T after, int pageSize) throws SQLException;
+    }
+
+    /**
+     * Converts an entity into a table row (called off the EDT)
+     */
+    @FunctionalInterface
+    public interface RowConverter<T> {
+        Object[] toRow(T item) throws SQLException;
+    }
+
+    private final String[] columnNames;
+    private final Class<?>[] columnTypes;
+    private final PageLoader<T> loader;
+    private final RowConverter<T> converter;
+    private final int pageSize;
+    private final int maxCachedPages;
+
+    // Last entity of each page already fetched: keyset cursor of the next page
+    private final List<T> pageCursors = new ArrayList<>();
+    private final Map<Integer, List<Object[]>> pages;
+    private final Set<Integer> pagesLoading = new HashSet<>();
+    // Pages whose last load failed: earliest time of the next attempt
+    private final Map<Integer, Long> failedPages = new HashMap<>();
+    private int rowCount;
+    private boolean complete;
+    private int generation;
+
+    public PagedTableModel(String[] columnNames, Class<?>[] columnTypes,
+                           PageLoader<T> loader, RowConverter<T> converter) {
+        this(columnNames, columnTypes, loader, converter, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    public PagedTableModel(String[] columnNames, Class<?>[] columnTypes,
+                           PageLoader<T> loader, RowConverter<T> converter,
+                           int pageSize, int maxCachedPages) {
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.loader = loader;
+        this.converter = converter;
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+
+        // LRU of page contents
+        this.pages = new LinkedHashMap<Integer, List<Object[]>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Object[]>> eldest) {
+                return size() > PagedTableModel.this.maxCachedPages;
+            }
+        };
+    }
+
+    /**
+     * Drop every loaded page and fetch the first one again
+     */
+    public void reload() {
+        generation++;
+        pages.clear();
+        pageCursors.clear();
+        pagesLoading.clear();
+        failedPages.clear();
+        rowCount = 0;
+        complete = false;
+        fireTableDataChanged();
+        loadPage(0);
+    }
+
+    /**
+     * Whether the last page has been reached
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Row data if the row's page is in memory, null otherwise
+     */
+    public Object[] getRowData(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        List<Object[]> data = pages.get(row / pageSize);
+        int index = row % pageSize;
+        return data != null && index < data.size() ? data.get(index) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        if (columnTypes != null && columnIndex < columnTypes.length) {
+            return columnTypes[columnIndex];
+        }
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        // Prefetch the next page when the user gets close to the end
+        if (!complete && row >= rowCount - pageSize / 2) {
+            loadPage(pageCursors.size());
+        }
+
+        Object[] data = getRowData(row);
+        if (data == null) {
+            // Page evicted: reload it from its cursor, render empty meanwhile
+            loadPage(row / pageSize);
+            return null;
+        }
+        return column < data.length ? data[column] : null;
+    }
+
+    private void loadPage(int page) {
+        if (pagesLoading.contains(page) || page > pageCursors.size()
+                || (page == pageCursors.size() && complete)) {
+            return;
+        }
+        // Every repaint asks for missing pages: do not rerun a failing query on each one
+        Long retryAt = failedPages.get(page);
+        if (retryAt != null && System.currentTimeMillis() < retryAt) {
+            return;
+        }
+
+        final T after = page == 0 ? null : pageCursors.get(page - 1);
+        final int requestGeneration = generation;
+        pagesLoading.add(page);
+
+        new SwingWorker<List<Object[]>, Void>() {
+            private T last;
+            private int fetched;
+
+            @Override
+            protected List<Object[]> doInBackground() throws Exception {
+                List<T> items = loader.loadPage(after, pageSize);
+                List<Object[]> rows = new ArrayList<>(items.size());
+                for (T item : items) {
+                    rows.add(converter.toRow(item));
+                }
+                fetched = items.size();
+                last = items.isEmpty() ? null : items.get(items.size() - 1);
+                return rows;
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) {
+                    return; // Model reloaded in the meantime
+                }
+                pagesLoading.remove(page);
+
+                List<Object[]> rows;
+                try {
+                    rows = get();
+                } catch (Exception e) {
+                    // Reported once per failing page, retried after RETRY_DELAY_MS
+                    if (failedPages.put(page, System.currentTimeMillis() + RETRY_DELAY_MS) == null) {
+                        System.err.println("Error loading page " + page + ": " + e.getMessage());
+                    }
+                    return;
+                }
+                failedPages.remove(page);
+
+                if (page == pageCursors.size()) {
+                    // New page appended at the end
+                    if (last != null) {
+                        pageCursors.add(last);
+                    }
+                    if (fetched < pageSize) {
+                        complete = true;
+                    }
+                    if (!rows.isEmpty()) {
+                        pages.put(page, rows);
+                        int first = rowCount;
+                        rowCount += rows.size();
+                        fireTableRowsInserted(first, rowCount - 1);
+                    } else {
+                        fireTableDataChanged();
+                    }
+                } else {
+                    // Evicted page reloaded
+                    pages.put(page, rows);
+                    int first = page * pageSize;
+                    int lastRow = Math.min(rowCount, first + pageSize) - 1;
+                    if (lastRow >= first) {
+                        fireTableRowsUpdated(first, lastRow);
+                    }
+                }
+            }
+        }.execute();
+    }
+}
@@ -5,23 +5,42 @@
 package views.direction;
 
 
+import dao.AnneeScolaireDAO;
 import models.*;
 import services.*;
 import views.components.*;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
 
 
 public class DirectionDashboard extends JPanel {
     private Utilisateur currentUser;
     private ProgrammeService programmeService;
     private StatistiquesService statsService;
+    private AsyncServices asyncServices;
+    
+    // Délibération
+    private JComboBox<Programme> cmbDelibProgramme;
+    private JComboBox<AnneeScolaire> cmbDelibAnnee;
+    private JSpinner spnSeuilAdmis;
+    private JSpinner spnSeuilRedoublement;
+    private JCheckBox chkCompensation;
+    private DefaultTableModel scenariosModel;
+    private DefaultTableModel changementsModel;
+    private CustomTable tableScenarios;
+    private JLabel lblDelibInfo;
+    private SimulateurDeliberation simulateur;
+    private List<SimulateurDeliberation.Scenario> scenarios;
     
     public DirectionDashboard(Utilisateur user) {
         this.currentUser = user;
         this.programmeService = new ProgrammeService();
         this.statsService = new StatistiquesService();
+        this.asyncServices = new AsyncServices();
         initComponents();
     }
     
@@ -220,42 +239,264 @@ public class DirectionDashboard extends JPanel {
         panel.setBackground(new Color(236, 240, 241));
         panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
         
-        JLabel lblTitle = new JLabel("✅ Validation des Moyennes et Statuts");
+        JLabel lblTitle = new JLabel("✅ Délibération : Simulation et Validation des Statuts");
         lblTitle.setFont(new Font("Segoe UI", Font.BOLD, 18));
-        panel.add(lblTitle, BorderLayout.NORTH);
         
-        // Filtres
+        // Promotion
         JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         filterPanel.setBackground(Color.WHITE);
         
         filterPanel.add(new JLabel("Programme:"));
-        JComboBox<String> cmbProgramme = new JComboBox<>();
-        cmbProgramme.addItem("Tous");
-        filterPanel.add(cmbProgramme);
+        cmbDelibProgramme = new JComboBox<>();
+        filterPanel.add(cmbDelibProgramme);
         
         filterPanel.add(new JLabel("Année:"));
-        JComboBox<String> cmbAnnee = new JComboBox<>();
-        cmbAnnee.addItem("2025/2026");
-        filterPanel.add(cmbAnnee);
+        cmbDelibAnnee = new JComboBox<>();
+        filterPanel.add(cmbDelibAnnee);
+        
+        // Notes de matières recalculées depuis les épreuves avant de délibérer
+        JButton btnRecalculer = new JButton("🧮 Recalculer la promotion");
+        btnRecalculer.setFocusPainted(false);
+        btnRecalculer.addActionListener(e -> recalculerPromotion(btnRecalculer));
+        filterPanel.add(btnRecalculer);
+        
+        JButton btnCharger = new JButton("🔄 Charger");
+        btnCharger.setFocusPainted(false);
+        btnCharger.addActionListener(e -> chargerDeliberation());
+        filterPanel.add(btnCharger);
+        
+        // Règles du jury : chaque modification relance la simulation, en mémoire
+        JPanel reglesPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        reglesPanel.setBackground(Color.WHITE);
+        
+        reglesPanel.add(new JLabel("Admis ≥"));
+        spnSeuilAdmis = new JSpinner(new SpinnerNumberModel(10.0, 0.0, 20.0, 0.25));
+        reglesPanel.add(spnSeuilAdmis);
+        
+        reglesPanel.add(new JLabel("Redoublant ≥"));
+        spnSeuilRedoublement = new JSpinner(new SpinnerNumberModel(8.0, 0.0, 20.0, 0.25));
+        reglesPanel.add(spnSeuilRedoublement);
+        
+        chkCompensation = new JCheckBox("Compensation entre semestres", true);
+        chkCompensation.setOpaque(false);
+        reglesPanel.add(chkCompensation);
+        
+        spnSeuilAdmis.addChangeListener(e -> simulerDeliberation());
+        spnSeuilRedoublement.addChangeListener(e -> simulerDeliberation());
+        chkCompensation.addActionListener(e -> simulerDeliberation());
+        
+        JButton btnAppliquer = new JButton("✅ Appliquer le scénario sélectionné");
+        btnAppliquer.setBackground(new Color(46, 204, 113));
+        btnAppliquer.setForeground(Color.WHITE);
+        btnAppliquer.setFocusPainted(false);
+        btnAppliquer.addActionListener(e -> appliquerScenario());
+        reglesPanel.add(btnAppliquer);
+        
+        JPanel topPanel = new JPanel(new GridLayout(3, 1, 0, 5));
+        topPanel.setOpaque(false);
+        topPanel.add(lblTitle);
+        topPanel.add(filterPanel);
+        topPanel.add(reglesPanel);
+        panel.add(topPanel, BorderLayout.NORTH);
         
-        JButton btnValider = new JButton("✅ Valider Tout");
-        btnValider.setBackground(new Color(46, 204, 113));
-        btnValider.setForeground(Color.WHITE);
-        btnValider.setFocusPainted(false);
-        filterPanel.add(btnValider);
+        // Scénarios comparés et étudiants dont le statut change
+        String[] colScenarios = {"Scénario", "Admis", "Redoublants", "Exclus", "Taux Réussite", "Changements"};
+        scenariosModel = new DefaultTableModel(colScenarios, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        tableScenarios = new CustomTable(scenariosModel);
+        tableScenarios.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tableScenarios.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                afficherChangements();
+            }
+        });
         
-        panel.add(filterPanel, BorderLayout.NORTH);
+        String[] colChangements = {"Étudiant", "Moyenne", "Plus faible semestre", "Statut actuel", "Nouveau statut"};
+        changementsModel = new DefaultTableModel(colChangements, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
         
-        // Tableau
-        String[] columns = {"Étudiant", "Programme", "Moyenne", "Statut Calculé", "Valider"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0);
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+            new JScrollPane(tableScenarios), new JScrollPane(new CustomTable(changementsModel)));
+        split.setResizeWeight(0.3);
+        panel.add(split, BorderLayout.CENTER);
         
-        CustomTable table = new CustomTable(model);
-        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+        lblDelibInfo = new JLabel("Choisissez une promotion puis cliquez sur Charger");
+        lblDelibInfo.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+        panel.add(lblDelibInfo, BorderLayout.SOUTH);
+        
+        chargerPromotions();
         
         return panel;
     }
     
+    private void chargerPromotions() {
+        try {
+            for (Programme programme : programmeService.getTousProgrammes()) {
+                cmbDelibProgramme.addItem(programme);
+            }
+            AnneeScolaire active = null;
+            for (AnneeScolaire annee : new AnneeScolaireDAO().findAll()) {
+                cmbDelibAnnee.addItem(annee);
+                if (annee.isActive()) {
+                    active = annee;
+                }
+            }
+            if (active != null) {
+                cmbDelibAnnee.setSelectedItem(active);
+            }
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des promotions: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    /**
+     * Recalcule les notes de matières de la promotion (une requête agrégée, un batch),
+     * puis recharge la délibération sur les notes à jour
+     */
+    private void recalculerPromotion(JButton btnRecalculer) {
+        Programme programme = (Programme) cmbDelibProgramme.getSelectedItem();
+        AnneeScolaire annee = (AnneeScolaire) cmbDelibAnnee.getSelectedItem();
+        if (programme == null || annee == null) {
+            return;
+        }
+        btnRecalculer.setEnabled(false);
+        lblDelibInfo.setText("Recalcul des notes de matières de la promotion...");
+        AsyncServices.onEdt(asyncServices.recalculerPromotion(programme.getIdProgramme(), annee.getIdAnnee()),
+            rapport -> {
+                btnRecalculer.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Notes de matières recalculées : " + rapport,
+                    "Délibération", JOptionPane.INFORMATION_MESSAGE);
+                chargerDeliberation();
+            },
+            erreur -> {
+                btnRecalculer.setEnabled(true);
+                lblDelibInfo.setText(" ");
+                JOptionPane.showMessageDialog(this,
+                    "Erreur lors du recalcul de la promotion: " + erreur.getMessage(),
+                    "Erreur", JOptionPane.ERROR_MESSAGE);
+            });
+    }
+    
+    /**
+     * Lit la promotion une fois ; les simulations suivantes ne touchent plus la base
+     */
+    private void chargerDeliberation() {
+        Programme programme = (Programme) cmbDelibProgramme.getSelectedItem();
+        AnneeScolaire annee = (AnneeScolaire) cmbDelibAnnee.getSelectedItem();
+        if (programme == null || annee == null) {
+            return;
+        }
+        lblDelibInfo.setText("Chargement de la promotion...");
+        AsyncServices.onEdt(asyncServices.chargerDeliberation(programme.getIdProgramme(), annee.getIdAnnee()),
+            charge -> {
+                simulateur = charge;
+                simulerDeliberation();
+            },
+            erreur -> {
+                lblDelibInfo.setText(" ");
+                JOptionPane.showMessageDialog(this,
+                    "Erreur lors du chargement de la promotion: " + erreur.getMessage(),
+                    "Erreur", JOptionPane.ERROR_MESSAGE);
+            });
+    }
+    
+    /**
+     * Compare les règles actuelles, les mêmes sans compensation et les règles saisies
+     */
+    private void simulerDeliberation() {
+        if (simulateur == null) {
+            return;
+        }
+        float seuilAdmis = ((Number) spnSeuilAdmis.getValue()).floatValue();
+        float seuilRedoublement = ((Number) spnSeuilRedoublement.getValue()).floatValue();
+        if (seuilRedoublement > seuilAdmis) {
+            lblDelibInfo.setText("⚠️ Le seuil de redoublement ne peut pas dépasser le seuil d'admission");
+            return;
+        }
+        
+        ReglesDeliberation standard = ReglesDeliberation.standard();
+        List<ReglesDeliberation> jeux = Arrays.asList(
+            standard,
+            new ReglesDeliberation("Sans compensation", standard.getSeuilAdmis(),
+                standard.getSeuilRedoublement(), false),
+            new ReglesDeliberation("Scénario du jury", seuilAdmis, seuilRedoublement,
+                chkCompensation.isSelected()));
+        
+        int selection = Math.max(tableScenarios.getSelectedRow(), 0);
+        scenarios = simulateur.simuler(jeux);
+        scenariosModel.setRowCount(0);
+        long duree = 0;
+        for (SimulateurDeliberation.Scenario scenario : scenarios) {
+            scenariosModel.addRow(new Object[]{
+                scenario.getRegles(),
+                scenario.getNbAdmis(),
+                scenario.getNbRedoublants(),
+                scenario.getNbExclus(),
+                String.format("%.1f%%", scenario.getTauxReussite()),
+                scenario.getNbChangements()
+            });
+            duree = Math.max(duree, scenario.getDureeCalculMicros());
+        }
+        tableScenarios.setRowSelectionInterval(selection, selection);
+        lblDelibInfo.setText(String.format("%d étudiants, %d scénarios évalués en mémoire (%d µs)",
+            simulateur.getNbEtudiants(), scenarios.size(), duree));
+    }
+    
+    private void afficherChangements() {
+        changementsModel.setRowCount(0);
+        int ligne = tableScenarios.getSelectedRow();
+        if (scenarios == null || ligne < 0 || ligne >= scenarios.size()) {
+            return;
+        }
+        for (SimulateurDeliberation.Changement changement : scenarios.get(ligne).getChangements()) {
+            changementsModel.addRow(new Object[]{
+                changement.getEtudiant(),
+                String.format("%.2f", changement.getMoyenne()),
+                Float.isNaN(changement.getMinSemestre()) ? "-" : String.format("%.2f", changement.getMinSemestre()),
+                changement.getAncienStatut(),
+                changement.getNouveauStatut()
+            });
+        }
+    }
+    
+    /**
+     * Enregistre les statuts du scénario sélectionné, en un seul batch
+     */
+    private void appliquerScenario() {
+        int ligne = tableScenarios.getSelectedRow();
+        if (simulateur == null || scenarios == null || ligne < 0 || ligne >= scenarios.size()) {
+            JOptionPane.showMessageDialog(this, "Simulez puis sélectionnez un scénario",
+                "Délibération", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        SimulateurDeliberation.Scenario scenario = scenarios.get(ligne);
+        if (!ConfirmDialog.show(this, "Délibération",
+                String.format("Appliquer « %s » à %d étudiants (%d changements de statut) ?",
+                    scenario.getRegles(), simulateur.getNbEtudiants(), scenario.getNbChangements()))) {
+            return;
+        }
+        SimulateurDeliberation cible = simulateur;
+        AsyncServices.onEdt(AsyncServices.submit(() -> cible.appliquer(scenario)),
+            nb -> {
+                JOptionPane.showMessageDialog(this, nb + " inscriptions mises à jour",
+                    "Délibération", JOptionPane.INFORMATION_MESSAGE);
+                chargerDeliberation();
+            },
+            erreur -> JOptionPane.showMessageDialog(this,
+                "Erreur lors de l'application: " + erreur.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE));
+    }
+    
     private JPanel createStatistiquesPanel() {
         JPanel panel = new JPanel(new GridLayout(2, 1, 10, 10));
         panel.setBackground(new Color(236, 240, 241));
@@ -36,6 +36,9 @@ public class EnseignantDashboard extends JPanel {
     private JTable notesTable;
     private Epreuve selectedEpreuve;
     
+    // Avancement de la saisie par épreuve, chargé une fois à l'ouverture
+    private List<NoteEpreuveDAO.AvancementSaisie> avancementSaisie = new java.util.ArrayList<>();
+    
     public EnseignantDashboard(Utilisateur user) {
         this.currentUser = user;
         this.enseignantDAO = new EnseignantDAO();
@@ -51,6 +54,9 @@ public class EnseignantDashboard extends JPanel {
     private void loadEnseignantData() {
         try {
             enseignant = enseignantDAO.findById(currentUser.getIdEnseignant());
+            if (enseignant != null) {
+                avancementSaisie = noteEpreuveDAO.findAvancementSaisie(enseignant.getIdEnseignant());
+            }
         } catch (SQLException e) {
             JOptionPane.showMessageDialog(this, 
                 "Erreur: " + e.getMessage(), "Erreur", JOptionPane.ERROR_MESSAGE);
@@ -109,7 +115,10 @@ public class EnseignantDashboard extends JPanel {
         
         try {
             int nbEpreuves = epreuveDAO.countByEnseignant(enseignant.getIdEnseignant());
-            int nbNotesASaisir = noteEpreuveDAO.countNotesManquantes(enseignant.getIdEnseignant());
+            int nbNotesASaisir = 0;
+            for (NoteEpreuveDAO.AvancementSaisie avancement : avancementSaisie) {
+                nbNotesASaisir += avancement.getNbManquantes();
+            }
             int nbMatieresEnseigne = epreuveDAO.countMatieresEnseignees(enseignant.getIdEnseignant());
             
             statsPanel.add(createStatCard("Épreuves créées", String.valueOf(nbEpreuves), 
@@ -179,19 +188,34 @@ public class EnseignantDashboard extends JPanel {
             BorderFactory.createEmptyBorder(15, 15, 15, 15)
         ));
         
-        JLabel lblTitle = new JLabel("📅 Prochaines Épreuves");
+        JLabel lblTitle = new JLabel("📅 Épreuves et notes à saisir");
         lblTitle.setFont(new Font("Segoe UI", Font.BOLD, 14));
         panel.add(lblTitle, BorderLayout.NORTH);
         
-        // Liste des épreuves à venir
-        JTextArea txtEpreuves = new JTextArea();
-        txtEpreuves.setEditable(false);
-        txtEpreuves.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        txtEpreuves.setText("- Examen Final - Algorithmique (20/11/2025)\n" +
-                           "- Contrôle 2 - Base de Données (25/11/2025)\n" +
-                           "- TP Noté - Réseaux (28/11/2025)");
+        // Avancement de la saisie, épreuve par épreuve
+        String[] columns = {"Épreuve", "Matière", "Date", "Saisies", "Manquantes"};
+        DefaultTableModel model = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        
+        java.time.format.DateTimeFormatter format = java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        for (NoteEpreuveDAO.AvancementSaisie avancement : avancementSaisie) {
+            model.addRow(new Object[]{
+                avancement.getTypeEpreuve() + (avancement.getIntitule() != null 
+                    ? " - " + avancement.getIntitule() : ""),
+                avancement.getMatiereName(),
+                avancement.getDateEpreuve() != null ? avancement.getDateEpreuve().format(format) : "",
+                avancement.getNbNotes() + " / " + avancement.getNbInscrits(),
+                avancement.getNbManquantes()
+            });
+        }
         
-        panel.add(new JScrollPane(txtEpreuves), BorderLayout.CENTER);
+        JTable table = new JTable(model);
+        table.setRowHeight(25);
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
         
         return panel;
     }
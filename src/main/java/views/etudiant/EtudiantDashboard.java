@@ -12,6 +12,7 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Dashboard pour les étudiants
@@ -22,12 +23,12 @@ public class EtudiantDashboard extends JPanel {
     private Etudiant etudiant;
     private JTabbedPane tabbedPane;
     private EtudiantDAO etudiantDAO;
-    private NoteService noteService;
+    private AsyncServices asyncServices;
     
     public EtudiantDashboard(Utilisateur user) {
         this.currentUser = user;
         this.etudiantDAO = new EtudiantDAO();
-        this.noteService = new NoteService();
+        this.asyncServices = new AsyncServices();
         
         loadEtudiantData();
         initComponents();
@@ -95,23 +96,37 @@ public class EtudiantDashboard extends JPanel {
         JPanel statsPanel = new JPanel(new GridLayout(1, 3, 15, 0));
         statsPanel.setOpaque(false);
         
-        try {
-            double moyenneGenerale = noteService.getMoyenneGenerale(etudiant.getIdEtudiant(), 2); // Année active
-            String statut = noteService.getStatut(etudiant.getIdEtudiant(), 2);
-            int nbMatieresValidees = noteService.countMatieresValidees(etudiant.getIdEtudiant(), 2);
+        // Cartes provisoires, remplacées dès que les trois requêtes (lancées en parallèle) ont répondu
+        statsPanel.add(createStatCard("Moyenne Générale", "…", Color.GRAY));
+        statsPanel.add(createStatCard("Statut", "…", Color.GRAY));
+        statsPanel.add(createStatCard("Matières Validées", "…", Color.GRAY));
+        
+        if (etudiant != null) {
+            int idEtudiant = etudiant.getIdEtudiant();
+            CompletableFuture<Double> moyenne = asyncServices.getMoyenneGenerale(idEtudiant, 2); // Année active
+            CompletableFuture<String> statut = asyncServices.getStatut(idEtudiant, 2);
+            CompletableFuture<Integer> nbValidees = asyncServices.countMatieresValidees(idEtudiant, 2);
             
-            statsPanel.add(createStatCard("Moyenne Générale", 
-                String.format("%.2f/20", moyenneGenerale), 
-                new Color(52, 152, 219)));
-            statsPanel.add(createStatCard("Statut", statut, getStatutColor(statut)));
-            statsPanel.add(createStatCard("Matières Validées", 
-                String.valueOf(nbMatieresValidees), 
-                new Color(46, 204, 113)));
-        } catch (Exception e) {
-            // Valeurs par défaut si erreur
-            statsPanel.add(createStatCard("Moyenne Générale", "N/A", Color.GRAY));
-            statsPanel.add(createStatCard("Statut", "N/A", Color.GRAY));
-            statsPanel.add(createStatCard("Matières Validées", "0", Color.GRAY));
+            AsyncServices.onEdt(CompletableFuture.allOf(moyenne, statut, nbValidees), ignored -> {
+                statsPanel.removeAll();
+                statsPanel.add(createStatCard("Moyenne Générale", 
+                    String.format("%.2f/20", moyenne.join()), 
+                    new Color(52, 152, 219)));
+                statsPanel.add(createStatCard("Statut", statut.join(), getStatutColor(statut.join())));
+                statsPanel.add(createStatCard("Matières Validées", 
+                    String.valueOf(nbValidees.join()), 
+                    new Color(46, 204, 113)));
+                statsPanel.revalidate();
+                statsPanel.repaint();
+            }, e -> {
+                // Valeurs par défaut si erreur
+                statsPanel.removeAll();
+                statsPanel.add(createStatCard("Moyenne Générale", "N/A", Color.GRAY));
+                statsPanel.add(createStatCard("Statut", "N/A", Color.GRAY));
+                statsPanel.add(createStatCard("Matières Validées", "0", Color.GRAY));
+                statsPanel.revalidate();
+                statsPanel.repaint();
+            });
         }
         
         panel.add(statsPanel, BorderLayout.EAST);
@@ -216,22 +231,21 @@ public class EtudiantDashboard extends JPanel {
             }
         };
         
-        // Charger les notes
-        try {
-            List<NoteEpreuve> notes = noteService.getNotesEtudiant(etudiant.getIdEtudiant(), 2);
-            for (NoteEpreuve note : notes) {
-                model.addRow(new Object[]{
-                    note.getMatiereName(),
-                    note.getTypeEpreuve(),
-                    String.format("%.2f/20", note.getNote()),
-                    note.getCoefficient(),
-                    note.getDateEpreuve(),
-                    note.getEnseignantName()
-                });
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, 
-                "Erreur lors du chargement des notes: " + e.getMessage());
+        // Charger les notes hors de l'EDT
+        if (etudiant != null) {
+            AsyncServices.onEdt(asyncServices.getNotesEtudiant(etudiant.getIdEtudiant(), 2), notes -> {
+                for (NoteEpreuve note : notes) {
+                    model.addRow(new Object[]{
+                        note.getMatiereName(),
+                        note.getTypeEpreuve(),
+                        String.format("%.2f/20", note.getNote()),
+                        note.getCoefficient(),
+                        note.getDateEpreuve(),
+                        note.getEnseignantName()
+                    });
+                }
+            }, e -> JOptionPane.showMessageDialog(this, 
+                "Erreur lors du chargement des notes: " + e.getMessage()));
         }
         
         JTable table = new JTable(model);
@@ -351,8 +365,9 @@ public class EtudiantDashboard extends JPanel {
                 services.BulletinPDFService pdfService = new services.BulletinPDFService();
                 
                 // Récupérer les données du bulletin
+                // Programme de l'inscription de l'étudiant pour l'année active
                 BulletinService.BulletinData bulletinData = bulletinService.genererBulletin(
-                    etudiant.getIdEtudiant(), 1, 2); // Programme et année par défaut
+                    etudiant.getIdEtudiant(), 2);
                 
                 // Générer le PDF
                 return pdfService.generateBulletinPDF(bulletinData, 
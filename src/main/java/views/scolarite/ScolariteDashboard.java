@@ -9,16 +9,21 @@ import java.awt.*;
 import models.Utilisateur;
 
 
+import dao.AnneeScolaireDAO;
 import models.*;
 import services.*;
 import views.components.*;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.io.File;
+import java.sql.SQLException;
+import java.util.List;
 
 public class ScolariteDashboard extends JPanel {
     private Utilisateur currentUser;
     private EtudiantService etudiantService;
+    private String rechercheEtudiant = "";
     
     public ScolariteDashboard(Utilisateur user) {
         this.currentUser = user;
@@ -36,6 +41,7 @@ public class ScolariteDashboard extends JPanel {
         tabbedPane.addTab("🏠 Accueil", createAccueilPanel());
         tabbedPane.addTab("👨‍🎓 Étudiants", createEtudiantsPanel());
         tabbedPane.addTab("📝 Inscriptions", createInscriptionsPanel());
+        tabbedPane.addTab("📄 Bulletins", createBulletinsPanel());
         
         add(tabbedPane, BorderLayout.CENTER);
     }
@@ -93,16 +99,154 @@ public class ScolariteDashboard extends JPanel {
         
         panel.add(topPanel, BorderLayout.NORTH);
         
-        // Tableau
-        String[] columns = {"Nom", "Prénom", "Origine", "Email", "Programme", "Actions"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0);
+        // Tableau paginé : les étudiants sont chargés par pages au fil du défilement
+        String[] columns = {"Nom", "Prénom", "Origine", "Email"};
+        Class<?>[] types = {String.class, String.class, String.class, String.class};
+        PagedTableModel<Etudiant> model = new PagedTableModel<>(columns, types,
+            this::chargerPageEtudiants,
+            e -> new Object[]{e.getNom(), e.getPrenom(), e.getOrigineScolaire(), e.getEmail()});
         
-        CustomTable table = new CustomTable(model);
-        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+        searchBar.setSearchListener(new ModernSearchBar.SearchListener() {
+            @Override
+            public void onSearchChanged(String searchTerm) {
+                rechercheEtudiant = searchTerm == null ? "" : searchTerm.trim();
+                model.reload();
+            }
+            
+            @Override
+            public void onSearchCleared() {
+                rechercheEtudiant = "";
+                model.reload();
+            }
+        });
+        
+        ModernDataTable table = new ModernDataTable(columns, types);
+        table.setPagedModel(model);
+        model.reload();
+        panel.add(table, BorderLayout.CENTER);
+        
+        return panel;
+    }
+    
+    /**
+     * Page suivante de la liste des étudiants, ou résultats de la recherche en cours
+     */
+    private List<Etudiant> chargerPageEtudiants(Etudiant apres, int taille) throws SQLException {
+        String recherche = rechercheEtudiant;
+        if (recherche.isEmpty()) {
+            return etudiantService.listerEtudiantsPage(apres, taille);
+        }
+        // Recherche : résultats classés par pertinence, page après page
+        return etudiantService.rechercherEtudiantsPage(recherche, apres, taille);
+    }
+    
+    /**
+     * Génération en lot des bulletins d'une promotion (programme, année)
+     */
+    private JPanel createBulletinsPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBackground(new Color(236, 240, 241));
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        filterPanel.setBackground(Color.WHITE);
+        
+        filterPanel.add(new JLabel("Programme:"));
+        JComboBox<Programme> cmbProgramme = new JComboBox<>();
+        filterPanel.add(cmbProgramme);
+        
+        filterPanel.add(new JLabel("Année:"));
+        JComboBox<AnneeScolaire> cmbAnnee = new JComboBox<>();
+        filterPanel.add(cmbAnnee);
+        
+        filterPanel.add(new JLabel("Sortie:"));
+        JComboBox<BulletinBatchService.FormatSortie> cmbFormat =
+            new JComboBox<>(BulletinBatchService.FormatSortie.values());
+        cmbFormat.setSelectedItem(BulletinBatchService.FormatSortie.ZIP);
+        filterPanel.add(cmbFormat);
+        
+        JButton btnGenerer = new JButton("📄 Générer les bulletins (programme/année)");
+        btnGenerer.setBackground(new Color(52, 152, 219));
+        btnGenerer.setForeground(Color.WHITE);
+        btnGenerer.setFocusPainted(false);
+        btnGenerer.addActionListener(e -> genererBulletins(btnGenerer,
+            (Programme) cmbProgramme.getSelectedItem(), (AnneeScolaire) cmbAnnee.getSelectedItem(),
+            (BulletinBatchService.FormatSortie) cmbFormat.getSelectedItem()));
+        filterPanel.add(btnGenerer);
+        
+        panel.add(filterPanel, BorderLayout.NORTH);
+        
+        try {
+            for (Programme programme : new ProgrammeService().getTousProgrammes()) {
+                cmbProgramme.addItem(programme);
+            }
+            for (AnneeScolaire annee : new AnneeScolaireDAO().findAll()) {
+                cmbAnnee.addItem(annee);
+                if (annee.isActive()) {
+                    cmbAnnee.setSelectedItem(annee);
+                }
+            }
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(this,
+                "Erreur lors du chargement des promotions: " + e.getMessage(),
+                "Erreur", JOptionPane.ERROR_MESSAGE);
+        }
         
         return panel;
     }
     
+    /**
+     * Génère les bulletins de la promotion hors de l'EDT, avec suivi de la progression
+     */
+    private void genererBulletins(JButton btnGenerer, Programme programme, AnneeScolaire annee,
+                                  BulletinBatchService.FormatSortie format) {
+        if (programme == null || annee == null) {
+            return;
+        }
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Dossier de sortie des bulletins");
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File dossier = fileChooser.getSelectedFile();
+        
+        LoadingDialog progression = new LoadingDialog(
+            (Frame) SwingUtilities.getWindowAncestor(this),
+            "Chargement des bulletins de " + programme + "...");
+        progression.setVisible(true);
+        btnGenerer.setEnabled(false);
+        
+        BulletinBatchService.ProgressListener listener = (termines, total, parSeconde) ->
+            SwingUtilities.invokeLater(() -> progression.setProgression(termines, total,
+                String.format("%d / %d bulletins (%.1f bulletins/s)", termines, total, parSeconde)));
+        
+        AsyncServices.onEdt(AsyncServices.submit(() -> new BulletinBatchService().genererBulletinsPromotion(
+                programme.getIdProgramme(), annee.getIdAnnee(), dossier, format, listener)),
+            rapport -> {
+                progression.close();
+                btnGenerer.setEnabled(true);
+                String message = String.format(
+                    "%d/%d bulletins générés en %.1f s (%.1f bulletins/s)\nSortie : %s",
+                    rapport.getNbGeneres(), rapport.getNbBulletins(), rapport.getDureeTotaleMs() / 1000.0,
+                    rapport.getBulletinsParSeconde(), rapport.getCheminSortie());
+                if (rapport.getNbBulletins() == 0) {
+                    message = "Aucun inscrit pour cette promotion";
+                } else if (!rapport.getErreurs().isEmpty()) {
+                    message += "\n" + rapport.getErreurs().size() + " erreurs, dont : " + rapport.getErreurs().get(0);
+                }
+                JOptionPane.showMessageDialog(this, message, "Bulletins",
+                    rapport.getErreurs().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+            },
+            erreur -> {
+                progression.close();
+                btnGenerer.setEnabled(true);
+                JOptionPane.showMessageDialog(this,
+                    "Erreur lors de la génération des bulletins: " + erreur.getMessage(),
+                    "Erreur", JOptionPane.ERROR_MESSAGE);
+            });
+    }
+    
     private JPanel createInscriptionsPanel() {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(new Color(236, 240, 241));